@@ -15,6 +15,8 @@
  ******************************************************************************/
 package fr.inria.oak.paxquery.algebra.operators.binary;
 
+import java.util.Arrays;
+
 import fr.inria.oak.paxquery.algebra.operators.BaseLogicalOperator;
 import fr.inria.oak.paxquery.common.aggregation.AggregationType;
 import fr.inria.oak.paxquery.common.datamodel.metadata.MetadataTypes;
@@ -25,15 +27,15 @@ import fr.inria.oak.paxquery.common.predicates.BasePredicate;
 
 
 /**
- * Left outer nested join operator, that includes aggregation on a column of the right input.
+ * Left outer nested join operator, that includes aggregation on one or more columns of the right input.
  * The nested field may be projected after computing the aggregation if not needed (semi-join).
  *
  */
 public class LeftOuterNestedJoinWithAggregation extends LeftOuterNestedJoin {
 
-	private int aggregationColumn;
+	private int[] aggregationColumns;
 
-	private final AggregationType aggregationType;
+	private final AggregationType[] aggregationTypes;
 	
 	private boolean excludeNestedField;
 	
@@ -41,10 +43,21 @@ public class LeftOuterNestedJoinWithAggregation extends LeftOuterNestedJoin {
 	public LeftOuterNestedJoinWithAggregation(BaseLogicalOperator left, BaseLogicalOperator right, BasePredicate pred,
 			int documentIDColumn, int[] nodeIDColumns, int aggregationColumn, AggregationType aggregationType,
 			boolean excludeNestedField) throws PAXQueryExecutionException {
+		this(left, right, pred, documentIDColumn, nodeIDColumns, new int[] {aggregationColumn},
+				new AggregationType[] {aggregationType}, excludeNestedField);
+	}
+
+	/**
+	 * Aggregates several columns of the right input while building each nested group;
+	 * one output column is appended per entry of aggregationColumns, in the same order.
+	 */
+	public LeftOuterNestedJoinWithAggregation(BaseLogicalOperator left, BaseLogicalOperator right, BasePredicate pred,
+			int documentIDColumn, int[] nodeIDColumns, int[] aggregationColumns, AggregationType[] aggregationTypes,
+			boolean excludeNestedField) throws PAXQueryExecutionException {
 		super(left,right,pred, documentIDColumn, nodeIDColumns);
     this.ownName = "LeftOuterNestedJoinWithAggregation";
-		this.aggregationColumn = aggregationColumn;
-		this.aggregationType = aggregationType;
+		this.aggregationColumns = aggregationColumns;
+		this.aggregationTypes = aggregationTypes;
 		this.excludeNestedField = excludeNestedField;
 	}
 
@@ -58,23 +71,23 @@ public class LeftOuterNestedJoinWithAggregation extends LeftOuterNestedJoin {
 			this.nestedMetadata = NestedMetadataUtils.makeProjectRSMD(this.nestedMetadata, keepColumns);
 		}
 		
-		MetadataTypes[] attScanMeta = new MetadataTypes[1];
-		attScanMeta[0] = MetadataTypes.STRING_TYPE;
-		NestedMetadata aggregationColumnNRSMD = new NestedMetadata(1,attScanMeta);
+		MetadataTypes[] attScanMeta = new MetadataTypes[this.aggregationColumns.length];
+		Arrays.fill(attScanMeta, MetadataTypes.STRING_TYPE);
+		NestedMetadata aggregationColumnNRSMD = new NestedMetadata(attScanMeta.length,attScanMeta);
 		this.nestedMetadata = NestedMetadataUtils.appendNRSMD(this.nestedMetadata, aggregationColumnNRSMD);
 	}
 
 	
-	public int getAggregationColumn() {
-		return this.aggregationColumn;
+	public int[] getAggregationColumns() {
+		return this.aggregationColumns;
 	}
 
-  public void setAggregationColumn(int aggregationColumn) {
-    this.aggregationColumn = aggregationColumn;
-  }
+	public void setAggregationColumns(int[] aggregationColumns) {
+		this.aggregationColumns = aggregationColumns;
+	}
 
-	public AggregationType getAggregationType() {
-		return this.aggregationType;
+	public AggregationType[] getAggregationTypes() {
+		return this.aggregationTypes;
 	}
 
 	public boolean isExcludeNestedField() {
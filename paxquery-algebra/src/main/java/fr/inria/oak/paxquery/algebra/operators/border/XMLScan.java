@@ -41,6 +41,8 @@ public class XMLScan extends BaseLeafOperator {
 	
 	private boolean attachDocumentID;
 	
+	private String recordElement;	//element on which the documents are split, if any
+	
 	
 	public XMLScan(boolean attachDocumentID, String pathDocuments) throws PAXQueryExecutionException {
 		this.ownName = "XMLCollectionParse";
@@ -93,6 +95,14 @@ public class XMLScan extends BaseLeafOperator {
 	public boolean isAttachDocumentID() {
 		return this.attachDocumentID;
 	}
+	
+	public void setRecordElement(String recordElement) {
+		this.recordElement = recordElement;
+	}
+	
+	public String getRecordElement() {
+		return this.recordElement;
+	}
 
 	@Override
 	public String getName() {
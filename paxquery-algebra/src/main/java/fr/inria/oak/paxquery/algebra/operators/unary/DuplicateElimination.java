@@ -26,6 +26,11 @@ public class DuplicateElimination extends BaseUnaryOperator {
 
   private int[] columns;
 
+  /**
+   * Expected number of distinct records, or -1 if it is not known.
+   */
+  private long expectedGroups = -1;
+
 
   public DuplicateElimination(BaseLogicalOperator child, int[] columns)
           throws PAXQueryExecutionException {
@@ -45,6 +50,20 @@ public class DuplicateElimination extends BaseUnaryOperator {
     this.columns = columns;
   }
 
+  public long getExpectedGroups() {
+    return expectedGroups;
+  }
+
+  /**
+   * Hints the number of distinct records that the operator keeps, which the translation uses to
+   * choose how the duplicates are found.
+   *
+   * @param expectedGroups the expected number of distinct records, or -1 if it is not known
+   */
+  public void setExpectedGroups(long expectedGroups) {
+    this.expectedGroups = expectedGroups;
+  }
+
   @Override
   public void buildNRSMD() {
     for (BaseLogicalOperator op : children)
@@ -37,6 +37,11 @@ public class GroupBy extends BaseUnaryOperator {
 
 	private int[] nestColumns;
 
+	/**
+	 * Expected number of groups, or -1 if it is not known.
+	 */
+	private long expectedGroups = -1;
+
 	/**
 	 * 
 	 * @param child
@@ -103,6 +108,21 @@ public class GroupBy extends BaseUnaryOperator {
 		this.nestColumns = nestColumns;
 	}
 
+	public long getExpectedGroups() {
+		return this.expectedGroups;
+	}
+
+	/**
+	 * Hints the number of groups that the operator produces, which the translation uses to choose
+	 * how the records are grouped.
+	 * 
+	 * @param expectedGroups
+	 *            the expected number of groups, or -1 if it is not known
+	 */
+	public void setExpectedGroups(long expectedGroups) {
+		this.expectedGroups = expectedGroups;
+	}
+
 	public void buildOwnDetails() {
 		StringBuffer sb = new StringBuffer();
 		sb.append("[");
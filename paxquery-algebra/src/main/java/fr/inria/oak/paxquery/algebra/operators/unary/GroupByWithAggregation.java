@@ -15,6 +15,8 @@
  ******************************************************************************/
 package fr.inria.oak.paxquery.algebra.operators.unary;
 
+import java.util.Arrays;
+
 import fr.inria.oak.paxquery.algebra.operators.BaseLogicalOperator;
 import fr.inria.oak.paxquery.common.aggregation.AggregationType;
 import fr.inria.oak.paxquery.common.datamodel.metadata.MetadataTypes;
@@ -29,9 +31,9 @@ import fr.inria.oak.paxquery.common.exception.PAXQueryExecutionException;
  */
 public class GroupByWithAggregation extends GroupBy {
 
-	private int aggregationColumn;
+	private int[] aggregationColumns;
 
-	private final AggregationType aggregationType;
+	private final AggregationType[] aggregationTypes;
 	
 	private boolean excludeNestedField;
 	
@@ -40,10 +42,24 @@ public class GroupByWithAggregation extends GroupBy {
 			int[] groupByColumns, int[] nestColumns,
 			int aggregationColumn, AggregationType aggregationType, 
 			boolean excludeNestedField) throws PAXQueryExecutionException {
+		this(child, reduceByColumns, groupByColumns, nestColumns,
+				new int[] {aggregationColumn}, new AggregationType[] {aggregationType},
+				excludeNestedField);
+	}
+
+	/**
+	 * Computes several aggregates over the nested field in the same pass; the i-th
+	 * aggregate is applied on aggregationColumns[i] and produces one output column,
+	 * appended after the nested field in the same order.
+	 */
+	public GroupByWithAggregation(BaseLogicalOperator child, int[] reduceByColumns,
+			int[] groupByColumns, int[] nestColumns,
+			int[] aggregationColumns, AggregationType[] aggregationTypes, 
+			boolean excludeNestedField) throws PAXQueryExecutionException {
 		super(child, reduceByColumns, groupByColumns, nestColumns);
     this.ownName = "GroupByWithAggregation";
-		this.aggregationColumn = aggregationColumn;
-		this.aggregationType = aggregationType;
+		this.aggregationColumns = aggregationColumns;
+		this.aggregationTypes = aggregationTypes;
 		this.excludeNestedField = excludeNestedField;
 	}
 	
@@ -57,23 +73,23 @@ public class GroupByWithAggregation extends GroupBy {
 			this.nestedMetadata = NestedMetadataUtils.makeProjectRSMD(this.nestedMetadata, keepColumns);
 		}
 		
-		MetadataTypes[] attScanMeta = new MetadataTypes[1];
-		attScanMeta[0] = MetadataTypes.STRING_TYPE;
-		NestedMetadata aggregationColumnNRSMD = new NestedMetadata(1,attScanMeta);
+		MetadataTypes[] attScanMeta = new MetadataTypes[this.aggregationColumns.length];
+		Arrays.fill(attScanMeta, MetadataTypes.STRING_TYPE);
+		NestedMetadata aggregationColumnNRSMD = new NestedMetadata(attScanMeta.length,attScanMeta);
 		this.nestedMetadata = NestedMetadataUtils.appendNRSMD(this.nestedMetadata, aggregationColumnNRSMD);
 	}
 	
 
-	public int getAggregationColumn() {
-		return this.aggregationColumn;
+	public int[] getAggregationColumns() {
+		return this.aggregationColumns;
 	}
 
-  public void setAggregationColumn(int aggregationColumn) {
-	  this.aggregationColumn = aggregationColumn;
-  }
+	public void setAggregationColumns(int[] aggregationColumns) {
+		this.aggregationColumns = aggregationColumns;
+	}
 
-	public AggregationType getAggregationType() {
-		return this.aggregationType;
+	public AggregationType[] getAggregationTypes() {
+		return this.aggregationTypes;
 	}
 	
 	public boolean isExcludeNestedField() {
@@ -24,6 +24,7 @@ import fr.inria.oak.paxquery.algebra.optimizer.rules.GroupByAggregationMerge;
 import fr.inria.oak.paxquery.algebra.optimizer.rules.Logical2Logical;
 import fr.inria.oak.paxquery.algebra.optimizer.rules.OuterNestedJoinAggregationMerge;
 import fr.inria.oak.paxquery.algebra.optimizer.rules.PushProjections;
+import fr.inria.oak.paxquery.algebra.optimizer.rules.TypeNumericValues;
 
 public class Optimizer {
 
@@ -35,11 +36,13 @@ public class Optimizer {
   //    Prune nested outer join //TODO
   //    Prune group-by //TODO
   // 3. Pushdown selections //TODO
+  // 4. Extract the values that are only used as numbers as typed columns
   public static final Optimizer INSTANCE = new Optimizer(
           CartesianProductSelectionMerge.INSTANCE,
           GroupByAggregationMerge.INSTANCE,
           OuterNestedJoinAggregationMerge.INSTANCE,
-          PushProjections.INSTANCE);
+          PushProjections.INSTANCE,
+          TypeNumericValues.INSTANCE);
 
   private final ArrayList<Logical2Logical> ruleList;
 
@@ -15,6 +15,8 @@
  ******************************************************************************/
 package fr.inria.oak.paxquery.algebra.optimizer.rules;
 
+import java.util.Arrays;
+
 import fr.inria.oak.paxquery.algebra.logicalplan.LogicalPlan;
 import fr.inria.oak.paxquery.algebra.operators.BaseLogicalOperator;
 import fr.inria.oak.paxquery.algebra.operators.binary.BaseBinaryOperator;
@@ -22,6 +24,7 @@ import fr.inria.oak.paxquery.algebra.operators.unary.Aggregation;
 import fr.inria.oak.paxquery.algebra.operators.unary.BaseUnaryOperator;
 import fr.inria.oak.paxquery.algebra.operators.unary.GroupBy;
 import fr.inria.oak.paxquery.algebra.operators.unary.GroupByWithAggregation;
+import fr.inria.oak.paxquery.common.aggregation.AggregationType;
 
 public final class GroupByAggregationMerge implements Logical2Logical {
 
@@ -37,7 +40,53 @@ public final class GroupByAggregationMerge implements Logical2Logical {
   }
 
   private static BaseLogicalOperator mergeGroupByAggregation(BaseLogicalOperator operator) {
+    boolean childMerged = false;
+    if (operator instanceof Aggregation &&
+            operator.getChildren().get(0) instanceof Aggregation) {
+      // Merge the aggregations below first, so that all the ones computed
+      // over the same nested field end up in a single group-by
+      mergeGroupByAggregation(operator.getChildren().get(0));
+      if (!(operator.getChildren().get(0) instanceof GroupByWithAggregation)) {
+        return operator;
+      }
+      childMerged = true;
+    }
+
     if (operator instanceof Aggregation &&
+            operator.getChildren().get(0) instanceof GroupByWithAggregation) {
+      final Aggregation aggregate = (Aggregation) operator;
+      final GroupByWithAggregation groupByAggregate =
+              (GroupByWithAggregation) operator.getChildren().get(0);
+
+      // The nested field sits right after the group-by columns
+      if (groupByAggregate.isExcludeNestedField() ||
+              aggregate.getAggregationPath().length != 2 ||
+              aggregate.getAggregationPath()[0] != groupByAggregate.getGroupByColumns().length) {
+        if (!childMerged) {
+          mergeGroupByAggregation(groupByAggregate);
+        }
+        return aggregate;
+      }
+
+      // The aggregation is done on the same nested field, we add it to
+      // the ones computed by the group-by (the path points inside the
+      // nested field, while the group-by aggregates columns of its input)
+      final int[] aggregationColumns = Arrays.copyOf(groupByAggregate.getAggregationColumns(),
+              groupByAggregate.getAggregationColumns().length + 1);
+      aggregationColumns[aggregationColumns.length - 1] =
+              groupByAggregate.getNestColumns()[aggregate.getAggregationPath()[1]];
+      final AggregationType[] aggregationTypes = Arrays.copyOf(groupByAggregate.getAggregationTypes(),
+              aggregationColumns.length);
+      aggregationTypes[aggregationTypes.length - 1] = aggregate.getAggregationType();
+      final GroupByWithAggregation newGroupByAggregate = new GroupByWithAggregation(
+              groupByAggregate.getChild(), groupByAggregate.getReduceByColumns(),
+              groupByAggregate.getGroupByColumns(), groupByAggregate.getNestColumns(),
+              aggregationColumns, aggregationTypes, false);
+      newGroupByAggregate.setExpectedGroups(groupByAggregate.getExpectedGroups());
+      groupByAggregate.getChild().setParent(newGroupByAggregate);
+      LogicalPlan.connect(aggregate.getParent(), newGroupByAggregate);
+      return newGroupByAggregate;
+    } else if (operator instanceof Aggregation &&
             operator.getChildren().get(0) instanceof GroupBy) {
       // We have a potential match
       final Aggregation aggregate = (Aggregation) operator;
@@ -64,11 +113,13 @@ public final class GroupByAggregationMerge implements Logical2Logical {
 
       // If the aggregation is done on the grouping field, we just
       // merge both operators
-      final BaseLogicalOperator newGroupByAggregate = new GroupByWithAggregation(
+      final GroupByWithAggregation newGroupByAggregate = new GroupByWithAggregation(
               groupBy.getChild(), groupBy.getReduceByColumns(),
               groupBy.getGroupByColumns(), groupBy.getNestColumns(),
-              aggregate.getAggregationPath()[1], aggregate.getAggregationType(), 
+              groupBy.getNestColumns()[aggregate.getAggregationPath()[1]],
+              aggregate.getAggregationType(), 
               false);
+      newGroupByAggregate.setExpectedGroups(groupBy.getExpectedGroups());
       // We finish linking below
       groupBy.getChild().setParent(newGroupByAggregate);
       // We link above
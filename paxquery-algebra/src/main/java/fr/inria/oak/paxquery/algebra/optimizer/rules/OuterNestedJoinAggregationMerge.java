@@ -15,6 +15,8 @@
  ******************************************************************************/
 package fr.inria.oak.paxquery.algebra.optimizer.rules;
 
+import java.util.Arrays;
+
 import fr.inria.oak.paxquery.algebra.logicalplan.LogicalPlan;
 import fr.inria.oak.paxquery.algebra.operators.BaseLogicalOperator;
 import fr.inria.oak.paxquery.algebra.operators.binary.BaseBinaryOperator;
@@ -22,6 +24,7 @@ import fr.inria.oak.paxquery.algebra.operators.binary.LeftOuterNestedJoin;
 import fr.inria.oak.paxquery.algebra.operators.binary.LeftOuterNestedJoinWithAggregation;
 import fr.inria.oak.paxquery.algebra.operators.unary.Aggregation;
 import fr.inria.oak.paxquery.algebra.operators.unary.BaseUnaryOperator;
+import fr.inria.oak.paxquery.common.aggregation.AggregationType;
 
 
 public final class OuterNestedJoinAggregationMerge implements Logical2Logical {
@@ -38,7 +41,55 @@ public final class OuterNestedJoinAggregationMerge implements Logical2Logical {
   }
 
   private static BaseLogicalOperator mergeOuterNestedJoinAggregation(BaseLogicalOperator operator) {
+    boolean childMerged = false;
+    if (operator instanceof Aggregation &&
+            operator.getChildren().get(0) instanceof Aggregation) {
+      // Stacked aggregations over the same nested field are folded one
+      // after the other into the join, starting from the lowest one
+      mergeOuterNestedJoinAggregation(operator.getChildren().get(0));
+      if (!(operator.getChildren().get(0) instanceof LeftOuterNestedJoinWithAggregation)) {
+        return operator;
+      }
+      childMerged = true;
+    }
+
     if (operator instanceof Aggregation &&
+            operator.getChildren().get(0) instanceof LeftOuterNestedJoinWithAggregation) {
+      final Aggregation aggregate = (Aggregation) operator;
+      final LeftOuterNestedJoinWithAggregation leftOuterNestedJoinAggregate =
+              (LeftOuterNestedJoinWithAggregation) operator.getChildren().get(0);
+      final int noColsLeftChild = leftOuterNestedJoinAggregate.getLeft().getNRSMD().getColNo();
+
+      if (leftOuterNestedJoinAggregate.isExcludeNestedField() ||
+              aggregate.getAggregationPath().length != 2 ||
+              aggregate.getAggregationPath()[0] != noColsLeftChild) {
+        if (!childMerged) {
+          for (BaseLogicalOperator child : leftOuterNestedJoinAggregate.getChildren()) {
+            mergeOuterNestedJoinAggregation(child);
+          }
+        }
+        return aggregate;
+      }
+
+      // Another aggregation on the nested field: the join computes it too
+      final int[] aggregationColumns = Arrays.copyOf(leftOuterNestedJoinAggregate.getAggregationColumns(),
+              leftOuterNestedJoinAggregate.getAggregationColumns().length + 1);
+      aggregationColumns[aggregationColumns.length - 1] = noColsLeftChild + aggregate.getAggregationPath()[1];
+      final AggregationType[] aggregationTypes = Arrays.copyOf(leftOuterNestedJoinAggregate.getAggregationTypes(),
+              aggregationColumns.length);
+      aggregationTypes[aggregationTypes.length - 1] = aggregate.getAggregationType();
+      final BaseLogicalOperator newLeftOuterNestedJoinAggregate =
+              new LeftOuterNestedJoinWithAggregation(leftOuterNestedJoinAggregate.getLeft(),
+                      leftOuterNestedJoinAggregate.getRight(), leftOuterNestedJoinAggregate.getPred(),
+                      leftOuterNestedJoinAggregate.getDocumentIDColumn(),
+                      leftOuterNestedJoinAggregate.getNodeIDColumns(),
+                      aggregationColumns, aggregationTypes, false);
+      for (BaseLogicalOperator child : leftOuterNestedJoinAggregate.getChildren()) {
+        child.setParent(newLeftOuterNestedJoinAggregate);
+      }
+      LogicalPlan.connect(aggregate.getParent(), newLeftOuterNestedJoinAggregate);
+      return newLeftOuterNestedJoinAggregate;
+    } else if (operator instanceof Aggregation &&
             operator.getChildren().get(0) instanceof LeftOuterNestedJoin) {
       // We have a potential match
       final Aggregation aggregate = (Aggregation) operator;
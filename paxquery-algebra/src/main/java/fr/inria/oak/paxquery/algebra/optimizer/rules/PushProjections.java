@@ -25,6 +25,7 @@ import org.apache.commons.logging.LogFactory;
 
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
+import com.google.common.primitives.Ints;
 
 import fr.inria.oak.paxquery.algebra.logicalplan.LogicalPlan;
 import fr.inria.oak.paxquery.algebra.operators.BaseLogicalOperator;
@@ -198,7 +199,8 @@ public final class PushProjections implements Logical2Logical {
           LeftOuterNestedJoin lonj = (LeftOuterNestedJoin) child;
           Set<Integer> cols = PushdownUtility.getPredicateColumns(lonj.getPred());
           final int nestedColumnPos = lonj instanceof LeftOuterNestedJoinWithAggregation ? numberColumns
-                  + lonj.getNRSMD().getColNo() - 2
+                  + lonj.getNRSMD().getColNo() - 1
+                  - ((LeftOuterNestedJoinWithAggregation) lonj).getAggregationColumns().length
                   : numberColumns + lonj.getNRSMD().getColNo() - 1;
           final ProjectColumn nestedColumn = new ProjectColumn(nestedColumnPos);
           for (ProjectColumn column : requiredColumns) {
@@ -267,8 +269,11 @@ public final class PushProjections implements Logical2Logical {
       for (int col : lonja.getNodeIDColumns()) {
         requiredColumns.add(new ProjectColumn(col));
       }
-      requiredColumns.add(new ProjectColumn(lonja.getAggregationColumn()));
-      final int leftNumberColumns = lonja.getNRSMD().getColNo() - 2;
+      for (int col : lonja.getAggregationColumns()) {
+        requiredColumns.add(new ProjectColumn(col));
+      }
+      final int leftNumberColumns = lonja.getNRSMD().getColNo() - 1
+              - lonja.getAggregationColumns().length;
       final int nestedField = leftNumberColumns;
       for (ProjectColumn column : columnsRequiredAbove) {
         if (column.pos < leftNumberColumns) {
@@ -347,7 +352,8 @@ public final class PushProjections implements Logical2Logical {
       for (int pos : gb.getReduceByColumns()) {
         requiredColumns.add(new ProjectColumn(pos));
       }
-      final int nestedColumnPos = aggregate ? op.getNRSMD().getColNo() - 2 : op.getNRSMD()
+      final int nestedColumnPos = aggregate ? op.getNRSMD().getColNo() - 1
+              - ((GroupByWithAggregation) gb).getAggregationColumns().length : op.getNRSMD()
               .getColNo() - 1;
       for (ProjectColumn column : columnsRequiredAbove) {
         if (column.pos == nestedColumnPos) {
@@ -367,8 +373,9 @@ public final class PushProjections implements Logical2Logical {
         }
       }
       if (aggregate) {
-        requiredColumns
-                .add(new ProjectColumn(((GroupByWithAggregation) gb).getAggregationColumn()));
+        for (int col : ((GroupByWithAggregation) gb).getAggregationColumns()) {
+          requiredColumns.add(new ProjectColumn(col));
+        }
       }
     } else if (op instanceof Selection) {
       // Selection
@@ -467,12 +474,11 @@ public final class PushProjections implements Logical2Logical {
       // Nested outer join
       LeftOuterNestedJoin lonj = (LeftOuterNestedJoin) op;
       final boolean aggregate = lonj instanceof LeftOuterNestedJoinWithAggregation;
-      final int aggregationCol = aggregate ? ((LeftOuterNestedJoinWithAggregation) lonj)
-              .getAggregationColumn() : -1;
+      final int[] aggregationCols = aggregate ? ((LeftOuterNestedJoinWithAggregation) lonj)
+              .getAggregationColumns() : new int[0];
       Set<Integer> cols = PushdownUtility.getPredicateColumns(lonj.getPred());
       final int numberColsLeftInput = lonj.getLeft().getNRSMD().getColNo();
-      final int nestedColumnPos = aggregate ? lonj.getNRSMD().getColNo() - 2 : lonj.getNRSMD()
-              .getColNo() - 1;
+      final int nestedColumnPos = lonj.getNRSMD().getColNo() - 1 - aggregationCols.length;
       final ProjectColumn nestedColumn = new ProjectColumn(nestedColumnPos);
       for (ProjectColumn column : columnsRequiredAbove) {
         if (column.pos == nestedColumnPos) {
@@ -486,13 +492,13 @@ public final class PushProjections implements Logical2Logical {
       for (ProjectColumn column : columnsRequiredBelow) {
         if (column.pos < numberColsLeftInput) {
           outputColumns.add(column.copy());
-        } else if (!cols.contains(column.pos) && aggregate ? column.pos != aggregationCol : true) {
+        } else if (!cols.contains(column.pos) && aggregate ? !Ints.contains(aggregationCols, column.pos) : true) {
           nestedColumn.nestedColumns.add(column.copy(column.pos - numberColsLeftInput));
         }
       }
       outputColumns.add(nestedColumn);
-      if (aggregate) {
-        outputColumns.add(new ProjectColumn(lonj.getNRSMD().getColNo() - 1));
+      for (int i = nestedColumnPos + 1; i < lonj.getNRSMD().getColNo(); i++) {
+        outputColumns.add(new ProjectColumn(i));
       }
     } else if (op instanceof BaseJoinOperator) {
       outputColumns.addAll(columnsRequiredBelow);
@@ -502,7 +508,8 @@ public final class PushProjections implements Logical2Logical {
       // Grouping with aggregation
       GroupBy gb = (GroupBy) op;
       final boolean aggregate = gb instanceof GroupByWithAggregation;
-      final int nestedColumnPos = aggregate ? gb.getNRSMD().getColNo() - 2 : gb.getNRSMD()
+      final int nestedColumnPos = aggregate ? gb.getNRSMD().getColNo() - 1
+              - ((GroupByWithAggregation) gb).getAggregationColumns().length : gb.getNRSMD()
               .getColNo() - 1;
       final ProjectColumn nestedColumn = new ProjectColumn(nestedColumnPos);
       for (ProjectColumn column : columnsRequiredAbove) {
@@ -521,8 +528,8 @@ public final class PushProjections implements Logical2Logical {
       for (int pos : gb.getReduceByColumns()) {
     	outputColumns.add(new ProjectColumn(pos));
       }
-      if (aggregate) {
-        outputColumns.add(new ProjectColumn(gb.getNRSMD().getColNo() - 1));
+      for (int i = nestedColumnPos + 1; i < gb.getNRSMD().getColNo(); i++) {
+        outputColumns.add(new ProjectColumn(i));
       }
     } else if (op instanceof Aggregation) {
       // Aggregation
@@ -586,7 +593,11 @@ public final class PushProjections implements Logical2Logical {
       lonj.setNodeIDColumns(newNodeIDColumns);
       if (op instanceof LeftOuterNestedJoinWithAggregation) {
         LeftOuterNestedJoinWithAggregation lonja = (LeftOuterNestedJoinWithAggregation) op;
-        lonja.setAggregationColumn(mappingColumns.get(lonja.getAggregationColumn()));
+        final int[] newAggregationColumns = new int[lonja.getAggregationColumns().length];
+        for (int i = 0; i < lonja.getAggregationColumns().length; i++) {
+          newAggregationColumns[i] = mappingColumns.get(lonja.getAggregationColumns()[i]);
+        }
+        lonja.setAggregationColumns(newAggregationColumns);
       }
     } else if (op instanceof BaseJoinOperator) {
       // Any other kind of join
@@ -623,7 +634,11 @@ public final class PushProjections implements Logical2Logical {
       gb.setReduceByColumns(newReduceByColumns);
       if (gb instanceof GroupByWithAggregation) {
         GroupByWithAggregation gba = (GroupByWithAggregation) gb;
-        gba.setAggregationColumn(mappingColumns.get(gba.getAggregationColumn()));
+        final int[] newAggregationColumns = new int[gba.getAggregationColumns().length];
+        for (int i = 0; i < gba.getAggregationColumns().length; i++) {
+          newAggregationColumns[i] = mappingColumns.get(gba.getAggregationColumns()[i]);
+        }
+        gba.setAggregationColumns(newAggregationColumns);
       }
     } else if (op instanceof Selection) {
       // Selection
@@ -0,0 +1,265 @@
+/*******************************************************************************
+ * Copyright (C) 2013, 2014, 2015 by Inria and Paris-Sud University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package fr.inria.oak.paxquery.algebra.optimizer.rules;
+
+import java.util.ArrayList;
+
+import fr.inria.oak.paxquery.algebra.operators.BaseLogicalOperator;
+import fr.inria.oak.paxquery.algebra.operators.binary.BaseBinaryOperator;
+import fr.inria.oak.paxquery.algebra.operators.binary.BaseJoinOperator;
+import fr.inria.oak.paxquery.algebra.operators.binary.CartesianProduct;
+import fr.inria.oak.paxquery.algebra.operators.binary.LeftOuterNestedJoin;
+import fr.inria.oak.paxquery.algebra.operators.border.XMLScan;
+import fr.inria.oak.paxquery.algebra.operators.unary.Aggregation;
+import fr.inria.oak.paxquery.algebra.operators.unary.GroupByWithAggregation;
+import fr.inria.oak.paxquery.algebra.operators.unary.Projection;
+import fr.inria.oak.paxquery.algebra.operators.unary.Selection;
+import fr.inria.oak.paxquery.common.aggregation.AggregationType;
+import fr.inria.oak.paxquery.common.datamodel.metadata.MetadataTypes;
+import fr.inria.oak.paxquery.common.datamodel.metadata.NestedMetadata;
+import fr.inria.oak.paxquery.common.predicates.BasePredicate;
+import fr.inria.oak.paxquery.common.predicates.BasePredicate.PredicateType;
+import fr.inria.oak.paxquery.common.predicates.ConjunctivePredicate;
+import fr.inria.oak.paxquery.common.predicates.DisjunctivePredicate;
+import fr.inria.oak.paxquery.common.predicates.SimplePredicate;
+import fr.inria.oak.paxquery.common.xml.navigation.NavigationTreePattern;
+import fr.inria.oak.paxquery.common.xml.navigation.NavigationTreePatternNode;
+
+/**
+ * This class marks the values extracted by the scans that are only used as numbers, so that they
+ * are parsed once while scanning, instead of at every operator that compares or aggregates them.
+ *
+ * The analysis is conservative: a value is typed only if it is compared to numbers or aggregated
+ * with sum, min or max, and it is never output, grouped on, compared as a string or nested.
+ *
+ */
+public final class TypeNumericValues implements Logical2Logical {
+
+  public static final TypeNumericValues INSTANCE = new TypeNumericValues();
+
+  private static final int NOT_USED = 0;
+  private static final int NUMERIC_USE = 1;
+  private static final int OTHER_USE = 2;
+
+
+  private TypeNumericValues() {
+  }
+
+  @Override
+  public BaseLogicalOperator transform(BaseLogicalOperator op) {
+    typeScans(op, new ArrayList<BaseLogicalOperator>());
+    op.resetNRSMD();
+    op.getNRSMD();
+    return op;
+  }
+
+  /**
+   * Looks for the scans under the given operator.
+   *
+   * @param op
+   *          the current operator
+   * @param ancestors
+   *          the ancestors of the operator, the closest one last
+   */
+  private static void typeScans(BaseLogicalOperator op, ArrayList<BaseLogicalOperator> ancestors) {
+    if (op instanceof XMLScan) {
+      typeScan((XMLScan) op, ancestors);
+      return;
+    }
+    if (op.getChildren() == null) {
+      return;
+    }
+    ancestors.add(op);
+    for (BaseLogicalOperator child : op.getChildren()) {
+      typeScans(child, ancestors);
+    }
+    ancestors.remove(ancestors.size() - 1);
+  }
+
+  private static void typeScan(XMLScan scan, ArrayList<BaseLogicalOperator> ancestors) {
+    final NavigationTreePattern ntp = scan.getNavigationTreePattern();
+    if (ntp == null || ntp.getRoot() == null) {
+      return;
+    }
+    for (NavigationTreePatternNode node : ntp.getNodes()) {
+      if (!node.storesValue() || node.getValueType() != MetadataTypes.STRING_TYPE) {
+        continue;
+      }
+      // Type the value tentatively to find its column
+      scan.resetNRSMD();
+      final NestedMetadata untyped = scan.getNRSMD();
+      node.setValueType(MetadataTypes.DOUBLE_TYPE);
+      scan.resetNRSMD();
+      final int column = getTypedColumn(untyped, scan.getNRSMD());
+      if (column == -1 || !isNumericOnly(scan, ancestors, column)) {
+        node.setValueType(MetadataTypes.STRING_TYPE);
+      }
+    }
+    scan.resetNRSMD();
+  }
+
+  /**
+   * @return the top level column whose type differs between the metadata of the scan before and
+   *         after typing a value, or -1 if the typed value is nested
+   */
+  private static int getTypedColumn(NestedMetadata untyped, NestedMetadata typed) {
+    for (int i = 0; i < typed.getColNo(); i++) {
+      if (untyped.getType(i) != typed.getType(i)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Follows a column from a scan up to the root of the plan.
+   *
+   * @return true if the column is used at least once as a number, and never in any other way
+   */
+  private static boolean isNumericOnly(BaseLogicalOperator scan,
+          ArrayList<BaseLogicalOperator> ancestors, int column) {
+    BaseLogicalOperator child = scan;
+    boolean numericUse = false;
+    for (int i = ancestors.size() - 1; i >= 0; i--) {
+      final BaseLogicalOperator op = ancestors.get(i);
+      if (op instanceof BaseBinaryOperator) {
+        final boolean fromRight = op.getChildIndex(child) == 1;
+        if (fromRight) {
+          if (op instanceof LeftOuterNestedJoin) {
+            return false;
+          }
+          column += op.getChildren().get(0).getNRSMD().getColNo();
+        }
+        if (op instanceof BaseJoinOperator) {
+          final int use = getUse(((BaseJoinOperator) op).getPred(), column);
+          if (use == OTHER_USE) {
+            return false;
+          }
+          numericUse |= use == NUMERIC_USE;
+        } else if (!(op instanceof CartesianProduct)) {
+          return false;
+        }
+      } else if (op instanceof Selection) {
+        final int use = getUse(((Selection) op).getPred(), column);
+        if (use == OTHER_USE) {
+          return false;
+        }
+        numericUse |= use == NUMERIC_USE;
+      } else if (op instanceof Projection) {
+        final int newColumn = indexOf(((Projection) op).columns, column);
+        if (newColumn == -2) {
+          return false;
+        }
+        if (newColumn == -1) {
+          return numericUse;
+        }
+        column = newColumn;
+      } else if (op instanceof GroupByWithAggregation) {
+        final GroupByWithAggregation groupBy = (GroupByWithAggregation) op;
+        if (indexOf(groupBy.getReduceByColumns(), column) != -1
+                || indexOf(groupBy.getGroupByColumns(), column) != -1) {
+          return false;
+        }
+        if (!groupBy.isExcludeNestedField() && indexOf(groupBy.getNestColumns(), column) != -1) {
+          return false;
+        }
+        if (indexOf(groupBy.getAggregationColumns(), column) == -1) {
+          return numericUse;
+        }
+        // Every aggregate computed over the column needs to be numeric
+        for (int j = 0; j < groupBy.getAggregationColumns().length; j++) {
+          if (groupBy.getAggregationColumns()[j] == column
+                  && !isNumericAggregation(groupBy.getAggregationTypes()[j])) {
+            return false;
+          }
+        }
+        return true;
+      } else if (op instanceof Aggregation) {
+        final Aggregation aggregation = (Aggregation) op;
+        final int[] path = aggregation.getAggregationPath();
+        if (path.length != 1 || !aggregation.isExcludeNestedField()) {
+          return false;
+        }
+        if (path[0] != column) {
+          return numericUse;
+        }
+        return isNumericAggregation(aggregation.getAggregationType());
+      } else {
+        // The value would be output, grouped on or nested
+        return false;
+      }
+      child = op;
+    }
+    return false;
+  }
+
+  private static boolean isNumericAggregation(AggregationType aggregationType) {
+    return aggregationType == AggregationType.SUM || aggregationType == AggregationType.MIN
+            || aggregationType == AggregationType.MAX || aggregationType == AggregationType.APPROX_MEDIAN;
+  }
+
+  /**
+   * @return the position of the column in the array, -1 if it is not found, or -2 if it is found
+   *         more than once
+   */
+  private static int indexOf(int[] columns, int column) {
+    if (columns == null) {
+      return -1;
+    }
+    int index = -1;
+    for (int i = 0; i < columns.length; i++) {
+      if (columns[i] == column) {
+        if (index != -1) {
+          return -2;
+        }
+        index = i;
+      }
+    }
+    return index;
+  }
+
+  private static int getUse(BasePredicate pred, int column) {
+    int use = NOT_USED;
+    if (pred instanceof DisjunctivePredicate) {
+      for (ConjunctivePredicate conjPred : ((DisjunctivePredicate) pred).getConjunctivePreds()) {
+        use = Math.max(use, getUse(conjPred, column));
+      }
+    } else if (pred instanceof ConjunctivePredicate) {
+      for (SimplePredicate simplePred : ((ConjunctivePredicate) pred).getSimplePreds()) {
+        use = Math.max(use, getUse(simplePred, column));
+      }
+    } else if (pred instanceof SimplePredicate) {
+      final SimplePredicate simplePred = (SimplePredicate) pred;
+      if (simplePred.getColumn1() != column
+              && (simplePred.comparesToConstant() || simplePred.getColumn2() != column)) {
+        use = NOT_USED;
+      } else if (simplePred.getStringConstant() != null) {
+        use = OTHER_USE;
+      } else if (simplePred.getDoubleConstant() != -1) {
+        use = NUMERIC_USE;
+      } else if (simplePred.getPredCode() == PredicateType.PREDICATE_EQUAL
+              || simplePred.getPredCode() == PredicateType.PREDICATE_NOTEQUAL) {
+        // Columns are compared as strings unless both hold numbers
+        use = OTHER_USE;
+      } else {
+        use = NUMERIC_USE;
+      }
+    } else if (pred != null) {
+      use = OTHER_USE;
+    }
+    return use;
+  }
+}
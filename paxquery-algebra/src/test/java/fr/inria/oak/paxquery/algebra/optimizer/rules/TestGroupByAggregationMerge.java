@@ -0,0 +1,125 @@
+/*******************************************************************************
+ * Copyright (C) 2013, 2014, 2015 by Inria and Paris-Sud University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package fr.inria.oak.paxquery.algebra.optimizer.rules;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import fr.inria.oak.paxquery.algebra.logicalplan.LogicalPlan;
+import fr.inria.oak.paxquery.algebra.operators.BaseLogicalOperator;
+import fr.inria.oak.paxquery.algebra.operators.border.XMLScan;
+import fr.inria.oak.paxquery.algebra.operators.unary.Aggregation;
+import fr.inria.oak.paxquery.algebra.operators.unary.GroupBy;
+import fr.inria.oak.paxquery.algebra.operators.unary.GroupByWithAggregation;
+import fr.inria.oak.paxquery.algebra.operators.unary.Projection;
+import fr.inria.oak.paxquery.common.aggregation.AggregationType;
+import fr.inria.oak.paxquery.common.xml.navigation.NavigationTreePattern;
+import fr.inria.oak.paxquery.common.xml.navigation.NavigationTreePatternUtils;
+
+
+public class TestGroupByAggregationMerge {
+	
+	/**
+	 * Items with a category and a price
+	 */
+	private static final String PATTERN = " \nE: 1 [Tag=\"item\"]\nE: 2 [Tag=\"category\"] Val\nE: 3 [Tag=\"price\"] Val\n;\n1,2 / j\n1,3 / j\n";
+	
+	
+	/**
+	 * @return the items grouped on their category, with their prices and categories nested
+	 */
+	private static GroupBy groupBy() throws Exception {
+		final NavigationTreePattern ntp = NavigationTreePatternUtils.getTreePatternFromString(PATTERN, "p");
+		final XMLScan scan = new XMLScan(true, ntp, "file:///items");
+		final int categoryColumn = scan.getNRSMD().getColNo() - 2;
+		final int priceColumn = scan.getNRSMD().getColNo() - 1;
+		return new GroupBy(scan, new int[]{categoryColumn}, new int[]{categoryColumn}, new int[]{priceColumn, categoryColumn});
+	}
+	
+	/**
+	 * Links the operators to their parents, as in the plans of the queries, and merges them.
+	 */
+	private static void transform(Projection projection) {
+		final LogicalPlan plan = new LogicalPlan();
+		plan.setRoot(projection);
+		plan.adjustParents();
+		GroupByAggregationMerge.INSTANCE.transform(projection);
+	}
+	
+	@Test
+	public void testStackedAggregations() throws Exception {
+		final GroupBy groupBy = groupBy();
+		final int[] nestColumns = groupBy.getNestColumns();
+		// sum and maximum of the nested prices, and count of the nested categories
+		BaseLogicalOperator op = new Aggregation(groupBy, new int[]{1, 0}, AggregationType.SUM);
+		op = new Aggregation(op, new int[]{1, 0}, AggregationType.MAX);
+		op = new Aggregation(op, new int[]{1, 1}, AggregationType.COUNT);
+		final Projection projection = new Projection(op, new int[]{0});
+		
+		transform(projection);
+		
+		final BaseLogicalOperator merged = projection.getChildren().get(0);
+		assertTrue(merged instanceof GroupByWithAggregation);
+		final GroupByWithAggregation groupByAggregate = (GroupByWithAggregation) merged;
+		assertSame(groupBy.getChild(), groupByAggregate.getChild());
+		assertSame(groupByAggregate, groupBy.getChild().getParent());
+		assertSame(projection, groupByAggregate.getParent());
+		assertArrayEquals(new int[]{nestColumns[0], nestColumns[0], nestColumns[1]}, groupByAggregate.getAggregationColumns());
+		assertArrayEquals(new AggregationType[]{AggregationType.SUM, AggregationType.MAX, AggregationType.COUNT},
+				groupByAggregate.getAggregationTypes());
+		assertFalse(groupByAggregate.isExcludeNestedField());
+		assertArrayEquals(groupBy.getGroupByColumns(), groupByAggregate.getGroupByColumns());
+		assertArrayEquals(nestColumns, groupByAggregate.getNestColumns());
+	}
+	
+	@Test
+	public void testExpectedGroupsKept() throws Exception {
+		final GroupBy groupBy = groupBy();
+		groupBy.setExpectedGroups(12);
+		BaseLogicalOperator op = new Aggregation(groupBy, new int[]{1, 0}, AggregationType.SUM);
+		op = new Aggregation(op, new int[]{1, 0}, AggregationType.COUNT);
+		final Projection projection = new Projection(op, new int[]{0});
+		
+		transform(projection);
+		
+		final GroupByWithAggregation groupByAggregate = (GroupByWithAggregation) projection.getChildren().get(0);
+		assertEquals(2, groupByAggregate.getAggregationTypes().length);
+		assertEquals(12, groupByAggregate.getExpectedGroups());
+	}
+	
+	/**
+	 * An aggregation over the whole data set is not merged with the group-by below it.
+	 */
+	@Test
+	public void testAggregationOverDataSet() throws Exception {
+		final GroupBy groupBy = groupBy();
+		final BaseLogicalOperator sum = new Aggregation(groupBy, new int[]{1, 0}, AggregationType.SUM);
+		final Aggregation count = new Aggregation(sum, new int[]{0}, AggregationType.COUNT);
+		final Projection projection = new Projection(count, new int[]{0});
+		
+		transform(projection);
+		
+		assertSame(count, projection.getChildren().get(0));
+		final GroupByWithAggregation groupByAggregate = (GroupByWithAggregation) count.getChildren().get(0);
+		assertArrayEquals(new AggregationType[]{AggregationType.SUM}, groupByAggregate.getAggregationTypes());
+	}
+	
+}
@@ -0,0 +1,77 @@
+/*******************************************************************************
+ * Copyright (C) 2013, 2014, 2015 by Inria and Paris-Sud University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package fr.inria.oak.paxquery.algebra.optimizer.rules;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import fr.inria.oak.paxquery.algebra.operators.BaseLogicalOperator;
+import fr.inria.oak.paxquery.algebra.operators.border.XMLScan;
+import fr.inria.oak.paxquery.algebra.operators.unary.Projection;
+import fr.inria.oak.paxquery.algebra.operators.unary.Selection;
+import fr.inria.oak.paxquery.common.datamodel.metadata.MetadataTypes;
+import fr.inria.oak.paxquery.common.predicates.BasePredicate.PredicateType;
+import fr.inria.oak.paxquery.common.predicates.SimplePredicate;
+import fr.inria.oak.paxquery.common.xml.navigation.NavigationTreePattern;
+import fr.inria.oak.paxquery.common.xml.navigation.NavigationTreePatternNode;
+import fr.inria.oak.paxquery.common.xml.navigation.NavigationTreePatternUtils;
+
+
+public class TestTypeNumericValues {
+	
+	/**
+	 * Items with a price and nested bids, both numeric candidates; the bids come after the price in the pattern
+	 */
+	private static final String PATTERN = " \nE: 1 [Tag=\"item\"]\nE: 2 [Tag=\"price\"] Val\nE: 3 [Tag=\"bid\"] Val\n;\n1,2 / j\n1,3 / nj\n";
+	
+	
+	@Test
+	public void testNestedValueAfterTypedValue() throws Exception {
+		final NavigationTreePattern ntp = NavigationTreePatternUtils.getTreePatternFromString(PATTERN, "p");
+		final XMLScan scan = new XMLScan(true, ntp, "file:///items");
+		final int priceColumn = scan.getNRSMD().getColNo() - 2;
+		BaseLogicalOperator op = new Selection(scan, new SimplePredicate(priceColumn, 10.0, PredicateType.PREDICATE_GREATERTHAN));
+		op = new Projection(op, new int[]{0});
+		
+		TypeNumericValues.INSTANCE.transform(op);
+		
+		assertEquals(MetadataTypes.DOUBLE_TYPE, getNode(ntp, "price").getValueType());
+		assertEquals(MetadataTypes.STRING_TYPE, getNode(ntp, "bid").getValueType());
+		assertEquals(MetadataTypes.DOUBLE_TYPE, scan.getNRSMD().getType(priceColumn));
+	}
+	
+	@Test
+	public void testUnusedValue() throws Exception {
+		final NavigationTreePattern ntp = NavigationTreePatternUtils.getTreePatternFromString(PATTERN, "p");
+		final XMLScan scan = new XMLScan(true, ntp, "file:///items");
+		final BaseLogicalOperator op = new Projection(scan, new int[]{0});
+		
+		TypeNumericValues.INSTANCE.transform(op);
+		
+		assertEquals(MetadataTypes.STRING_TYPE, getNode(ntp, "price").getValueType());
+		assertEquals(MetadataTypes.STRING_TYPE, getNode(ntp, "bid").getValueType());
+	}
+	
+	private static NavigationTreePatternNode getNode(NavigationTreePattern ntp, String tag) {
+		for(NavigationTreePatternNode node: ntp.getNodes()) {
+			if(tag.equals(node.getTag()))
+				return node;
+		}
+		throw new IllegalStateException("No node " + tag);
+	}
+
+}
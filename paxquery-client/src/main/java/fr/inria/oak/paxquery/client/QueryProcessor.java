@@ -70,8 +70,7 @@ public class QueryProcessor implements Program, ProgramDescription {
 			Optimizer.INSTANCE.optimize(logPlan);
 
 			// 3. Translating plan to PACT
-			plan = Logical2Pact.planTranslate(logPlan);
-			plan.setDefaultParallelism(noSubtasks);
+			plan = Logical2Pact.planTranslate(logPlan, noSubtasks);
 		} catch (Exception e) {
 			e.printStackTrace();
 		}
@@ -24,5 +24,13 @@ public enum AggregationType {
 	COUNT,
 	MAX,
 	MIN,
-	SUM;
+	SUM,
+	/**
+	 * Number of distinct values, estimated with a HyperLogLog sketch.
+	 */
+	APPROX_COUNT_DISTINCT,
+	/**
+	 * Median of the values, estimated with a t-digest.
+	 */
+	APPROX_MEDIAN;
 }
@@ -39,6 +39,8 @@ public enum MetadataTypes {
 	public static MetadataTypes getTypeEnum(String stringType) {
 		if (stringType.equals("STRUCTURAL_ID"))
 			return STRUCTURAL_ID;
+		else if (stringType.equals("ORDERED_ID"))
+			return ORDERED_ID;
 		else if (stringType.equals("UPDATE_ID"))
 			return UPDATE_ID;
 		else if (stringType.equals("NULL_ID"))
@@ -49,6 +51,10 @@ public enum MetadataTypes {
 			return STRING_TYPE;
 		else if (stringType.equals("INTEGER_TYPE"))
 			return INTEGER_TYPE;
+		else if (stringType.equals("LONG_TYPE"))
+			return LONG_TYPE;
+		else if (stringType.equals("DOUBLE_TYPE"))
+			return DOUBLE_TYPE;
 		else
 			return null;
 	}
@@ -62,6 +68,8 @@ public enum MetadataTypes {
 		switch(this) {
 			case STRUCTURAL_ID:
 				return "STRUCTURAL_ID";
+			case ORDERED_ID:
+				return "ORDERED_ID";
 			case UPDATE_ID:
 				return "UPDATE_ID";
 			case NULL_ID:
@@ -72,6 +80,10 @@ public enum MetadataTypes {
 				return "STRING_TYPE";
 			case INTEGER_TYPE:
 				return "INTEGER_TYPE";
+			case LONG_TYPE:
+				return "LONG_TYPE";
+			case DOUBLE_TYPE:
+				return "DOUBLE_TYPE";
 			default:
 				return null;
 		}
@@ -47,6 +47,7 @@ public class NestedMetadata implements Serializable {
 	int prePostIDsNo;
 	int ordpathIDsNo;
 	int integerIDsNo;
+	int numberNo;
 	int nestedNo;
 
 
@@ -167,6 +168,7 @@ public class NestedMetadata implements Serializable {
 		this.prePostIDsNo = 0;
 		this.ordpathIDsNo = 0;
 		this.integerIDsNo = 0;
+		this.numberNo = 0;
 		this.nestedNo = 0;
 		for (int i = 0; i < types.length; i++) {
 			switch (types[i]) {
@@ -175,8 +177,13 @@ public class NestedMetadata implements Serializable {
 					//System.out.println("Counting: at " + i + " string");
 					break;
 				case INTEGER_TYPE :
+				case ORDERED_ID :
 					this.integerIDsNo++;
 					break;
+				case LONG_TYPE :
+				case DOUBLE_TYPE :
+					this.numberNo++;
+					break;
 				case UPDATE_ID :
 					this.ordpathIDsNo++;
 					break;
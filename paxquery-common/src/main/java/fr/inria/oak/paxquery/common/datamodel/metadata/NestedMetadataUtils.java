@@ -205,7 +205,7 @@ public class NestedMetadataUtils {
 			nTypes.add(type);
 		}
 		if (node.storesValue()) {
-			MetadataTypes type = MetadataTypes.STRING_TYPE;
+			MetadataTypes type = node.getValueType();
 			nTypes.add(type);
 		}
 		if (node.storesContent()) {
@@ -364,7 +364,7 @@ public class NestedMetadataUtils {
 			thisNodeHasContributed = true;
 		}
 		if (node.storesValue()) {
-			nTypes.add(MetadataTypes.STRING_TYPE);
+			nTypes.add(node.getValueType());
 
 			ArrayList v = new ArrayList();
 			v.add(new Integer(thisNodesAttributeCount));
@@ -500,11 +500,11 @@ public class NestedMetadataUtils {
 			int j = 0;
 			if (iID > 0) {
 				if (pn.isIdentityIDType()) {
-					newTypes[j] = MetadataTypes.INTEGER_TYPE;
+					newTypes[j] = MetadataTypes.ORDERED_ID;
 					newNames[j] = "id" + nodeCount;
 				} else {
 					if (pn.isOrderIDType()) {
-						newTypes[j] = MetadataTypes.INTEGER_TYPE;
+						newTypes[j] = MetadataTypes.ORDERED_ID;
 						newNames[j] = "id" + nodeCount;
 					} else {
 						if (pn.isStructIDType()) {
@@ -532,7 +532,7 @@ public class NestedMetadataUtils {
 					j++;
 				}
 				if (pn.requiresVal()) {
-					newTypes[j] = MetadataTypes.STRING_TYPE;
+					newTypes[j] = pn.getValueType();
 					newNames[j] = "val" + nodeCount;
 					//System.out.println(
 					//	pn.tag + " requires value ! String field at " + j);
@@ -627,7 +627,7 @@ public class NestedMetadataUtils {
 	
 	private static final MetadataTypes IDTypes(NodeIDScheme sch) throws PAXQueryExecutionException {
 		if (sch instanceof OrderedIntegerIDScheme) {
-			return MetadataTypes.INTEGER_TYPE;
+			return MetadataTypes.ORDERED_ID;
 		}
 		if (sch instanceof PrePostDepthIDScheme) {
 			return MetadataTypes.STRUCTURAL_ID;
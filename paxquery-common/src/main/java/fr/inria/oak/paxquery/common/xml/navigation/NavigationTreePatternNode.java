@@ -27,6 +27,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import fr.inria.oak.paxquery.common.datamodel.metadata.MetadataTypes;
 import fr.inria.oak.paxquery.common.predicates.BasePredicate.PredicateType;
 
 
@@ -147,6 +148,12 @@ public final class NavigationTreePatternNode implements Serializable, Comparable
 	 */
 	private boolean storesValue;	
 	
+	/**
+	 * The type of the stored value: {@link MetadataTypes#STRING_TYPE} by default, or a
+	 * numeric type if the value is parsed when the node is extracted.
+	 */
+	private MetadataTypes valueType = MetadataTypes.STRING_TYPE;
+	
 	/**
 	 * If true, the value of this element is (R)equired, must be known in order to access
 	 * the data stored in the xam.
@@ -433,6 +440,7 @@ public final class NavigationTreePatternNode implements Serializable, Comparable
 		aux.setStoresID(this.storesID);
 		aux.setStoresTag(this.storesTag);
 		aux.setStoresValue(this.storesValue);
+		aux.valueType = this.valueType;
 
 		aux.setRequiresID(this.requiresID);
 		aux.setRequiresTag(this.requiresTag);
@@ -485,6 +493,7 @@ public final class NavigationTreePatternNode implements Serializable, Comparable
 		aux.storesID = this.storesID;
 		aux.storesTag = this.storesTag;
 		aux.storesValue = this.storesValue;
+		aux.valueType = this.valueType;
 		
 		aux.setRequiresID(this.requiresID);
 		aux.setRequiresTag(this.requiresTag);
@@ -533,6 +542,7 @@ public final class NavigationTreePatternNode implements Serializable, Comparable
 		aux.storesID = this.storesID;
 		aux.storesTag = this.storesTag;
 		aux.storesValue = this.storesValue;
+		aux.valueType = this.valueType;
 
 		aux.setRequiresID(this.requiresID);
 		aux.setRequiresTag(this.requiresTag);
@@ -1348,6 +1358,25 @@ public final class NavigationTreePatternNode implements Serializable, Comparable
 		this.storesValue = storesValue;
 	}	
 	
+	/**
+	 * The type of the stored value; a numeric value that cannot be parsed is stored as null.
+	 * 
+	 * @return the valueType
+	 */
+	public MetadataTypes getValueType() {
+		return this.valueType;
+	}
+	
+	/**
+	 * Sets the type of the stored value: {@link MetadataTypes#STRING_TYPE},
+	 * {@link MetadataTypes#DOUBLE_TYPE} or {@link MetadataTypes#LONG_TYPE}.
+	 * 
+	 * @param valueType the valueType to set
+	 */
+	public void setValueType(MetadataTypes valueType) {
+		this.valueType = valueType;
+	}
+	
 	/**
 	 * If true, the value of this element is (R)equired,must be known in order to access
 	 * the data stored in the xam.
@@ -135,6 +135,20 @@ public class OrderedIntegerIDScheme implements NodeIDScheme {
 		return this.ied;
 	}
 	
+	/**
+	 * Sets the value that will be given to the next node. Used when a document is not read
+	 * from its beginning, e.g. when it is processed in several splits.
+	 * 
+	 * @param n the value of the next node that begins
+	 */
+	public final void setCounter(int n) {
+		this.n = n;
+	}
+	
+	public final int getCounter() {
+		return this.n;
+	}
+	
 	@Override
 	public final String getSignature(String suffix){
 		return new String("ID" + suffix + " int");
@@ -128,6 +128,26 @@ public class PrePostDepthIDScheme implements NodeIDScheme {
 		return currentID;
 	}
 	
+	/**
+	 * Sets the pre and post values that will be given to the next nodes. Used when a document
+	 * is not read from its beginning, e.g. when it is processed in several splits.
+	 * 
+	 * @param pre the pre value of the next node that begins
+	 * @param post the post value of the next node that ends
+	 */
+	public void setCounters(int pre, int post) {
+		currentPre = pre;
+		currentPost = post;
+	}
+	
+	public int getCurrentPre() {
+		return currentPre;
+	}
+	
+	public int getCurrentPost() {
+		return currentPost;
+	}
+	
 	public String getSignature(String suffix){
 		return ("ID" + suffix + "Pre int, ID" + suffix + "Post int, ID" + suffix + "depth int");
 	}
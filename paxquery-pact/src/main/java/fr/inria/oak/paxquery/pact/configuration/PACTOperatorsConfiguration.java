@@ -22,8 +22,20 @@ package fr.inria.oak.paxquery.pact.configuration;
  */
 public enum PACTOperatorsConfiguration {
 	NTP_STRING("paxquery.input.ntp"),
+	NTPS_BINARY("paxquery.input.ntps"),
+	VALUE_TYPES_BINARY("paxquery.input.valuetypes"),
 	CTP_BINARY("paxquery.output.ctp"),
 	ATTACH_DOCUMENTID_BOOLEAN("paxquery.input.attachdocumentID"),
+	RECORD_ELEMENT_STRING("paxquery.input.recordelement"),
+	SKIP_SUBTREES_BOOLEAN("paxquery.input.skipsubtrees"),
+	CAPTURE_CONTENT_BOOLEAN("paxquery.input.capturecontent"),
+	STREAMING_BOOLEAN("paxquery.input.streaming"),
+	MAX_MATCHES_INT("paxquery.input.maxmatches"),
+	BINARY_OUTPUT_DIRECTORY_STRING("paxquery.input.binaryoutputdirectory"),
+	SAMPLE_DOCUMENTS_INT("paxquery.input.sampledocuments"),
+	STATISTICS_CACHE_STRING("paxquery.input.statisticscache"),
+	PACK_SIZE_INT("paxquery.input.packsize"),
+	PIPELINED_BOOLEAN("paxquery.input.pipelined"),
 	APPLY_CONSTRUCT_BINARY("paxquery.output.applyconstruct"),
 	NRSMD1_BINARY("paxquery.operation.nrsmd1"),
 	NRSMD2_BINARY("paxquery.operation.nrsmd2"),
@@ -33,17 +45,25 @@ public enum PACTOperatorsConfiguration {
 	GROUP_BY_COLUMNS_BINARY("paxquery.operation.groupbycolumns"),
 	NEST_COLUMNS_BINARY("paxquery.operation.nestcolumns"),
 	EXCLUDE_NESTED_FIELD_BOOLEAN("paxquery.operation.excludenesting"),
-	AGGREGATION_COLUMN_INT("paxquery.operation.aggregationcolumn"),
+	AGGREGATION_COLUMNS_BINARY("paxquery.operation.aggregationcolumns"),
+	AGGREGATION_COLUMN_TYPES_BINARY("paxquery.operation.aggregationcolumntypes"),
 	COMBINATION_COLUMN_INT("paxquery.operation.combinationcolumn"),
 	DUP_ELIM_COLUMNS_BINARY("paxquery.operation.dupelimcolumns"),
 	AGGREGATION_PATH_BINARY("paxquery.operation.aggregationpath"),
 	AGGREGATION_TYPE_BINARY("paxquery.operation.aggregationtype"),
+	AGGREGATION_TYPES_BINARY("paxquery.operation.aggregationtypes"),
 	ATTACH_DUMMY_COLUMN_BOOLEAN("paxquery.operation.attachdummycolumn"),
+	AGGREGATION_BUCKETS_INT("paxquery.operation.aggregationbuckets"),
+	HASH_KEY_COLUMNS_BINARY("paxquery.operation.hashkeycolumns"),
+	HASH_KEY_TYPES_BINARY("paxquery.operation.hashkeytypes"),
+	HASH_BUCKETS_INT("paxquery.operation.hashbuckets"),
+	HASH_MEMORY_INT("paxquery.operation.hashmemory"),
 	POST_AGGREGATION_COLUMN_INT("paxquery.operation.postaggregationcolumn"),
 	UNNEST_PATH_BINARY("paxquery.operation.unnestpath"),
 	NAVIGATION_COLUMN_INT("paxquery.operation.navigationcolumn"),
 	NESTED_RECORDS_COLUMN_INT("paxquery.operation.nestedrecordscolumn"),
-	EVALUATION_COLUMN_INT("paxquery.operation.evaluationresultcolumn");
+	EVALUATION_COLUMN_INT("paxquery.operation.evaluationresultcolumn"),
+	PATTERN_INDEX_INT("paxquery.operation.patternindex");
 		
 	    
 	private final String name;
@@ -24,7 +24,9 @@ import org.apache.flink.types.StringValue;
 import org.apache.flink.types.Value;
 
 import fr.inria.oak.paxquery.common.datamodel.metadata.MetadataTypes;
+import fr.inria.oak.paxquery.pact.datamodel.type.OrderedIDValue;
 import fr.inria.oak.paxquery.pact.datamodel.type.RecordList;
+import fr.inria.oak.paxquery.pact.datamodel.type.StructuralIDValue;
 
 
 /**
@@ -63,9 +65,9 @@ public class MetadataTypesMapping {
 	public static Class<? extends Key<?>> getKeyClass(MetadataTypes metadataTypes) {
 		switch(metadataTypes) {
 			case STRUCTURAL_ID:
-				return StringValue.class;
+				return StructuralIDValue.class;
 			case ORDERED_ID:
-				return StringValue.class;
+				return OrderedIDValue.class;
 			case UPDATE_ID:
 				return StringValue.class;
 			case NULL_ID:
@@ -102,9 +104,9 @@ public class MetadataTypesMapping {
 	public static Class<? extends Value> getValueClass(MetadataTypes metadataTypes) {
 		switch(metadataTypes) {
 			case STRUCTURAL_ID:
-				return StringValue.class;
+				return StructuralIDValue.class;
 			case ORDERED_ID:
-				return StringValue.class;
+				return OrderedIDValue.class;
 			case UPDATE_ID:
 				return StringValue.class;
 			case NULL_ID:
@@ -0,0 +1,135 @@
+/*******************************************************************************
+ * Copyright (C) 2013, 2014, 2015 by Inria and Paris-Sud University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package fr.inria.oak.paxquery.pact.datamodel.type;
+
+import java.io.IOException;
+
+import org.apache.flink.core.memory.DataInputView;
+import org.apache.flink.core.memory.DataOutputView;
+import org.apache.flink.core.memory.MemorySegment;
+import org.apache.flink.types.CopyableValue;
+import org.apache.flink.types.NormalizableKey;
+
+import fr.inria.oak.paxquery.common.xml.nodeidentifier.OrderedIntegerElementID;
+
+
+/**
+ * Class representing an ordered integer node ID, stored as a fixed size integer, with an
+ * order preserving normalized key.
+ *
+ * The null ID is -1, and it is smaller than any other ID.
+ *
+ */
+public final class OrderedIDValue implements NormalizableKey<OrderedIDValue>, CopyableValue<OrderedIDValue> {
+
+	private static final long serialVersionUID = -2853907146371245571L;
+
+	private static final int BINARY_LENGTH = 4;
+
+
+	private int n;
+
+
+	/**
+	 * Creates a null ID.
+	 */
+	public OrderedIDValue() {
+		this(-1);
+	}
+
+	public OrderedIDValue(int n) {
+		this.n = n;
+	}
+
+	public OrderedIDValue(OrderedIntegerElementID id) {
+		this(id.n);
+	}
+
+	public int getValue() {
+		return this.n;
+	}
+
+	public void setValue(int n) {
+		this.n = n;
+	}
+
+	public boolean isNull() {
+		return this.n == -1;
+	}
+
+	/**
+	 * @return the same text as {@link OrderedIntegerElementID#toString()}
+	 */
+	@Override
+	public String toString() {
+		if(this.isNull())
+			return "\0";
+		return String.valueOf(this.n);
+	}
+
+	@Override
+	public void write(DataOutputView out) throws IOException {
+		out.writeInt(this.n);
+	}
+
+	@Override
+	public void read(DataInputView in) throws IOException {
+		this.n = in.readInt();
+	}
+
+	@Override
+	public int compareTo(OrderedIDValue o) {
+		return this.n < o.n ? -1 : (this.n == o.n ? 0 : 1);
+	}
+
+	@Override
+	public int hashCode() {
+		return this.n;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		return obj instanceof OrderedIDValue && ((OrderedIDValue) obj).n == this.n;
+	}
+
+	@Override
+	public int getMaxNormalizedKeyLen() {
+		return BINARY_LENGTH;
+	}
+
+	@Override
+	public void copyNormalizedKey(MemorySegment target, int offset, int len) {
+		StructuralIDValue.copyNormalizedInt(this.n, target, offset, len);
+		for(int i = BINARY_LENGTH; i < len; i++)
+			target.put(offset + i, (byte) 0);
+	}
+
+	@Override
+	public int getBinaryLength() {
+		return BINARY_LENGTH;
+	}
+
+	@Override
+	public void copyTo(OrderedIDValue target) {
+		target.n = this.n;
+	}
+
+	@Override
+	public void copy(DataInputView source, DataOutputView target) throws IOException {
+		target.write(source, BINARY_LENGTH);
+	}
+
+}
@@ -15,14 +15,403 @@
  ******************************************************************************/
 package fr.inria.oak.paxquery.pact.datamodel.type;
 
-import org.apache.flink.types.ListValue;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+
+import org.apache.flink.core.memory.DataInputView;
+import org.apache.flink.core.memory.DataOutputView;
+import org.apache.flink.core.memory.InputViewDataInputStreamWrapper;
 import org.apache.flink.types.Record;
+import org.apache.flink.types.Value;
+import org.apache.flink.util.InstantiationUtil;
 
 
 /**
  * Class representing a list of PACT records.
  *
+ * A list of records with the same number of fields is serialized column by column: the size of
+ * the list, the size of each column buffer, and then the buffers. A column buffer starts with the
+ * length of its fields if they all have the same length, or with the length of each field
+ * otherwise, followed by the bytes of the fields. A list read in this form is only decoded when it is used:
+ * {@link #getColumn(int, Class)} reads the values of one column without building the records,
+ * and the records are rebuilt from the field bytes without decoding the values. Other lists
+ * are serialized record by record, in the same way as {@link org.apache.flink.types.ListValue}.
+ *
  */
-public final class RecordList extends ListValue<Record> {
+public final class RecordList extends AbstractList<Record> implements Value {
+
+	private static final long serialVersionUID = -8240127387718562453L;
+
+
+	/**
+	 * The records, or null if the list was read column by column and it is not decoded yet.
+	 */
+	private ArrayList<Record> records = new ArrayList<Record>();
+
+	private int columnarSize;
+
+	/**
+	 * Start of each column buffer in {@link #columnarData}, followed by the end of the last one.
+	 */
+	private int[] columnStarts;
+
+	private byte[] columnarData;
+
+
+	@Override
+	public void write(DataOutputView out) throws IOException {
+		if(this.records == null) {
+			writeColumnarHeader(out, this.columnarSize, this.columnStarts);
+			out.write(this.columnarData, 0, this.columnStarts[this.columnStarts.length - 1]);
+			return;
+		}
+
+		final byte[][] columns = this.getColumnBuffers();
+		if(columns == null) {
+			out.writeInt(this.records.size());
+			for(Record record : this.records)
+				record.write(out);
+			return;
+		}
+
+		final int[] columnStarts = new int[columns.length + 1];
+		for(int i = 0; i < columns.length; i++)
+			columnStarts[i + 1] = columnStarts[i] + columns[i].length;
+		writeColumnarHeader(out, this.records.size(), columnStarts);
+		for(byte[] column : columns)
+			out.write(column);
+	}
+
+	@Override
+	public void read(DataInputView in) throws IOException {
+		final int size = in.readInt();
+		if(size >= 0) {
+			this.records = new ArrayList<Record>(size);
+			for(int i = 0; i < size; i++) {
+				final Record record = new Record();
+				record.read(in);
+				this.records.add(record);
+			}
+			return;
+		}
+
+		this.records = null;
+		this.columnarSize = -1 - size;
+		final int numColumns = readVarLengthInt(in);
+		this.columnStarts = new int[numColumns + 1];
+		for(int i = 0; i < numColumns; i++)
+			this.columnStarts[i + 1] = this.columnStarts[i] + readVarLengthInt(in);
+		final int length = this.columnStarts[numColumns];
+		if(this.columnarData == null || this.columnarData.length < length)
+			this.columnarData = new byte[length];
+		in.readFully(this.columnarData, 0, length);
+	}
+
+	private static void writeColumnarHeader(DataOutputView out, int size, int[] columnStarts) throws IOException {
+		out.writeInt(-1 - size);
+		writeVarLengthInt(out, columnStarts.length - 1);
+		for(int i = 0; i < columnStarts.length - 1; i++)
+			writeVarLengthInt(out, columnStarts[i + 1] - columnStarts[i]);
+	}
+
+	/**
+	 * @return the column buffers of the records, or null if the list is not written column by
+	 * column: it has less than two records, or records with different numbers of fields or with
+	 * null fields
+	 */
+	private byte[][] getColumnBuffers() throws IOException {
+		final int size = this.records.size();
+		if(size < 2)
+			return null;
+		final int numColumns = this.records.get(0).getNumFields();
+		if(numColumns == 0)
+			return null;
+		for(Record record : this.records) {
+			if(record.getNumFields() != numColumns)
+				return null;
+		}
+
+		final ByteArrayOutputStream[] values = new ByteArrayOutputStream[numColumns];
+		for(int j = 0; j < numColumns; j++)
+			values[j] = new ByteArrayOutputStream();
+		final int[][] lengths = new int[numColumns][size];
+		final FieldBytes field = new FieldBytes();
+		for(int i = 0; i < size; i++) {
+			final Record record = this.records.get(i);
+			for(int j = 0; j < numColumns; j++) {
+				if(!field.capture(record, j))
+					return null;
+				lengths[j][i] = field.length;
+				values[j].write(field.bytes, field.offset, field.length);
+			}
+		}
+
+		final byte[][] columns = new byte[numColumns][];
+		for(int j = 0; j < numColumns; j++) {
+			final ByteArrayOutputStream column = new ByteArrayOutputStream(values[j].size() + 1);
+			final DataOutputStream out = new DataOutputStream(column);
+			if(hasFixedLength(lengths[j]))
+				writeVarLengthInt(out, lengths[j][0] + 1);
+			else {
+				writeVarLengthInt(out, 0);
+				for(int length : lengths[j])
+					writeVarLengthInt(out, length);
+			}
+			values[j].writeTo(out);
+			columns[j] = column.toByteArray();
+		}
+		return columns;
+	}
+
+	private static boolean hasFixedLength(int[] lengths) {
+		for(int length : lengths) {
+			if(length != lengths[0])
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * @return the start of each field of the column in {@link #columnarData}, followed by the end
+	 * of the last one
+	 */
+	private int[] getFieldOffsets(int column) {
+		final int[] offsets = new int[this.columnarSize + 1];
+		final int[] position = new int[] {this.columnStarts[column]};
+		final int fixedLength = this.readVarLengthInt(position) - 1;
+		if(fixedLength >= 0) {
+			for(int i = 0; i <= this.columnarSize; i++)
+				offsets[i] = position[0] + i * fixedLength;
+			return offsets;
+		}
+		for(int i = 0; i < this.columnarSize; i++)
+			offsets[i + 1] = offsets[i] + this.readVarLengthInt(position);
+		for(int i = 0; i <= this.columnarSize; i++)
+			offsets[i] += position[0];
+		return offsets;
+	}
+
+	/**
+	 * Reads the values of a column without building the records.
+	 *
+	 * @param column the position of the field in the records
+	 * @param type the class of the values
+	 * @return the values of the column, in the order of the records
+	 */
+	public <T extends Value> List<T> getColumn(int column, Class<T> type) {
+		final ArrayList<T> values = new ArrayList<T>(this.size());
+		if(this.records != null) {
+			for(Record record : this.records)
+				values.add(record.getField(column, type));
+			return values;
+		}
+
+		final int[] offsets = this.getFieldOffsets(column);
+		final ByteArrayInputStream stream = new ByteArrayInputStream(this.columnarData);
+		final DataInputView view = new InputViewDataInputStreamWrapper(new DataInputStream(stream));
+		try {
+			for(int i = 0; i < this.columnarSize; i++) {
+				final T value = InstantiationUtil.instantiate(type, Value.class);
+				stream.reset();
+				stream.skip(offsets[i]);
+				value.read(view);
+				values.add(value);
+			}
+		} catch (IOException ioe) {
+			throw new IllegalStateException("Corrupt column " + column + " in the nested records", ioe);
+		}
+		return values;
+	}
+
+	/**
+	 * Builds the records of a list that was read column by column.
+	 */
+	private void decode() {
+		if(this.records != null)
+			return;
+
+		final int numColumns = this.columnStarts.length - 1;
+		final ArrayList<Record> records = new ArrayList<Record>(this.columnarSize);
+		for(int i = 0; i < this.columnarSize; i++)
+			records.add(new Record(numColumns));
+		for(int j = 0; j < numColumns; j++) {
+			final int[] offsets = this.getFieldOffsets(j);
+			for(int i = 0; i < this.columnarSize; i++)
+				records.get(i).setField(j, new FieldBytes(this.columnarData, offsets[i], offsets[i + 1] - offsets[i]));
+		}
+		// The fields are copied into the records, so the buffer can be reused by the next read
+		for(Record record : records)
+			record.updateBinaryRepresenation();
+		this.records = records;
+	}
+
+	private static void writeVarLengthInt(DataOutput out, int value) throws IOException {
+		while(value >= 0x80) {
+			out.write(value | 0x80);
+			value >>>= 7;
+		}
+		out.write(value);
+	}
+
+	private static int readVarLengthInt(DataInput in) throws IOException {
+		int value = 0;
+		int shift = 0;
+		byte b;
+		do {
+			b = in.readByte();
+			value |= (b & 0x7f) << shift;
+			shift += 7;
+		} while(b < 0);
+		return value;
+	}
+
+	private int readVarLengthInt(int[] position) {
+		int value = 0;
+		int shift = 0;
+		byte b;
+		do {
+			b = this.columnarData[position[0]++];
+			value |= (b & 0x7f) << shift;
+			shift += 7;
+		} while(b < 0);
+		return value;
+	}
+
+
+	@Override
+	public int size() {
+		return this.records != null ? this.records.size() : this.columnarSize;
+	}
+
+	@Override
+	public Record get(int index) {
+		this.decode();
+		return this.records.get(index);
+	}
+
+	@Override
+	public Record set(int index, Record record) {
+		this.decode();
+		return this.records.set(index, record);
+	}
+
+	@Override
+	public void add(int index, Record record) {
+		this.decode();
+		this.records.add(index, record);
+		this.modCount++;
+	}
+
+	@Override
+	public boolean addAll(Collection<? extends Record> records) {
+		this.decode();
+		this.modCount++;
+		return this.records.addAll(records);
+	}
+
+	@Override
+	public Record remove(int index) {
+		this.decode();
+		this.modCount++;
+		return this.records.remove(index);
+	}
+
+	@Override
+	public void clear() {
+		this.records = new ArrayList<Record>();
+		this.modCount++;
+	}
+
+	@Override
+	public Iterator<Record> iterator() {
+		this.decode();
+		return this.records.iterator();
+	}
+
+
+	/**
+	 * The serialized bytes of a field, copied without being decoded: a slice of a buffer, whose
+	 * length is always explicit. The bytes are written as they are, so that a record holding them
+	 * can read the field back with its actual class.
+	 */
+	private static final class FieldBytes implements Value {
+
+		private static final long serialVersionUID = 3705640312837120469L;
+
+		private byte[] bytes;
+
+		private int offset;
+
+		private int length;
+
+		// true while the bytes of a field are taken from a record
+		private boolean capturing;
+
+
+		FieldBytes() {
+			this.bytes = new byte[64];
+		}
+
+		FieldBytes(byte[] bytes, int offset, int length) {
+			this.bytes = bytes;
+			this.offset = offset;
+			this.length = length;
+		}
+
+		/**
+		 * Takes the bytes of a field of a record. {@link Record#getFieldInto(int, Value)} gives
+		 * the field to {@link #read(DataInputView)} as an input that ends with it, which is the
+		 * only way to learn its length; the length is kept from then on.
+		 *
+		 * @return false if the field is null
+		 */
+		boolean capture(Record record, int field) {
+			this.offset = 0;
+			this.length = 0;
+			this.capturing = true;
+			try {
+				return record.getFieldInto(field, this);
+			} finally {
+				this.capturing = false;
+			}
+		}
+
+		@Override
+		public void write(DataOutputView out) throws IOException {
+			out.write(this.bytes, this.offset, this.length);
+		}
+
+		/**
+		 * Reads the field given by {@link #capture(Record, int)}; the bytes of a field cannot be
+		 * read from any other input, as they do not hold their length.
+		 */
+		@Override
+		public void read(DataInputView in) throws IOException {
+			if(!this.capturing)
+				throw new IOException("The bytes of a field can only be read from its record");
+			while(true) {
+				if(this.length == this.bytes.length) {
+					final byte[] bytes = new byte[2 * this.bytes.length];
+					System.arraycopy(this.bytes, 0, bytes, 0, this.length);
+					this.bytes = bytes;
+				}
+				final int read = in.read(this.bytes, this.length, this.bytes.length - this.length);
+				if(read == -1)
+					break;
+				this.length += read;
+			}
+		}
+
+	}
 
 }
@@ -0,0 +1,179 @@
+/*******************************************************************************
+ * Copyright (C) 2013, 2014, 2015 by Inria and Paris-Sud University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package fr.inria.oak.paxquery.pact.datamodel.type;
+
+import java.io.IOException;
+
+import org.apache.flink.core.memory.DataInputView;
+import org.apache.flink.core.memory.DataOutputView;
+import org.apache.flink.core.memory.MemorySegment;
+import org.apache.flink.types.CopyableValue;
+import org.apache.flink.types.NormalizableKey;
+
+import fr.inria.oak.paxquery.common.xml.nodeidentifier.PrePostDepthID;
+
+
+/**
+ * Class representing a structural (pre, post, depth) node ID, stored as three fixed size
+ * integers. IDs are ordered by pre, post and depth; the normalized key preserves this order,
+ * so that sorting and partitioning on IDs compare the serialized bytes directly.
+ *
+ * The null ID has all its numbers set to -1, and it is smaller than any other ID.
+ *
+ */
+public final class StructuralIDValue implements NormalizableKey<StructuralIDValue>, CopyableValue<StructuralIDValue> {
+
+	private static final long serialVersionUID = 6206340839367931840L;
+
+	private static final int BINARY_LENGTH = 3 * 4;
+
+
+	private int pre;
+
+	private int post;
+
+	private int depth;
+
+
+	/**
+	 * Creates a null ID.
+	 */
+	public StructuralIDValue() {
+		this(-1, -1, -1);
+	}
+
+	public StructuralIDValue(int pre, int post, int depth) {
+		this.pre = pre;
+		this.post = post;
+		this.depth = depth;
+	}
+
+	public StructuralIDValue(PrePostDepthID id) {
+		this();
+		if(!id.isNull())
+			this.setValue(id.pre, id.post, id.depth);
+	}
+
+	public int getPre() {
+		return this.pre;
+	}
+
+	public int getPost() {
+		return this.post;
+	}
+
+	public int getDepth() {
+		return this.depth;
+	}
+
+	public void setValue(int pre, int post, int depth) {
+		this.pre = pre;
+		this.post = post;
+		this.depth = depth;
+	}
+
+	public boolean isNull() {
+		return this.pre == -1 && this.post == -1 && this.depth == -1;
+	}
+
+	/**
+	 * @return the same text as {@link PrePostDepthID#toString()}
+	 */
+	@Override
+	public String toString() {
+		if(this.isNull())
+			return "\0";
+		return this.pre + " " + this.post + " " + this.depth;
+	}
+
+	@Override
+	public void write(DataOutputView out) throws IOException {
+		out.writeInt(this.pre);
+		out.writeInt(this.post);
+		out.writeInt(this.depth);
+	}
+
+	@Override
+	public void read(DataInputView in) throws IOException {
+		this.pre = in.readInt();
+		this.post = in.readInt();
+		this.depth = in.readInt();
+	}
+
+	@Override
+	public int compareTo(StructuralIDValue o) {
+		if(this.pre != o.pre)
+			return this.pre < o.pre ? -1 : 1;
+		if(this.post != o.post)
+			return this.post < o.post ? -1 : 1;
+		if(this.depth != o.depth)
+			return this.depth < o.depth ? -1 : 1;
+		return 0;
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * (31 * this.pre + this.post) + this.depth;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if(!(obj instanceof StructuralIDValue))
+			return false;
+		final StructuralIDValue other = (StructuralIDValue) obj;
+		return this.pre == other.pre && this.post == other.post && this.depth == other.depth;
+	}
+
+	@Override
+	public int getMaxNormalizedKeyLen() {
+		return BINARY_LENGTH;
+	}
+
+	@Override
+	public void copyNormalizedKey(MemorySegment target, int offset, int len) {
+		copyNormalizedInt(this.pre, target, offset, len);
+		copyNormalizedInt(this.post, target, offset + 4, len - 4);
+		copyNormalizedInt(this.depth, target, offset + 8, len - 8);
+		for(int i = BINARY_LENGTH; i < len; i++)
+			target.put(offset + i, (byte) 0);
+	}
+
+	/**
+	 * Writes the first len bytes (at most 4) of the integer, in big endian order and with its
+	 * sign bit flipped, so that the bytes compare as unsigned in the same order as the integers.
+	 */
+	static void copyNormalizedInt(int value, MemorySegment target, int offset, int len) {
+		final int normalized = value - Integer.MIN_VALUE;
+		for(int i = 0; i < len && i < 4; i++)
+			target.put(offset + i, (byte) (normalized >>> ((3 - i) << 3)));
+	}
+
+	@Override
+	public int getBinaryLength() {
+		return BINARY_LENGTH;
+	}
+
+	@Override
+	public void copyTo(StructuralIDValue target) {
+		target.setValue(this.pre, this.post, this.depth);
+	}
+
+	@Override
+	public void copy(DataInputView source, DataOutputView target) throws IOException {
+		target.write(source, BINARY_LENGTH);
+	}
+
+}
@@ -0,0 +1,351 @@
+/*******************************************************************************
+ * Copyright (C) 2013, 2014, 2015 by Inria and Paris-Sud University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package fr.inria.oak.paxquery.pact.io;
+
+import java.io.DataInput;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+
+
+/**
+ * Stream reader that replays the events of a document converted by {@link BinaryXmlWriter}.
+ * Names come from the tag dictionary of the file, thus are the same String instances for
+ * all the events; only the text and the attribute values are decoded. There is no location.
+ *
+ */
+public class BinaryXmlStreamReader extends ReplayXmlStreamReader {
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+
+	private final InputStream in;
+
+	private final TagDictionary dictionary;
+
+	private final byte[] buffer;
+
+	private int bufferPosition;
+
+	private int bufferLimit;
+
+	// offset in the stream of the start of the buffer
+	private long bufferOffset;
+
+	// tags of the open elements; the last one is kept after its end event
+	private int[] openTags;
+
+	private int depth;
+
+	// length and offset of the rest of the current element, after its post value
+	private long length;
+
+	private long bodyStart;
+
+	private int pre;
+
+	private int post;
+
+
+	/**
+	 * @param in the stream, positioned at the first event
+	 * @param dictionary the tag dictionary of the file
+	 */
+	public BinaryXmlStreamReader(InputStream in, TagDictionary dictionary) {
+		super(new Event(XMLStreamConstants.START_DOCUMENT));
+		this.in = in;
+		this.dictionary = dictionary;
+		this.buffer = new byte[BUFFER_SIZE];
+		this.openTags = new int[64];
+	}
+
+	@Override
+	protected void nextEvent() throws XMLStreamException {
+		try {
+			final int code = this.readByte();
+			switch(code) {
+			case BinaryXmlWriter.START_ELEMENT:
+				this.readStartElement();
+				this.event.type = XMLStreamConstants.START_ELEMENT;
+				break;
+			case BinaryXmlWriter.END_ELEMENT:
+				this.setName(this.openTags[--this.depth]);
+				this.event.type = XMLStreamConstants.END_ELEMENT;
+				break;
+			case BinaryXmlWriter.CHARACTERS:
+				this.readText();
+				this.event.type = XMLStreamConstants.CHARACTERS;
+				break;
+			case BinaryXmlWriter.END_DOCUMENT:
+				this.event.type = XMLStreamConstants.END_DOCUMENT;
+				break;
+			default:
+				throw new XMLStreamException("Unknown event code " + code);
+			}
+		} catch (IOException e) {
+			throw new XMLStreamException(e);
+		}
+	}
+
+	/**
+	 * Skips the subtree of the current element, which must be a start element, without reading
+	 * it; the element is then reported as ended.
+	 *
+	 * @return the number of nodes skipped: the descendants of the element and their attributes
+	 * @throws XMLStreamException
+	 */
+	public int skipElement() throws XMLStreamException {
+		if(this.event.type != XMLStreamConstants.START_ELEMENT)
+			throw new XMLStreamException("Not on a start element");
+		// depth is the number of ancestors of the element
+		this.depth--;
+		final int descendants = this.post - this.pre + this.depth - this.event.attributeCount;
+		// the length counts the bytes from the end of the post value, already read
+		long remaining = this.length - (this.position() - this.bodyStart);
+		try {
+			final int inBuffer = (int) Math.min(remaining, this.bufferLimit - this.bufferPosition);
+			this.bufferPosition += inBuffer;
+			remaining -= inBuffer;
+			if(remaining > 0) {
+				// the buffer is now empty, the stream is read from its next byte
+				this.bufferOffset += this.bufferLimit + remaining;
+				this.bufferPosition = 0;
+				this.bufferLimit = 0;
+			}
+			while(remaining > 0) {
+				final long skipped = this.in.skip(remaining);
+				if(skipped <= 0) {
+					if(this.in.read() == -1)
+						throw new XMLStreamException("Unexpected end of file");
+					remaining--;
+				}
+				else
+					remaining -= skipped;
+			}
+		} catch (IOException e) {
+			throw new XMLStreamException(e);
+		}
+		this.event.type = XMLStreamConstants.END_ELEMENT;
+		return descendants;
+	}
+
+	private void setName(int tag) {
+		this.event.localName = this.dictionary.localNames[tag];
+		this.event.namespaceURI = this.dictionary.namespaces[tag];
+		this.event.prefix = this.dictionary.prefixes[tag];
+	}
+
+	private void readStartElement() throws IOException {
+		final Event event = this.event;
+		this.length = this.readVarLong();
+		this.post = this.readVarInt();
+		this.bodyStart = this.position();
+
+		this.pre = this.readVarInt();
+		final int tag = this.readVarInt();
+		this.setName(tag);
+		event.setAttributeCount(this.readVarInt());
+		for(int i = 0; i < event.attributeCount; i++) {
+			final int attributeTag = this.readVarInt();
+			event.attributeLocalNames[i] = this.dictionary.localNames[attributeTag];
+			event.attributeNamespaces[i] = this.dictionary.namespaces[attributeTag];
+			event.attributePrefixes[i] = this.dictionary.prefixes[attributeTag];
+			event.attributeValues[i] = this.readString();
+		}
+		event.setNamespaceCount(this.readVarInt());
+		for(int i = 0; i < event.namespaceCount; i++) {
+			event.namespacePrefixes[i] = this.readString();
+			event.namespaceURIs[i] = this.readString();
+		}
+		event.textLength = 0;
+
+		if(this.depth == this.openTags.length)
+			this.openTags = Arrays.copyOf(this.openTags, 2 * this.depth);
+		this.openTags[this.depth++] = tag;
+	}
+
+	private void readText() throws IOException {
+		final Event event = this.event;
+		final int byteLength = this.readVarInt();
+		// UTF-8 takes at least as many bytes as UTF-16 chars
+		event.reserveText(byteLength);
+		final char[] text = event.text;
+		int n = 0;
+		int remaining = byteLength;
+		while(remaining > 0) {
+			final int b = this.readByte();
+			remaining--;
+			if(b < 0x80)
+				text[n++] = (char) b;
+			else if(b < 0xE0) {
+				text[n++] = (char) (((b & 0x1F) << 6) | (this.readByte() & 0x3F));
+				remaining--;
+			}
+			else if(b < 0xF0) {
+				text[n++] = (char) (((b & 0x0F) << 12) | ((this.readByte() & 0x3F) << 6) | (this.readByte() & 0x3F));
+				remaining -= 2;
+			}
+			else {
+				final int codePoint = ((b & 0x07) << 18) | ((this.readByte() & 0x3F) << 12) |
+						((this.readByte() & 0x3F) << 6) | (this.readByte() & 0x3F);
+				n += Character.toChars(codePoint, text, n);
+				remaining -= 3;
+			}
+		}
+		event.textLength = n;
+	}
+
+	private String readString() throws IOException {
+		this.readText();
+		return new String(this.event.text, 0, this.event.textLength);
+	}
+
+	private int readByte() throws IOException {
+		if(this.bufferPosition == this.bufferLimit) {
+			final int n = this.in.read(this.buffer, 0, this.buffer.length);
+			if(n <= 0)
+				throw new IOException("Unexpected end of file");
+			this.bufferOffset += this.bufferLimit;
+			this.bufferPosition = 0;
+			this.bufferLimit = n;
+		}
+		return this.buffer[this.bufferPosition++] & 0xff;
+	}
+
+	private long position() {
+		return this.bufferOffset + this.bufferPosition;
+	}
+
+	/**
+	 * @return the number of bytes read from the stream so far
+	 */
+	public long getPosition() {
+		return this.position();
+	}
+
+	private long readVarLong() throws IOException {
+		long v = 0;
+		int shift = 0;
+		int b;
+		do {
+			b = this.readByte();
+			v |= (long) (b & 0x7F) << shift;
+			shift += 7;
+		} while((b & 0x80) != 0);
+		return v;
+	}
+
+	private int readVarInt() throws IOException {
+		int v = 0;
+		int shift = 0;
+		int b;
+		do {
+			b = this.readByte();
+			v |= (b & 0x7F) << shift;
+			shift += 7;
+		} while((b & 0x80) != 0);
+		return v;
+	}
+
+	@Override
+	public String getEncoding() {
+		return "UTF-8";
+	}
+
+	@Override
+	public String getCharacterEncodingScheme() {
+		return "UTF-8";
+	}
+
+	@Override
+	public String getVersion() {
+		return "1.0";
+	}
+
+	@Override
+	public void close() throws XMLStreamException {
+		// the stream belongs to the caller
+	}
+
+
+	/**
+	 * Tag dictionary of a converted file.
+	 */
+	public static final class TagDictionary {
+
+		private final String[] namespaces;
+
+		private final String[] localNames;
+
+		private final String[] prefixes;
+
+		private TagDictionary(int size) {
+			this.namespaces = new String[size];
+			this.localNames = new String[size];
+			this.prefixes = new String[size];
+		}
+
+		/**
+		 * Reads the dictionary from the trailer of a file.
+		 */
+		public static TagDictionary read(DataInput in) throws IOException {
+			final TagDictionary dictionary = new TagDictionary(readVarInt(in));
+			for(int i = 0; i < dictionary.localNames.length; i++) {
+				// as for a parser, no namespace is a null URI, and no prefix an empty one
+				final String namespace = readString(in);
+				dictionary.namespaces[i] = namespace.isEmpty() ? null : namespace.intern();
+				dictionary.localNames[i] = readString(in).intern();
+				dictionary.prefixes[i] = readString(in).intern();
+			}
+			return dictionary;
+		}
+
+		/**
+		 * @return true if an element or attribute of the file has the given name
+		 */
+		public boolean contains(String namespace, String localName) {
+			for(int i = 0; i < this.localNames.length; i++) {
+				if(this.localNames[i].equals(localName) &&
+						(this.namespaces[i] != null ? this.namespaces[i] : "").equals(namespace))
+					return true;
+			}
+			return false;
+		}
+
+		private static int readVarInt(DataInput in) throws IOException {
+			int v = 0;
+			int shift = 0;
+			int b;
+			do {
+				b = in.readUnsignedByte();
+				v |= (b & 0x7F) << shift;
+				shift += 7;
+			} while((b & 0x80) != 0);
+			return v;
+		}
+
+		private static String readString(DataInput in) throws IOException {
+			final byte[] bytes = new byte[readVarInt(in)];
+			in.readFully(bytes);
+			return new String(bytes, "UTF-8");
+		}
+
+	}
+
+}
@@ -0,0 +1,305 @@
+/*******************************************************************************
+ * Copyright (C) 2013, 2014, 2015 by Inria and Paris-Sud University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package fr.inria.oak.paxquery.pact.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.flink.core.fs.FileSystem;
+import org.apache.flink.core.fs.Path;
+
+
+/**
+ * Converts an XML document into the binary format read by {@link XmlBinTreePatternInputFormat}:
+ * the events of the parser, with the names already resolved, so that a document that is
+ * queried many times is only parsed once.
+ *
+ * The file starts with a magic number, followed by the events:
+ * <ul>
+ * <li>start element: its code, the length in bytes of the rest of the element (after its post
+ * value, up to and including its end event), its post and pre values, its tag, its attributes
+ * (tag and value) and its namespace declarations (prefix and URI);</li>
+ * <li>end element: its code only, the element being the last one opened;</li>
+ * <li>characters: its code and the text;</li>
+ * <li>end of document: its code.</li>
+ * </ul>
+ * Tags are numbers in a dictionary of (namespace, local name, prefix) entries, written after the
+ * events; the file ends with the offset of the dictionary and the magic number, as fixed size
+ * numbers. Pre and post values number elements and attributes as
+ * {@link fr.inria.oak.paxquery.common.xml.nodeidentifier.PrePostDepthIDScheme} does; together
+ * with the length of an element, they allow skipping its subtree without reading it. Other
+ * numbers are written as variable length integers, strings as UTF-8.
+ *
+ * The lengths and post values of the elements are only known at their end, so the document is
+ * parsed twice: the first pass computes them, the second one writes the file.
+ *
+ */
+public class BinaryXmlWriter {
+
+	public static final int MAGIC = 0x50584231;
+
+	/**
+	 * Extension of the converted files; a path with this extension is read with the binary input format.
+	 */
+	public static final String EXTENSION = ".pxb";
+
+	static final byte END_DOCUMENT = 0;
+
+	static final byte START_ELEMENT = 1;
+
+	static final byte END_ELEMENT = 2;
+
+	static final byte CHARACTERS = 3;
+
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+
+	// null in the first pass, where bytes are only counted
+	private final OutputStream out;
+
+	private final byte[] buffer;
+
+	private int bufferPosition;
+
+	private long flushed;
+
+	private final HashMap<String, Integer> tagCodes;
+
+	private final ArrayList<String[]> tags;
+
+	// length and post value of each element, in document order
+	private long[] lengths;
+
+	private int[] posts;
+
+	private int elements;
+
+	// elements that are open, as indexes in the arrays above, and where their length starts
+	private int[] openElements;
+
+	private long[] bodyStarts;
+
+	private int depth;
+
+	private int pre;
+
+	private int post;
+
+
+	private BinaryXmlWriter(OutputStream out, BinaryXmlWriter firstPass) {
+		this.out = out;
+		this.buffer = new byte[BUFFER_SIZE];
+		this.tagCodes = new HashMap<String, Integer>();
+		this.tags = new ArrayList<String[]>();
+		if(firstPass != null) {
+			this.lengths = firstPass.lengths;
+			this.posts = firstPass.posts;
+		}
+		else {
+			this.lengths = new long[1024];
+			this.posts = new int[1024];
+		}
+		this.openElements = new int[64];
+		this.bodyStarts = new long[64];
+	}
+
+	/**
+	 * Converts a document.
+	 *
+	 * @param xml the document
+	 * @param target the stream to write to; it is not closed
+	 * @return the number of elements of the document
+	 * @throws IOException
+	 * @throws XMLStreamException if the document is not well-formed
+	 */
+	public static int convert(Path xml, OutputStream target) throws IOException, XMLStreamException {
+		final FileSystem fs = xml.getFileSystem();
+		final BinaryXmlWriter firstPass = new BinaryXmlWriter(null, null);
+		firstPass.write(fs.open(xml));
+		final BinaryXmlWriter secondPass = new BinaryXmlWriter(target, firstPass);
+		secondPass.write(fs.open(xml));
+		return secondPass.elements;
+	}
+
+	private void write(InputStream xml) throws IOException, XMLStreamException {
+		try {
+			this.writeInt(MAGIC);
+			final XMLStreamReader reader = XMLInputFactory.newInstance().createXMLStreamReader(xml);
+			while(reader.hasNext()) {
+				final int event = reader.next();
+				if(event == XMLStreamConstants.START_ELEMENT)
+					this.startElement(reader);
+				else if(event == XMLStreamConstants.END_ELEMENT)
+					this.endElement();
+				else if(event == XMLStreamConstants.CHARACTERS)
+					this.characters(reader);
+			}
+			reader.close();
+			this.writeByte(END_DOCUMENT);
+			this.writeTrailer();
+			this.flush();
+		} finally {
+			xml.close();
+		}
+	}
+
+	private void startElement(XMLStreamReader reader) throws IOException {
+		if(this.out == null && this.elements == this.lengths.length) {
+			this.lengths = Arrays.copyOf(this.lengths, 2 * this.elements);
+			this.posts = Arrays.copyOf(this.posts, 2 * this.elements);
+		}
+		if(this.depth == this.openElements.length) {
+			this.openElements = Arrays.copyOf(this.openElements, 2 * this.depth);
+			this.bodyStarts = Arrays.copyOf(this.bodyStarts, 2 * this.depth);
+		}
+
+		this.writeByte(START_ELEMENT);
+		if(this.out != null) {
+			this.writeVarLong(this.lengths[this.elements]);
+			this.writeVarLong(this.posts[this.elements]);
+		}
+		this.bodyStarts[this.depth] = this.position();
+		this.openElements[this.depth++] = this.elements++;
+
+		this.writeVarLong(this.pre);
+		this.writeVarLong(this.getTagCode(reader.getNamespaceURI(), reader.getLocalName(), reader.getPrefix()));
+		final int attributeCount = reader.getAttributeCount();
+		this.writeVarLong(attributeCount);
+		for(int i = 0; i < attributeCount; i++) {
+			this.writeVarLong(this.getTagCode(reader.getAttributeNamespace(i), reader.getAttributeLocalName(i), reader.getAttributePrefix(i)));
+			this.writeString(reader.getAttributeValue(i));
+		}
+		final int namespaceCount = reader.getNamespaceCount();
+		this.writeVarLong(namespaceCount);
+		for(int i = 0; i < namespaceCount; i++) {
+			this.writeString(reader.getNamespacePrefix(i));
+			this.writeString(reader.getNamespaceURI(i));
+		}
+
+		// attributes are numbered as nodes that end right after they begin
+		this.pre += 1 + attributeCount;
+		this.post += attributeCount;
+	}
+
+	private void endElement() throws IOException {
+		this.writeByte(END_ELEMENT);
+		this.depth--;
+		if(this.out == null) {
+			final int element = this.openElements[this.depth];
+			final long length = this.position() - this.bodyStarts[this.depth];
+			this.lengths[element] = length;
+			this.posts[element] = this.post;
+			// the length and post value come before the rest of the element in the file
+			this.flushed += varLongSize(length) + varLongSize(this.post);
+		}
+		this.post++;
+	}
+
+	private void characters(XMLStreamReader reader) throws IOException {
+		this.writeByte(CHARACTERS);
+		this.writeString(new String(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength()));
+	}
+
+	private int getTagCode(String namespace, String localName, String prefix) {
+		final String ns = namespace != null ? namespace : "";
+		final String p = prefix != null ? prefix : "";
+		// names and URIs cannot contain line breaks
+		final String key = ns + '\n' + p + '\n' + localName;
+		Integer code = this.tagCodes.get(key);
+		if(code == null) {
+			code = this.tags.size();
+			this.tags.add(new String[]{ns, localName, p});
+			this.tagCodes.put(key, code);
+		}
+		return code;
+	}
+
+	private void writeTrailer() throws IOException {
+		final long dictionaryOffset = this.position();
+		this.writeVarLong(this.tags.size());
+		for(String[] tag : this.tags) {
+			this.writeString(tag[0]);
+			this.writeString(tag[1]);
+			this.writeString(tag[2]);
+		}
+		this.writeLong(dictionaryOffset);
+		this.writeInt(MAGIC);
+	}
+
+	private long position() {
+		return this.flushed + this.bufferPosition;
+	}
+
+	private void writeByte(int b) throws IOException {
+		if(this.bufferPosition == this.buffer.length)
+			this.flush();
+		this.buffer[this.bufferPosition++] = (byte) b;
+	}
+
+	private void writeInt(int v) throws IOException {
+		for(int j = 24; j >= 0; j -= 8)
+			this.writeByte(v >>> j);
+	}
+
+	private void writeLong(long v) throws IOException {
+		for(int j = 56; j >= 0; j -= 8)
+			this.writeByte((int) (v >>> j));
+	}
+
+	private void writeVarLong(long v) throws IOException {
+		while((v & ~0x7FL) != 0) {
+			this.writeByte((int) (v & 0x7F) | 0x80);
+			v >>>= 7;
+		}
+		this.writeByte((int) v);
+	}
+
+	private static int varLongSize(long v) {
+		int size = 1;
+		while((v & ~0x7FL) != 0) {
+			size++;
+			v >>>= 7;
+		}
+		return size;
+	}
+
+	private void writeString(String s) throws IOException {
+		final byte[] bytes = (s != null ? s : "").getBytes(UTF8);
+		this.writeVarLong(bytes.length);
+		for(int i = 0; i < bytes.length; i++)
+			this.writeByte(bytes[i]);
+	}
+
+	private void flush() throws IOException {
+		if(this.out != null)
+			this.out.write(this.buffer, 0, this.bufferPosition);
+		this.flushed += this.bufferPosition;
+		this.bufferPosition = 0;
+	}
+
+}
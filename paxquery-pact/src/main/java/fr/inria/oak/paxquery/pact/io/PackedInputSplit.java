@@ -0,0 +1,152 @@
+/*******************************************************************************
+ * Copyright (C) 2013, 2014, 2015 by Inria and Paris-Sud University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package fr.inria.oak.paxquery.pact.io;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.apache.flink.core.fs.FileInputSplit;
+import org.apache.flink.core.fs.Path;
+import org.apache.flink.core.memory.DataInputView;
+import org.apache.flink.core.memory.DataOutputView;
+
+
+/**
+ * Input split made of several documents, read one after another by the same task. A document
+ * is either a whole file, or a region of a file packed by {@link XmlDocumentPacker}; each one
+ * keeps its own document ID. The path and length of the split are the ones of its first
+ * document and the total length of its documents.
+ *
+ */
+public class PackedInputSplit extends FileInputSplit {
+
+	private Path[] paths;
+
+	private long[] starts;
+
+	private long[] lengths;
+
+	private String[] documentIDs;
+
+
+	public PackedInputSplit() {
+		super();
+	}
+
+	public PackedInputSplit(int num, List<Document> documents, String[] hosts) {
+		super(num, documents.get(0).path, 0, totalLength(documents), hosts);
+		final int n = documents.size();
+		this.paths = new Path[n];
+		this.starts = new long[n];
+		this.lengths = new long[n];
+		this.documentIDs = new String[n];
+		for(int i = 0; i < n; i++) {
+			final Document document = documents.get(i);
+			this.paths[i] = document.path;
+			this.starts[i] = document.start;
+			this.lengths[i] = document.length;
+			this.documentIDs[i] = document.documentID;
+		}
+	}
+
+	private static long totalLength(List<Document> documents) {
+		long length = 0;
+		for(Document document : documents)
+			length += document.length;
+		return length;
+	}
+
+	public int getNumberOfDocuments() {
+		return this.paths.length;
+	}
+
+	/**
+	 * @return the split that reads the i-th document alone
+	 */
+	public FileInputSplit getDocumentSplit(int i) {
+		return new FileInputSplit(this.getSplitNumber(), this.paths[i], this.starts[i], this.lengths[i], this.getHostNames());
+	}
+
+	public String getDocumentID(int i) {
+		return this.documentIDs[i];
+	}
+
+	@Override
+	public void write(DataOutputView out) throws IOException {
+		super.write(out);
+		out.writeInt(this.paths.length);
+		for(int i = 0; i < this.paths.length; i++) {
+			this.paths[i].write(out);
+			out.writeLong(this.starts[i]);
+			out.writeLong(this.lengths[i]);
+			out.writeUTF(this.documentIDs[i]);
+		}
+	}
+
+	@Override
+	public void read(DataInputView in) throws IOException {
+		super.read(in);
+		final int n = in.readInt();
+		this.paths = new Path[n];
+		this.starts = new long[n];
+		this.lengths = new long[n];
+		this.documentIDs = new String[n];
+		for(int i = 0; i < n; i++) {
+			this.paths[i] = new Path();
+			this.paths[i].read(in);
+			this.starts[i] = in.readLong();
+			this.lengths[i] = in.readLong();
+			this.documentIDs[i] = in.readUTF();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "[" + this.getSplitNumber() + "] " + this.paths.length + " documents from " + this.getPath();
+	}
+
+
+	/**
+	 * A document of a packed split.
+	 */
+	public static final class Document {
+
+		private final Path path;
+
+		private final long start;
+
+		private final long length;
+
+		private final String documentID;
+
+		public Document(Path path, long start, long length, String documentID) {
+			this.path = path;
+			this.start = start;
+			this.length = length;
+			this.documentID = documentID;
+		}
+
+		public long getStart() {
+			return this.start;
+		}
+
+		public long getLength() {
+			return this.length;
+		}
+
+	}
+
+}
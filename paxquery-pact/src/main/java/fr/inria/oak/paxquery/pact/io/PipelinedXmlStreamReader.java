@@ -0,0 +1,440 @@
+/*******************************************************************************
+ * Copyright (C) 2013, 2014, 2015 by Inria and Paris-Sud University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package fr.inria.oak.paxquery.pact.io;
+
+import java.io.IOException;
+import java.util.concurrent.CancellationException;
+
+import javax.xml.stream.Location;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+
+/**
+ * Stream reader whose events are parsed ahead by another thread. The parser thread reads the
+ * documents of a source one after another, and copies the start element, end element and
+ * characters events into a bounded ring of reusable events, which this reader replays; other
+ * events are dropped. Events are handed over by batches, so that the threads seldom synchronize.
+ * The parser thread is started once, and the reader goes from one document to the next with
+ * {@link #nextDocument()}.
+ *
+ * The location of an event only gives its character offset, as of the last start element.
+ *
+ */
+public class PipelinedXmlStreamReader extends ReplayXmlStreamReader {
+
+	/**
+	 * Number of events in the ring; a power of two.
+	 */
+	private static final int CAPACITY = 4096;
+
+	/**
+	 * Number of events after which they are handed over.
+	 */
+	private static final int BATCH = 256;
+
+	/**
+	 * Event written after the last document of the source.
+	 */
+	private static final int NO_MORE_DOCUMENTS = -1;
+
+	/**
+	 * Event written when a document cannot be parsed to its end, or the source fails.
+	 */
+	private static final int ERROR = -2;
+
+
+	/**
+	 * Documents read by the parser thread.
+	 */
+	public interface DocumentSource {
+
+		/**
+		 * Opens the next document; called by the parser thread, which parses it to its end
+		 * before asking for the next one.
+		 *
+		 * @return the reader of the document, or null if there are no more documents
+		 */
+		XMLStreamReader nextDocument() throws IOException;
+
+		/**
+		 * @return the ID of the document last opened
+		 */
+		String getDocumentID();
+
+		/**
+		 * Releases the last document; called by the parser thread when it stops.
+		 */
+		void close() throws IOException;
+
+	}
+
+
+	private final DocumentSource source;
+
+	private final Event[] ring;
+
+	private final Object lock = new Object();
+
+	private Thread parser;
+
+	// guarded by the lock: events written by the parser, events the reader is done with
+	private long published;
+
+	private long consumed;
+
+	private boolean parserWaiting;
+
+	private boolean cancelled;
+
+	// state of the parser thread
+	private long written;
+
+	private long writable;
+
+	// state of the reader thread
+	private long position;
+
+	private long readable;
+
+	private boolean finished;
+
+	private String documentID;
+
+
+	/**
+	 * @param source the documents to parse ahead
+	 */
+	public PipelinedXmlStreamReader(DocumentSource source) {
+		super(new Event());
+		this.event.type = XMLStreamConstants.END_DOCUMENT;
+		this.source = source;
+		this.ring = new Event[CAPACITY];
+		for(int i = 0; i < CAPACITY; i++)
+			this.ring[i] = new Event();
+		this.writable = CAPACITY;
+	}
+
+	/**
+	 * Starts the parser thread.
+	 */
+	public void start(String name) {
+		this.parser = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				PipelinedXmlStreamReader.this.parse();
+			}
+		}, name);
+		this.parser.setDaemon(true);
+		this.parser.start();
+	}
+
+	/**
+	 * Stops the parser thread; a reader that waits for events gets a {@link CancellationException}.
+	 */
+	public void cancel() {
+		synchronized(this.lock) {
+			this.cancelled = true;
+			this.lock.notifyAll();
+		}
+	}
+
+	/**
+	 * Stops the parser thread, and waits until it has released the source.
+	 */
+	public void stop() throws InterruptedException {
+		this.cancel();
+		if(this.parser != null)
+			this.parser.join();
+	}
+
+	private void parse() {
+		XMLStreamReader document = null;
+		try {
+			while(true) {
+				try {
+					document = this.source.nextDocument();
+				} catch (IOException e) {
+					this.reserve().setError(e);
+					this.commit();
+					break;
+				}
+				if(document == null) {
+					this.reserve().type = NO_MORE_DOCUMENTS;
+					this.commit();
+					break;
+				}
+
+				this.reserve().startDocument(this.source.getDocumentID());
+				this.commit();
+				try {
+					int type;
+					do {
+						type = document.next();
+						if(type != XMLStreamConstants.START_ELEMENT && type != XMLStreamConstants.END_ELEMENT &&
+								type != XMLStreamConstants.CHARACTERS && type != XMLStreamConstants.END_DOCUMENT)
+							continue;
+						this.reserve().copy(document, type);
+						this.commit();
+					} while(type != XMLStreamConstants.END_DOCUMENT);
+				} catch (XMLStreamException e) {
+					// the reader gets the error at the end of the events of the document
+					this.reserve().setError(e);
+					this.commit();
+				}
+				closeQuietly(document);
+				document = null;
+			}
+			this.publish(this.written, false);
+		} catch (CancellationException e) {
+			// the reader is stopped
+		} finally {
+			closeQuietly(document);
+			try {
+				this.source.close();
+			} catch (IOException e) {
+				// nothing is read from the source anymore
+			}
+		}
+	}
+
+	private static void closeQuietly(XMLStreamReader document) {
+		if(document == null)
+			return;
+		try {
+			document.close();
+		} catch (XMLStreamException e) {
+			// the events of the document have been copied
+		}
+	}
+
+	/**
+	 * @return the next event of the ring that the parser can write, once the reader has freed it
+	 */
+	private Event reserve() {
+		if(this.written == this.writable)
+			this.writable = this.publish(this.written, true);
+		return this.ring[(int) (this.written & (CAPACITY - 1))];
+	}
+
+	/**
+	 * Adds the reserved event to the written events, which are handed over by batches.
+	 */
+	private void commit() {
+		this.written++;
+		if(this.written % BATCH == 0)
+			this.writable = this.publish(this.written, false);
+	}
+
+	/**
+	 * Hands the written events over to the reader, waiting for free room in the ring if asked.
+	 *
+	 * @return the number of events that can be written without waiting
+	 */
+	private long publish(long written, boolean waitForRoom) {
+		synchronized(this.lock) {
+			this.published = written;
+			this.lock.notifyAll();
+			while(waitForRoom && written - this.consumed >= CAPACITY && !this.cancelled) {
+				this.parserWaiting = true;
+				try {
+					this.lock.wait();
+				} catch (InterruptedException e) {
+					this.cancelled = true;
+				}
+				this.parserWaiting = false;
+			}
+			if(this.cancelled)
+				throw new CancellationException();
+			return this.consumed + CAPACITY;
+		}
+	}
+
+	/**
+	 * Moves the reader to the start of the next document, skipping what is left of the current one.
+	 *
+	 * @return false if the source has no more documents
+	 * @throws IOException if the source failed to open the next document
+	 */
+	public boolean nextDocument() throws IOException {
+		while(!this.finished) {
+			final Event event = this.advance();
+			if(event.type == XMLStreamConstants.START_DOCUMENT) {
+				this.documentID = event.localName;
+				this.clearNamespaces();
+				return true;
+			}
+			if(event.type == NO_MORE_DOCUMENTS)
+				this.finished = true;
+			else if(event.type == ERROR && event.error instanceof IOException) {
+				this.finished = true;
+				throw (IOException) event.error;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return the ID of the current document, as given by the source
+	 */
+	public String getDocumentID() {
+		return this.documentID;
+	}
+
+	@Override
+	protected void nextEvent() throws XMLStreamException {
+		final Event event = this.advance();
+		if(event.type == ERROR)
+			throw event.error instanceof XMLStreamException ?
+					(XMLStreamException) event.error : new XMLStreamException(event.error);
+	}
+
+	private Event advance() {
+		if(this.position == this.readable)
+			this.readable = this.acquire();
+		else if(this.position % BATCH == 0)
+			this.release();
+		final Event event = this.ring[(int) (this.position++ & (CAPACITY - 1))];
+		this.event = event;
+		return event;
+	}
+
+	/**
+	 * Frees the events before the current one, and waits for new events.
+	 *
+	 * @return the number of events that can be read without waiting
+	 */
+	private long acquire() {
+		synchronized(this.lock) {
+			this.consumed = Math.max(0, this.position - 1);
+			this.lock.notifyAll();
+			while(this.published == this.position && !this.cancelled) {
+				try {
+					this.lock.wait();
+				} catch (InterruptedException e) {
+					this.cancelled = true;
+				}
+			}
+			if(this.cancelled)
+				throw new CancellationException();
+			return this.published;
+		}
+	}
+
+	/**
+	 * Frees the events before the current one, if the parser waits for them.
+	 */
+	private void release() {
+		synchronized(this.lock) {
+			this.consumed = this.position - 1;
+			if(this.parserWaiting)
+				this.lock.notifyAll();
+		}
+	}
+
+	@Override
+	public boolean hasNext() throws XMLStreamException {
+		return this.event.type != XMLStreamConstants.END_DOCUMENT && this.event.type != ERROR &&
+				this.event.type != NO_MORE_DOCUMENTS;
+	}
+
+	@Override
+	public Location getLocation() {
+		final int characterOffset = ((Event) this.event).characterOffset;
+		return new Location() {
+			public int getLineNumber() { return -1; }
+			public int getColumnNumber() { return -1; }
+			public int getCharacterOffset() { return characterOffset; }
+			public String getPublicId() { return null; }
+			public String getSystemId() { return null; }
+		};
+	}
+
+	@Override
+	public void close() throws XMLStreamException {
+		this.cancel();
+	}
+
+
+	/**
+	 * Copy of a parser event; names are kept as the parser gives them.
+	 */
+	private static final class Event extends ReplayXmlStreamReader.Event {
+
+		private int characterOffset;
+
+		private Exception error;
+
+		private Event() {
+			super(XMLStreamConstants.START_DOCUMENT);
+		}
+
+		private void startDocument(String documentID) {
+			this.type = XMLStreamConstants.START_DOCUMENT;
+			// kept as the name of the event
+			this.localName = documentID;
+			this.attributeCount = 0;
+			this.namespaceCount = 0;
+			this.textLength = 0;
+		}
+
+		private void setError(Exception error) {
+			this.type = ERROR;
+			this.error = error;
+		}
+
+		private void copy(XMLStreamReader reader, int type) {
+			this.type = type;
+			this.error = null;
+			this.attributeCount = 0;
+			this.namespaceCount = 0;
+			this.textLength = 0;
+			if(type == XMLStreamConstants.CHARACTERS) {
+				this.reserveText(reader.getTextLength());
+				this.textLength = reader.getTextLength();
+				System.arraycopy(reader.getTextCharacters(), reader.getTextStart(), this.text, 0, this.textLength);
+				return;
+			}
+			if(type == XMLStreamConstants.END_DOCUMENT) {
+				this.characterOffset = reader.getLocation().getCharacterOffset();
+				return;
+			}
+
+			this.localName = reader.getLocalName();
+			this.namespaceURI = reader.getNamespaceURI();
+			this.prefix = reader.getPrefix();
+			if(type == XMLStreamConstants.END_ELEMENT)
+				return;
+
+			this.characterOffset = reader.getLocation().getCharacterOffset();
+			this.setAttributeCount(reader.getAttributeCount());
+			for(int i = 0; i < this.attributeCount; i++) {
+				this.attributeNamespaces[i] = reader.getAttributeNamespace(i);
+				this.attributeLocalNames[i] = reader.getAttributeLocalName(i);
+				this.attributePrefixes[i] = reader.getAttributePrefix(i);
+				this.attributeValues[i] = reader.getAttributeValue(i);
+			}
+			this.setNamespaceCount(reader.getNamespaceCount());
+			for(int i = 0; i < this.namespaceCount; i++) {
+				this.namespacePrefixes[i] = reader.getNamespacePrefix(i);
+				this.namespaceURIs[i] = reader.getNamespaceURI(i);
+			}
+		}
+
+	}
+
+}
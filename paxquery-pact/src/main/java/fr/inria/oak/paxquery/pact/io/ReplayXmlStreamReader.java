@@ -0,0 +1,514 @@
+/*******************************************************************************
+ * Copyright (C) 2013, 2014, 2015 by Inria and Paris-Sud University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package fr.inria.oak.paxquery.pact.io;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import javax.xml.XMLConstants;
+import javax.xml.namespace.NamespaceContext;
+import javax.xml.namespace.QName;
+import javax.xml.stream.Location;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+
+/**
+ * Stream reader that replays events read beforehand, by another parser or from a converted
+ * document. The subclasses only tell where the next event comes from; this class answers for
+ * the current event, and keeps the namespaces declared by the open elements.
+ *
+ * There are only start element, end element, characters and document events: no comments,
+ * processing instructions or DTD events.
+ *
+ */
+public abstract class ReplayXmlStreamReader implements XMLStreamReader {
+
+	private static final Location NO_LOCATION = new Location() {
+		public int getLineNumber() { return -1; }
+		public int getColumnNumber() { return -1; }
+		public int getCharacterOffset() { return -1; }
+		public String getPublicId() { return null; }
+		public String getSystemId() { return null; }
+	};
+
+
+	/**
+	 * The current event.
+	 */
+	protected Event event;
+
+	// namespaces declared by the open elements, and the first declaration of each
+	private int namespaceSize;
+
+	private int namespaceDepth;
+
+	private int[] namespaceStarts;
+
+	private String[] namespacePrefixes;
+
+	private String[] namespaceURIs;
+
+	private final NamespaceContext namespaceContext;
+
+
+	/**
+	 * @param event the event the reader starts on
+	 */
+	protected ReplayXmlStreamReader(Event event) {
+		this.event = event;
+		this.namespaceStarts = new int[64];
+		this.namespacePrefixes = new String[4];
+		this.namespaceURIs = new String[4];
+		this.namespaceContext = new ScopeContext();
+	}
+
+	/**
+	 * Moves {@link #event} to the next event.
+	 */
+	protected abstract void nextEvent() throws XMLStreamException;
+
+	@Override
+	public int next() throws XMLStreamException {
+		// the namespaces of an element stay in scope until its end element is passed
+		if(this.event.type == XMLStreamConstants.END_ELEMENT)
+			this.namespaceSize = this.namespaceStarts[--this.namespaceDepth];
+		this.nextEvent();
+		if(this.event.type == XMLStreamConstants.START_ELEMENT)
+			this.declareNamespaces();
+		else if(this.event.type == XMLStreamConstants.START_DOCUMENT)
+			this.clearNamespaces();
+		return this.event.type;
+	}
+
+	/**
+	 * Adds the namespaces declared by the current element to those in scope.
+	 */
+	private void declareNamespaces() {
+		final Event event = this.event;
+		if(this.namespaceDepth == this.namespaceStarts.length)
+			this.namespaceStarts = Arrays.copyOf(this.namespaceStarts, 2 * this.namespaceDepth);
+		this.namespaceStarts[this.namespaceDepth++] = this.namespaceSize;
+		if(this.namespaceSize + event.namespaceCount > this.namespacePrefixes.length) {
+			final int size = Math.max(this.namespaceSize + event.namespaceCount, 2 * this.namespacePrefixes.length);
+			this.namespacePrefixes = Arrays.copyOf(this.namespacePrefixes, size);
+			this.namespaceURIs = Arrays.copyOf(this.namespaceURIs, size);
+		}
+		for(int i = 0; i < event.namespaceCount; i++) {
+			// the default namespace has an empty prefix, and its undeclaration a null URI
+			final String prefix = event.namespacePrefixes[i];
+			final String namespaceURI = event.namespaceURIs[i];
+			this.namespacePrefixes[this.namespaceSize] = prefix != null ? prefix : "";
+			this.namespaceURIs[this.namespaceSize++] = namespaceURI == null || namespaceURI.isEmpty() ? null : namespaceURI;
+		}
+	}
+
+	/**
+	 * Drops the namespaces in scope, when a new document starts.
+	 */
+	protected void clearNamespaces() {
+		this.namespaceSize = 0;
+		this.namespaceDepth = 0;
+	}
+
+	@Override
+	public boolean hasNext() throws XMLStreamException {
+		return this.event.type != XMLStreamConstants.END_DOCUMENT;
+	}
+
+	@Override
+	public int getEventType() {
+		return this.event.type;
+	}
+
+	@Override
+	public String getLocalName() {
+		return this.event.localName;
+	}
+
+	@Override
+	public String getNamespaceURI() {
+		return this.event.namespaceURI;
+	}
+
+	@Override
+	public String getPrefix() {
+		return this.event.prefix;
+	}
+
+	@Override
+	public QName getName() {
+		return new QName(this.getNamespaceURI(), this.getLocalName(), this.getPrefix());
+	}
+
+	@Override
+	public boolean hasName() {
+		return this.event.type == XMLStreamConstants.START_ELEMENT || this.event.type == XMLStreamConstants.END_ELEMENT;
+	}
+
+	@Override
+	public int getAttributeCount() {
+		return this.event.attributeCount;
+	}
+
+	@Override
+	public String getAttributeNamespace(int index) {
+		return this.event.attributeNamespaces[index];
+	}
+
+	@Override
+	public String getAttributeLocalName(int index) {
+		return this.event.attributeLocalNames[index];
+	}
+
+	@Override
+	public String getAttributePrefix(int index) {
+		return this.event.attributePrefixes[index];
+	}
+
+	@Override
+	public QName getAttributeName(int index) {
+		return new QName(this.getAttributeNamespace(index), this.getAttributeLocalName(index), this.getAttributePrefix(index));
+	}
+
+	@Override
+	public String getAttributeType(int index) {
+		return "CDATA";
+	}
+
+	@Override
+	public String getAttributeValue(int index) {
+		return this.event.attributeValues[index];
+	}
+
+	@Override
+	public String getAttributeValue(String namespaceURI, String localName) {
+		for(int i = 0; i < this.event.attributeCount; i++) {
+			if(this.getAttributeLocalName(i).equals(localName) &&
+					(namespaceURI == null || namespaceURI.equals(this.getAttributeNamespace(i))))
+				return this.event.attributeValues[i];
+		}
+		return null;
+	}
+
+	@Override
+	public boolean isAttributeSpecified(int index) {
+		return true;
+	}
+
+	/**
+	 * @return the position of the first namespace declared by the current element
+	 */
+	private int firstNamespace() {
+		return this.namespaceStarts[this.namespaceDepth - 1];
+	}
+
+	/**
+	 * @return the number of namespaces declared by the current element; on an end element, the
+	 * namespaces that go out of scope
+	 */
+	@Override
+	public int getNamespaceCount() {
+		if(!this.hasName())
+			return 0;
+		return this.namespaceSize - this.firstNamespace();
+	}
+
+	@Override
+	public String getNamespacePrefix(int index) {
+		final String prefix = this.namespacePrefixes[this.firstNamespace() + index];
+		return prefix.isEmpty() ? null : prefix;
+	}
+
+	@Override
+	public String getNamespaceURI(int index) {
+		return this.namespaceURIs[this.firstNamespace() + index];
+	}
+
+	@Override
+	public String getNamespaceURI(String prefix) {
+		if(prefix == null)
+			throw new IllegalArgumentException("Null prefix");
+		if(prefix.equals(XMLConstants.XML_NS_PREFIX))
+			return XMLConstants.XML_NS_URI;
+		if(prefix.equals(XMLConstants.XMLNS_ATTRIBUTE))
+			return XMLConstants.XMLNS_ATTRIBUTE_NS_URI;
+		for(int i = this.namespaceSize - 1; i >= 0; i--) {
+			if(this.namespacePrefixes[i].equals(prefix))
+				return this.namespaceURIs[i];
+		}
+		return null;
+	}
+
+	@Override
+	public NamespaceContext getNamespaceContext() {
+		return this.namespaceContext;
+	}
+
+	@Override
+	public char[] getTextCharacters() {
+		return this.event.text;
+	}
+
+	@Override
+	public int getTextStart() {
+		return 0;
+	}
+
+	@Override
+	public int getTextLength() {
+		return this.event.textLength;
+	}
+
+	@Override
+	public int getTextCharacters(int sourceStart, char[] target, int targetStart, int length) throws XMLStreamException {
+		final int n = Math.max(0, Math.min(length, this.event.textLength - sourceStart));
+		System.arraycopy(this.event.text, sourceStart, target, targetStart, n);
+		return n;
+	}
+
+	@Override
+	public String getText() {
+		return new String(this.event.text, 0, this.event.textLength);
+	}
+
+	@Override
+	public boolean hasText() {
+		return this.event.type == XMLStreamConstants.CHARACTERS;
+	}
+
+	@Override
+	public boolean isStartElement() {
+		return this.event.type == XMLStreamConstants.START_ELEMENT;
+	}
+
+	@Override
+	public boolean isEndElement() {
+		return this.event.type == XMLStreamConstants.END_ELEMENT;
+	}
+
+	@Override
+	public boolean isCharacters() {
+		return this.event.type == XMLStreamConstants.CHARACTERS;
+	}
+
+	@Override
+	public boolean isWhiteSpace() {
+		if(this.event.type != XMLStreamConstants.CHARACTERS)
+			return false;
+		for(int i = 0; i < this.event.textLength; i++) {
+			if(!Character.isWhitespace(this.event.text[i]))
+				return false;
+		}
+		return true;
+	}
+
+	@Override
+	public String getElementText() throws XMLStreamException {
+		if(this.event.type != XMLStreamConstants.START_ELEMENT)
+			throw new XMLStreamException("Not on a start element", this.getLocation());
+		final StringBuilder content = new StringBuilder();
+		int type;
+		while((type = this.next()) != XMLStreamConstants.END_ELEMENT) {
+			if(type == XMLStreamConstants.CHARACTERS)
+				content.append(this.event.text, 0, this.event.textLength);
+			else if(type == XMLStreamConstants.START_ELEMENT)
+				throw new XMLStreamException("Element text content may not contain a start element", this.getLocation());
+			else
+				throw new XMLStreamException("Unexpected end of document when reading element text content", this.getLocation());
+		}
+		return content.toString();
+	}
+
+	@Override
+	public int nextTag() throws XMLStreamException {
+		int type = this.next();
+		while(type == XMLStreamConstants.CHARACTERS && this.isWhiteSpace())
+			type = this.next();
+		if(type != XMLStreamConstants.START_ELEMENT && type != XMLStreamConstants.END_ELEMENT)
+			throw new XMLStreamException("Expected a start or end element, found event " + type, this.getLocation());
+		return type;
+	}
+
+	@Override
+	public void require(int type, String namespaceURI, String localName) throws XMLStreamException {
+		if(type != this.event.type)
+			throw new XMLStreamException("Expected event " + type + ", found " + this.event.type, this.getLocation());
+	}
+
+	@Override
+	public Location getLocation() {
+		return NO_LOCATION;
+	}
+
+	@Override
+	public Object getProperty(String name) {
+		return null;
+	}
+
+	@Override
+	public String getEncoding() {
+		return null;
+	}
+
+	@Override
+	public String getCharacterEncodingScheme() {
+		return null;
+	}
+
+	@Override
+	public String getVersion() {
+		return null;
+	}
+
+	@Override
+	public boolean isStandalone() {
+		return false;
+	}
+
+	@Override
+	public boolean standaloneSet() {
+		return false;
+	}
+
+	@Override
+	public String getPITarget() {
+		return null;
+	}
+
+	@Override
+	public String getPIData() {
+		return null;
+	}
+
+
+	/**
+	 * Namespace context of the current event, read from the declarations of the open elements.
+	 */
+	private final class ScopeContext implements NamespaceContext {
+
+		@Override
+		public String getNamespaceURI(String prefix) {
+			final String namespaceURI = ReplayXmlStreamReader.this.getNamespaceURI(prefix);
+			return namespaceURI != null ? namespaceURI : XMLConstants.NULL_NS_URI;
+		}
+
+		@Override
+		public String getPrefix(String namespaceURI) {
+			final Iterator<String> prefixes = this.getPrefixes(namespaceURI);
+			return prefixes.hasNext() ? prefixes.next() : null;
+		}
+
+		@Override
+		public Iterator<String> getPrefixes(String namespaceURI) {
+			if(namespaceURI == null)
+				throw new IllegalArgumentException("Null namespace URI");
+			final List<String> prefixes = new ArrayList<String>(1);
+			if(namespaceURI.equals(XMLConstants.XML_NS_URI))
+				prefixes.add(XMLConstants.XML_NS_PREFIX);
+			else if(namespaceURI.equals(XMLConstants.XMLNS_ATTRIBUTE_NS_URI))
+				prefixes.add(XMLConstants.XMLNS_ATTRIBUTE);
+			else {
+				// the innermost declarations first, skipping the prefixes they rebind
+				final String[] namespacePrefixes = ReplayXmlStreamReader.this.namespacePrefixes;
+				final String[] namespaceURIs = ReplayXmlStreamReader.this.namespaceURIs;
+				for(int i = ReplayXmlStreamReader.this.namespaceSize - 1; i >= 0; i--) {
+					if(namespaceURI.equals(namespaceURIs[i]) && !prefixes.contains(namespacePrefixes[i]) &&
+							namespaceURI.equals(this.getNamespaceURI(namespacePrefixes[i])))
+						prefixes.add(namespacePrefixes[i]);
+				}
+			}
+			return prefixes.iterator();
+		}
+
+	}
+
+
+	/**
+	 * Copy of a parser event; its arrays are reused from one event to the next.
+	 */
+	protected static class Event {
+
+		protected int type;
+
+		protected String localName;
+
+		protected String namespaceURI;
+
+		protected String prefix;
+
+		protected int attributeCount;
+
+		protected String[] attributeNamespaces = new String[8];
+
+		protected String[] attributeLocalNames = new String[8];
+
+		protected String[] attributePrefixes = new String[8];
+
+		protected String[] attributeValues = new String[8];
+
+		protected int namespaceCount;
+
+		protected String[] namespacePrefixes = new String[4];
+
+		protected String[] namespaceURIs = new String[4];
+
+		protected char[] text = new char[256];
+
+		protected int textLength;
+
+		protected Event(int type) {
+			this.type = type;
+		}
+
+		/**
+		 * Makes room for the given number of attributes.
+		 */
+		protected void setAttributeCount(int attributeCount) {
+			this.attributeCount = attributeCount;
+			if(attributeCount > this.attributeValues.length) {
+				this.attributeNamespaces = new String[attributeCount];
+				this.attributeLocalNames = new String[attributeCount];
+				this.attributePrefixes = new String[attributeCount];
+				this.attributeValues = new String[attributeCount];
+			}
+		}
+
+		/**
+		 * Makes room for the given number of namespace declarations.
+		 */
+		protected void setNamespaceCount(int namespaceCount) {
+			this.namespaceCount = namespaceCount;
+			if(namespaceCount > this.namespaceURIs.length) {
+				this.namespacePrefixes = new String[namespaceCount];
+				this.namespaceURIs = new String[namespaceCount];
+			}
+		}
+
+		/**
+		 * Makes room for text of the given length, dropping the current text.
+		 */
+		protected void reserveText(int length) {
+			if(length > this.text.length)
+				this.text = new char[Math.max(length, 2 * this.text.length)];
+		}
+
+	}
+
+}
@@ -0,0 +1,151 @@
+/*******************************************************************************
+ * Copyright (C) 2013, 2014, 2015 by Inria and Paris-Sud University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package fr.inria.oak.paxquery.pact.io;
+
+import java.io.IOException;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.apache.flink.api.common.io.statistics.BaseStatistics;
+import org.apache.flink.api.java.record.io.FileInputFormat;
+import org.apache.flink.api.java.record.operators.FileDataSource;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.core.fs.FSDataOutputStream;
+import org.apache.flink.core.fs.FileInputSplit;
+import org.apache.flink.core.fs.FileSystem;
+import org.apache.flink.core.fs.Path;
+import org.apache.flink.types.IntValue;
+import org.apache.flink.types.Record;
+import org.apache.flink.types.StringValue;
+
+import fr.inria.oak.paxquery.pact.configuration.PACTOperatorsConfiguration;
+
+
+/**
+ * Input format that converts each XML document of a collection with {@link BinaryXmlWriter},
+ * writing the result in an output directory under the name of the document followed by
+ * {@link BinaryXmlWriter#EXTENSION}. Each document is converted by a single task, which then
+ * produces one record: the path of the document, the path of the converted file and the number
+ * of elements of the document.
+ *
+ */
+public class XmlBinConversionInputFormat extends FileInputFormat {
+
+	/**
+	 * 
+	 */
+	private static final long serialVersionUID = 2203866016263454171L;
+
+
+	private String outputDirectory;
+
+	private transient Path source;
+
+	private transient Path target;
+
+	private transient int elements;
+
+	private transient boolean reachedEnd;
+
+
+	@Override
+	public void configure(Configuration parameters) {
+		super.configure(parameters);
+
+		this.outputDirectory = parameters.getString(PACTOperatorsConfiguration.BINARY_OUTPUT_DIRECTORY_STRING.toString(), null);
+		if(this.outputDirectory == null)
+			throw new IllegalArgumentException("No output directory given for the converted documents");
+		this.unsplittable = true;
+	}
+
+	@Override
+	public FileBaseStatistics getStatistics(BaseStatistics cachedStatistics) {
+		return null;
+	}
+
+	@Override
+	public void open(FileInputSplit split) throws IOException {
+		// the document is read by the converter, from the beginning
+		this.source = split.getPath();
+		this.target = new Path(this.outputDirectory, this.source.getName() + BinaryXmlWriter.EXTENSION);
+		final FileSystem fs = this.target.getFileSystem();
+		final FSDataOutputStream out = fs.create(this.target, true);
+		try {
+			this.elements = BinaryXmlWriter.convert(this.source, out);
+		} catch (XMLStreamException e) {
+			throw new IOException("Document " + this.source + " could not be converted", e);
+		} finally {
+			out.close();
+		}
+		this.reachedEnd = false;
+	}
+
+	@Override
+	public boolean reachedEnd() {
+		return this.reachedEnd;
+	}
+
+	@Override
+	public Record nextRecord(Record record) {
+		record.setField(0, new StringValue(this.source.toString()));
+		record.setField(1, new StringValue(this.target.toString()));
+		record.setField(2, new IntValue(this.elements));
+		this.reachedEnd = true;
+		return record;
+	}
+
+
+	// ============================================================================================
+
+	/**
+	 * Creates a configuration builder that can be used to set the input format's parameters to the config in a fluent
+	 * fashion.
+	 * 
+	 * @return A config builder for setting parameters.
+	 */
+	public static ConfigBuilder configureXmlBinConversionInputFormat(FileDataSource target) {
+		return new ConfigBuilder(target.getParameters());
+	}
+
+	/**
+	 * A builder used to set parameters to the input format's configuration in a fluent way.
+	 */
+	public static class ConfigBuilder
+	{
+		/**
+		 * The configuration into which the parameters will be written.
+		 */
+		protected final Configuration config;
+
+		/**
+		 * Creates a new builder for the given configuration.
+		 * 
+		 * @param targetConfig The configuration into which the parameters will be written.
+		 */
+		protected ConfigBuilder(Configuration targetConfig) {
+			this.config = targetConfig;
+		}
+
+		/**
+		 * Sets the directory where the converted files are written.
+		 */
+		public ConfigBuilder setOutputDirectory(String outputDirectory) {
+			this.config.setString(PACTOperatorsConfiguration.BINARY_OUTPUT_DIRECTORY_STRING.toString(), outputDirectory);
+			return this;
+		}
+	}
+
+}
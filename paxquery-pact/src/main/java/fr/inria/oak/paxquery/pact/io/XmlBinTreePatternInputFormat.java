@@ -0,0 +1,154 @@
+/*******************************************************************************
+ * Copyright (C) 2013, 2014, 2015 by Inria and Paris-Sud University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package fr.inria.oak.paxquery.pact.io;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.flink.api.java.record.operators.FileDataSource;
+import org.apache.flink.core.fs.FSDataInputStream;
+import org.apache.flink.core.fs.FileInputSplit;
+
+import fr.inria.oak.paxquery.common.xml.navigation.NavigationTreePattern;
+import fr.inria.oak.paxquery.common.xml.navigation.NavigationTreePatternEdge;
+import fr.inria.oak.paxquery.common.xml.navigation.NavigationTreePatternNode;
+
+
+/**
+ * Input format that takes a collection of documents converted by {@link BinaryXmlWriter}, and
+ * generates the same records as {@link XmlNavTreePatternInputFormat} does on the original
+ * documents. The events are replayed without parsing and, when subtree skipping is enabled,
+ * the subtrees that cannot contain matches are skipped without being read. A file is not read
+ * at all if its tag dictionary lacks a tag that every match of the patterns needs.
+ *
+ * Each file is read by a single task; record elements and content capture are not supported.
+ *
+ */
+public class XmlBinTreePatternInputFormat extends XmlNavTreePatternInputFormat {
+
+	/**
+	 *
+	 */
+	private static final long serialVersionUID = 5027326128390457720L;
+
+
+	private static final Log logger = LogFactory.getLog(XmlBinTreePatternInputFormat.class);
+
+	/**
+	 * Size of the end of a file: the offset of the tag dictionary and the magic number.
+	 */
+	private static final int TRAILER_SIZE = 8 + 4;
+
+
+	@Override
+	protected boolean readsXmlText() {
+		return false;
+	}
+
+	@Override
+	protected XMLStreamReader openStreamReader(FileInputSplit split, FSDataInputStream stream, InputStream input) throws IOException, XMLStreamException {
+		final long fileLength = split.getPath().getFileSystem().getFileStatus(split.getPath()).getLen();
+		final DataInputStream in = new DataInputStream(stream);
+		stream.seek(0);
+		if(fileLength < 4 + TRAILER_SIZE || in.readInt() != BinaryXmlWriter.MAGIC)
+			throw new IOException(split.getPath() + " is not a converted XML document");
+		stream.seek(fileLength - TRAILER_SIZE);
+		final long dictionaryOffset = in.readLong();
+		if(in.readInt() != BinaryXmlWriter.MAGIC)
+			throw new IOException(split.getPath() + " is incomplete");
+		stream.seek(dictionaryOffset);
+		final BinaryXmlStreamReader.TagDictionary dictionary = BinaryXmlStreamReader.TagDictionary.read(in);
+
+		if(!this.mayMatch(dictionary)) {
+			if(logger.isDebugEnabled())
+				logger.debug("Skipping " + split.getPath() + ": the patterns cannot match it");
+			return null;
+		}
+
+		stream.seek(4);
+		return new BinaryXmlStreamReader(stream, dictionary);
+	}
+
+	@Override
+	protected long getReadPosition(XMLStreamReader reader, long bytesRead) {
+		// the events start after the magic number
+		return 4 + ((BinaryXmlStreamReader) reader).getPosition();
+	}
+
+	@Override
+	protected int skipToEndElement(XMLStreamReader reader) throws XMLStreamException {
+		return ((BinaryXmlStreamReader) reader).skipElement();
+	}
+
+	/**
+	 * @return true if, for some pattern, the file has all the tags that a match needs
+	 */
+	private boolean mayMatch(BinaryXmlStreamReader.TagDictionary dictionary) {
+		for(NavigationTreePattern ntp : this.getNavigationTreePatterns()) {
+			boolean found = true;
+			for(NavigationTreePatternNode node : getRequiredNodes(ntp)) {
+				if(!dictionary.contains(node.getNamespace(), node.getTag())) {
+					found = false;
+					break;
+				}
+			}
+			if(found)
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * @return the nodes of the pattern that are matched in every embedding: the nodes reached from
+	 * the (virtual) root through mandatory edges, except the ones with a wildcard tag
+	 */
+	private static ArrayList<NavigationTreePatternNode> getRequiredNodes(NavigationTreePattern ntp) {
+		ArrayList<NavigationTreePatternNode> required = new ArrayList<NavigationTreePatternNode>();
+		ArrayList<NavigationTreePatternNode> toVisit = new ArrayList<NavigationTreePatternNode>();
+		toVisit.add(ntp.getRoot());
+		while(!toVisit.isEmpty()) {
+			final NavigationTreePatternNode node = toVisit.remove(toVisit.size() - 1);
+			if(node != ntp.getRoot() && !node.getTag().equals("*"))
+				required.add(node);
+			for(NavigationTreePatternEdge edge : node.getEdges()) {
+				if(!edge.isOptional())
+					toVisit.add(edge.n2);
+			}
+		}
+		return required;
+	}
+
+
+	// ============================================================================================
+
+	/**
+	 * Creates a configuration builder that can be used to set the input format's parameters to the config in a fluent
+	 * fashion. The record element and content capture are ignored.
+	 *
+	 * @return A config builder for setting parameters.
+	 */
+	public static ConfigBuilder configureXmlBinInputFormat(FileDataSource target) {
+		return new ConfigBuilder(target.getParameters());
+	}
+
+}
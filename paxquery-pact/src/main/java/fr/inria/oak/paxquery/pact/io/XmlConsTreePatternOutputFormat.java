@@ -33,6 +33,7 @@ import org.apache.flink.configuration.Configuration;
 import org.apache.flink.core.fs.FileSystem.WriteMode;
 import org.apache.flink.types.Record;
 import org.apache.flink.types.StringValue;
+import org.apache.flink.types.Value;
 
 import fr.inria.oak.paxquery.common.datamodel.metadata.NestedMetadata;
 import fr.inria.oak.paxquery.common.xml.construction.ConstructionTreePattern;
@@ -41,6 +42,7 @@ import fr.inria.oak.paxquery.common.xml.construction.ConstructionTreePatternNode
 import fr.inria.oak.paxquery.common.xml.construction.ConstructionTreePatternNode.ContentType;
 import fr.inria.oak.paxquery.pact.configuration.PACTOperatorsConfiguration;
 import fr.inria.oak.paxquery.pact.datamodel.type.RecordList;
+import fr.inria.oak.paxquery.pact.operations.RecordOperations;
 
 /**
  * Output format that generates XML results out of records based on
@@ -200,24 +202,26 @@ public class XmlConsTreePatternOutputFormat extends FileOutputFormat {
 						//Create content from the record
 						List<Integer> varPath = ctpNode.getVarPath();
 						if(varPath.size() == 1) {
-							StringValue v = record.getField(varPath.get(0), StringValue.class);
-							if(!v.getValue().equals("\0")) {
+							StringValue v = RecordOperations.getStringField(record, varPath.get(0), signature.getType(varPath.get(0)));
+							if(!RecordOperations.isNull(v)) {
 								ctpNodeResult.append(v);
 								allNull = false;
 							}
 						}
 						else {
 							RecordList list = record.getField(varPath.get(0), RecordList.class);
+							NestedMetadata nestedSignature = signature.getNestedChild(varPath.get(0));
 							for(int k=1;k<varPath.size()-1;k++) {
+								nestedSignature = nestedSignature.getNestedChild(varPath.get(k));
 								RecordList newList = new RecordList();
 								for(Record nestedRecord: list) {
 									newList.addAll(nestedRecord.getField(varPath.get(k), RecordList.class));
 								}
 								list = newList;
 							}
-							for(Record nestedRecord: list) {
-								StringValue v = nestedRecord.getField(varPath.get(varPath.size()-1), StringValue.class);
-								if(!v.getValue().equals("\0")) {
+							for(Value v: RecordOperations.getColumn(list, varPath.get(varPath.size()-1),
+									nestedSignature.getType(varPath.get(varPath.size()-1)))) {
+								if(!RecordOperations.isNull(v)) {
 									ctpNodeResult.append(v);
 									allNull = false;
 								}
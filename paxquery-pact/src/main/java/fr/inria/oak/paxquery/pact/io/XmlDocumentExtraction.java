@@ -0,0 +1,233 @@
+/*******************************************************************************
+ * Copyright (C) 2013, 2014, 2015 by Inria and Paris-Sud University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package fr.inria.oak.paxquery.pact.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Iterator;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.flink.types.Record;
+import org.apache.flink.types.StringValue;
+
+import fr.inria.oak.paxquery.common.exception.PAXQueryExecutionException;
+import fr.inria.oak.paxquery.pact.operations.RecordOperations;
+import fr.inria.oak.paxquery.pact.operations.xml.navigation.ContentCaptureReader;
+import fr.inria.oak.paxquery.pact.operations.xml.navigation.MultiPatternDocumentExtractor;
+
+
+/**
+ * Extraction of the records of a document, or of the part of it that a split reads, for
+ * {@link XmlNavTreePatternInputFormat}. It keeps all the state of the document: the stream
+ * reader, the extractor of the patterns, the records found but not returned yet and, in
+ * split-aware mode, the state of the split. Thus the records of a document can be extracted
+ * by another thread than the task, see {@link XmlExtractionPipeline}.
+ *
+ */
+class XmlDocumentExtraction {
+
+	private static final Log logger = LogFactory.getLog(XmlDocumentExtraction.class);
+
+
+	private final XmlNavTreePatternInputFormat format;
+
+	private final String documentID;
+
+	// the stream the document is read from, closed with the extraction; null if it belongs to someone else
+	private final Closeable stream;
+
+	private final XMLStreamReader streamReader;
+
+	private final ContentCaptureReader contentReader;
+
+	// null unless the document is split on its records
+	private final XmlRecordSplitState recordSplit;
+
+	private final MultiPatternDocumentExtractor extractor;
+
+	private Iterator<Record> pactRecordsIterator;
+
+	private boolean reachedEnd;
+
+
+	/**
+	 * @param format the format that reads the document
+	 * @param documentID
+	 * @param stream the stream to close with the extraction, or null
+	 * @param streamReader the reader of the document, positioned at its start
+	 * @param contentReader the reader of the characters of the document in content capture mode, or null
+	 * @param recordSplit the state of the split in split-aware mode, or null
+	 * @throws IOException if the document cannot be split with the node IDs the patterns need
+	 */
+	XmlDocumentExtraction(XmlNavTreePatternInputFormat format, String documentID, Closeable stream,
+			XMLStreamReader streamReader, ContentCaptureReader contentReader, XmlRecordSplitState recordSplit)
+			throws IOException {
+		this.format = format;
+		this.documentID = documentID;
+		this.stream = stream;
+		this.streamReader = streamReader;
+		this.contentReader = contentReader;
+		this.recordSplit = recordSplit;
+		this.extractor = format.createExtractor(streamReader, contentReader);
+		if(recordSplit != null)
+			recordSplit.checkNodeIDs(this.extractor, documentID);
+	}
+
+	/**
+	 * @return true if all the records of the document have been returned
+	 */
+	boolean reachedEnd() {
+		return this.reachedEnd && (this.pactRecordsIterator == null || !this.pactRecordsIterator.hasNext());
+	}
+
+	XMLStreamReader getStreamReader() {
+		return this.streamReader;
+	}
+
+	void close() throws IOException {
+		if(this.stream != null)
+			this.stream.close();
+	}
+
+	/**
+	 * Reads the document until the next record.
+	 *
+	 * @param record the record to fill
+	 * @return the record, or null if the document has no more records
+	 * @throws IOException
+	 */
+	Record nextRecord(Record record) throws IOException {
+		if(this.pactRecordsIterator != null) {
+			if(this.pactRecordsIterator.hasNext()) {
+				this.output(record, this.pactRecordsIterator.next());
+				return record;
+			}
+
+			this.pactRecordsIterator = null;
+			this.extractor.getRecords().clear();
+		}
+		if(this.reachedEnd)
+			return null;
+
+		try {
+			while(this.streamReader.hasNext()) {
+				this.streamReader.next();
+				if(this.streamReader.getEventType() == XMLStreamConstants.START_ELEMENT) {
+					this.startElement();
+					if(this.canSkipSubtree())
+						this.skipSubtree();
+				}
+				else if(this.streamReader.getEventType() == XMLStreamConstants.END_ELEMENT) {
+					this.endElement();
+					this.releaseContent();
+				}
+				else if(this.streamReader.getEventType() == XMLStreamConstants.CHARACTERS) {
+					this.extractor.characters();
+				}
+				else if(this.streamReader.getEventType() == XMLStreamConstants.END_DOCUMENT) {
+					this.reachedEnd = true;
+				}
+
+				if(this.extractor.getRecords().size() != 0) {
+					this.pactRecordsIterator = this.extractor.getRecords().iterator();
+					this.output(record, this.pactRecordsIterator.next());
+					return record;
+				}
+			}
+		} catch (XMLStreamException e) {
+			logger.error("XMLStreamException", e);
+		} catch (PAXQueryExecutionException e) {
+			throw new IOException("Extraction from " + this.documentID + " failed: " + e.getMessage(), e);
+		}
+		// the document ends here, even if it could not be parsed to its end
+		this.reachedEnd = true;
+		return null;
+	}
+
+	private void output(Record record, Record extracted) {
+		if(this.format.attachesDocumentID())
+			this.addDocumentID(record, extracted);
+		else
+			extracted.copyTo(record);
+	}
+
+	/**
+	 * Prefixes an extracted record with the document ID.
+	 */
+	private void addDocumentID(Record record, Record extracted) {
+		record.addField(new StringValue(this.documentID));
+		RecordOperations.concatenate(record, extracted);
+	}
+
+	/**
+	 * Handles a start element event, first setting the node ID counters in split-aware mode.
+	 */
+	private void startElement() {
+		if(this.recordSplit != null)
+			this.recordSplit.startElement(this.streamReader, this.extractor);
+		this.extractor.startElement();
+	}
+
+	/**
+	 * Handles an end element event; in split-aware mode, the split may handle it itself.
+	 */
+	private void endElement() {
+		if(this.recordSplit == null || !this.recordSplit.endElement(this.extractor))
+			this.extractor.endElement();
+	}
+
+	/**
+	 * Checks, after a start element event, whether the subtree of the element can be skipped:
+	 * none of its nodes can be matched by the patterns. In split-aware mode, the ancestors of
+	 * the records are never skipped.
+	 */
+	private boolean canSkipSubtree() {
+		if(!this.format.skipsSubtrees())
+			return false;
+		if(this.recordSplit != null && this.recordSplit.isAncestor())
+			return false;
+		return this.extractor.canSkipSubtree();
+	}
+
+	/**
+	 * Fast-forwards the stream reader to the end tag of the current element, without notifying
+	 * the extractor of the events in between; the node ID counters are advanced by the number of
+	 * skipped nodes, then the end tag is handled as usual.
+	 */
+	private void skipSubtree() throws XMLStreamException {
+		final int skippedNodes = this.recordSplit != null ?
+				this.recordSplit.skipToEndElement(this.streamReader) :
+				this.format.skipToEndElement(this.streamReader);
+		this.extractor.skipNodes(skippedNodes);
+		this.endElement();
+		this.releaseContent();
+	}
+
+	/**
+	 * In content capture mode, lets the reader drop the characters read so far once no match
+	 * may need them anymore.
+	 */
+	private void releaseContent() {
+		if(this.contentReader != null && !this.extractor.hasOpenMatches())
+			this.contentReader.release(this.contentReader.offset(this.streamReader.getLocation().getCharacterOffset()));
+	}
+
+}
@@ -0,0 +1,137 @@
+/*******************************************************************************
+ * Copyright (C) 2013, 2014, 2015 by Inria and Paris-Sud University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package fr.inria.oak.paxquery.pact.io;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.apache.flink.core.fs.FSDataInputStream;
+import org.apache.flink.core.fs.FileInputSplit;
+
+
+/**
+ * Documents read by a split of {@link XmlNavTreePatternInputFormat}: the documents of a
+ * {@link PackedInputSplit}, one after another, or the document (or part of it) of any other split.
+ *
+ */
+class XmlDocumentList {
+
+	private final FileInputSplit split;
+
+	// null unless the split is packed
+	private final PackedInputSplit packedSplit;
+
+
+	XmlDocumentList(FileInputSplit split) {
+		this.split = split;
+		this.packedSplit = split instanceof PackedInputSplit ? (PackedInputSplit) split : null;
+	}
+
+	int size() {
+		return this.packedSplit != null ? this.packedSplit.getNumberOfDocuments() : 1;
+	}
+
+	String getSplitName() {
+		return this.split.getPath() + " #" + this.split.getSplitNumber();
+	}
+
+	/**
+	 * @return the part of the file that holds a document
+	 */
+	FileInputSplit getDocumentSplit(int document) {
+		return this.packedSplit != null ? this.packedSplit.getDocumentSplit(document) : this.split;
+	}
+
+	String getDocumentID(int document) {
+		return this.packedSplit != null ? this.packedSplit.getDocumentID(document) : this.split.getPath().toString();
+	}
+
+	/**
+	 * Opens the file of a document, positioned at the start of its split.
+	 */
+	FSDataInputStream open(int document) throws IOException {
+		final FileInputSplit documentSplit = this.getDocumentSplit(document);
+		final FSDataInputStream stream = documentSplit.getPath().getFileSystem().open(documentSplit.getPath());
+		if(documentSplit.getStart() != 0)
+			stream.seek(documentSplit.getStart());
+		return stream;
+	}
+
+	/**
+	 * @param stream the stream returned by {@link #open(int)}
+	 * @return the stream of the document, which ends with the document if the file goes on
+	 */
+	InputStream getInput(int document, FSDataInputStream stream) {
+		if(this.packedSplit == null)
+			return stream;
+		return new DocumentInputStream(stream, this.getDocumentSplit(document).getLength());
+	}
+
+
+	/**
+	 * Stream over a document of a packed split, which ends with the document even if the file
+	 * goes on.
+	 */
+	private static final class DocumentInputStream extends FilterInputStream {
+
+		private long remaining;
+
+		private DocumentInputStream(InputStream in, long length) {
+			super(in);
+			this.remaining = length;
+		}
+
+		@Override
+		public int read() throws IOException {
+			if(this.remaining <= 0)
+				return -1;
+			final int b = this.in.read();
+			if(b != -1)
+				this.remaining--;
+			return b;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			if(this.remaining <= 0)
+				return -1;
+			final int read = this.in.read(b, off, (int) Math.min(len, this.remaining));
+			if(read > 0)
+				this.remaining -= read;
+			return read;
+		}
+
+		@Override
+		public long skip(long n) throws IOException {
+			final long skipped = this.in.skip(Math.min(n, this.remaining));
+			this.remaining -= skipped;
+			return skipped;
+		}
+
+		@Override
+		public int available() throws IOException {
+			return (int) Math.min(this.in.available(), this.remaining);
+		}
+
+		@Override
+		public boolean markSupported() {
+			return false;
+		}
+
+	}
+
+}
@@ -0,0 +1,135 @@
+/*******************************************************************************
+ * Copyright (C) 2013, 2014, 2015 by Inria and Paris-Sud University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package fr.inria.oak.paxquery.pact.io;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.flink.core.fs.FSDataInputStream;
+import org.apache.flink.core.fs.FileStatus;
+import org.apache.flink.core.fs.FileSystem;
+import org.apache.flink.core.fs.Path;
+
+
+/**
+ * Packs many small XML documents into a single container file, so that they are listed and
+ * opened as one file. The container holds the documents one after another, as they are, followed
+ * by an index giving the ID (the original path), offset and length of each document; the file
+ * ends with the offset of the index and a magic number, as fixed size numbers.
+ *
+ * Containers are read document by document by {@link XmlNavTreePatternInputFormat} when
+ * documents are packed into splits.
+ *
+ */
+public class XmlDocumentPacker {
+
+	public static final int MAGIC = 0x50584B31;
+
+	/**
+	 * Extension of the container files.
+	 */
+	public static final String EXTENSION = ".xmlpack";
+
+	/**
+	 * Size of the end of a container: the offset of the index and the magic number.
+	 */
+	private static final int TRAILER_SIZE = 8 + 4;
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+
+	/**
+	 * Writes a container.
+	 *
+	 * @param documents the documents to pack
+	 * @param target the stream to write to; it is not closed
+	 * @return the number of bytes written
+	 * @throws IOException
+	 */
+	public static long pack(List<Path> documents, OutputStream target) throws IOException {
+		final DataOutputStream out = new DataOutputStream(target);
+		final long[] offsets = new long[documents.size()];
+		final long[] lengths = new long[documents.size()];
+		final byte[] buffer = new byte[BUFFER_SIZE];
+		long offset = 0;
+		for(int i = 0; i < documents.size(); i++) {
+			final Path document = documents.get(i);
+			final InputStream in = document.getFileSystem().open(document);
+			offsets[i] = offset;
+			try {
+				int read;
+				while((read = in.read(buffer)) != -1) {
+					out.write(buffer, 0, read);
+					offset += read;
+				}
+			} finally {
+				in.close();
+			}
+			lengths[i] = offset - offsets[i];
+		}
+
+		final long indexOffset = offset;
+		out.writeInt(documents.size());
+		for(int i = 0; i < documents.size(); i++) {
+			out.writeUTF(documents.get(i).toString());
+			out.writeLong(offsets[i]);
+			out.writeLong(lengths[i]);
+		}
+		out.writeLong(indexOffset);
+		out.writeInt(MAGIC);
+		out.flush();
+		return indexOffset + out.size();
+	}
+
+	/**
+	 * Reads the index of a container.
+	 *
+	 * @return the documents of the container, in the order they were packed
+	 * @throws IOException if the file is not a complete container
+	 */
+	public static List<PackedInputSplit.Document> readIndex(FileSystem fs, FileStatus container) throws IOException {
+		final Path path = container.getPath();
+		if(container.getLen() < 4 + TRAILER_SIZE)
+			throw new IOException(path + " is not a document container");
+
+		final FSDataInputStream stream = fs.open(path);
+		try {
+			final DataInputStream in = new DataInputStream(stream);
+			stream.seek(container.getLen() - TRAILER_SIZE);
+			final long indexOffset = in.readLong();
+			if(in.readInt() != MAGIC)
+				throw new IOException(path + " is not a document container");
+			stream.seek(indexOffset);
+			final int count = in.readInt();
+			final List<PackedInputSplit.Document> documents = new ArrayList<PackedInputSplit.Document>(count);
+			for(int i = 0; i < count; i++) {
+				final String documentID = in.readUTF();
+				final long offset = in.readLong();
+				final long length = in.readLong();
+				documents.add(new PackedInputSplit.Document(path, offset, length, documentID));
+			}
+			return documents;
+		} finally {
+			stream.close();
+		}
+	}
+
+}
@@ -0,0 +1,247 @@
+/*******************************************************************************
+ * Copyright (C) 2013, 2014, 2015 by Inria and Paris-Sud University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package fr.inria.oak.paxquery.pact.io;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.flink.core.fs.FSDataInputStream;
+import org.apache.flink.types.Record;
+
+
+/**
+ * Pipelined reading of the documents of a split, for {@link XmlNavTreePatternInputFormat}. One
+ * thread parses the documents ahead, see {@link PipelinedXmlStreamReader}, another one matches
+ * the patterns and serializes the records, and the task takes them through a bounded queue.
+ * Both threads are started once for the split, and go from one document to the next; the state
+ * of each document stays in its {@link XmlDocumentExtraction}, which only the extraction thread
+ * uses.
+ *
+ */
+class XmlExtractionPipeline {
+
+	private static final Log logger = LogFactory.getLog(XmlExtractionPipeline.class);
+
+	/**
+	 * Number of records that the extraction thread hands over at once, and number of such
+	 * batches that it may produce ahead of the task.
+	 */
+	private static final int BATCH = 64;
+
+	private static final int BATCHES = 16;
+
+	/**
+	 * Marks the end of the records of the split.
+	 */
+	private static final Record[] END_OF_RECORDS = new Record[0];
+
+
+	private final XmlNavTreePatternInputFormat format;
+
+	private final XmlDocumentList documents;
+
+	private final PipelinedXmlStreamReader reader;
+
+	private final BlockingQueue<Record[]> records = new ArrayBlockingQueue<Record[]>(BATCHES);
+
+	private final Thread extraction;
+
+	private volatile Throwable extractionError;
+
+	// state of the task thread
+	private Record[] batch;
+
+	private int batchPosition;
+
+	private boolean drained;
+
+
+	/**
+	 * @param format the format that reads the split
+	 * @param documents the documents of the split
+	 */
+	XmlExtractionPipeline(XmlNavTreePatternInputFormat format, XmlDocumentList documents) {
+		this.format = format;
+		this.documents = documents;
+		this.reader = new PipelinedXmlStreamReader(new Source());
+		this.extraction = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				XmlExtractionPipeline.this.extract();
+			}
+		}, "XML extraction (" + documents.getSplitName() + ")");
+		this.extraction.setDaemon(true);
+	}
+
+	/**
+	 * Starts the parser and extraction threads.
+	 */
+	void start() {
+		this.reader.start("XML parsing (" + this.documents.getSplitName() + ")");
+		this.extraction.start();
+	}
+
+	/**
+	 * Extracts the records of the documents one after another; runs in the extraction thread.
+	 */
+	private void extract() {
+		Record[] batch = new Record[BATCH];
+		int size = 0;
+		try {
+			try {
+				while(this.reader.nextDocument()) {
+					final XmlDocumentExtraction extraction = new XmlDocumentExtraction(this.format,
+							this.reader.getDocumentID(), null, this.reader, null, null);
+					Record record;
+					while((record = extraction.nextRecord(new Record())) != null) {
+						// serialized here rather than in the task
+						record.updateBinaryRepresenation();
+						batch[size++] = record;
+						if(size == BATCH) {
+							this.records.put(batch);
+							batch = new Record[BATCH];
+							size = 0;
+						}
+					}
+				}
+			} catch (InterruptedException e) {
+				throw e;
+			} catch (Throwable t) {
+				this.extractionError = t;
+			}
+			if(size > 0)
+				this.records.put(Arrays.copyOf(batch, size));
+			this.records.put(END_OF_RECORDS);
+		} catch (InterruptedException e) {
+			// the pipeline is closed
+		}
+	}
+
+	/**
+	 * Waits until the next record is extracted, or the split ends.
+	 *
+	 * @return true if the split has no more records
+	 * @throws IOException if the extraction failed
+	 */
+	boolean reachedEnd() throws IOException {
+		if(this.drained)
+			return true;
+		if(this.batch != null && this.batchPosition < this.batch.length)
+			return false;
+
+		try {
+			this.batch = this.records.take();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while reading " + this.documents.getSplitName(), e);
+		}
+		this.batchPosition = 0;
+		if(this.batch != END_OF_RECORDS)
+			return false;
+
+		this.drained = true;
+		final Throwable error = this.extractionError;
+		if(error instanceof IOException)
+			throw (IOException) error;
+		if(error instanceof RuntimeException)
+			throw (RuntimeException) error;
+		if(error instanceof Error)
+			throw (Error) error;
+		return true;
+	}
+
+	/**
+	 * Takes the next record extracted by the extraction thread.
+	 */
+	Record nextRecord(Record record) throws IOException {
+		if(this.reachedEnd())
+			return null;
+		final Record extracted = this.batch[this.batchPosition];
+		this.batch[this.batchPosition++] = null;
+		extracted.copyTo(record);
+		return record;
+	}
+
+	/**
+	 * Stops the threads, if they are still running.
+	 */
+	void close() throws IOException {
+		this.extraction.interrupt();
+		try {
+			this.reader.stop();
+			this.extraction.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while stopping the extraction of " + this.documents.getSplitName(), e);
+		}
+	}
+
+
+	/**
+	 * Opens the documents of the split for the parser thread.
+	 */
+	private final class Source implements PipelinedXmlStreamReader.DocumentSource {
+
+		private int next;
+
+		private FSDataInputStream stream;
+
+		private String documentID;
+
+		@Override
+		public XMLStreamReader nextDocument() throws IOException {
+			while(this.next < XmlExtractionPipeline.this.documents.size()) {
+				this.close();
+				final int document = this.next++;
+				this.stream = XmlExtractionPipeline.this.documents.open(document);
+				this.documentID = XmlExtractionPipeline.this.documents.getDocumentID(document);
+				try {
+					final XMLStreamReader reader = XmlExtractionPipeline.this.format.openStreamReader(
+							XmlExtractionPipeline.this.documents.getDocumentSplit(document), this.stream,
+							XmlExtractionPipeline.this.documents.getInput(document, this.stream));
+					if(reader != null)
+						return reader;
+				} catch (XMLStreamException e) {
+					logger.error("XMLStreamException", e);
+				}
+			}
+			this.close();
+			return null;
+		}
+
+		@Override
+		public String getDocumentID() {
+			return this.documentID;
+		}
+
+		@Override
+		public void close() throws IOException {
+			if(this.stream != null) {
+				this.stream.close();
+				this.stream = null;
+			}
+		}
+
+	}
+
+}
@@ -15,34 +15,87 @@
  ******************************************************************************/
 package fr.inria.oak.paxquery.pact.io;
 
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
-import java.util.Iterator;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Properties;
 
+import javax.xml.bind.DatatypeConverter;
 import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamConstants;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamReader;
 
+import org.apache.commons.lang.SerializationUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.flink.api.common.io.statistics.BaseStatistics;
 import org.apache.flink.api.java.record.io.FileInputFormat;
 import org.apache.flink.api.java.record.operators.FileDataSource;
 import org.apache.flink.configuration.Configuration;
+import org.apache.flink.core.fs.BlockLocation;
+import org.apache.flink.core.fs.FSDataInputStream;
 import org.apache.flink.core.fs.FileInputSplit;
+import org.apache.flink.core.fs.FileStatus;
+import org.apache.flink.core.fs.FileSystem;
+import org.apache.flink.core.fs.Path;
+import org.apache.flink.core.memory.OutputViewDataOutputStreamWrapper;
 import org.apache.flink.types.Record;
-import org.apache.flink.types.StringValue;
+import org.apache.flink.types.Value;
+import org.apache.flink.util.InstantiationUtil;
 
+import fr.inria.oak.paxquery.common.datamodel.metadata.MetadataTypes;
 import fr.inria.oak.paxquery.common.xml.navigation.NavigationTreePattern;
+import fr.inria.oak.paxquery.common.xml.navigation.NavigationTreePatternNode;
 import fr.inria.oak.paxquery.common.xml.navigation.NavigationTreePatternUtils;
 import fr.inria.oak.paxquery.pact.configuration.PACTOperatorsConfiguration;
-import fr.inria.oak.paxquery.pact.operations.RecordOperations;
-import fr.inria.oak.paxquery.pact.operations.xml.navigation.SingleDocumentExtractor;
+import fr.inria.oak.paxquery.pact.datamodel.metadata.MetadataTypesMapping;
+import fr.inria.oak.paxquery.pact.operations.aggregation.HyperLogLog;
+import fr.inria.oak.paxquery.pact.operations.xml.navigation.ContentCaptureReader;
+import fr.inria.oak.paxquery.pact.operations.xml.navigation.MultiPatternDocumentExtractor;
 
 
 /**
  * Input format that takes a collection of XML documents, and for each document generates
- * records based on the embeddings of a navigation tree pattern in the document.
+ * records based on the embeddings of a navigation tree pattern in the document. Several
+ * patterns can be evaluated in the same pass over the documents; then each record gets the
+ * position of its pattern as last field.
+ * 
+ * By default each document is read by a single task. If a record element is given, a document
+ * is split: each split reads the records (elements with the given name) whose start tag begins
+ * in it. The start tags of the ancestors of the records, as found before the first record of the
+ * document, are replayed before the records of each split, and closed after them; thus records
+ * are expected to be siblings, e.g. the children of the root element. In this mode the node IDs
+ * of each record are derived from its offset in the file, so that they do not depend on the
+ * number of splits; they preserve document order and ancestor relationships, but they differ
+ * from the IDs of the same nodes when the document is read by a single task without a record
+ * element. The pattern is matched within each split, thus it may only use the ancestors of the
+ * records as context: a pattern that stores or nests a node that may match an ancestor is
+ * rejected when the split is opened.
+ *
+ * Otherwise, small documents can be packed: each split then groups documents up to a target
+ * size, and the task reads them one after another, each with its own node IDs and document ID.
+ * Packing also reads the containers written by {@link XmlDocumentPacker}, whose documents are
+ * grouped the same way; it is enabled by default when the path of the collection ends with
+ * {@link XmlDocumentPacker#EXTENSION}.
+ *
+ * In pipelined mode, the documents of a split are parsed ahead by one thread, see
+ * {@link PipelinedXmlStreamReader}, and matched by another, which hands the records over to
+ * the task through a bounded queue; both threads go through all the documents of the split,
+ * see {@link XmlExtractionPipeline}. The records are the same as in the default mode; only the
+ * documents that are neither split nor captured are pipelined.
  *
  */
 public class XmlNavTreePatternInputFormat extends FileInputFormat {
@@ -55,191 +108,677 @@ public class XmlNavTreePatternInputFormat extends FileInputFormat {
 
 	private static final Log logger = LogFactory.getLog(XmlNavTreePatternInputFormat.class);
 	
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+	
+	/**
+	 * Number of bytes of a document after which its sample stops.
+	 */
+	private static final long SAMPLE_BYTES = 4 * 1024 * 1024;
 	
-	private String documentID;
+	private static final int DEFAULT_SAMPLE_DOCUMENTS = 3;
 	
-	private boolean reachedEnd;
+	/**
+	 * Number of records per distinct value from which a sample is taken to show most of the
+	 * distinct values of the input.
+	 */
+	private static final int REPEATED_VALUES = 10;
 	
-	private NavigationTreePattern navigationTreePattern;
+	private static final int DEFAULT_PACK_SIZE = 64 * 1024 * 1024;
+	
+	
+	private NavigationTreePattern[] navigationTreePatterns;
 	
-	private XMLStreamReader streamReader;
-		
-	private SingleDocumentExtractor extractor;
-		
 	private boolean attachDocumentID;
 	
-	private Iterator<Record> pactRecordsIterator;
+	private String recordElement;
+	
+	private boolean skipSubtrees;
+	
+	private boolean captureContent;
+	
+	private boolean streaming;
+	
+	private int maxMatches;
+	
+	private int sampleDocuments;
+	
+	private String statisticsCache;
+	
+	// identifies what the records of a document depend on, besides the document
+	private String statisticsKey;
+	
+	private int packSize;
+	
+	private boolean pipelined;
+	
+	// the parameters the format was configured with, to configure the formats that sample documents
+	private transient Configuration parameters;
+	
+	// true if the format only reads a sample of a document
+	private transient boolean sampling;
+	
+	// documents of the current split, and the next one to open
+	private transient XmlDocumentList documents;
+	
+	private transient int nextDocument;
+	
+	// extraction of the current document, null in pipelined mode
+	private transient XmlDocumentExtraction extraction;
+	
+	private transient XmlExtractionPipeline pipeline;
+	
+	// ancestors of the records of the last document split on its records
+	private transient String headerPath;
+	
+	private transient XmlRecordSplitState.DocumentHeader header;
+	
+	// input of the current document while sampling, counting the bytes taken by the parser
+	private transient CountingInputStream sampledInput;
 		
 	
 	@Override
 	public void configure(Configuration parameters) {
 		super.configure(parameters);
-		
-		this.init();
+		this.parameters = parameters;
 		
 		// read your own parameters
-		final NavigationTreePattern ntp = NavigationTreePatternUtils.getTreePatternFromString(
-				parameters.getString(PACTOperatorsConfiguration.NTP_STRING.toString(), null),
-				"NavigationTreePattern");
-		this.navigationTreePattern = ntp;
+		final String ntpsEncoded = parameters.getString(PACTOperatorsConfiguration.NTPS_BINARY.toString(), null);
+		if(ntpsEncoded != null) {
+			// several patterns evaluated in the same pass, records are tagged with the pattern position
+			final String[] ntpStrings = (String[]) SerializationUtils.deserialize(DatatypeConverter.parseBase64Binary(ntpsEncoded));
+			this.navigationTreePatterns = new NavigationTreePattern[ntpStrings.length];
+			for(int i = 0; i < ntpStrings.length; i++)
+				this.navigationTreePatterns[i] = NavigationTreePatternUtils.getTreePatternFromString(ntpStrings[i], "NavigationTreePattern");
+		}
+		else {
+			final NavigationTreePattern ntp = NavigationTreePatternUtils.getTreePatternFromString(
+					parameters.getString(PACTOperatorsConfiguration.NTP_STRING.toString(), null),
+					"NavigationTreePattern");
+			this.navigationTreePatterns = new NavigationTreePattern[]{ntp};
+		}
+		final String valueTypesEncoded = parameters.getString(PACTOperatorsConfiguration.VALUE_TYPES_BINARY.toString(), null);
+		if(valueTypesEncoded != null) {
+			@SuppressWarnings("unchecked")
+			final ArrayList<HashMap<Integer, MetadataTypes>> valueTypes = (ArrayList<HashMap<Integer, MetadataTypes>>)
+					SerializationUtils.deserialize(DatatypeConverter.parseBase64Binary(valueTypesEncoded));
+			for(int i = 0; i < this.navigationTreePatterns.length; i++)
+				setValueTypes(this.navigationTreePatterns[i], valueTypes.get(i));
+		}
 		
 		final boolean attachDocumentID = parameters.getBoolean(PACTOperatorsConfiguration.ATTACH_DOCUMENTID_BOOLEAN.toString(), false);
 		this.attachDocumentID = attachDocumentID;
+		
+		// splitting and content capture work on the text of the documents
+		if(this.readsXmlText()) {
+			this.recordElement = parameters.getString(PACTOperatorsConfiguration.RECORD_ELEMENT_STRING.toString(), null);
+			this.captureContent = parameters.getBoolean(PACTOperatorsConfiguration.CAPTURE_CONTENT_BOOLEAN.toString(), false);
+		}
+		// a document can only be split on the start tags of its records
+		this.unsplittable = this.recordElement == null;
+		
+		this.skipSubtrees = parameters.getBoolean(PACTOperatorsConfiguration.SKIP_SUBTREES_BOOLEAN.toString(), false);
+		this.streaming = parameters.getBoolean(PACTOperatorsConfiguration.STREAMING_BOOLEAN.toString(), false);
+		this.maxMatches = parameters.getInteger(PACTOperatorsConfiguration.MAX_MATCHES_INT.toString(), 0);
+		this.pipelined = parameters.getBoolean(PACTOperatorsConfiguration.PIPELINED_BOOLEAN.toString(), false);
+		this.packSize = parameters.getInteger(PACTOperatorsConfiguration.PACK_SIZE_INT.toString(),
+				isContainer(this.filePath) ? DEFAULT_PACK_SIZE : 0);
+		
+		this.sampleDocuments = parameters.getInteger(PACTOperatorsConfiguration.SAMPLE_DOCUMENTS_INT.toString(), DEFAULT_SAMPLE_DOCUMENTS);
+		this.statisticsCache = parameters.getString(PACTOperatorsConfiguration.STATISTICS_CACHE_STRING.toString(),
+				new File(System.getProperty("java.io.tmpdir"), "paxquery-statistics").getPath());
+		this.statisticsKey = this.getClass().getName() + "|" + (ntpsEncoded != null ? ntpsEncoded :
+				parameters.getString(PACTOperatorsConfiguration.NTP_STRING.toString(), null)) + "|" +
+				valueTypesEncoded + "|" + this.attachDocumentID + "|" + this.recordElement;
 	}
 	
-	private void init() {
-		this.reachedEnd = false;
+	/**
+	 * @return the type of the value of each node of the pattern that is not stored as a string,
+	 * by node code
+	 */
+	private static HashMap<Integer, MetadataTypes> getValueTypes(NavigationTreePattern ntp) {
+		final HashMap<Integer, MetadataTypes> valueTypes = new HashMap<Integer, MetadataTypes>();
+		for(NavigationTreePatternNode node : ntp.getNodes()) {
+			if(node.getValueType() != MetadataTypes.STRING_TYPE)
+				valueTypes.put(node.getNodeCode(), node.getValueType());
+		}
+		return valueTypes;
 	}
 	
-
+	/**
+	 * Restores the value types of the nodes of a pattern, which its parsable string does not keep.
+	 */
+	private static void setValueTypes(NavigationTreePattern ntp, HashMap<Integer, MetadataTypes> valueTypes) {
+		for(NavigationTreePatternNode node : ntp.getNodes()) {
+			final MetadataTypes valueType = valueTypes.get(node.getNodeCode());
+			if(valueType != null)
+				node.setValueType(valueType);
+		}
+	}
+	
+	/**
+	 * @return true if the documents are read as XML text, false if they have been converted
+	 */
+	protected boolean readsXmlText() {
+		return true;
+	}
+	
+	protected NavigationTreePattern[] getNavigationTreePatterns() {
+		return this.navigationTreePatterns;
+	}
+	
+	/**
+	 * @return true if small documents are grouped into splits; documents that are split on their
+	 * records are not packed
+	 */
+	private boolean packsDocuments() {
+		return this.packSize > 0 && this.recordElement == null;
+	}
+	
+	private static boolean isContainer(Path path) {
+		return path != null && path.getName().endsWith(XmlDocumentPacker.EXTENSION);
+	}
+	
+	@SuppressWarnings({ "unchecked", "rawtypes" })
 	@Override
-	public FileBaseStatistics getStatistics(BaseStatistics cachedStatistics) {
-		//TODO: How to gather statistics?
-		return null;
+	public Class<FileInputSplit> getInputSplitType() {
+		// every split is packed in packing mode, so that they are all read back the same way
+		return this.packsDocuments() ? (Class) PackedInputSplit.class : super.getInputSplitType();
 	}
 	
+	/**
+	 * In packing mode, groups consecutive documents into splits of the target size, or smaller if
+	 * there would be fewer splits than requested.
+	 */
 	@Override
-	public boolean reachedEnd() throws IOException {
-		if(this.reachedEnd) {
-			this.init();
-			return true;
+	public FileInputSplit[] createInputSplits(int minNumSplits) throws IOException {
+		if(!this.packsDocuments())
+			return super.createInputSplits(minNumSplits);
+		
+		final FileSystem fs = this.filePath.getFileSystem();
+		final ArrayList<FileStatus> files = new ArrayList<FileStatus>();
+		this.getFileStats(null, this.filePath, fs, files);
+		
+		final ArrayList<PackedInputSplit.Document> documents = new ArrayList<PackedInputSplit.Document>();
+		final ArrayList<FileStatus> documentFiles = new ArrayList<FileStatus>();
+		long totalLength = 0;
+		for(FileStatus file : files) {
+			if(!this.acceptFile(file))
+				continue;
+			final List<PackedInputSplit.Document> fileDocuments = isContainer(file.getPath()) ?
+					XmlDocumentPacker.readIndex(fs, file) :
+					Collections.singletonList(new PackedInputSplit.Document(file.getPath(), 0, file.getLen(), file.getPath().toString()));
+			for(PackedInputSplit.Document document : fileDocuments) {
+				documents.add(document);
+				documentFiles.add(file);
+				totalLength += document.getLength();
+			}
 		}
-		return false;
+		
+		final long targetSize = Math.max(1, Math.min(this.packSize, totalLength / Math.max(minNumSplits, 1)));
+		final ArrayList<FileInputSplit> splits = new ArrayList<FileInputSplit>();
+		int first = 0;
+		long size = 0;
+		for(int i = 0; i < documents.size(); i++) {
+			size += documents.get(i).getLength();
+			if(size >= targetSize || i == documents.size() - 1) {
+				final String[] hosts = getHosts(fs, documentFiles.get(first), documents.get(first));
+				splits.add(new PackedInputSplit(splits.size(), documents.subList(first, i + 1), hosts));
+				first = i + 1;
+				size = 0;
+			}
+		}
+		if(logger.isDebugEnabled())
+			logger.debug("Packed " + documents.size() + " documents into " + splits.size() + " splits");
+		return splits.toArray(new FileInputSplit[splits.size()]);
 	}
 	
+	/**
+	 * @return the hosts of the block where a document begins
+	 */
+	private static String[] getHosts(FileSystem fs, FileStatus file, PackedInputSplit.Document document) throws IOException {
+		final BlockLocation[] blocks = fs.getFileBlockLocations(file, 0, file.getLen());
+		if(blocks == null)
+			return new String[0];
+		for(BlockLocation block : blocks) {
+			if(document.getStart() >= block.getOffset() && document.getStart() < block.getOffset() + block.getLength())
+				return block.getHosts();
+		}
+		return blocks.length > 0 ? blocks[0].getHosts() : new String[0];
+	}
+	
+
+	/**
+	 * Gives the size of the input, and estimates the number of records and their width from a
+	 * sample of the documents, which are read with the patterns up to a given number of bytes.
+	 * The sample of each document is kept in a cache, keyed by the path, length and modification
+	 * time of the document, so that it is only read again when it changes.
+	 */
 	@Override
-	public void open(FileInputSplit split) throws IOException {
-		super.open(split);
+	public FileBaseStatistics getStatistics(BaseStatistics cachedStatistics) throws IOException {
+		final FileBaseStatistics cachedFileStatistics = cachedStatistics instanceof FileBaseStatistics ?
+				(FileBaseStatistics) cachedStatistics : null;
+		
+		final ArrayList<FileStatus> files = new ArrayList<FileStatus>();
+		final FileBaseStatistics fileStatistics = this.getFileStats(cachedFileStatistics, this.filePath,
+				this.filePath.getFileSystem(), files);
+		if(fileStatistics == cachedFileStatistics || this.sampleDocuments <= 0 || fileStatistics.getTotalInputSize() <= 0)
+			return fileStatistics;
+		
+		long sampledBytes = 0;
+		long sampledRecords = 0;
+		long sampledRecordBytes = 0;
+		for(FileStatus document : this.getSampledDocuments(files)) {
+			try {
+				final DocumentSample sample = this.getSample(document, null, null);
+				sampledBytes += sample.bytes;
+				sampledRecords += sample.records;
+				sampledRecordBytes += sample.recordBytes;
+			} catch (IOException e) {
+				logger.error("IOException", e);
+			}
+		}
+		if(sampledBytes == 0 || sampledRecords == 0)
+			return fileStatistics;
+		
+		return new XmlFileStatistics(fileStatistics.getLastModificationTime(), fileStatistics.getTotalInputSize(),
+				(float) sampledBytes / sampledRecords, (float) sampledRecordBytes / sampledRecords);
+	}
+	
+	/**
+	 * Estimates the number of distinct values of the given columns in the records of the input,
+	 * from the sample of the documents taken for the statistics: the values of the sampled
+	 * records are counted with a {@link HyperLogLog} sketch. If the values repeat enough in the
+	 * sample, it is taken to show most of them; otherwise their count is scaled to the size of
+	 * the input. The sketch of each document is kept in the cache of its sample.
+	 * 
+	 * @param columns the columns of the records, which must not be nested
+	 * @param types the types of the columns
+	 * @return the estimated number of distinct values, or -1 if the input cannot be sampled
+	 */
+	public long estimateDistinctValues(int[] columns, MetadataTypes[] types) throws IOException {
+		final ArrayList<FileStatus> files = new ArrayList<FileStatus>();
+		final FileBaseStatistics fileStatistics = this.getFileStats(null, this.filePath, this.filePath.getFileSystem(), files);
+		if(fileStatistics == null || this.sampleDocuments <= 0 || fileStatistics.getTotalInputSize() <= 0)
+			return -1;
 		
-		this.documentID = split.getPath().toString();
+		long sampledBytes = 0;
+		long sampledRecords = 0;
+		final HyperLogLog values = new HyperLogLog();
+		for(FileStatus document : this.getSampledDocuments(files)) {
+			final DocumentSample sample = this.getSample(document, columns, types);
+			sampledBytes += sample.bytes;
+			sampledRecords += sample.records;
+			values.merge(sample.values);
+		}
+		if(sampledBytes == 0 || sampledRecords == 0)
+			return -1;
 		
-		XMLInputFactory factory = XMLInputFactory.newInstance();
+		final long distinct = values.estimate();
+		if(sampledBytes >= fileStatistics.getTotalInputSize() || distinct * REPEATED_VALUES <= sampledRecords)
+			return distinct;
+		return (long) Math.ceil((double) distinct * fileStatistics.getTotalInputSize() / sampledBytes);
+	}
+	
+	/**
+	 * @return the documents that are sampled, spread over the collection
+	 */
+	private List<FileStatus> getSampledDocuments(List<FileStatus> files) {
+		final ArrayList<FileStatus> documents = new ArrayList<FileStatus>();
+		for(FileStatus file : files) {
+			// the documents of a container are not sampled
+			if(this.acceptFile(file) && !isContainer(file.getPath()))
+				documents.add(file);
+		}
+		final int samples = Math.min(this.sampleDocuments, documents.size());
+		final List<FileStatus> sampled = new ArrayList<FileStatus>(samples);
+		for(int i = 0; i < samples; i++)
+			sampled.add(documents.get((int) ((long) i * documents.size() / samples)));
+		return sampled;
+	}
+	
+	/**
+	 * Gets the sample of a document from the cache, or reads it.
+	 * 
+	 * @param columns the columns whose distinct values are counted, or null
+	 * @param types the types of the columns, or null
+	 */
+	private DocumentSample getSample(FileStatus document, int[] columns, MetadataTypes[] types) throws IOException {
+		final String key = this.statisticsKey + "|" + document.getPath();
+		final File cacheFile = new File(this.statisticsCache, Integer.toHexString(key.hashCode()) + ".properties");
+		final String valuesKey = columns != null ? "values" + Arrays.toString(columns) : null;
+		
+		Properties properties = new Properties();
+		if(cacheFile.exists()) {
+			final Properties cached = new Properties();
+			final InputStream in = new FileInputStream(cacheFile);
+			try {
+				cached.load(in);
+			} finally {
+				in.close();
+			}
+			if(key.equals(cached.getProperty("key")) &&
+					String.valueOf(document.getLen()).equals(cached.getProperty("length")) &&
+					String.valueOf(document.getModificationTime()).equals(cached.getProperty("modificationTime"))) {
+				if(valuesKey == null || cached.getProperty(valuesKey) != null) {
+					final DocumentSample sample = new DocumentSample();
+					sample.bytes = Long.parseLong(cached.getProperty("bytes"));
+					sample.records = Long.parseLong(cached.getProperty("records"));
+					sample.recordBytes = Long.parseLong(cached.getProperty("recordBytes"));
+					if(valuesKey != null)
+						sample.values = HyperLogLog.decode(cached.getProperty(valuesKey));
+					return sample;
+				}
+				// the values of other columns are kept
+				properties = cached;
+			}
+		}
+		
+		final DocumentSample sample = this.readSample(document, columns, types);
+		properties.setProperty("key", key);
+		properties.setProperty("length", String.valueOf(document.getLen()));
+		properties.setProperty("modificationTime", String.valueOf(document.getModificationTime()));
+		properties.setProperty("bytes", String.valueOf(sample.bytes));
+		properties.setProperty("records", String.valueOf(sample.records));
+		properties.setProperty("recordBytes", String.valueOf(sample.recordBytes));
+		if(valuesKey != null)
+			properties.setProperty(valuesKey, sample.values.encode());
+		cacheFile.getParentFile().mkdirs();
 		try {
-			this.streamReader = factory.createXMLStreamReader(this.stream);
-		} catch (XMLStreamException e) {
-			logger.error("XMLStreamException", e);
+			final OutputStream out = new FileOutputStream(cacheFile);
+			try {
+				properties.store(out, null);
+			} finally {
+				out.close();
+			}
+		} catch (IOException e) {
+			// the sample is only read again next time
+			logger.error("IOException", e);
 		}
-
-		this.extractor = new SingleDocumentExtractor(
-				this.navigationTreePattern,
-				this.streamReader);
+		return sample;
 	}
-
-	/*
-	@Override
-	public boolean nextRecord(Record record) throws IOException {
-    	if(this.pactRecordsIterator!=null) {
-    		if(this.pactRecordsIterator.hasNext()) {
-    			if(this.attachDocumentID) {
-    				record.addField(new StringValue(this.documentID));
-    				RecordOperations.concatenate(record,this.pactRecordsIterator.next());
-    			}
-    			else
-    				this.pactRecordsIterator.next().copyTo(record);
-    			
-    			return true;
-    		}
-
-    		this.pactRecordsIterator = null;
-    		this.extractor.getRecords().clear();
-    	}
+	
+	/**
+	 * Extracts the records of the beginning of a document, up to a given number of bytes. The
+	 * document is read by another instance of the format, configured like this one but not
+	 * pipelined, so that the read position is taken in the thread that reads the document.
+	 */
+	private DocumentSample readSample(FileStatus document, int[] columns, MetadataTypes[] types) throws IOException {
+		final Configuration parameters = new Configuration();
+		parameters.addAll(this.parameters);
+		parameters.setBoolean(PACTOperatorsConfiguration.PIPELINED_BOOLEAN.toString(), false);
+		final XmlNavTreePatternInputFormat sampler = InstantiationUtil.instantiate(this.getClass(), XmlNavTreePatternInputFormat.class);
+		sampler.setFilePath(this.filePath);
+		sampler.configure(parameters);
+		sampler.sampling = true;
 		
+		final DocumentSample sample = new DocumentSample();
+		final Class<? extends Value>[] classes = columns != null ? getValueClasses(types) : null;
+		if(columns != null)
+			sample.values = new HyperLogLog();
+		// the records are serialized only to be measured
+		final DataOutputStream measure = new DataOutputStream(new OutputStream() {
+			@Override
+			public void write(int b) {}
+			@Override
+			public void write(byte[] b, int off, int len) {}
+		});
+		final OutputViewDataOutputStreamWrapper measureView = new OutputViewDataOutputStreamWrapper(measure);
+		sampler.open(new FileInputSplit(0, document.getPath(), 0, document.getLen(), null));
 		try {
-			while(this.streamReader.hasNext()) {
-			    this.streamReader.next();
-			    if(this.streamReader.getEventType() == XMLStreamConstants.START_ELEMENT) {			    	
-			    	this.extractor.startElement();
-			    }
-			    else if(this.streamReader.getEventType() == XMLStreamConstants.END_ELEMENT) {
-			    	this.extractor.endElement();
-			    }
-			    else if(this.streamReader.getEventType() == XMLStreamConstants.CHARACTERS) {
-			    	this.extractor.characters();
-			    }
-			    else if(this.streamReader.getEventType() == XMLStreamConstants.END_DOCUMENT) {
-			    	this.reachedEnd = true;
-			    }
-			    			    
-		    	if(this.extractor.getRecords().size() != 0) {
-		    		this.pactRecordsIterator = this.extractor.getRecords().iterator();
-	    			if(this.attachDocumentID) {
-	    				record.addField(new StringValue(this.documentID));
-	    				RecordOperations.concatenate(record,this.pactRecordsIterator.next());
-	    			}
-	    			else
-	    				this.pactRecordsIterator.next().copyTo(record);
-
-		    		return true;
-		    	}
-
+			boolean complete = true;
+			while(!sampler.reachedEnd()) {
+				final Record record = sampler.nextRecord(new Record());
+				if(record == null)
+					break;
+				record.serialize(measureView);
+				sample.records++;
+				if(columns != null)
+					sample.values.add(hashValues(record, columns, classes));
+				if(sampler.getReadPosition() >= SAMPLE_BYTES) {
+					complete = false;
+					break;
+				}
 			}
-						
-			return false;
-		} catch (XMLStreamException e) {
-			logger.error("XMLStreamException", e);
-			return false;
+			sample.bytes = complete ? document.getLen() : Math.min(sampler.getReadPosition(), document.getLen());
+			sample.recordBytes = measure.size();
+		} finally {
+			sampler.close();
+		}
+		return sample;
+	}
+	
+	@SuppressWarnings("unchecked")
+	private static Class<? extends Value>[] getValueClasses(MetadataTypes[] types) {
+		final Class<? extends Value>[] classes = new Class[types.length];
+		for(int i = 0; i < types.length; i++)
+			classes[i] = MetadataTypesMapping.getKeyClass(types[i]);
+		return classes;
+	}
+	
+	/**
+	 * @return the hash of the values of the given columns of a record, for a {@link HyperLogLog} sketch
+	 */
+	private static long hashValues(Record record, int[] columns, Class<? extends Value>[] classes) {
+		final StringBuilder values = new StringBuilder();
+		for(int i = 0; i < columns.length; i++) {
+			if(i > 0)
+				values.append('\u0000');
+			final Value value = InstantiationUtil.instantiate(classes[i], Value.class);
+			if(record.getFieldInto(columns[i], value))
+				values.append(value);
 		}
+		return HyperLogLog.hash(values);
 	}
+	
+	/**
+	 * @return the number of bytes of the sampled document that have been read, approximately
 	 */
+	private long getReadPosition() {
+		if(this.extraction == null)
+			return 0;
+		return this.getReadPosition(this.extraction.getStreamReader(),
+				this.sampledInput != null ? this.sampledInput.count : 0);
+	}
+	
+	/**
+	 * @param reader the stream reader over the document
+	 * @param bytesRead the number of bytes that the reader has taken from the stream it parses;
+	 * this includes the bytes it buffers ahead
+	 * @return the number of bytes of the document that the reader has read, approximately
+	 */
+	protected long getReadPosition(XMLStreamReader reader, long bytesRead) {
+		return bytesRead;
+	}
+	
 	@Override
-	public Record nextRecord(Record record) throws IOException {
-    	if(this.pactRecordsIterator!=null) {
-    		if(this.pactRecordsIterator.hasNext()) {
-    			if(this.attachDocumentID) {
-    				record.addField(new StringValue(this.documentID));
-    				RecordOperations.concatenate(record,this.pactRecordsIterator.next());
-    			}
-    			else
-    				this.pactRecordsIterator.next().copyTo(record);
-    			
-    			//return true;
-    			return record;
-    		}
-
-    		this.pactRecordsIterator = null;
-    		this.extractor.getRecords().clear();
-    	}
-		
+	public boolean reachedEnd() throws IOException {
+		if(this.pipeline != null)
+			return this.pipeline.reachedEnd();
+		while(this.extraction == null || this.extraction.reachedEnd()) {
+			if(!this.openNextDocument())
+				return true;
+		}
+		return false;
+	}
+	
+	@Override
+	public void open(FileInputSplit split) throws IOException {
+		this.documents = new XmlDocumentList(split);
+		this.nextDocument = 0;
+		this.extraction = null;
+		// the region of a split and the captured content are read along with the events
+		if(this.pipelined && this.readsXmlText() && this.recordElement == null && !this.captureContent) {
+			this.pipeline = new XmlExtractionPipeline(this, this.documents);
+			this.pipeline.start();
+		}
+	}
+	
+	/**
+	 * Opens the next document of the split that may produce records.
+	 * 
+	 * @return false if the split has no more documents
+	 */
+	private boolean openNextDocument() throws IOException {
+		this.closeDocument();
+		while(this.documents != null && this.nextDocument < this.documents.size()) {
+			this.extraction = this.openDocument(this.nextDocument++);
+			if(this.extraction != null)
+				return true;
+		}
+		return false;
+	}
+	
+	/**
+	 * Opens a document of the split, or the part of it that the split reads.
+	 * 
+	 * @return the extraction of the document, or null if it cannot produce records
+	 */
+	private XmlDocumentExtraction openDocument(int document) throws IOException {
+		final FileInputSplit split = this.documents.getDocumentSplit(document);
+		final String documentID = this.documents.getDocumentID(document);
+		final FSDataInputStream stream = this.documents.open(document);
+		boolean opened = false;
 		try {
-			while(this.streamReader.hasNext()) {
-			    this.streamReader.next();
-			    if(this.streamReader.getEventType() == XMLStreamConstants.START_ELEMENT) {			    	
-			    	this.extractor.startElement();
-			    }
-			    else if(this.streamReader.getEventType() == XMLStreamConstants.END_ELEMENT) {
-			    	this.extractor.endElement();
-			    }
-			    else if(this.streamReader.getEventType() == XMLStreamConstants.CHARACTERS) {
-			    	this.extractor.characters();
-			    }
-			    else if(this.streamReader.getEventType() == XMLStreamConstants.END_DOCUMENT) {
-			    	this.reachedEnd = true;
-			    }
-			    			    
-		    	if(this.extractor.getRecords().size() != 0) {
-		    		this.pactRecordsIterator = this.extractor.getRecords().iterator();
-	    			if(this.attachDocumentID) {
-	    				record.addField(new StringValue(this.documentID));
-	    				RecordOperations.concatenate(record,this.pactRecordsIterator.next());
-	    			}
-	    			else
-	    				this.pactRecordsIterator.next().copyTo(record);
-
-		    		//return true;
-	    			return record;
-		    	}
-
+			InputStream input = this.documents.getInput(document, stream);
+			XmlRecordSplitState recordSplit = null;
+			if(this.recordElement != null) {
+				recordSplit = new XmlRecordSplitState(this.getHeader(split.getPath()), this.recordElement);
+				input = recordSplit.openRegion(stream, split.getStart(), split.getLength());
+				if(input == null) {
+					// no record starts in this split
+					return null;
+				}
 			}
-						
-			//return false;
-			return null;
-		} catch (XMLStreamException e) {
-			logger.error("XMLStreamException", e);
-			//return false;
-			return null;
+			if(this.sampling)
+				input = this.sampledInput = new CountingInputStream(input);
+			
+			ContentCaptureReader contentReader = null;
+			XMLStreamReader streamReader = null;
+			try {
+				if(this.captureContent) {
+					// the content of the nodes is sliced from the characters the parser reads
+					contentReader = new ContentCaptureReader(new InputStreamReader(input, UTF8));
+					streamReader = XMLInputFactory.newInstance().createXMLStreamReader(contentReader);
+				}
+				else
+					streamReader = this.openStreamReader(split, stream, input);
+			} catch (XMLStreamException e) {
+				logger.error("XMLStreamException", e);
+			}
+			if(streamReader == null)
+				return null;
+			
+			final XmlDocumentExtraction extraction = new XmlDocumentExtraction(this, documentID, stream,
+					streamReader, contentReader, recordSplit);
+			opened = true;
+			return extraction;
+		} finally {
+			if(!opened)
+				stream.close();
+		}
+	}
+	
+	/**
+	 * @return the ancestors of the records of a document, read once for all its splits
+	 */
+	private XmlRecordSplitState.DocumentHeader getHeader(Path path) throws IOException {
+		if(this.header == null || !path.toString().equals(this.headerPath)) {
+			final XmlRecordSplitState.DocumentHeader header = XmlRecordSplitState.readHeader(path, this.recordElement);
+			XmlRecordSplitState.checkPatterns(this.navigationTreePatterns, header, path);
+			this.header = header;
+			this.headerPath = path.toString();
+		}
+		return this.header;
+	}
+	
+	private void closeDocument() throws IOException {
+		final XmlDocumentExtraction extraction = this.extraction;
+		this.extraction = null;
+		if(extraction != null)
+			extraction.close();
+	}
+	
+	@Override
+	public void close() throws IOException {
+		try {
+			if(this.pipeline != null)
+				this.pipeline.close();
+			this.closeDocument();
+		} finally {
+			this.pipeline = null;
+			this.documents = null;
+			super.close();
 		}
 	}
 	
+	/**
+	 * Creates the stream reader over a document, or the part of it that a split reads.
+	 * 
+	 * @param split the part of the file that holds the document
+	 * @param stream the file, positioned at the start of the split
+	 * @param input the stream to parse, which ends with the document or the split
+	 * @return the stream reader, or null if the document cannot produce records
+	 */
+	protected XMLStreamReader openStreamReader(FileInputSplit split, FSDataInputStream stream, InputStream input) throws IOException, XMLStreamException {
+		return XMLInputFactory.newInstance().createXMLStreamReader(input);
+	}
+	
+	/**
+	 * Creates the extractor of the patterns over a document.
+	 */
+	MultiPatternDocumentExtractor createExtractor(XMLStreamReader streamReader, ContentCaptureReader contentReader) {
+		final MultiPatternDocumentExtractor extractor = new MultiPatternDocumentExtractor(
+				this.navigationTreePatterns,
+				streamReader);
+		if(contentReader != null)
+			extractor.setContentReader(contentReader);
+		if(this.streaming && !extractor.setStreaming() && logger.isDebugEnabled())
+			logger.debug("The patterns cannot be evaluated in streaming mode");
+		extractor.setMaxMatchesPerStack(this.maxMatches);
+		return extractor;
+	}
+	
+	boolean attachesDocumentID() {
+		return this.attachDocumentID;
+	}
+	
+	boolean skipsSubtrees() {
+		return this.skipSubtrees;
+	}
+	
+	/**
+	 * Moves a stream reader from a start element to its end element.
+	 * 
+	 * @return the number of nodes skipped: the descendants of the element and their attributes
+	 */
+	protected int skipToEndElement(XMLStreamReader reader) throws XMLStreamException {
+		int skippedNodes = 0;
+		int level = 1;
+		while(level > 0) {
+			final int event = reader.next();
+			if(event == XMLStreamConstants.START_ELEMENT) {
+				level++;
+				skippedNodes += 1 + reader.getAttributeCount();
+			}
+			else if(event == XMLStreamConstants.END_ELEMENT) {
+				level--;
+			}
+		}
+		return skippedNodes;
+	}
+	
+	@Override
+	public Record nextRecord(Record record) throws IOException {
+		if(this.pipeline != null)
+			return this.pipeline.nextRecord(record);
+		while(!this.reachedEnd()) {
+			final Record result = this.extraction.nextRecord(record);
+			if(result != null)
+				return result;
+		}
+		return null;
+	}
+	
 	
 	// ============================================================================================
 	
@@ -279,6 +818,23 @@ public class XmlNavTreePatternInputFormat extends FileInputFormat {
 		public T setNavigationTreePattern(NavigationTreePattern ntp) {
 			this.config.setString(PACTOperatorsConfiguration.NTP_STRING.toString(),
 					NavigationTreePatternUtils.getParsableStringFromTreePattern(ntp));
+			this.setValueTypes(ntp);
+			@SuppressWarnings("unchecked")
+			T ret = (T) this;
+			return ret;
+		}
+		
+		/**
+		 * Sets several patterns to be evaluated in a single pass over each document. Each
+		 * record gets the position of its pattern as last field.
+		 */
+		public T setNavigationTreePatterns(NavigationTreePattern... ntps) {
+			final String[] ntpStrings = new String[ntps.length];
+			for(int i = 0; i < ntps.length; i++)
+				ntpStrings[i] = NavigationTreePatternUtils.getParsableStringFromTreePattern(ntps[i]);
+			this.config.setString(PACTOperatorsConfiguration.NTPS_BINARY.toString(),
+					DatatypeConverter.printBase64Binary(SerializationUtils.serialize(ntpStrings)));
+			this.setValueTypes(ntps);
 			@SuppressWarnings("unchecked")
 			T ret = (T) this;
 			return ret;
@@ -290,6 +846,127 @@ public class XmlNavTreePatternInputFormat extends FileInputFormat {
 			T ret = (T) this;
 			return ret;
 		}
+		
+		/**
+		 * Sets the element on whose start tags the documents are split (split-aware mode). The
+		 * patterns may only use the ancestors of the records as context. The node IDs are the
+		 * same whatever the number of splits, but not comparable with the IDs given to the same
+		 * documents without a record element.
+		 * 
+		 * @param recordElement the qualified name of the record element
+		 */
+		public T setRecordElement(String recordElement) {
+			this.config.setString(PACTOperatorsConfiguration.RECORD_ELEMENT_STRING.toString(), recordElement);
+			@SuppressWarnings("unchecked")
+			T ret = (T) this;
+			return ret;
+		}
+		
+		/**
+		 * Sets whether the content of the nodes is sliced from the characters of the document,
+		 * which is decoded as UTF-8, instead of being rebuilt from the parser events (disabled
+		 * by default). Entities, CDATA sections and comments are then kept as they are written.
+		 */
+		public T setCaptureContent(boolean captureContent) {
+			this.config.setBoolean(PACTOperatorsConfiguration.CAPTURE_CONTENT_BOOLEAN.toString(), captureContent);
+			@SuppressWarnings("unchecked")
+			T ret = (T) this;
+			return ret;
+		}
+		
+		/**
+		 * Sets whether the records are produced as soon as the matches they come from are
+		 * complete, for the patterns that allow it (disabled by default).
+		 * 
+		 * @see fr.inria.oak.paxquery.pact.operations.xml.navigation.SingleDocumentExtractor#setStreaming()
+		 */
+		public T setStreaming(boolean streaming) {
+			this.config.setBoolean(PACTOperatorsConfiguration.STREAMING_BOOLEAN.toString(), streaming);
+			@SuppressWarnings("unchecked")
+			T ret = (T) this;
+			return ret;
+		}
+		
+		/**
+		 * Sets the maximum number of matches of a pattern node that may be held in memory;
+		 * beyond it, reading fails with an error naming the node (0, the default, for no limit).
+		 */
+		public T setMaxMatches(int maxMatches) {
+			this.config.setInteger(PACTOperatorsConfiguration.MAX_MATCHES_INT.toString(), maxMatches);
+			@SuppressWarnings("unchecked")
+			T ret = (T) this;
+			return ret;
+		}
+		
+		/**
+		 * Sets whether the subtrees of the document that cannot contain matches are skipped
+		 * (disabled by default). The records and their IDs are the same either way.
+		 */
+		public T setSkipSubtrees(boolean skipSubtrees) {
+			this.config.setBoolean(PACTOperatorsConfiguration.SKIP_SUBTREES_BOOLEAN.toString(), skipSubtrees);
+			@SuppressWarnings("unchecked")
+			T ret = (T) this;
+			return ret;
+		}
+		
+		/**
+		 * Sets the number of documents that are read to estimate the number and width of the
+		 * records (3 by default, 0 to only give the size of the input).
+		 */
+		public T setSampleDocuments(int sampleDocuments) {
+			this.config.setInteger(PACTOperatorsConfiguration.SAMPLE_DOCUMENTS_INT.toString(), sampleDocuments);
+			@SuppressWarnings("unchecked")
+			T ret = (T) this;
+			return ret;
+		}
+		
+		/**
+		 * Sets the size in bytes up to which documents are packed into a split (0 to read each
+		 * document in its own splits; by default 64 MB for containers, 0 otherwise).
+		 */
+		public T setPackSize(int packSize) {
+			this.config.setInteger(PACTOperatorsConfiguration.PACK_SIZE_INT.toString(), packSize);
+			@SuppressWarnings("unchecked")
+			T ret = (T) this;
+			return ret;
+		}
+		
+		/**
+		 * Sets whether each document is parsed, matched and handed over to the task by three
+		 * threads working in parallel (disabled by default).
+		 */
+		public T setPipelined(boolean pipelined) {
+			this.config.setBoolean(PACTOperatorsConfiguration.PIPELINED_BOOLEAN.toString(), pipelined);
+			@SuppressWarnings("unchecked")
+			T ret = (T) this;
+			return ret;
+		}
+		
+		/**
+		 * Sets the local directory where the samples of the documents are kept (by default, a
+		 * directory in the temporary directory).
+		 */
+		public T setStatisticsCache(String statisticsCache) {
+			this.config.setString(PACTOperatorsConfiguration.STATISTICS_CACHE_STRING.toString(), statisticsCache);
+			@SuppressWarnings("unchecked")
+			T ret = (T) this;
+			return ret;
+		}
+		
+		/**
+		 * Keeps the value types of the nodes of the patterns, in the same order as the patterns.
+		 */
+		private void setValueTypes(NavigationTreePattern... ntps) {
+			final ArrayList<HashMap<Integer, MetadataTypes>> valueTypes = new ArrayList<HashMap<Integer, MetadataTypes>>();
+			boolean typed = false;
+			for(NavigationTreePattern ntp : ntps) {
+				valueTypes.add(getValueTypes(ntp));
+				typed |= !valueTypes.get(valueTypes.size() - 1).isEmpty();
+			}
+			if(typed)
+				this.config.setString(PACTOperatorsConfiguration.VALUE_TYPES_BINARY.toString(),
+						DatatypeConverter.printBase64Binary(SerializationUtils.serialize(valueTypes)));
+		}
 	}
 	
 	/**
@@ -308,6 +985,81 @@ public class XmlNavTreePatternInputFormat extends FileInputFormat {
 		
 	}
 	
+	/**
+	 * Stream that counts the bytes read from the stream it wraps.
+	 */
+	private static final class CountingInputStream extends FilterInputStream {
+		
+		private long count;
+		
+		private CountingInputStream(InputStream in) {
+			super(in);
+		}
+		
+		@Override
+		public int read() throws IOException {
+			final int b = this.in.read();
+			if(b != -1)
+				this.count++;
+			return b;
+		}
+		
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			final int read = this.in.read(b, off, len);
+			if(read > 0)
+				this.count += read;
+			return read;
+		}
+		
+		@Override
+		public long skip(long n) throws IOException {
+			final long skipped = this.in.skip(n);
+			this.count += skipped;
+			return skipped;
+		}
+		
+		@Override
+		public boolean markSupported() {
+			return false;
+		}
+		
+	}
+	
+	/**
+	 * Records extracted from the beginning of a document.
+	 */
+	private static final class DocumentSample {
+		
+		private long bytes;
+		
+		private long records;
+		
+		private long recordBytes;
+		
+		// distinct values of the sampled records, if they are counted
+		private HyperLogLog values;
+		
+	}
 	
+	/**
+	 * Statistics of the input, where the width of the records is the width of the extracted
+	 * records rather than the number of bytes of the documents they come from.
+	 */
+	private static final class XmlFileStatistics extends FileBaseStatistics {
+		
+		private final float averageRecordWidth;
+		
+		private XmlFileStatistics(long fileModTime, long fileSize, float avgBytesPerRecord, float averageRecordWidth) {
+			super(fileModTime, fileSize, avgBytesPerRecord);
+			this.averageRecordWidth = averageRecordWidth;
+		}
+		
+		@Override
+		public float getAverageRecordWidth() {
+			return this.averageRecordWidth;
+		}
+		
+	}
 	
 }
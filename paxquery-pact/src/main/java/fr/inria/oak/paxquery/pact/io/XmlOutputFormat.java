@@ -36,6 +36,7 @@ import fr.inria.oak.paxquery.common.datamodel.metadata.NestedMetadata;
 import fr.inria.oak.paxquery.common.xml.construction.ApplyConstruct;
 import fr.inria.oak.paxquery.pact.configuration.PACTOperatorsConfiguration;
 import fr.inria.oak.paxquery.pact.datamodel.type.RecordList;
+import fr.inria.oak.paxquery.pact.operations.RecordOperations;
 
 /**
  * Output format that generates XML results out of records.
@@ -111,10 +112,10 @@ public class XmlOutputFormat extends FileOutputFormat {
 						this.apply.getNested()[posNested++]);
 			}
 			else {
-				final StringValue v = record.getField(field, StringValue.class);
-				if(!v.getValue().equals("\0")) {
+				final StringValue v = RecordOperations.getStringField(record, field, this.signature.getType(field));
+				if(!RecordOperations.isNull(v)) {
 					allNull = false;
-					sb.append(v.getValue());
+					sb.append(v);
 				}
 			}
 		}
@@ -145,10 +146,10 @@ public class XmlOutputFormat extends FileOutputFormat {
 							apply.getNested()[posNested++]);
 				}
 				else {
-					final StringValue v = record.getField(field, StringValue.class);
-					if(!v.getValue().equals("\0")) {
+					final StringValue v = RecordOperations.getStringField(record, field, nestedMetadata.getType(field));
+					if(!RecordOperations.isNull(v)) {
 						allNull = false;
-						sb.append(v.getValue());
+						sb.append(v);
 					}
 				}
 			}
@@ -0,0 +1,449 @@
+/*******************************************************************************
+ * Copyright (C) 2013, 2014, 2015 by Inria and Paris-Sud University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package fr.inria.oak.paxquery.pact.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayDeque;
+
+
+/**
+ * Stream over the region of an XML document that is read by one input split, when the
+ * document is split on the start tags of a record element. The region begins at the current
+ * position of the underlying stream, and ends right before the first start tag of the record
+ * element that begins at or after a given end offset (or at the end of the file). The offsets
+ * of the record start tags read in the region are kept, in document order.
+ *
+ * Bytes can be emitted before the region (the start tags of the ancestors of the records) and
+ * after it (the matching end tags); the latter are only emitted if the region stopped on a
+ * record, as otherwise the document ends by itself.
+ *
+ * Start tags are recognized on the raw bytes, thus the document must use an ASCII compatible
+ * encoding. The bytes are scanned with the lexical state of the document, so that comments,
+ * CDATA sections, processing instructions and declarations do not yield start tags. A region
+ * that begins in the middle of the document guesses its state from the markup that follows:
+ * if the end of a comment, CDATA section or processing instruction comes before the start of
+ * any of them, the region begins inside it.
+ *
+ */
+public class XmlRecordRegionInputStream extends InputStream {
+
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private static final byte[] COMMENT_START = "<!--".getBytes(UTF8);
+
+	private static final byte[] COMMENT_END = "-->".getBytes(UTF8);
+
+	private static final byte[] CDATA_START = "<![CDATA[".getBytes(UTF8);
+
+	private static final byte[] CDATA_END = "]]>".getBytes(UTF8);
+
+	private static final byte[] PI_START = "<?".getBytes(UTF8);
+
+	private static final byte[] PI_END = "?>".getBytes(UTF8);
+
+	// lexical states of the scanner
+	private static final int TEXT = 0;
+
+	private static final int TAG = 1;
+
+	private static final int QUOTED = 2;
+
+	private static final int COMMENT = 3;
+
+	private static final int CDATA = 4;
+
+	private static final int PI = 5;
+
+	private static final int DECLARATION = 6;
+
+
+	private final InputStream in;
+
+	private final byte[] recordName;
+
+	private final byte[] buffer;
+
+	private final int lookahead;
+
+	private int bufferPosition;
+
+	private int bufferLimit;
+
+	private boolean endOfStream;
+
+	private final long end;
+
+	private long position;
+
+	private final ArrayDeque<Long> recordOffsets;
+
+	private byte[] prefix;
+
+	private int prefixPosition;
+
+	private byte[] suffix;
+
+	private int suffixPosition;
+
+	private boolean regionFinished;
+
+	private boolean stoppedAtRecord;
+
+	// state of the scanner
+	private int state = TEXT;
+
+	// number of bytes of the end of the current markup seen so far
+	private int terminator;
+
+	private byte quote;
+
+	private int declarationDepth;
+
+	// the last scan stopped on a record start tag
+	private boolean atRecord;
+
+	private final byte[] single = new byte[1];
+
+
+	/**
+	 * @param in the stream, positioned at the given offset
+	 * @param recordElement the qualified name of the record element
+	 * @param position the offset of the stream in the file
+	 * @param end the offset from which a record start tag ends the region
+	 */
+	public XmlRecordRegionInputStream(InputStream in, String recordElement, long position, long end) {
+		this.in = in;
+		this.recordName = recordElement.getBytes(UTF8);
+		this.lookahead = Math.max(CDATA_START.length, this.recordName.length + 2);
+		this.buffer = new byte[Math.max(BUFFER_SIZE, this.lookahead)];
+		this.position = position;
+		this.end = end;
+		this.recordOffsets = new ArrayDeque<Long>();
+	}
+
+	public void setPrefix(String prefix) {
+		this.prefix = prefix.getBytes(UTF8);
+		this.prefixPosition = 0;
+	}
+
+	public void setSuffix(String suffix) {
+		this.suffix = suffix.getBytes(UTF8);
+		this.suffixPosition = 0;
+	}
+
+	/**
+	 * Moves the stream to the next start tag of the record element; the stream is expected to be
+	 * in the middle of the document.
+	 *
+	 * @return the offset of the start tag, or -1 if the end of the file was reached
+	 * @throws IOException
+	 */
+	public long skipToRecord() throws IOException {
+		this.guessState();
+		while(true) {
+			final int n = this.scan(Integer.MAX_VALUE, true);
+			this.bufferPosition += n;
+			this.position += n;
+			if(this.atRecord)
+				return this.position;
+			if(n == 0) {
+				this.regionFinished = true;
+				return -1;
+			}
+		}
+	}
+
+	/**
+	 * @return the offset of the oldest record start tag read and not yet polled, or null
+	 */
+	public Long pollRecordOffset() {
+		return this.recordOffsets.poll();
+	}
+
+	/**
+	 * @return true if the region ended on the start tag of a record, false if it ended with the file
+	 */
+	public boolean stoppedAtRecord() {
+		return this.stoppedAtRecord;
+	}
+
+	/**
+	 * @return the offset in the file of the next byte of the region
+	 */
+	public long getPosition() {
+		return this.position;
+	}
+
+	@Override
+	public int read() throws IOException {
+		return this.read(this.single, 0, 1) == -1 ? -1 : this.single[0] & 0xff;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		if(len == 0)
+			return 0;
+
+		if(this.prefix != null && this.prefixPosition < this.prefix.length) {
+			final int n = Math.min(len, this.prefix.length - this.prefixPosition);
+			System.arraycopy(this.prefix, this.prefixPosition, b, off, n);
+			this.prefixPosition += n;
+			return n;
+		}
+
+		if(!this.regionFinished) {
+			final int n = this.scan(len, false);
+			if(n > 0) {
+				System.arraycopy(this.buffer, this.bufferPosition, b, off, n);
+				this.bufferPosition += n;
+				this.position += n;
+				return n;
+			}
+			// the region ends on a record that belongs to the next split, or with the file
+			this.regionFinished = true;
+			this.stoppedAtRecord = this.atRecord;
+		}
+
+		if(this.suffix != null && this.stoppedAtRecord && this.suffixPosition < this.suffix.length) {
+			final int n = Math.min(len, this.suffix.length - this.suffixPosition);
+			System.arraycopy(this.suffix, this.suffixPosition, b, off, n);
+			this.suffixPosition += n;
+			return n;
+		}
+
+		return -1;
+	}
+
+	@Override
+	public void close() throws IOException {
+		this.in.close();
+	}
+
+	/**
+	 * Scans the buffered bytes from the current position, following the lexical state of the
+	 * document, and records the offsets of the record start tags. The scan stops before a record
+	 * start tag if skipping, or if it begins at or after the end of the region; the current
+	 * position is not moved.
+	 *
+	 * @param max the maximum number of bytes to scan
+	 * @param skipping true to stop before the next record start tag
+	 * @return the number of bytes scanned, 0 at the end of the file or before a record start tag
+	 */
+	private int scan(int max, boolean skipping) throws IOException {
+		this.atRecord = false;
+		int scan = this.bufferPosition;
+		while(scan - this.bufferPosition < max) {
+			if(scan == this.bufferLimit) {
+				// hand the scanned bytes over before the buffer is compacted
+				if(scan > this.bufferPosition || this.fill(1) == 0)
+					break;
+				scan = this.bufferPosition;
+				continue;
+			}
+			final byte c = this.buffer[scan];
+			if(this.state != TEXT) {
+				this.advanceMarkup(c);
+			}
+			else if(c == '<') {
+				if(this.bufferLimit - scan < this.lookahead && !this.endOfStream) {
+					if(scan > this.bufferPosition)
+						break;
+					this.fill(this.lookahead);
+					scan = this.bufferPosition;
+					continue;
+				}
+				if(this.startsRecord(scan)) {
+					final long offset = this.position + (scan - this.bufferPosition);
+					if(skipping || offset >= this.end) {
+						this.atRecord = true;
+						break;
+					}
+					this.recordOffsets.add(offset);
+					this.state = TAG;
+				}
+				else {
+					this.state = this.getMarkupState(scan);
+					this.terminator = 0;
+					this.quote = 0;
+					this.declarationDepth = 0;
+				}
+			}
+			scan++;
+		}
+		return scan - this.bufferPosition;
+	}
+
+	/**
+	 * @return the state of the markup that begins with the '<' at the given index of the buffer;
+	 * only the '<' is consumed, the rest of the opening is read in that state
+	 */
+	private int getMarkupState(int index) {
+		if(this.matches(index, COMMENT_START))
+			return COMMENT;
+		if(this.matches(index, CDATA_START))
+			return CDATA;
+		if(this.matches(index, PI_START))
+			return PI;
+		if(index + 1 < this.bufferLimit && this.buffer[index + 1] == '!')
+			return DECLARATION;
+		return TAG;
+	}
+
+	/**
+	 * Follows a byte of markup, up to its end.
+	 */
+	private void advanceMarkup(byte c) {
+		switch(this.state) {
+		case TAG:
+			if(c == '"' || c == '\'') {
+				this.quote = c;
+				this.state = QUOTED;
+			}
+			else if(c == '>')
+				this.state = TEXT;
+			break;
+		case QUOTED:
+			if(c == this.quote)
+				this.state = TAG;
+			break;
+		case COMMENT:
+			if(c == '>' && this.terminator >= 2)
+				this.state = TEXT;
+			this.terminator = c == '-' ? this.terminator + 1 : 0;
+			break;
+		case CDATA:
+			if(c == '>' && this.terminator >= 2)
+				this.state = TEXT;
+			this.terminator = c == ']' ? this.terminator + 1 : 0;
+			break;
+		case PI:
+			if(c == '>' && this.terminator >= 1)
+				this.state = TEXT;
+			this.terminator = c == '?' ? 1 : 0;
+			break;
+		case DECLARATION:
+			if(this.quote != 0) {
+				if(c == this.quote)
+					this.quote = 0;
+			}
+			else if(c == '"' || c == '\'')
+				this.quote = c;
+			else if(c == '[')
+				this.declarationDepth++;
+			else if(c == ']')
+				this.declarationDepth--;
+			else if(c == '>' && this.declarationDepth <= 0)
+				this.state = TEXT;
+			break;
+		default:
+			break;
+		}
+	}
+
+	/**
+	 * Sets the state at the start of a region that begins in the middle of the document, from
+	 * the first end and the first start of a comment, CDATA section or processing instruction
+	 * in the buffered bytes.
+	 */
+	private void guessState() throws IOException {
+		this.fill(this.buffer.length);
+		int firstStart = this.bufferLimit;
+		for(byte[] start : new byte[][]{ COMMENT_START, CDATA_START, PI_START }) {
+			final int index = this.indexOf(start);
+			if(index != -1 && index < firstStart)
+				firstStart = index;
+		}
+		int firstEnd = this.bufferLimit;
+		int state = TEXT;
+		final byte[][] ends = new byte[][]{ COMMENT_END, CDATA_END, PI_END };
+		final int[] states = new int[]{ COMMENT, CDATA, PI };
+		for(int i = 0; i < ends.length; i++) {
+			final int index = this.indexOf(ends[i]);
+			if(index != -1 && index < firstEnd) {
+				firstEnd = index;
+				state = states[i];
+			}
+		}
+		this.state = firstEnd < firstStart ? state : TEXT;
+		this.terminator = 0;
+	}
+
+	/**
+	 * @return the index in the buffer of the first occurrence of the bytes, or -1
+	 */
+	private int indexOf(byte[] bytes) {
+		for(int i = this.bufferPosition; i + bytes.length <= this.bufferLimit; i++) {
+			if(this.matches(i, bytes))
+				return i;
+		}
+		return -1;
+	}
+
+	private boolean matches(int index, byte[] bytes) {
+		if(index + bytes.length > this.bufferLimit)
+			return false;
+		for(int i = 0; i < bytes.length; i++) {
+			if(this.buffer[index + i] != bytes[i])
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Checks, when the byte at the given index is a '<', whether the following bytes are the name
+	 * of the record element followed by a delimiter.
+	 */
+	private boolean startsRecord(int index) {
+		if(index + this.recordName.length + 2 > this.bufferLimit)
+			return false;
+		for(int i = 0; i < this.recordName.length; i++) {
+			if(this.buffer[index + 1 + i] != this.recordName[i])
+				return false;
+		}
+		final byte delimiter = this.buffer[index + 1 + this.recordName.length];
+		return delimiter == '>' || delimiter == '/' || delimiter == ' ' ||
+				delimiter == '\t' || delimiter == '\n' || delimiter == '\r';
+	}
+
+	/**
+	 * Makes at least the given number of bytes available in the buffer, unless the end of the
+	 * stream is reached.
+	 *
+	 * @return the number of bytes available
+	 */
+	private int fill(int needed) throws IOException {
+		if(this.bufferLimit - this.bufferPosition >= needed)
+			return this.bufferLimit - this.bufferPosition;
+		if(this.bufferPosition > 0) {
+			System.arraycopy(this.buffer, this.bufferPosition, this.buffer, 0, this.bufferLimit - this.bufferPosition);
+			this.bufferLimit -= this.bufferPosition;
+			this.bufferPosition = 0;
+		}
+		while(this.bufferLimit < needed && !this.endOfStream) {
+			final int n = this.in.read(this.buffer, this.bufferLimit, this.buffer.length - this.bufferLimit);
+			if(n == -1)
+				this.endOfStream = true;
+			else
+				this.bufferLimit += n;
+		}
+		return this.bufferLimit - this.bufferPosition;
+	}
+
+}
@@ -0,0 +1,382 @@
+/*******************************************************************************
+ * Copyright (C) 2013, 2014, 2015 by Inria and Paris-Sud University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package fr.inria.oak.paxquery.pact.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.flink.core.fs.FileSystem;
+import org.apache.flink.core.fs.Path;
+
+import fr.inria.oak.paxquery.common.xml.navigation.NavigationTreePattern;
+import fr.inria.oak.paxquery.common.xml.navigation.NavigationTreePatternEdge;
+import fr.inria.oak.paxquery.common.xml.navigation.NavigationTreePatternNode;
+import fr.inria.oak.paxquery.pact.operations.xml.navigation.MultiPatternDocumentExtractor;
+
+
+/**
+ * State of a split of a document that is split on its records, see
+ * {@link XmlNavTreePatternInputFormat}. It positions the split on its first record, replays the
+ * start tags of the ancestors of the records, and sets the node ID counters of the extractor so
+ * that each node gets the same IDs whatever the split that reads it, and however many splits
+ * the document has. These IDs are derived from the offsets of the records, thus they differ
+ * from the IDs that the same nodes get when the document is not split on its records.
+ *
+ */
+class XmlRecordSplitState {
+
+	/**
+	 * Minimum number of bytes taken by a node in the document ('<a>'); used to derive node IDs
+	 * from offsets.
+	 */
+	private static final int MIN_NODE_BYTES = 3;
+
+
+	private final DocumentHeader header;
+
+	private final String recordElement;
+
+	// the record element, split to be compared with the names of the parser
+	private final String recordPrefix;
+
+	private final String recordLocalName;
+
+	private XmlRecordRegionInputStream region;
+
+	private int ancestorsToSynthesize;
+
+	private int startEvents;
+
+	private int depth;
+
+	private boolean recordsStarted;
+
+	private int openAncestors;
+
+	private int ancestorsPostSeed;
+
+
+	XmlRecordSplitState(DocumentHeader header, String recordElement) {
+		this.header = header;
+		this.recordElement = recordElement;
+		final int colon = recordElement.indexOf(':');
+		this.recordPrefix = colon == -1 ? null : recordElement.substring(0, colon);
+		this.recordLocalName = recordElement.substring(colon + 1);
+	}
+
+	/**
+	 * @return true if the current element of the reader is a record element
+	 */
+	private boolean isRecordElement(XMLStreamReader reader) {
+		if(!this.recordLocalName.equals(reader.getLocalName()))
+			return false;
+		final String prefix = reader.getPrefix();
+		return this.recordPrefix == null ? prefix == null || prefix.isEmpty() : this.recordPrefix.equals(prefix);
+	}
+
+	/**
+	 * Positions the split on the first record that begins in it, and wraps the records of the split
+	 * in the start and end tags of their ancestors.
+	 *
+	 * @param stream the stream of the document, positioned at the start of the split
+	 * @return the stream to parse, or null if no record begins in the split
+	 */
+	InputStream openRegion(InputStream stream, long splitStart, long splitLength) throws IOException {
+		final long splitEnd = splitStart + splitLength;
+		final XmlRecordRegionInputStream region = new XmlRecordRegionInputStream(
+				stream, this.recordElement, splitStart, splitEnd);
+		if(splitStart == 0) {
+			// the first split reads the beginning of the document as it is
+			this.ancestorsToSynthesize = 0;
+		}
+		else {
+			if(this.header.recordOffset == -1)
+				return null;
+			final long recordOffset = region.skipToRecord();
+			if(recordOffset == -1 || recordOffset >= splitEnd)
+				return null;
+			StringBuilder prefix = new StringBuilder();
+			for(String tag : this.header.ancestorTags)
+				prefix.append(tag);
+			region.setPrefix(prefix.toString());
+			this.ancestorsToSynthesize = this.header.ancestorTags.size();
+		}
+		StringBuilder suffix = new StringBuilder();
+		for(int i = this.header.ancestorNames.size() - 1; i >= 0; i--)
+			suffix.append("</").append(this.header.ancestorNames.get(i)).append('>');
+		region.setSuffix(suffix.toString());
+
+		this.region = region;
+		this.ancestorsPostSeed = (int) Math.min(this.header.fileLength / MIN_NODE_BYTES, Integer.MAX_VALUE);
+		this.startEvents = 0;
+		this.depth = 0;
+		this.recordsStarted = false;
+		this.openAncestors = 0;
+
+		return region;
+	}
+
+	/**
+	 * Checks that the post values of the ancestors, which follow those of the records, fit in the
+	 * node IDs.
+	 */
+	void checkNodeIDs(MultiPatternDocumentExtractor extractor, String documentID) throws IOException {
+		if(extractor.storesNodeIDs() &&
+				(long) this.ancestorsPostSeed + this.header.ancestorTags.size() > Integer.MAX_VALUE)
+			throw new IOException("Document " + documentID + " is too large to be split with node IDs");
+	}
+
+	/**
+	 * @return true if the current element is an ancestor of the records
+	 */
+	boolean isAncestor() {
+		return this.depth <= this.header.ancestorTags.size();
+	}
+
+	/**
+	 * Sets the node ID counters before the extractor handles a start element event.
+	 */
+	void startElement(XMLStreamReader reader, MultiPatternDocumentExtractor extractor) {
+		if(this.startEvents < this.ancestorsToSynthesize) {
+			extractor.setNodeIDCounters(this.header.ancestorPre.get(this.startEvents),
+					this.header.ancestorPost.get(this.startEvents));
+		}
+		else if(this.isRecordElement(reader)) {
+			final Long offset = this.region.pollRecordOffset();
+			if(offset != null && this.depth == this.header.ancestorTags.size()) {
+				// each record is numbered from its offset, whatever the split that reads it
+				final int seed = (int) Math.min(offset / MIN_NODE_BYTES, Integer.MAX_VALUE);
+				extractor.setNodeIDCounters(seed, seed);
+				if(!this.recordsStarted) {
+					this.recordsStarted = true;
+					this.openAncestors = this.depth;
+				}
+			}
+		}
+		this.startEvents++;
+		this.depth++;
+	}
+
+	/**
+	 * Handles an end element event if it closes an ancestor of the records, which gets the same
+	 * post values whatever the split that closes it.
+	 *
+	 * @return true if the event has been handled, false if the extractor still has to handle it
+	 */
+	boolean endElement(MultiPatternDocumentExtractor extractor) {
+		if(this.recordsStarted && this.depth == this.openAncestors) {
+			final int post = extractor.getPostCounter();
+			extractor.setNodeIDCounters(extractor.getPreCounter(),
+					this.ancestorsPostSeed + this.header.ancestorTags.size() - this.depth);
+			extractor.endElement();
+			extractor.setNodeIDCounters(extractor.getPreCounter(), post);
+			this.openAncestors--;
+			this.depth--;
+			return true;
+		}
+		this.depth--;
+		return false;
+	}
+
+	/**
+	 * Moves the stream reader from a start element to its end element, keeping the record offsets
+	 * of the region aligned with the record start tags.
+	 *
+	 * @return the number of nodes skipped: the descendants of the element and their attributes
+	 */
+	int skipToEndElement(XMLStreamReader reader) throws XMLStreamException {
+		int skippedNodes = 0;
+		int level = 1;
+		while(level > 0) {
+			final int event = reader.next();
+			if(event == XMLStreamConstants.START_ELEMENT) {
+				level++;
+				skippedNodes += 1 + reader.getAttributeCount();
+				if(this.isRecordElement(reader))
+					this.region.pollRecordOffset();
+			}
+			else if(event == XMLStreamConstants.END_ELEMENT) {
+				level--;
+			}
+		}
+		return skippedNodes;
+	}
+
+	/**
+	 * Checks that the patterns only use the ancestors of the records as context. Each split
+	 * replays the ancestors, thus a pattern node that may match one of them is matched by every
+	 * split: it may not store or select anything, nor have nested or optional children, and the
+	 * pattern must go on through mandatory edges to a node within the records, so that each
+	 * record comes from a match within the records.
+	 *
+	 * @throws IOException if a pattern binds an ancestor of the records
+	 */
+	static void checkPatterns(NavigationTreePattern[] ntps, DocumentHeader header, Path path) throws IOException {
+		final HashSet<String> ancestorNames = new HashSet<String>();
+		for(String name : header.ancestorNames)
+			ancestorNames.add(name.substring(name.indexOf(':') + 1));
+		for(NavigationTreePattern ntp : ntps) {
+			for(NavigationTreePatternEdge edge : ntp.getRoot().getEdges()) {
+				final NavigationTreePatternNode node = edge.n2;
+				if(!mayMatchAncestor(node, ancestorNames))
+					continue;
+				checkAncestorMatches(node, ancestorNames, path);
+				if(!reachesRecords(node, ancestorNames))
+					throw new IOException("The pattern node " + node.getTag() + " may match an ancestor of the records of " +
+							path + " without any mandatory descendant in the records");
+			}
+		}
+	}
+
+	/**
+	 * @return true if the node, whose parent may match an ancestor of the records, may match one too
+	 */
+	private static boolean mayMatchAncestor(NavigationTreePatternNode node, HashSet<String> ancestorNames) {
+		return node.isAttribute() || !node.selectsTag() || node.getTag().equals("*") || ancestorNames.contains(node.getTag());
+	}
+
+	/**
+	 * Checks a node that may match an ancestor of the records, and its descendants.
+	 */
+	private static void checkAncestorMatches(NavigationTreePatternNode node, HashSet<String> ancestorNames, Path path)
+			throws IOException {
+		boolean splitChild = false;
+		for(NavigationTreePatternEdge edge : node.getEdges())
+			splitChild |= edge.isNested() || edge.isOptional();
+		if(node.storesID() || node.storesTag() || node.storesValue() || node.storesContent() || node.selectsValue() || splitChild)
+			throw new IOException("The pattern node " + node.getTag() + " may match an ancestor of the records of " +
+					path + ", which every split reads; only the records can be split");
+		for(NavigationTreePatternEdge edge : node.getEdges()) {
+			if(mayMatchAncestor(edge.n2, ancestorNames))
+				checkAncestorMatches(edge.n2, ancestorNames, path);
+		}
+	}
+
+	/**
+	 * @return true if the matches of the node need a match within the records
+	 */
+	private static boolean reachesRecords(NavigationTreePatternNode node, HashSet<String> ancestorNames) {
+		if(!mayMatchAncestor(node, ancestorNames))
+			return true;
+		for(NavigationTreePatternEdge edge : node.getEdges()) {
+			if(!edge.isOptional() && reachesRecords(edge.n2, ancestorNames))
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Reads the beginning of a document, up to its first record, to find the ancestors of
+	 * the records and the IDs they get.
+	 */
+	static DocumentHeader readHeader(Path path, String recordElement) throws IOException {
+		final FileSystem fs = path.getFileSystem();
+		final DocumentHeader header = new DocumentHeader();
+		header.fileLength = fs.getFileStatus(path).getLen();
+
+		final XmlRecordRegionInputStream region = new XmlRecordRegionInputStream(
+				fs.open(path), recordElement, 0, 0);
+		int pre = 0;
+		int post = 0;
+		try {
+			XMLStreamReader reader = XMLInputFactory.newInstance().createXMLStreamReader(region);
+			while(reader.hasNext()) {
+				final int event = reader.next();
+				if(event == XMLStreamConstants.START_ELEMENT) {
+					header.ancestorNames.add(getQName(reader.getPrefix(), reader.getLocalName()));
+					header.ancestorTags.add(getStartTag(reader));
+					header.ancestorPre.add(pre);
+					header.ancestorPost.add(post);
+					// attributes are numbered as nodes that end right after they begin
+					pre += 1 + reader.getAttributeCount();
+					post += reader.getAttributeCount();
+				}
+				else if(event == XMLStreamConstants.END_ELEMENT) {
+					final int last = header.ancestorNames.size() - 1;
+					header.ancestorNames.remove(last);
+					header.ancestorTags.remove(last);
+					header.ancestorPre.remove(last);
+					header.ancestorPost.remove(last);
+					post++;
+				}
+			}
+		} catch (XMLStreamException e) {
+			// expected: the region ends in the middle of the document
+		} finally {
+			region.close();
+		}
+
+		if(region.stoppedAtRecord())
+			header.recordOffset = region.getPosition();
+		return header;
+	}
+
+	private static String getStartTag(XMLStreamReader reader) {
+		StringBuilder sb = new StringBuilder();
+		sb.append('<').append(getQName(reader.getPrefix(), reader.getLocalName()));
+		for(int i = 0; i < reader.getNamespaceCount(); i++) {
+			sb.append(" xmlns");
+			if(reader.getNamespacePrefix(i) != null && !reader.getNamespacePrefix(i).isEmpty())
+				sb.append(':').append(reader.getNamespacePrefix(i));
+			sb.append("=\"").append(escapeAttribute(reader.getNamespaceURI(i))).append('"');
+		}
+		for(int i = 0; i < reader.getAttributeCount(); i++) {
+			sb.append(' ').append(getQName(reader.getAttributePrefix(i), reader.getAttributeLocalName(i)));
+			sb.append("=\"").append(escapeAttribute(reader.getAttributeValue(i))).append('"');
+		}
+		sb.append('>');
+		return sb.toString();
+	}
+
+	private static String getQName(String prefix, String localName) {
+		if(prefix == null || prefix.isEmpty())
+			return localName;
+		return prefix + ":" + localName;
+	}
+
+	private static String escapeAttribute(String value) {
+		return value.replace("&", "&amp;").replace("<", "&lt;").replace("\"", "&quot;");
+	}
+
+
+	/**
+	 * Ancestors of the records of a document, as found before its first record.
+	 */
+	static final class DocumentHeader {
+
+		private long fileLength;
+
+		// offset of the first record, -1 if the document does not contain records
+		private long recordOffset = -1;
+
+		private final ArrayList<String> ancestorNames = new ArrayList<String>();
+
+		private final ArrayList<String> ancestorTags = new ArrayList<String>();
+
+		private final ArrayList<Integer> ancestorPre = new ArrayList<Integer>();
+
+		private final ArrayList<Integer> ancestorPost = new ArrayList<Integer>();
+
+	}
+
+}
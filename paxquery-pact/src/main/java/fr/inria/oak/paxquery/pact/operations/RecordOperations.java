@@ -15,13 +15,19 @@
  ******************************************************************************/
 package fr.inria.oak.paxquery.pact.operations;
 
+import java.util.List;
+
+import org.apache.flink.types.DoubleValue;
+import org.apache.flink.types.LongValue;
 import org.apache.flink.types.Record;
 import org.apache.flink.types.StringValue;
 import org.apache.flink.types.Value;
 
 import fr.inria.oak.paxquery.common.datamodel.metadata.MetadataTypes;
 import fr.inria.oak.paxquery.common.datamodel.metadata.NestedMetadata;
+import fr.inria.oak.paxquery.pact.datamodel.type.OrderedIDValue;
 import fr.inria.oak.paxquery.pact.datamodel.type.RecordList;
+import fr.inria.oak.paxquery.pact.datamodel.type.StructuralIDValue;
 
 
 /**
@@ -30,29 +36,89 @@ import fr.inria.oak.paxquery.pact.datamodel.type.RecordList;
  */
 public class RecordOperations {
 	
-	public static void concatenate(Record record1, Record record2) {
-		int[] copyFrom = new int[record2.getNumFields()];
-		int[] copyTo = new int[record2.getNumFields()];
-		for(int i=0;i<record2.getNumFields();i++) {
-			copyFrom[i] = i;
-			copyTo[i] = record1.getNumFields() + i;
+	/**
+	 * Null value of the {@link MetadataTypes#STRING_TYPE} columns. Every column type has its own
+	 * null value, so that null fields can still be used as keys; null fields are only detected
+	 * by {@link #isNull(Value)}.
+	 */
+	private static final char NULL_CHAR = '\0';
+	
+	/**
+	 * Null value of the {@link MetadataTypes#DOUBLE_TYPE} columns.
+	 */
+	public static final double NULL_DOUBLE = Double.NaN;
+	
+	/**
+	 * Null value of the {@link MetadataTypes#LONG_TYPE} columns.
+	 */
+	public static final long NULL_LONG = Long.MIN_VALUE;
+	
+	/**
+	 * Fewer fields than this are appended with the positions in {@link #FIELD_RANGES}.
+	 */
+	private static final int MAX_CACHED_FIELDS = 32;
+	
+	/**
+	 * FIELD_RANGES[start][length] holds the positions from start to start+length-1. The arrays
+	 * are never modified, so they are shared by all the tasks.
+	 */
+	private static final int[][][] FIELD_RANGES = new int[MAX_CACHED_FIELDS][MAX_CACHED_FIELDS][];
+	static {
+		for(int start=0; start<MAX_CACHED_FIELDS; start++) {
+			for(int length=0; length<MAX_CACHED_FIELDS; length++)
+				FIELD_RANGES[start][length] = createFieldRange(start, length);
 		}
-		record1.copyFrom(record2, copyFrom, copyTo);
 	}
 	
-	public static void project(Record record, int[] keepColumns) {
-		int j=0, k=0;
-		// For each column that we need to project...
-		int initialNumberFields = record.getNumFields();
-		for(int i=0; i<initialNumberFields; i++) {
-			if(j >= keepColumns.length || i != keepColumns[j]) {
-				record.removeField(i-k);
-				k++;
-			}
-			else
-				j++;
-		}
-		record.updateBinaryRepresenation();
+	private static int[] createFieldRange(int start, int length) {
+		int[] range = new int[length];
+		for(int i=0; i<length; i++)
+			range[i] = start + i;
+		return range;
+	}
+	
+	private static int[] getFieldRange(int start, int length) {
+		if(start < MAX_CACHED_FIELDS && length < MAX_CACHED_FIELDS)
+			return FIELD_RANGES[start][length];
+		return createFieldRange(start, length);
+	}
+	
+	/**
+	 * Appends the fields of record2 to record1.
+	 * 
+	 * @param record1
+	 * @param record2
+	 */
+	public static void concatenate(Record record1, Record record2) {
+		appendFields(record1, record2, getFieldRange(0, record2.getNumFields()));
+	}
+	
+	/**
+	 * Appends some fields of a record to another record, in the given order. The serialized
+	 * bytes of the fields are copied, without decoding the values.
+	 * 
+	 * @param target
+	 * @param source
+	 * @param columns the positions of the fields in the source record
+	 */
+	public static void appendFields(Record target, Record source, int[] columns) {
+		// Record.copyFrom does not support an empty list of fields
+		if(columns.length == 0)
+			return;
+		target.copyFrom(source, columns, getFieldRange(target.getNumFields(), columns.length));
+	}
+	
+	/**
+	 * Builds the projection of a record in a single pass, copying only the serialized bytes
+	 * of the kept fields. The columns can be reordered.
+	 * 
+	 * @param record
+	 * @param keepColumns the positions of the fields that are kept, in the order of the output
+	 * @param outputRecord record that is cleared and filled with the kept fields
+	 */
+	public static void project(Record record, int[] keepColumns, Record outputRecord) {
+		outputRecord.clear();
+		appendFields(outputRecord, record, keepColumns);
 	}
 	
 	public static Record createNullRecord(NestedMetadata signature) {
@@ -69,12 +135,172 @@ public class RecordOperations {
 				record.addField(list);
 			}
 			else
-				record.addField(createNullField());
+				record.addField(createNullField(signature.getCompleteMetadata()[i]));
 		}
 	}
 	
-	public static Value createNullField() {
-		return new StringValue("\0");
+	public static StringValue createNullField() {
+		return new StringValue(String.valueOf(NULL_CHAR));
+	}
+	
+	/**
+	 * @param type the type of the column
+	 * @return the null value of a column of the given (non nested) type
+	 */
+	public static Value createNullField(MetadataTypes type) {
+		switch(type) {
+			case STRUCTURAL_ID:
+				return new StructuralIDValue();
+			case ORDERED_ID:
+				return new OrderedIDValue();
+			case DOUBLE_TYPE:
+				return new DoubleValue(NULL_DOUBLE);
+			case LONG_TYPE:
+				return new LongValue(NULL_LONG);
+			default:
+				return createNullField();
+		}
 	}
 	
+	/**
+	 * Creates the field of an extracted value; numbers are parsed once here, and a value that is
+	 * not a number of the given type gives a null field.
+	 * 
+	 * @param value the text of the value, null if there is none
+	 * @param type the type of the column
+	 * @return the field
+	 */
+	public static Value createValueField(String value, MetadataTypes type) {
+		if(value == null)
+			return createNullField(type);
+		try {
+			switch(type) {
+				case DOUBLE_TYPE:
+					return new DoubleValue(Double.parseDouble(value));
+				case LONG_TYPE:
+					return new LongValue(Long.parseLong(value));
+				default:
+					return new StringValue(value);
+			}
+		} catch (NumberFormatException nfe) {
+			return createNullField(type);
+		}
+	}
+	
+	/**
+	 * Reads a non nested column as a string; node IDs and numbers stored in binary form are
+	 * converted to their text, or to the null string if they are null.
+	 * 
+	 * @param record
+	 * @param column
+	 * @param type the type of the column
+	 * @return the value of the column as a string
+	 */
+	public static StringValue getStringField(Record record, int column, MetadataTypes type) {
+		switch(type) {
+			case STRUCTURAL_ID:
+			case ORDERED_ID:
+			case DOUBLE_TYPE:
+			case LONG_TYPE:
+				final Value value = getField(record, column, type);
+				return isNull(value) ? createNullField() : new StringValue(value.toString());
+			default:
+				return record.getField(column, StringValue.class);
+		}
+	}
+	
+	/**
+	 * Reads a non nested column: node IDs and numbers with their own type, and the other
+	 * columns as strings.
+	 * 
+	 * @param record
+	 * @param column
+	 * @param type the type of the column
+	 * @return the value of the column
+	 */
+	public static Value getField(Record record, int column, MetadataTypes type) {
+		switch(type) {
+			case STRUCTURAL_ID:
+				return record.getField(column, StructuralIDValue.class);
+			case ORDERED_ID:
+				return record.getField(column, OrderedIDValue.class);
+			case DOUBLE_TYPE:
+				return record.getField(column, DoubleValue.class);
+			case LONG_TYPE:
+				return record.getField(column, LongValue.class);
+			default:
+				return getStringField(record, column, type);
+		}
+	}
+	
+	/**
+	 * Reads a non nested column of a list of records, in the same way as
+	 * {@link #getField(Record, int, MetadataTypes)}; the other columns of the list are not read.
+	 * 
+	 * @param list
+	 * @param column
+	 * @param type the type of the column
+	 * @return the values of the column
+	 */
+	public static List<? extends Value> getColumn(RecordList list, int column, MetadataTypes type) {
+		switch(type) {
+			case STRUCTURAL_ID:
+				return list.getColumn(column, StructuralIDValue.class);
+			case ORDERED_ID:
+				return list.getColumn(column, OrderedIDValue.class);
+			case DOUBLE_TYPE:
+				return list.getColumn(column, DoubleValue.class);
+			case LONG_TYPE:
+				return list.getColumn(column, LongValue.class);
+			default:
+				return list.getColumn(column, StringValue.class);
+		}
+	}
+	
+	/**
+	 * Reads a non nested column as a number.
+	 * 
+	 * @param record
+	 * @param column
+	 * @param type the type of the column
+	 * @return the value of the column
+	 * @throws NumberFormatException if the value is null or is not a number
+	 */
+	public static double getDouble(Record record, int column, MetadataTypes type) {
+		switch(type) {
+			case DOUBLE_TYPE:
+				final double doubleValue = record.getField(column, DoubleValue.class).getValue();
+				if(Double.isNaN(doubleValue))
+					throw new NumberFormatException();
+				return doubleValue;
+			case LONG_TYPE:
+				final long longValue = record.getField(column, LongValue.class).getValue();
+				if(longValue == NULL_LONG)
+					throw new NumberFormatException();
+				return longValue;
+			default:
+				return Double.parseDouble(getStringField(record, column, type).getValue());
+		}
+	}
+	
+	/**
+	 * @return true if the value is the null value of its type
+	 */
+	public static boolean isNull(Value value) {
+		if(value instanceof StringValue) {
+			final StringValue stringValue = (StringValue) value;
+			return stringValue.length() == 1 && stringValue.charAt(0) == NULL_CHAR;
+		}
+		if(value instanceof DoubleValue)
+			return Double.isNaN(((DoubleValue) value).getValue());
+		if(value instanceof LongValue)
+			return ((LongValue) value).getValue() == NULL_LONG;
+		if(value instanceof StructuralIDValue)
+			return ((StructuralIDValue) value).isNull();
+		if(value instanceof OrderedIDValue)
+			return ((OrderedIDValue) value).isNull();
+		return false;
+	}
+
+	
 }
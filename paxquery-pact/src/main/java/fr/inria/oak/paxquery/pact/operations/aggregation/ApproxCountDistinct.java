@@ -0,0 +1,64 @@
+/*******************************************************************************
+ * Copyright (C) 2013, 2014, 2015 by Inria and Paris-Sud University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package fr.inria.oak.paxquery.pact.operations.aggregation;
+
+import org.apache.flink.types.StringValue;
+import org.apache.flink.types.Value;
+
+import fr.inria.oak.paxquery.pact.operations.RecordOperations;
+
+/**
+ * Approximate count distinct aggregation operation. The distinct values are counted with a {@link HyperLogLog}
+ * sketch, which is the partial result merged with the sketches of other tasks, so that the values do not need to
+ * be deduplicated before they are counted.
+ *
+ */
+public class ApproxCountDistinct extends BaseAggregationOperation {
+	
+	
+	private final HyperLogLog sketch;
+	
+	public ApproxCountDistinct() {
+		this.sketch = new HyperLogLog();
+	}
+	
+	@Override
+	public void aggregate(Value value) {
+		if(!RecordOperations.isNull(value)) {
+			if(value instanceof StringValue)
+				this.sketch.add(HyperLogLog.hash((StringValue) value));
+			else
+				this.sketch.add(HyperLogLog.hash(value.toString()));
+		}
+	}
+	
+	@Override
+	public Value returnResult() {
+		return new StringValue(String.valueOf(this.sketch.estimate()));
+	}
+	
+	@Override
+	public Value returnPartialResult() {
+		return new StringValue(this.sketch.encode());
+	}
+	
+	@Override
+	public void combineAggregation(Value value) {
+		if(!RecordOperations.isNull(value))
+			this.sketch.merge(HyperLogLog.decode(((StringValue) value).getValue()));
+	}
+
+}
@@ -0,0 +1,131 @@
+/*******************************************************************************
+ * Copyright (C) 2013, 2014, 2015 by Inria and Paris-Sud University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package fr.inria.oak.paxquery.pact.operations.aggregation;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.flink.types.StringValue;
+import org.apache.flink.types.Value;
+
+import fr.inria.oak.paxquery.common.datamodel.metadata.MetadataTypes;
+import fr.inria.oak.paxquery.pact.operations.RecordOperations;
+
+/**
+ * Approximate quantile aggregation operation. The values are summarized by a {@link TDigest}, which is the partial
+ * result merged with the digests of other tasks. Strings that are not numbers are ignored, like null values.
+ *
+ */
+public class ApproxQuantile extends BaseAggregationOperation {
+	
+	private static final Log logger = LogFactory.getLog(ApproxQuantile.class);
+
+	
+	private final MetadataTypes type;
+	
+	private final double quantile;
+	
+	private final TDigest digest;
+	
+	/**
+	 * @param type the type of the aggregated column
+	 * @param quantile between 0 and 1, e.g. 0.5 for the median
+	 */
+	public ApproxQuantile(MetadataTypes type, double quantile) {
+		this.type = type;
+		this.quantile = quantile;
+		
+		switch(this.type) {
+			case STRING_TYPE:
+			case DOUBLE_TYPE:
+			case LONG_TYPE:
+				this.digest = new TDigest();
+				break;
+			default:
+				logger.error("Quantile aggregation not supported for this data type!");
+				this.digest = null;
+		}
+	}
+	
+	@Override
+	public void aggregate(Value value) {
+		switch(this.type) {
+			case STRING_TYPE:
+				if(!RecordOperations.isNull(value)) {
+					final Double parsed = parseDouble(((StringValue) value).getValue());
+					if(parsed != null)
+						this.digest.add(parsed);
+				}
+				break;
+			case DOUBLE_TYPE:
+			case LONG_TYPE:
+				final double number = getDouble(value);
+				if(!Double.isNaN(number))
+					this.digest.add(number);
+				break;
+			default:
+				logger.error("Quantile aggregation not supported for this data type!");
+		}
+	}
+	
+	@Override
+	public Value returnResult() {
+		switch(this.type) {
+			case STRING_TYPE:
+			case DOUBLE_TYPE:
+			case LONG_TYPE:
+				final double result = this.digest.quantile(this.quantile);
+				if(Double.isNaN(result))
+					return RecordOperations.createNullField();
+				return new StringValue(String.valueOf(result));
+			default:
+				logger.error("Quantile aggregation not supported for this data type!");
+				return null;
+		}
+	}
+	
+	@Override
+	public Value returnPartialResult() {
+		if(this.digest == null) {
+			logger.error("Quantile aggregation not supported for this data type!");
+			return null;
+		}
+		return new StringValue(this.digest.encode());
+	}
+	
+	@Override
+	public void combineAggregation(Value value) {
+		if(this.digest == null) {
+			logger.error("Quantile aggregation not supported for this data type!");
+			return;
+		}
+		if(!RecordOperations.isNull(value))
+			this.digest.merge(TDigest.decode(((StringValue) value).getValue()));
+	}
+	
+	/**
+	 * @return the number in the string, null if the string is not a number or is NaN
+	 */
+	private static Double parseDouble(String string) {
+		try {
+			final Double number = Double.valueOf(string);
+			return number.isNaN() ? null : number;
+		} catch (NumberFormatException nfe) {
+			logger.debug("Not a number: " + string);
+			return null;
+		}
+	}
+
+}
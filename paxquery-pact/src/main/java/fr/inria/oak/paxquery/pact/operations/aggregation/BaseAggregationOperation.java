@@ -15,8 +15,18 @@
  ******************************************************************************/
 package fr.inria.oak.paxquery.pact.operations.aggregation;
 
+import java.util.Arrays;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.flink.types.DoubleValue;
+import org.apache.flink.types.LongValue;
 import org.apache.flink.types.Value;
 
+import fr.inria.oak.paxquery.common.aggregation.AggregationType;
+import fr.inria.oak.paxquery.common.datamodel.metadata.MetadataTypes;
+import fr.inria.oak.paxquery.pact.operations.RecordOperations;
+
 
 /**
  * Generic aggregation operation.
@@ -24,11 +34,97 @@ import org.apache.flink.types.Value;
  */
 public abstract class BaseAggregationOperation {
 	
+	private static final Log logger = LogFactory.getLog(BaseAggregationOperation.class);
+	
+	/**
+	 * Used by the operators that may aggregate, when they do not
+	 */
+	public static final int[] NO_AGGREGATION_COLUMNS = new int[0];
+	
+	public static final MetadataTypes[] NO_AGGREGATION_COLUMN_TYPES = new MetadataTypes[0];
+	
+	public static final AggregationType[] NO_AGGREGATION_TYPES = new AggregationType[0];
+	
+	
+	/**
+	 * @param aggregationType
+	 * @param type the type of the aggregated column
+	 * @return a new aggregation operation, null if the aggregation type is not supported
+	 */
+	public static BaseAggregationOperation create(AggregationType aggregationType, MetadataTypes type) {
+		switch(aggregationType) {
+			case COUNT:
+				return new Count();
+			case MAX:
+				return new Max(type);
+			case MIN:
+				return new Min(type);
+			case SUM:
+				return new Sum(type);
+			case APPROX_COUNT_DISTINCT:
+				return new ApproxCountDistinct();
+			case APPROX_MEDIAN:
+				return new ApproxQuantile(type, 0.5);
+			default:
+				logger.error("Aggregation type not supported!");
+				return null;
+		}
+	}
+
+	/**
+	 * @param aggregationTypes
+	 * @param types the types of the aggregated columns
+	 * @return a new aggregation operation for each aggregation type, null if any of them is not supported
+	 */
+	public static BaseAggregationOperation[] create(AggregationType[] aggregationTypes, MetadataTypes[] types) {
+		final BaseAggregationOperation[] operations = new BaseAggregationOperation[aggregationTypes.length];
+		for(int i=0; i<operations.length; i++) {
+			operations[i] = create(aggregationTypes[i], types[i]);
+			if(operations[i] == null)
+				return null;
+		}
+		return operations;
+	}
+
+	/**
+	 * @param aggregationTypes
+	 * @param type the type of all the aggregated columns, e.g. {@link MetadataTypes#STRING_TYPE} to merge
+	 * partial results
+	 * @return a new aggregation operation for each aggregation type, null if any of them is not supported
+	 */
+	public static BaseAggregationOperation[] create(AggregationType[] aggregationTypes, MetadataTypes type) {
+		final MetadataTypes[] types = new MetadataTypes[aggregationTypes.length];
+		Arrays.fill(types, type);
+		return create(aggregationTypes, types);
+	}
 
 	public abstract void aggregate(Value value);
 		
 	public abstract Value returnResult();
 	
+	/**
+	 * @return the state of the aggregation, to be merged with the state of other aggregations by
+	 * {@link #combineAggregation(Value)}; by default, the result itself
+	 */
+	public Value returnPartialResult() {
+		return returnResult();
+	}
+	
+	/**
+	 * @param value a partial result returned by {@link #returnPartialResult()}
+	 */
 	public abstract void combineAggregation(Value value);
 	
+	/**
+	 * @return the number in a {@link MetadataTypes#DOUBLE_TYPE} or {@link MetadataTypes#LONG_TYPE}
+	 * field, NaN if the field is null
+	 */
+	protected static double getDouble(Value value) {
+		if(value instanceof DoubleValue)
+			return ((DoubleValue) value).getValue();
+		if(value instanceof LongValue && ((LongValue) value).getValue() != RecordOperations.NULL_LONG)
+			return ((LongValue) value).getValue();
+		return Double.NaN;
+	}
+	
 }
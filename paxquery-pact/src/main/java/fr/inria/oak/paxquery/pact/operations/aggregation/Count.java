@@ -18,6 +18,8 @@ package fr.inria.oak.paxquery.pact.operations.aggregation;
 import org.apache.flink.types.StringValue;
 import org.apache.flink.types.Value;
 
+import fr.inria.oak.paxquery.pact.operations.RecordOperations;
+
 /**
  * Count aggregation operation.
  *
@@ -33,8 +35,7 @@ public class Count extends BaseAggregationOperation {
 	
 	@Override
 	public void aggregate(Value value) {
-		final String stringValue = ((StringValue) value).getValue();
-		if(!stringValue.equals("\0"))
+		if(!RecordOperations.isNull(value))
 			this.count++;
 	}
 	
@@ -45,9 +46,8 @@ public class Count extends BaseAggregationOperation {
 	
 	@Override
 	public void combineAggregation(Value value) {
-		final String stringValue = ((StringValue) value).getValue();
-		if(!stringValue.equals("\0"))
-			this.count += Integer.parseInt(stringValue);		
+		if(!RecordOperations.isNull(value))
+			this.count += Integer.parseInt(((StringValue) value).getValue());		
 	}
 
 }
@@ -0,0 +1,220 @@
+/*******************************************************************************
+ * Copyright (C) 2013, 2014, 2015 by Inria and Paris-Sud University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package fr.inria.oak.paxquery.pact.operations.aggregation;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import javax.xml.bind.DatatypeConverter;
+
+/**
+ * HyperLogLog sketch estimating the number of distinct values of a multiset from the 64-bit hashes of the values.
+ * Small sets keep the sorted list of their hashes, and are counted exactly. Beyond {@link #SPARSE_LIMIT} hashes,
+ * each hash is folded into one of the 2^{@value #PRECISION} registers, which keeps the longest run of leading zeros
+ * of the hashes that fall in it; the standard error of the estimate is then 1.04/sqrt(2^{@value #PRECISION}),
+ * about 0.8%.
+ * The cardinality is estimated from the histogram of the registers as proposed by Ertl, "New cardinality estimation
+ * algorithms for HyperLogLog sketches", which does not need empirical bias corrections.
+ *
+ */
+public final class HyperLogLog {
+	
+	private static final int PRECISION = 14;
+	
+	private static final int REGISTERS = 1 << PRECISION;
+	
+	/**
+	 * Number of bits of the hash left after the index of the register
+	 */
+	private static final int REMAINING_BITS = 64 - PRECISION;
+	
+	/**
+	 * Maximum number of hashes kept before switching to the registers, which then take less space
+	 */
+	private static final int SPARSE_LIMIT = 1024;
+	
+	private static final double ALPHA_INFINITY = 0.5 / Math.log(2);
+	
+	private static final char SPARSE = 'S';
+	
+	private static final char DENSE = 'D';
+	
+	
+	/**
+	 * Sorted distinct hashes, while there are no registers
+	 */
+	private long[] hashes;
+	
+	private int size;
+	
+	private byte[] registers;
+	
+	
+	public HyperLogLog() {
+		this.hashes = new long[16];
+		this.size = 0;
+	}
+	
+	/**
+	 * @param string a string built by {@link #encode()}
+	 */
+	public static HyperLogLog decode(String string) {
+		final HyperLogLog sketch = new HyperLogLog();
+		final ByteBuffer buffer = ByteBuffer.wrap(DatatypeConverter.parseBase64Binary(string.substring(1)));
+		if(string.charAt(0) == DENSE) {
+			sketch.hashes = null;
+			sketch.registers = buffer.array();
+		}
+		else {
+			sketch.size = buffer.remaining() / 8;
+			sketch.hashes = new long[Math.max(sketch.size, 16)];
+			buffer.asLongBuffer().get(sketch.hashes, 0, sketch.size);
+		}
+		return sketch;
+	}
+	
+	/**
+	 * @return a printable representation of the sketch
+	 */
+	public String encode() {
+		if(this.registers != null)
+			return DENSE + DatatypeConverter.printBase64Binary(this.registers);
+		final ByteBuffer buffer = ByteBuffer.allocate(this.size * 8);
+		buffer.asLongBuffer().put(this.hashes, 0, this.size);
+		return SPARSE + DatatypeConverter.printBase64Binary(buffer.array());
+	}
+	
+	public void add(long hash) {
+		if(this.registers != null) {
+			addToRegisters(hash);
+			return;
+		}
+		
+		int position = Arrays.binarySearch(this.hashes, 0, this.size, hash);
+		if(position >= 0)
+			return;
+		if(this.size == SPARSE_LIMIT) {
+			toRegisters();
+			addToRegisters(hash);
+			return;
+		}
+		position = -position - 1;
+		if(this.size == this.hashes.length)
+			this.hashes = Arrays.copyOf(this.hashes, this.size * 2);
+		System.arraycopy(this.hashes, position, this.hashes, position + 1, this.size - position);
+		this.hashes[position] = hash;
+		this.size++;
+	}
+	
+	public void merge(HyperLogLog other) {
+		if(other.registers == null) {
+			for(int i=0; i<other.size; i++)
+				add(other.hashes[i]);
+			return;
+		}
+		
+		if(this.registers == null)
+			toRegisters();
+		for(int i=0; i<REGISTERS; i++) {
+			if(other.registers[i] > this.registers[i])
+				this.registers[i] = other.registers[i];
+		}
+	}
+	
+	/**
+	 * @return the estimated number of distinct hashes that were added
+	 */
+	public long estimate() {
+		if(this.registers == null)
+			return this.size;
+		
+		final int[] histogram = new int[REMAINING_BITS + 2];
+		for(byte register: this.registers)
+			histogram[register]++;
+		double z = REGISTERS * tau(1.0 - (double) histogram[REMAINING_BITS + 1] / REGISTERS);
+		for(int k=REMAINING_BITS; k>=1; k--) {
+			z += histogram[k];
+			z *= 0.5;
+		}
+		z += REGISTERS * sigma((double) histogram[0] / REGISTERS);
+		return Math.round(ALPHA_INFINITY * REGISTERS * REGISTERS / z);
+	}
+	
+	private void toRegisters() {
+		this.registers = new byte[REGISTERS];
+		for(int i=0; i<this.size; i++)
+			addToRegisters(this.hashes[i]);
+		this.hashes = null;
+		this.size = 0;
+	}
+	
+	private void addToRegisters(long hash) {
+		final int index = (int) (hash >>> REMAINING_BITS);
+		final long remaining = hash << PRECISION;
+		final byte rank = (byte) (remaining == 0 ? REMAINING_BITS + 1 : Long.numberOfLeadingZeros(remaining) + 1);
+		if(rank > this.registers[index])
+			this.registers[index] = rank;
+	}
+	
+	private static double sigma(double x) {
+		if(x == 1.0)
+			return Double.POSITIVE_INFINITY;
+		double y = 1.0;
+		double z = x;
+		double previous;
+		do {
+			x *= x;
+			previous = z;
+			z += x * y;
+			y += y;
+		} while(z != previous);
+		return z;
+	}
+	
+	private static double tau(double x) {
+		if(x == 0.0 || x == 1.0)
+			return 0.0;
+		double y = 1.0;
+		double z = 1.0 - x;
+		double previous;
+		do {
+			x = Math.sqrt(x);
+			previous = z;
+			y *= 0.5;
+			z -= (1.0 - x) * (1.0 - x) * y;
+		} while(z != previous);
+		return z / 3.0;
+	}
+	
+	/**
+	 * @return a 64-bit hash of the string, with the FNV-1a function over its characters followed by the finalizer
+	 * of MurmurHash3, so that every bit of the hash depends on every character
+	 */
+	public static long hash(CharSequence string) {
+		long hash = 0xcbf29ce484222325L;
+		for(int i=0; i<string.length(); i++) {
+			hash ^= string.charAt(i);
+			hash *= 0x100000001b3L;
+		}
+		hash ^= hash >>> 33;
+		hash *= 0xff51afd7ed558ccdL;
+		hash ^= hash >>> 33;
+		hash *= 0xc4ceb9fe1a85ec53L;
+		hash ^= hash >>> 33;
+		return hash;
+	}
+	
+}
@@ -21,6 +21,7 @@ import org.apache.flink.types.StringValue;
 import org.apache.flink.types.Value;
 
 import fr.inria.oak.paxquery.common.datamodel.metadata.MetadataTypes;
+import fr.inria.oak.paxquery.pact.operations.RecordOperations;
 
 /**
  * Max aggregation operation.
@@ -42,6 +43,8 @@ public class Max extends BaseAggregationOperation {
 		
 		switch(this.type) {
 			case STRING_TYPE:
+			case DOUBLE_TYPE:
+			case LONG_TYPE:
 				this.maxDouble = Double.NEGATIVE_INFINITY;
 				break;
 			default:
@@ -55,14 +58,22 @@ public class Max extends BaseAggregationOperation {
 	public void aggregate(Value value) {
 		switch(this.type) {
 			case STRING_TYPE:
-				final String stringValue = ((StringValue) value).getValue();
-				if(!stringValue.equals("\0")) {
-					final double newDouble = Double.parseDouble(stringValue);
+				if(!RecordOperations.isNull(value)) {
+					final double newDouble = Double.parseDouble(((StringValue) value).getValue());
 					if(newDouble > this.maxDouble)
 						this.maxDouble = newDouble;
 					this.count++;
 				}
 				break;
+			case DOUBLE_TYPE:
+			case LONG_TYPE:
+				final double number = getDouble(value);
+				if(!Double.isNaN(number)) {
+					if(number > this.maxDouble)
+						this.maxDouble = number;
+					this.count++;
+				}
+				break;
 			default:
 				logger.error("Max aggregation not supported for this data type!");
 		}
@@ -72,8 +83,10 @@ public class Max extends BaseAggregationOperation {
 	public Value returnResult() {
 		switch(this.type) {
 			case STRING_TYPE:
+			case DOUBLE_TYPE:
+			case LONG_TYPE:
 				if(this.count == 0)
-					return new StringValue("\0");
+					return RecordOperations.createNullField();
 				return new StringValue(String.valueOf(this.maxDouble));
 			default:
 				logger.error("Max aggregation not supported for this data type!");
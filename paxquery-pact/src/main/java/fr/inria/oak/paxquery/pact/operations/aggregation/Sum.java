@@ -21,6 +21,7 @@ import org.apache.flink.types.StringValue;
 import org.apache.flink.types.Value;
 
 import fr.inria.oak.paxquery.common.datamodel.metadata.MetadataTypes;
+import fr.inria.oak.paxquery.pact.operations.RecordOperations;
 
 /**
  * Sum aggregation operation.
@@ -40,6 +41,8 @@ public class Sum extends BaseAggregationOperation {
 		
 		switch(this.type) {
 			case STRING_TYPE:
+			case DOUBLE_TYPE:
+			case LONG_TYPE:
 				this.sumDouble = 0.0;
 				break;
 			default:
@@ -51,9 +54,14 @@ public class Sum extends BaseAggregationOperation {
 	public void aggregate(Value value) {
 		switch(this.type) {
 			case STRING_TYPE:
-				final String stringValue = ((StringValue) value).getValue();
-				if(!stringValue.equals("\0"))
-					this.sumDouble += Double.parseDouble(stringValue);
+				if(!RecordOperations.isNull(value))
+					this.sumDouble += Double.parseDouble(((StringValue) value).getValue());
+				break;
+			case DOUBLE_TYPE:
+			case LONG_TYPE:
+				final double number = getDouble(value);
+				if(!Double.isNaN(number))
+					this.sumDouble += number;
 				break;
 			default:
 				logger.error("Sum aggregation not supported for this data type!");
@@ -64,6 +72,8 @@ public class Sum extends BaseAggregationOperation {
 	public Value returnResult() {
 		switch(this.type) {
 			case STRING_TYPE:
+			case DOUBLE_TYPE:
+			case LONG_TYPE:
 				return new StringValue(String.valueOf(this.sumDouble));
 			default:
 				logger.error("Sum aggregation not supported for this data type!");
@@ -0,0 +1,233 @@
+/*******************************************************************************
+ * Copyright (C) 2013, 2014, 2015 by Inria and Paris-Sud University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package fr.inria.oak.paxquery.pact.operations.aggregation;
+
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.util.Arrays;
+import java.util.Comparator;
+
+import javax.xml.bind.DatatypeConverter;
+
+/**
+ * t-digest of a set of numbers, as proposed by Dunning and Ertl, "Computing extremely accurate quantiles using
+ * t-digests". The numbers are summarized by centroids, with a mean and a weight, whose weight is bounded by the
+ * k1 scale function: the centroids are small near the extreme quantiles and larger around the median, and there
+ * are about {@value #COMPRESSION} of them whatever the number of values.
+ * The added numbers are buffered, and merged with the centroids in the order of their means when the buffer is
+ * full; two digests are merged in the same way, by adding the centroids of one of them to the other.
+ *
+ */
+final class TDigest {
+	
+	private static final double COMPRESSION = 100;
+	
+	private static final int BUFFER_SIZE = 500;
+	
+	
+	private double[] means;
+	
+	private double[] weights;
+	
+	private int centroids;
+	
+	private final double[] bufferMeans;
+	
+	private final double[] bufferWeights;
+	
+	private int buffered;
+	
+	private double totalWeight;
+	
+	private double min;
+	
+	private double max;
+	
+	
+	TDigest() {
+		this.means = new double[0];
+		this.weights = new double[0];
+		this.centroids = 0;
+		this.bufferMeans = new double[BUFFER_SIZE];
+		this.bufferWeights = new double[BUFFER_SIZE];
+		this.buffered = 0;
+		this.totalWeight = 0;
+		this.min = Double.POSITIVE_INFINITY;
+		this.max = Double.NEGATIVE_INFINITY;
+	}
+	
+	/**
+	 * @param string a string built by {@link #encode()}
+	 */
+	static TDigest decode(String string) {
+		final TDigest digest = new TDigest();
+		final DoubleBuffer buffer = ByteBuffer.wrap(DatatypeConverter.parseBase64Binary(string)).asDoubleBuffer();
+		digest.min = buffer.get();
+		digest.max = buffer.get();
+		digest.centroids = buffer.remaining() / 2;
+		digest.means = new double[digest.centroids];
+		digest.weights = new double[digest.centroids];
+		for(int i=0; i<digest.centroids; i++) {
+			digest.means[i] = buffer.get();
+			digest.weights[i] = buffer.get();
+			digest.totalWeight += digest.weights[i];
+		}
+		return digest;
+	}
+	
+	/**
+	 * @return a printable representation of the digest: its minimum and maximum, followed by its centroids
+	 */
+	String encode() {
+		compress();
+		final ByteBuffer buffer = ByteBuffer.allocate((2 + 2 * this.centroids) * 8);
+		final DoubleBuffer doubles = buffer.asDoubleBuffer();
+		doubles.put(this.min);
+		doubles.put(this.max);
+		for(int i=0; i<this.centroids; i++) {
+			doubles.put(this.means[i]);
+			doubles.put(this.weights[i]);
+		}
+		return DatatypeConverter.printBase64Binary(buffer.array());
+	}
+	
+	void add(double value) {
+		add(value, 1);
+		if(value < this.min)
+			this.min = value;
+		if(value > this.max)
+			this.max = value;
+	}
+	
+	void merge(TDigest other) {
+		other.compress();
+		for(int i=0; i<other.centroids; i++)
+			add(other.means[i], other.weights[i]);
+		if(other.min < this.min)
+			this.min = other.min;
+		if(other.max > this.max)
+			this.max = other.max;
+	}
+	
+	/**
+	 * @param q between 0 and 1
+	 * @return the estimated value at quantile q, NaN if no value was added
+	 */
+	double quantile(double q) {
+		compress();
+		if(this.centroids == 0)
+			return Double.NaN;
+		
+		//The mean of each centroid is placed at the middle of its weight, the minimum and the maximum at the ends,
+		//and the quantile is interpolated between them
+		final double index = q * this.totalWeight;
+		double previousPosition = 0;
+		double previousValue = this.min;
+		double weightSoFar = 0;
+		for(int i=0; i<this.centroids; i++) {
+			final double position = weightSoFar + this.weights[i] / 2;
+			if(index < position)
+				return interpolate(index, previousPosition, previousValue, position, this.means[i]);
+			previousPosition = position;
+			previousValue = this.means[i];
+			weightSoFar += this.weights[i];
+		}
+		return interpolate(index, previousPosition, previousValue, this.totalWeight, this.max);
+	}
+	
+	private static double interpolate(double x, double x0, double y0, double x1, double y1) {
+		if(x1 <= x0)
+			return y1;
+		return y0 + (y1 - y0) * (x - x0) / (x1 - x0);
+	}
+	
+	private void add(double mean, double weight) {
+		if(this.buffered == BUFFER_SIZE)
+			compress();
+		this.bufferMeans[this.buffered] = mean;
+		this.bufferWeights[this.buffered] = weight;
+		this.buffered++;
+		this.totalWeight += weight;
+	}
+	
+	/**
+	 * Merges the buffered values with the centroids. Going through all of them in the order of their means, each
+	 * one is merged into the current centroid as long as the weight of the centroid stays under the bound given by
+	 * the scale function at its quantile.
+	 */
+	private void compress() {
+		if(this.buffered == 0)
+			return;
+		
+		final int count = this.centroids + this.buffered;
+		final double[] allMeans = Arrays.copyOf(this.means, count);
+		final double[] allWeights = Arrays.copyOf(this.weights, count);
+		System.arraycopy(this.bufferMeans, 0, allMeans, this.centroids, this.buffered);
+		System.arraycopy(this.bufferWeights, 0, allWeights, this.centroids, this.buffered);
+		final Integer[] order = new Integer[count];
+		for(int i=0; i<count; i++)
+			order[i] = i;
+		Arrays.sort(order, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer i1, Integer i2) {
+				return Double.compare(allMeans[i1], allMeans[i2]);
+			}
+		});
+		
+		final double[] newMeans = new double[count];
+		final double[] newWeights = new double[count];
+		int last = 0;
+		newMeans[0] = allMeans[order[0]];
+		newWeights[0] = allWeights[order[0]];
+		double weightSoFar = 0;
+		double limit = this.totalWeight * inverseScale(scale(0) + 1);
+		for(int i=1; i<count; i++) {
+			final double mean = allMeans[order[i]];
+			final double weight = allWeights[order[i]];
+			if(weightSoFar + newWeights[last] + weight <= limit) {
+				newWeights[last] += weight;
+				newMeans[last] += (mean - newMeans[last]) * weight / newWeights[last];
+			}
+			else {
+				weightSoFar += newWeights[last];
+				limit = this.totalWeight * inverseScale(scale(weightSoFar / this.totalWeight) + 1);
+				last++;
+				newMeans[last] = mean;
+				newWeights[last] = weight;
+			}
+		}
+		
+		this.centroids = last + 1;
+		this.means = Arrays.copyOf(newMeans, this.centroids);
+		this.weights = Arrays.copyOf(newWeights, this.centroids);
+		this.buffered = 0;
+	}
+	
+	/**
+	 * k1 scale function
+	 */
+	private static double scale(double q) {
+		return COMPRESSION / (2 * Math.PI) * Math.asin(2 * q - 1);
+	}
+	
+	private static double inverseScale(double k) {
+		final double angle = k * 2 * Math.PI / COMPRESSION;
+		if(angle >= Math.PI / 2)
+			return 1;
+		return (Math.sin(angle) + 1) / 2;
+	}
+	
+}
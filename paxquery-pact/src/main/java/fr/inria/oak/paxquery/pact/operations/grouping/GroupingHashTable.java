@@ -0,0 +1,539 @@
+/*******************************************************************************
+ * Copyright (C) 2013, 2014, 2015 by Inria and Paris-Sud University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package fr.inria.oak.paxquery.pact.operations.grouping;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.flink.core.memory.InputViewDataInputStreamWrapper;
+import org.apache.flink.core.memory.OutputViewDataOutputStreamWrapper;
+import org.apache.flink.types.IntValue;
+import org.apache.flink.types.Record;
+import org.apache.flink.types.StringValue;
+import org.apache.flink.types.Value;
+import org.apache.flink.util.Collector;
+import org.apache.flink.util.InstantiationUtil;
+
+import fr.inria.oak.paxquery.common.aggregation.AggregationType;
+import fr.inria.oak.paxquery.common.datamodel.metadata.MetadataTypes;
+import fr.inria.oak.paxquery.pact.datamodel.metadata.MetadataTypesMapping;
+import fr.inria.oak.paxquery.pact.datamodel.type.RecordList;
+import fr.inria.oak.paxquery.pact.operations.RecordOperations;
+import fr.inria.oak.paxquery.pact.operations.aggregation.BaseAggregationOperation;
+
+
+/**
+ * Hash table that groups records on the values of their key columns, keeping for each group its last record, the
+ * list of its nested records and the state of its aggregations.
+ *
+ * The groups are spread over a few partitions by the bits of the hash of their key. When the estimated size of the
+ * groups goes over the memory budget, the largest partition is spilled to a temporary file, in the form of partial
+ * records, and the following records of that partition are written to the file as they come. The groups that stayed
+ * in memory are output first; then each spilled partition is read again into a new table, which partitions it on the
+ * next bits of the hash (hybrid hash grouping).
+ *
+ * A partial record is the last record of a group with its state from the state column on: the nested records, if
+ * they are kept, and the partial results of the aggregations, if any. A table may also output partial records, and
+ * they are added to a table in the same way as the records they stand for.
+ *
+ * A table that does not spill is used to pre-group records before they are shipped: it is emptied into partial
+ * records when it is full, see {@link #isFull()}.
+ *
+ * The groups are kept on the heap, out of the memory that Flink manages for the task, so the memory budget adds to
+ * the heap taken by the task; see {@link #getDefaultMemory()}.
+ *
+ * The groups are output in no particular order, while the groups built by sorting the records come in the order of
+ * their keys. The nested records of a group are not kept in the order of the input either, once they go through a
+ * spilled partition or of partial records.
+ *
+ */
+public class GroupingHashTable {
+
+	private static final Log logger = LogFactory.getLog(GroupingHashTable.class);
+
+	/**
+	 * Number of bits of the hash that select the partition of a group, at each level.
+	 */
+	private static final int PARTITION_BITS = 4;
+
+	private static final int PARTITIONS = 1 << PARTITION_BITS;
+
+	/**
+	 * Level from which the partitions are not spilled any more, all the bits of the hash being used.
+	 */
+	private static final int MAX_LEVEL = 32 / PARTITION_BITS - 1;
+
+	/**
+	 * Estimated size of a group in memory, apart from its records.
+	 */
+	private static final int GROUP_SIZE = 96;
+
+	/**
+	 * Largest default memory budget, in bytes.
+	 */
+	private static final long MAX_DEFAULT_MEMORY = 32 * 1024 * 1024;
+
+	/**
+	 * Part of the heap that the default memory budget takes at most, as a divisor of its maximum size.
+	 */
+	private static final int HEAP_SHARE = 16;
+
+
+	private final int[] keyColumns;
+
+	private final Class<? extends Value>[] keyClasses;
+
+	private final int stateColumn;
+
+	private final int[] groupByColumns;
+
+	private final int[] nestColumns;
+
+	private final boolean excludeNestedField;
+
+	private final int[] aggregationColumns;
+
+	private final MetadataTypes[] aggregationColumnTypes;
+
+	private final AggregationType[] aggregationTypes;
+
+	private final boolean attachDummyColumn;
+
+	private final long memory;
+
+	private final int level;
+
+	private boolean spilling = true;
+
+	private final HashMap<GroupKey, Group>[] partitions;
+
+	private final long[] partitionSizes = new long[PARTITIONS];
+
+	private long size;
+
+	private final File[] spillFiles = new File[PARTITIONS];
+
+	private final DataOutputStream[] spillStreams = new DataOutputStream[PARTITIONS];
+
+	private final OutputViewDataOutputStreamWrapper[] spillViews = new OutputViewDataOutputStreamWrapper[PARTITIONS];
+
+	private final int[] spillCounts = new int[PARTITIONS];
+
+
+	/**
+	 *
+	 * @param keyColumns the columns that the records are grouped on
+	 * @param keyTypes the types of the key columns
+	 * @param stateColumn the first column of the state in the partial records, after the columns of the records
+	 * @param groupByColumns the columns of the last record that are output for each group
+	 * @param nestColumns the columns of the nested records
+	 * @param excludeNestedField true if the nested records are not kept
+	 * @param aggregationColumns the aggregated columns, empty if there is no aggregation
+	 * @param aggregationColumnTypes
+	 * @param aggregationTypes
+	 * @param attachDummyColumn
+	 * @param memory the memory budget of the groups, in bytes
+	 */
+	public GroupingHashTable(int[] keyColumns, MetadataTypes[] keyTypes, int stateColumn, int[] groupByColumns, int[] nestColumns,
+			boolean excludeNestedField, int[] aggregationColumns, MetadataTypes[] aggregationColumnTypes, AggregationType[] aggregationTypes,
+			boolean attachDummyColumn, long memory) {
+		this.keyColumns = keyColumns;
+		this.keyClasses = getKeyClasses(keyTypes);
+		this.stateColumn = stateColumn;
+		this.groupByColumns = groupByColumns;
+		this.nestColumns = nestColumns;
+		this.excludeNestedField = excludeNestedField;
+		this.aggregationColumns = aggregationColumns;
+		this.aggregationColumnTypes = aggregationColumnTypes;
+		this.aggregationTypes = aggregationTypes;
+		this.attachDummyColumn = attachDummyColumn;
+		this.memory = memory;
+		this.level = 0;
+		this.partitions = createPartitions();
+	}
+
+	/**
+	 * Table for a spilled partition of the given one.
+	 */
+	private GroupingHashTable(GroupingHashTable parent) {
+		this.keyColumns = parent.keyColumns;
+		this.keyClasses = parent.keyClasses;
+		this.stateColumn = parent.stateColumn;
+		this.groupByColumns = parent.groupByColumns;
+		this.nestColumns = parent.nestColumns;
+		this.excludeNestedField = parent.excludeNestedField;
+		this.aggregationColumns = parent.aggregationColumns;
+		this.aggregationColumnTypes = parent.aggregationColumnTypes;
+		this.aggregationTypes = parent.aggregationTypes;
+		this.attachDummyColumn = parent.attachDummyColumn;
+		this.memory = parent.memory;
+		this.level = parent.level + 1;
+		this.partitions = createPartitions();
+	}
+
+	/**
+	 * @return the memory budget of a table whose operator is not given one: 32 MB, or less on a small heap
+	 */
+	public static long getDefaultMemory() {
+		return Math.min(MAX_DEFAULT_MEMORY, Runtime.getRuntime().maxMemory() / HEAP_SHARE);
+	}
+
+	/**
+	 * @param spilling false to keep all the groups in memory, until the table is emptied
+	 */
+	public void setSpilling(boolean spilling) {
+		this.spilling = spilling;
+	}
+
+	/**
+	 * @return true if the groups in memory go over the memory budget, which only happens when the table does not
+	 * spill
+	 */
+	public boolean isFull() {
+		return this.size > this.memory;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static HashMap<GroupKey, Group>[] createPartitions() {
+		final HashMap<GroupKey, Group>[] partitions = new HashMap[PARTITIONS];
+		for(int i=0; i<PARTITIONS; i++)
+			partitions[i] = new HashMap<GroupKey, Group>();
+		return partitions;
+	}
+
+	/**
+	 * @param keyTypes
+	 * @return the classes of the values of the key columns, null for the nested columns
+	 */
+	@SuppressWarnings("unchecked")
+	public static Class<? extends Value>[] getKeyClasses(MetadataTypes[] keyTypes) {
+		final Class<? extends Value>[] keyClasses = new Class[keyTypes.length];
+		for(int i=0; i<keyTypes.length; i++)
+			keyClasses[i] = MetadataTypesMapping.getKeyClass(keyTypes[i]);
+		return keyClasses;
+	}
+
+	/**
+	 *
+	 * @param record
+	 * @param keyColumns
+	 * @param keyClasses
+	 * @return the hash of the values of the key columns of the record, which does not depend on the task that
+	 * computes it
+	 */
+	public static int hash(Record record, int[] keyColumns, Class<? extends Value>[] keyClasses) {
+		return Arrays.hashCode(getKey(record, keyColumns, keyClasses));
+	}
+
+	/**
+	 * The values are read in new instances, as the record reuses the ones that it returns. Records do not define
+	 * equality, so the nested records of a nested column are compared in their serialized form.
+	 */
+	private static Object[] getKey(Record record, int[] keyColumns, Class<? extends Value>[] keyClasses) {
+		final Object[] key = new Object[keyColumns.length];
+		for(int i=0; i<keyColumns.length; i++) {
+			if(keyClasses[i] == null) {
+				final RecordList nestedRecords = new RecordList();
+				if(record.getFieldInto(keyColumns[i], nestedRecords))
+					key[i] = serialize(nestedRecords);
+			}
+			else {
+				final Value value = InstantiationUtil.instantiate(keyClasses[i], Value.class);
+				if(record.getFieldInto(keyColumns[i], value))
+					key[i] = value;
+			}
+		}
+		return key;
+	}
+
+	private static ByteBuffer serialize(RecordList nestedRecords) {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try {
+			nestedRecords.write(new OutputViewDataOutputStreamWrapper(new DataOutputStream(bytes)));
+		} catch (IOException ioe) {
+			// not thrown by a stream in memory
+			throw new IllegalStateException(ioe);
+		}
+		return ByteBuffer.wrap(bytes.toByteArray());
+	}
+
+	/**
+	 * Adds a record, or a partial record, to its group.
+	 *
+	 * @param record
+	 * @throws IOException if the record or the partition could not be spilled
+	 */
+	public void add(Record record) throws IOException {
+		final GroupKey key = new GroupKey(getKey(record, this.keyColumns, this.keyClasses));
+		final int partition = key.getPartition(this.level);
+		if(this.spillViews[partition] != null) {
+			record.write(this.spillViews[partition]);
+			this.spillCounts[partition]++;
+			return;
+		}
+
+		Group group = this.partitions[partition].get(key);
+		long added = 0;
+		if(group == null) {
+			group = new Group();
+			this.partitions[partition].put(key, group);
+			added += GROUP_SIZE + record.getBinaryLength();
+		}
+		added += group.add(record);
+		this.partitionSizes[partition] += added;
+		this.size += added;
+
+		while(this.spilling && this.size > this.memory && spill()) ;
+	}
+
+	/**
+	 * Outputs a record per group, and empties the table.
+	 *
+	 * @param collector
+	 * @param partial true to output partial records, false to output the result of the groups
+	 * @throws IOException if a spilled partition could not be read
+	 */
+	public void emit(Collector<Record> collector, boolean partial) throws IOException {
+		for(int i=0; i<PARTITIONS; i++) {
+			for(Group group: this.partitions[i].values())
+				collector.collect(partial ? group.getPartialRecord() : group.getResult());
+			this.partitions[i].clear();
+			this.partitionSizes[i] = 0;
+		}
+		this.size = 0;
+
+		for(int i=0; i<PARTITIONS; i++) {
+			if(this.spillFiles[i] == null)
+				continue;
+
+			this.spillStreams[i].close();
+			final GroupingHashTable table = new GroupingHashTable(this);
+			final DataInputStream stream = new DataInputStream(new BufferedInputStream(new FileInputStream(this.spillFiles[i])));
+			try {
+				final InputViewDataInputStreamWrapper view = new InputViewDataInputStreamWrapper(stream);
+				final Record record = new Record();
+				for(int j=0; j<this.spillCounts[i]; j++) {
+					record.read(view);
+					table.add(record);
+				}
+			} finally {
+				stream.close();
+			}
+			if(!this.spillFiles[i].delete())
+				logger.warn("Could not delete " + this.spillFiles[i]);
+			this.spillFiles[i] = null;
+			this.spillStreams[i] = null;
+			this.spillViews[i] = null;
+			this.spillCounts[i] = 0;
+
+			table.emit(collector, partial);
+		}
+	}
+
+	/**
+	 * Spills the largest partition that is in memory.
+	 *
+	 * @return false if no partition could be spilled
+	 * @throws IOException
+	 */
+	private boolean spill() throws IOException {
+		if(this.level == MAX_LEVEL)
+			return false;
+
+		int largest = -1;
+		for(int i=0; i<PARTITIONS; i++)
+			if(this.spillViews[i] == null && this.partitionSizes[i] > 0 && (largest == -1 || this.partitionSizes[i] > this.partitionSizes[largest]))
+				largest = i;
+		if(largest == -1)
+			return false;
+
+		logger.debug("Spilling " + this.partitions[largest].size() + " groups at level " + this.level);
+		this.spillFiles[largest] = File.createTempFile("paxquery-groups", ".tmp");
+		this.spillStreams[largest] = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(this.spillFiles[largest])));
+		this.spillViews[largest] = new OutputViewDataOutputStreamWrapper(this.spillStreams[largest]);
+		for(Group group: this.partitions[largest].values()) {
+			group.getPartialRecord().write(this.spillViews[largest]);
+			this.spillCounts[largest]++;
+		}
+		this.partitions[largest].clear();
+		this.size -= this.partitionSizes[largest];
+		this.partitionSizes[largest] = 0;
+		return true;
+	}
+
+	/**
+	 * Deletes the files of the spilled partitions, when the table is not emptied by {@link #emit(Collector, boolean)}.
+	 */
+	public void close() {
+		for(int i=0; i<PARTITIONS; i++) {
+			if(this.spillFiles[i] == null)
+				continue;
+			try {
+				this.spillStreams[i].close();
+			} catch (IOException e) {
+				logger.error("IOException", e);
+			}
+			this.spillFiles[i].delete();
+			this.spillFiles[i] = null;
+			this.spillStreams[i] = null;
+			this.spillViews[i] = null;
+			this.spillCounts[i] = 0;
+		}
+	}
+
+
+	private static final class GroupKey {
+
+		private final Object[] values;
+
+		private final int hash;
+
+
+		GroupKey(Object[] values) {
+			this.values = values;
+			this.hash = Arrays.hashCode(values);
+		}
+
+		/**
+		 * @return the partition of the key at the given level, from bits of its hash that do not depend on the
+		 * bucket of the key
+		 */
+		int getPartition(int level) {
+			int h = this.hash;
+			h ^= h >>> 16;
+			h *= 0x85ebca6b;
+			h ^= h >>> 13;
+			h *= 0xc2b2ae35;
+			h ^= h >>> 16;
+			return (h >>> (level * PARTITION_BITS)) & (PARTITIONS - 1);
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof GroupKey && Arrays.equals(this.values, ((GroupKey) obj).values);
+		}
+
+	}
+
+	private final class Group {
+
+		private final Record record = new Record();
+
+		private final RecordList nestedRecords;
+
+		private final BaseAggregationOperation[] operations;
+
+		/**
+		 * Merge the partial results of the aggregations in the partial records of the group.
+		 */
+		private final BaseAggregationOperation[] partialResults;
+
+
+		Group() {
+			final GroupingHashTable table = GroupingHashTable.this;
+			this.nestedRecords = table.excludeNestedField ? null : new RecordList();
+			this.operations = BaseAggregationOperation.create(table.aggregationTypes, table.aggregationColumnTypes);
+			this.partialResults = BaseAggregationOperation.create(table.aggregationTypes, MetadataTypes.STRING_TYPE);
+		}
+
+		/**
+		 * @return the estimated memory taken by the record in the group
+		 */
+		long add(Record record) {
+			final GroupingHashTable table = GroupingHashTable.this;
+			final boolean partial = record.getNumFields() > table.stateColumn;
+			long added = 0;
+			int column = table.stateColumn;
+			if(this.nestedRecords != null) {
+				if(partial) {
+					RecordList partialNestedRecords = new RecordList();
+					record.getFieldInto(column++, partialNestedRecords);
+					this.nestedRecords.addAll(partialNestedRecords);
+				}
+				else if(table.nestColumns.length != 0) {
+					Record nestedRecord = new Record(table.nestColumns.length);
+					RecordOperations.project(record, table.nestColumns, nestedRecord);
+					this.nestedRecords.add(nestedRecord);
+				}
+				added += record.getBinaryLength();
+			}
+			for(int i=0; i<this.operations.length; i++) {
+				if(partial)
+					this.partialResults[i].combineAggregation(record.getField(column + i, StringValue.class));
+				else
+					this.operations[i].aggregate(RecordOperations.getField(record, table.aggregationColumns[i], table.aggregationColumnTypes[i]));
+			}
+			record.copyTo(this.record);
+			return added;
+		}
+
+		/**
+		 * @param partial whether the state of the aggregation is returned, to be merged later, instead of its result
+		 */
+		private Value getAggregationResult(int i, boolean partial) {
+			this.partialResults[i].combineAggregation(this.operations[i].returnPartialResult());
+			return partial ? this.partialResults[i].returnPartialResult() : this.partialResults[i].returnResult();
+		}
+
+		/**
+		 * @return the last record of the group with the state of the group; the group cannot be used any more
+		 */
+		Record getPartialRecord() {
+			this.record.setNumFields(GroupingHashTable.this.stateColumn);
+			if(this.nestedRecords != null)
+				this.record.addField(this.nestedRecords);
+			for(int i=0; i<this.operations.length; i++)
+				this.record.addField(getAggregationResult(i, true));
+			return this.record;
+		}
+
+		/**
+		 * @return the grouping columns of the last record of the group, followed by the nested records, the results
+		 * of the aggregations and the dummy column, as needed; the group cannot be used any more
+		 */
+		Record getResult() {
+			final GroupingHashTable table = GroupingHashTable.this;
+			Record outputRecord = new Record();
+			RecordOperations.project(this.record, table.groupByColumns, outputRecord);
+			if(this.nestedRecords != null)
+				outputRecord.addField(this.nestedRecords);
+			for(int i=0; i<this.operations.length; i++)
+				outputRecord.addField(getAggregationResult(i, table.attachDummyColumn));
+			if(table.attachDummyColumn)
+				outputRecord.addField(new IntValue(1));
+			return outputRecord;
+		}
+
+	}
+
+}
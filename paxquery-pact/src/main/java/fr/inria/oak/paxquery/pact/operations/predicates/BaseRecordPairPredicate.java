@@ -0,0 +1,76 @@
+/*******************************************************************************
+ * Copyright (C) 2013, 2014, 2015 by Inria and Paris-Sud University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package fr.inria.oak.paxquery.pact.operations.predicates;
+
+import java.util.List;
+
+import org.apache.flink.types.Record;
+
+
+/**
+ * Join predicate over a pair of records, compiled by {@link RecordPredicateCompiler}.
+ *
+ */
+public abstract class BaseRecordPairPredicate {
+	
+
+	public abstract boolean evaluate(Record record1, Record record2);
+	
+	/**
+	 * Evaluates the predicate over the pairs formed by a record and a batch of records. The
+	 * records of the batch are given by their position in records2, in selection[0..size); the
+	 * positions of the pairs that satisfy the predicate are kept, in the same order.
+	 * 
+	 * The batch must not change while it is evaluated with different records: the evaluators
+	 * may decode the columns of the batch once and reuse them.
+	 * 
+	 * @param record1
+	 * @param records2
+	 * @param selection
+	 * @param size
+	 * @return the number of positions kept at the start of selection
+	 */
+	public int select(Record record1, List<Record> records2, int[] selection, int size) {
+		return filter(record1, records2, selection, size, true);
+	}
+	
+	/**
+	 * Same as {@link #select(Record, List, int[], int)}, but keeps the positions of the pairs that
+	 * do not satisfy the predicate.
+	 * 
+	 * @param record1
+	 * @param records2
+	 * @param selection
+	 * @param size
+	 * @return the number of positions kept at the start of selection
+	 */
+	public int reject(Record record1, List<Record> records2, int[] selection, int size) {
+		return filter(record1, records2, selection, size, false);
+	}
+	
+	/**
+	 * Keeps the positions whose evaluation is the given one. Evaluators that can work on the
+	 * whole batch override this method; by default, each pair is evaluated on its own.
+	 */
+	protected int filter(Record record1, List<Record> records2, int[] selection, int size, boolean evaluation) {
+		int kept = 0;
+		for(int i=0; i<size; i++)
+			if(evaluate(record1, records2.get(selection[i])) == evaluation)
+				selection[kept++] = selection[i];
+		return kept;
+	}
+	
+}
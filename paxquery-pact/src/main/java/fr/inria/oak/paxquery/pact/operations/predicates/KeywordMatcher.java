@@ -0,0 +1,326 @@
+/*******************************************************************************
+ * Copyright (C) 2013, 2014, 2015 by Inria and Paris-Sud University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package fr.inria.oak.paxquery.pact.operations.predicates;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+
+/**
+ * Finds the keywords of contains() predicates in texts. A keyword is found in a text if it occurs
+ * there with no letter or digit (a-z, A-Z or 0-9) right before or right after it, which is what
+ * the expression (^|\s+|[^a-zA-Z0-9]+)keyword($|\s+|[^a-zA-Z0-9]+) matches.
+ *
+ * A single keyword is searched with the Boyer-Moore-Horspool algorithm, and several keywords with
+ * an Aho-Corasick automaton, so that the text is read once for all of them. The keywords are
+ * searched in the characters of the text, without copying them. A keyword that holds characters
+ * with a meaning in regular expressions is matched with the regular expression above.
+ *
+ */
+public abstract class KeywordMatcher {
+
+	private static final String REGEX_CHARACTERS = "\\^$.|?*+()[]{}";
+
+
+	/**
+	 * @param keyword
+	 * @return true if the keyword is searched as a string, false if it is matched as a
+	 * regular expression
+	 */
+	public static boolean isLiteral(String keyword) {
+		if(keyword.isEmpty())
+			return false;
+		for(int i=0; i<keyword.length(); i++)
+			if(REGEX_CHARACTERS.indexOf(keyword.charAt(i)) != -1)
+				return false;
+		return true;
+	}
+
+	/**
+	 *
+	 * @param keyword
+	 * @return a matcher for the keyword
+	 */
+	public static KeywordMatcher compile(String keyword) {
+		if(isLiteral(keyword))
+			return new HorspoolMatcher(keyword);
+		return new RegexMatcher(keyword);
+	}
+
+	/**
+	 *
+	 * @param keywords literal keywords, see {@link #isLiteral(String)}
+	 * @return a matcher for all the keywords; keyword i is reported in position i by
+	 * {@link #find(CharSequence, boolean[])}
+	 */
+	public static KeywordMatcher compile(List<String> keywords) {
+		if(keywords.size() == 1)
+			return compile(keywords.get(0));
+		return new AhoCorasickMatcher(keywords);
+	}
+
+	/**
+	 *
+	 * @param text
+	 * @return true if one of the keywords is found in the text
+	 */
+	public abstract boolean matches(CharSequence text);
+
+	/**
+	 *
+	 * @param text
+	 * @param found set to true for the keywords found in the text, and to false for the others
+	 * @return the number of keywords found
+	 */
+	public abstract int find(CharSequence text, boolean[] found);
+
+	/**
+	 * @return true if the characters from start to end are not preceded nor followed by a
+	 * letter or a digit
+	 */
+	static boolean isDelimited(CharSequence text, int start, int end) {
+		return (start == 0 || !isLetterOrDigit(text.charAt(start - 1)))
+				&& (end == text.length() || !isLetterOrDigit(text.charAt(end)));
+	}
+
+	private static boolean isLetterOrDigit(char c) {
+		return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+	}
+
+
+	/**
+	 * Boyer-Moore-Horspool search of a single keyword. The shifts are indexed by the low byte of
+	 * the characters; characters that share it share the smallest of their shifts.
+	 */
+	private static final class HorspoolMatcher extends KeywordMatcher {
+
+		private final char[] keyword;
+
+		private final int[] shifts = new int[256];
+
+
+		HorspoolMatcher(String keyword) {
+			this.keyword = keyword.toCharArray();
+			final int last = this.keyword.length - 1;
+			Arrays.fill(this.shifts, this.keyword.length);
+			for(int i=0; i<last; i++)
+				this.shifts[this.keyword[i] & 0xFF] = last - i;
+		}
+
+		@Override
+		public boolean matches(CharSequence text) {
+			final char[] keyword = this.keyword;
+			final int last = keyword.length - 1;
+			final int end = text.length() - last;
+			int start = 0;
+			while(start < end) {
+				final char c = text.charAt(start + last);
+				if(c == keyword[last]) {
+					int i = last - 1;
+					while(i >= 0 && text.charAt(start + i) == keyword[i])
+						i--;
+					if(i < 0 && isDelimited(text, start, start + keyword.length))
+						return true;
+				}
+				start += this.shifts[c & 0xFF];
+			}
+			return false;
+		}
+
+		@Override
+		public int find(CharSequence text, boolean[] found) {
+			found[0] = matches(text);
+			return found[0] ? 1 : 0;
+		}
+
+	}
+
+	/**
+	 * Aho-Corasick automaton over the characters of the keywords. The characters are mapped to
+	 * classes, class 0 being the characters that do not occur in any keyword, and the transitions
+	 * of every state are stored for every class.
+	 */
+	private static final class AhoCorasickMatcher extends KeywordMatcher {
+
+		private final int[] asciiClasses = new int[128];
+
+		private final char[] otherChars;
+
+		private final int[] otherClasses;
+
+		private final int classNo;
+
+		/**
+		 * Transition from state s with a character of class c at s * classNo + c.
+		 */
+		private final int[] transitions;
+
+		/**
+		 * Keywords that end at each state.
+		 */
+		private final int[][] outputs;
+
+		private final int[] lengths;
+
+
+		AhoCorasickMatcher(List<String> keywords) {
+			// Character classes
+			final TreeSet<Character> chars = new TreeSet<Character>();
+			int stateNo = 1;
+			for(String keyword: keywords) {
+				for(int i=0; i<keyword.length(); i++)
+					chars.add(keyword.charAt(i));
+				stateNo += keyword.length();
+			}
+			int classNo = 1;
+			final ArrayList<Character> others = new ArrayList<Character>();
+			for(char c: chars) {
+				if(c < 128)
+					this.asciiClasses[c] = classNo++;
+				else
+					others.add(c);
+			}
+			this.otherChars = new char[others.size()];
+			this.otherClasses = new int[others.size()];
+			for(int i=0; i<this.otherChars.length; i++) {
+				this.otherChars[i] = others.get(i);
+				this.otherClasses[i] = classNo++;
+			}
+			this.classNo = classNo;
+
+			// Trie of the keywords
+			final int[] trie = new int[stateNo * classNo];
+			final int[][] ownOutputs = new int[stateNo][];
+			this.lengths = new int[keywords.size()];
+			int states = 1;
+			for(int k=0; k<keywords.size(); k++) {
+				final String keyword = keywords.get(k);
+				int state = 0;
+				for(int i=0; i<keyword.length(); i++) {
+					final int transition = state * classNo + this.getClass(keyword.charAt(i));
+					if(trie[transition] == 0)
+						trie[transition] = states++;
+					state = trie[transition];
+				}
+				ownOutputs[state] = append(ownOutputs[state], new int[] {k});
+				this.lengths[k] = keyword.length();
+			}
+
+			// Transitions, following the failure links in breadth-first order
+			this.transitions = new int[states * classNo];
+			this.outputs = new int[states][];
+			final int[] failures = new int[states];
+			final int[] queue = new int[states];
+			int head = 0, tail = 0;
+			this.outputs[0] = ownOutputs[0] != null ? ownOutputs[0] : new int[0];
+			for(int c=0; c<classNo; c++) {
+				final int child = trie[c];
+				this.transitions[c] = child;
+				if(child != 0)
+					queue[tail++] = child;
+			}
+			while(head < tail) {
+				final int state = queue[head++];
+				this.outputs[state] = append(ownOutputs[state], this.outputs[failures[state]]);
+				for(int c=0; c<classNo; c++) {
+					final int child = trie[state * classNo + c];
+					final int failure = this.transitions[failures[state] * classNo + c];
+					if(child != 0) {
+						failures[child] = failure;
+						this.transitions[state * classNo + c] = child;
+						queue[tail++] = child;
+					}
+					else
+						this.transitions[state * classNo + c] = failure;
+				}
+			}
+		}
+
+		private static int[] append(int[] array1, int[] array2) {
+			if(array1 == null)
+				return array2;
+			final int[] result = Arrays.copyOf(array1, array1.length + array2.length);
+			System.arraycopy(array2, 0, result, array1.length, array2.length);
+			return result;
+		}
+
+		private int getClass(char c) {
+			if(c < 128)
+				return this.asciiClasses[c];
+			final int i = Arrays.binarySearch(this.otherChars, c);
+			return i >= 0 ? this.otherClasses[i] : 0;
+		}
+
+		@Override
+		public boolean matches(CharSequence text) {
+			final int length = text.length();
+			int state = 0;
+			for(int i=0; i<length; i++) {
+				state = this.transitions[state * this.classNo + this.getClass(text.charAt(i))];
+				for(int keyword: this.outputs[state])
+					if(isDelimited(text, i + 1 - this.lengths[keyword], i + 1))
+						return true;
+			}
+			return false;
+		}
+
+		@Override
+		public int find(CharSequence text, boolean[] found) {
+			Arrays.fill(found, false);
+			final int length = text.length();
+			int count = 0;
+			int state = 0;
+			for(int i=0; i<length; i++) {
+				state = this.transitions[state * this.classNo + this.getClass(text.charAt(i))];
+				for(int keyword: this.outputs[state]) {
+					if(!found[keyword] && isDelimited(text, i + 1 - this.lengths[keyword], i + 1)) {
+						found[keyword] = true;
+						if(++count == found.length)
+							return count;
+					}
+				}
+			}
+			return count;
+		}
+
+	}
+
+	private static final class RegexMatcher extends KeywordMatcher {
+
+		private final Pattern pattern;
+
+
+		RegexMatcher(String keyword) {
+			this.pattern = Pattern.compile("(^|\\s+|[^a-zA-Z0-9]+)" + keyword + "($|\\s+|[^a-zA-Z0-9]+)", Pattern.MULTILINE);
+		}
+
+		@Override
+		public boolean matches(CharSequence text) {
+			return this.pattern.matcher(text).find();
+		}
+
+		@Override
+		public int find(CharSequence text, boolean[] found) {
+			found[0] = matches(text);
+			return found[0] ? 1 : 0;
+		}
+
+	}
+
+}
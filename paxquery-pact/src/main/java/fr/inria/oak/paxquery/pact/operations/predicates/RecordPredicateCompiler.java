@@ -0,0 +1,1063 @@
+/*******************************************************************************
+ * Copyright (C) 2013, 2014, 2015 by Inria and Paris-Sud University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package fr.inria.oak.paxquery.pact.operations.predicates;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.flink.types.DoubleValue;
+import org.apache.flink.types.LongValue;
+import org.apache.flink.types.Record;
+import org.apache.flink.types.StringValue;
+import org.apache.flink.types.Value;
+import org.apache.flink.util.InstantiationUtil;
+
+import fr.inria.oak.paxquery.common.datamodel.metadata.MetadataTypes;
+import fr.inria.oak.paxquery.common.datamodel.metadata.NestedMetadata;
+import fr.inria.oak.paxquery.common.exception.PAXQueryExecutionException;
+import fr.inria.oak.paxquery.common.predicates.ArithmeticOperation;
+import fr.inria.oak.paxquery.common.predicates.BasePredicate;
+import fr.inria.oak.paxquery.common.predicates.BasePredicate.PredicateType;
+import fr.inria.oak.paxquery.common.predicates.ConjunctivePredicate;
+import fr.inria.oak.paxquery.common.predicates.DisjunctivePredicate;
+import fr.inria.oak.paxquery.common.predicates.SimplePredicate;
+import fr.inria.oak.paxquery.pact.datamodel.metadata.MetadataTypesMapping;
+import fr.inria.oak.paxquery.pact.operations.RecordOperations;
+
+
+/**
+ * Compiles predicates into evaluators over records. The operators compile their predicate when
+ * they are opened: the type of each column is resolved, and the constants and patterns are
+ * prepared, so that evaluating the predicate over a record only reads and compares values.
+ *
+ * A string column holds a number if it matches -?\d+([,.]\d+)?([eE]-?\d+)?, and a numeric
+ * column holds a number if it is not null. A simple predicate that reads a value that cannot be
+ * parsed as a number evaluates to false.
+ *
+ * The keywords of the contains() predicates over the same column are searched together, once
+ * per record, with a {@link KeywordMatcher}; each of those predicates then reads whether its
+ * keyword was found.
+ *
+ * The evaluators reuse the objects that hold the values they read, so each task must compile
+ * its own. The join evaluators can also be applied to a record and a batch of records; the
+ * columns of the batch are then decoded once into arrays, which are compared in a single loop.
+ *
+ */
+public final class RecordPredicateCompiler {
+	
+	
+	private RecordPredicateCompiler() {
+	}
+	
+	/**
+	 * 
+	 * @param inputRecordSignature
+	 * @param pred
+	 * @return the evaluator of the predicate over the records of the given signature
+	 */
+	public static BaseRecordPredicate compile(NestedMetadata inputRecordSignature, BasePredicate pred) {
+		final Map<Integer, KeywordSearch> searches = new LinkedHashMap<Integer, KeywordSearch>();
+		final BaseRecordPredicate compiledPred = compile(inputRecordSignature, pred, searches);
+		if(searches.isEmpty())
+			return compiledPred;
+		
+		for(KeywordSearch search: searches.values())
+			search.prepare();
+		return new KeywordScope(compiledPred, searches.values().toArray(new KeywordSearch[searches.size()]));
+	}
+	
+	private static BaseRecordPredicate compile(NestedMetadata inputRecordSignature, BasePredicate pred, Map<Integer, KeywordSearch> searches) {
+		if(pred instanceof DisjunctivePredicate) {
+			final List<ConjunctivePredicate> conjPreds = ((DisjunctivePredicate) pred).getConjunctivePreds();
+			final BaseRecordPredicate[] preds = new BaseRecordPredicate[conjPreds.size()];
+			for(int i=0; i<preds.length; i++)
+				preds[i] = compile(inputRecordSignature, conjPreds.get(i), searches);
+			return preds.length == 1 ? preds[0] : new Disjunction(preds);
+		}
+		else if(pred instanceof ConjunctivePredicate) {
+			final List<SimplePredicate> simplePreds = ((ConjunctivePredicate) pred).getSimplePreds();
+			final BaseRecordPredicate[] preds = new BaseRecordPredicate[simplePreds.size()];
+			for(int i=0; i<preds.length; i++)
+				preds[i] = compile(inputRecordSignature, simplePreds.get(i), searches);
+			return preds.length == 1 ? preds[0] : new Conjunction(preds);
+		}
+		else
+			return compileSimplePredicate(inputRecordSignature, (SimplePredicate) pred, searches);
+	}
+	
+	/**
+	 * 
+	 * @param inputRecordSignature1
+	 * @param inputRecordSignature2
+	 * @param pred a predicate whose second columns are numbered after the columns of the
+	 * first records
+	 * @return the evaluator of the join predicate over the pairs of records of the given
+	 * signatures
+	 */
+	public static BaseRecordPairPredicate compile(NestedMetadata inputRecordSignature1, NestedMetadata inputRecordSignature2, BasePredicate pred) {
+		if(pred instanceof DisjunctivePredicate) {
+			final List<ConjunctivePredicate> conjPreds = ((DisjunctivePredicate) pred).getConjunctivePreds();
+			final BaseRecordPairPredicate[] preds = new BaseRecordPairPredicate[conjPreds.size()];
+			for(int i=0; i<preds.length; i++)
+				preds[i] = compile(inputRecordSignature1, inputRecordSignature2, conjPreds.get(i));
+			return preds.length == 1 ? preds[0] : new PairDisjunction(preds);
+		}
+		else if(pred instanceof ConjunctivePredicate) {
+			final List<SimplePredicate> simplePreds = ((ConjunctivePredicate) pred).getSimplePreds();
+			final BaseRecordPairPredicate[] preds = new BaseRecordPairPredicate[simplePreds.size()];
+			for(int i=0; i<preds.length; i++)
+				preds[i] = compile(inputRecordSignature1, inputRecordSignature2, simplePreds.get(i));
+			return preds.length == 1 ? preds[0] : new PairConjunction(preds);
+		}
+		else
+			return compileSimplePredicate(inputRecordSignature1, inputRecordSignature2, (SimplePredicate) pred);
+	}
+	
+	/**
+	 * Compiles the conjunctive predicates of a disjunctive join that come before the given one.
+	 * The pairs that satisfy one of them are produced by the joins on those predicates.
+	 * 
+	 * @param inputRecordSignature1
+	 * @param inputRecordSignature2
+	 * @param pred
+	 * @param from the position of the conjunctive predicate evaluated by the join
+	 * @return the evaluators of the conjunctive predicates before that position
+	 */
+	public static BaseRecordPairPredicate[] compilePrevious(NestedMetadata inputRecordSignature1, NestedMetadata inputRecordSignature2,
+			DisjunctivePredicate pred, int from) {
+		final BaseRecordPairPredicate[] preds = new BaseRecordPairPredicate[from];
+		for(int i=0; i<from; i++)
+			preds[i] = compile(inputRecordSignature1, inputRecordSignature2, pred.getConjunctivePreds().get(i));
+		return preds;
+	}
+	
+	private static BaseRecordPredicate compileSimplePredicate(NestedMetadata inputRecordSignature, SimplePredicate simplePred,
+			Map<Integer, KeywordSearch> searches) {
+		final int column1 = simplePred.getColumn1();
+		final MetadataTypes type1 = inputRecordSignature.getType(column1);
+		
+		//We are evaluating a predicate over two columns!
+		if(simplePred.getStringConstant() == null && simplePred.getDoubleConstant() == -1) {
+			final int column2 = simplePred.getColumn2();
+			final MetadataTypes type2 = inputRecordSignature.getType(column2);
+			switch(simplePred.getPredCode()) {
+				case PREDICATE_EQUAL:
+				case PREDICATE_NOTEQUAL:
+					return new ColumnsEquality(
+							new NumberColumn(column1, type1, simplePred.getOperation1()), new ValueColumn(column1, type1),
+							new NumberColumn(column2, type2, simplePred.getOperation2()), new ValueColumn(column2, type2),
+							simplePred.getPredCode() == PredicateType.PREDICATE_NOTEQUAL);
+				case PREDICATE_SMALLEROREQUALTHAN:
+				case PREDICATE_SMALLERTHAN:
+				case PREDICATE_GREATEROREQUALTHAN:
+				case PREDICATE_GREATERTHAN:
+					return new ColumnsComparison(Comparison.get(simplePred.getPredCode()),
+							new NumberColumn(column1, type1, simplePred.getOperation1()),
+							new NumberColumn(column2, type2, simplePred.getOperation2()));
+				default:
+					return new Unsupported("Predicate " + simplePred.toString() + " not implemented yet!");
+			}
+		}
+		else if(simplePred.getDoubleConstant() != -1) {
+			//We are evaluating a predicate over a column and a double constant
+			final Comparison comparison = Comparison.get(simplePred.getPredCode());
+			if(comparison == null)
+				return new Unsupported("Predicate " + simplePred.toString() + " not implemented yet!");
+			return new ConstantComparison(comparison, new NumberColumn(column1, type1, simplePred.getOperation1()),
+					simplePred.getDoubleConstant());
+		}
+		
+		//We are evaluating a predicate over a column and a string constant
+		final boolean negate;
+		switch(simplePred.getPredCode()) {
+			case PREDICATE_EQUAL:
+				negate = false;
+				break;
+			case PREDICATE_NOTEQUAL:
+				negate = true;
+				break;
+			default:
+				return new Unsupported("Predicate " + simplePred.toString() + " not implemented yet!");
+		}
+		final String stringConstant = simplePred.getStringConstant();
+		if(stringConstant.startsWith("~")) {
+			final String keyword = stringConstant.substring(1, stringConstant.length());
+			if(!KeywordMatcher.isLiteral(keyword))
+				return new KeywordMatch(new StringColumn(column1, type1), KeywordMatcher.compile(keyword), negate);
+			KeywordSearch search = searches.get(column1);
+			if(search == null) {
+				search = new KeywordSearch(new StringColumn(column1, type1));
+				searches.put(column1, search);
+			}
+			return new KeywordFound(search, search.add(keyword), negate);
+		}
+		return new StringEquality(new StringColumn(column1, type1), new StringValue(stringConstant), negate);
+	}
+	
+	private static BaseRecordPairPredicate compileSimplePredicate(NestedMetadata inputRecordSignature1, NestedMetadata inputRecordSignature2, SimplePredicate simplePred) {
+		//We are evaluating a predicate over a column and a constant
+		if(simplePred.getStringConstant() != null || simplePred.getDoubleConstant() != -1)
+			return new PairUnsupported("A predicate with a constant value should not be used for a join! There may be something wrong in the plan!");
+		
+		return new PairColumns(inputRecordSignature1, inputRecordSignature2, simplePred);
+	}
+	
+	/**
+	 * Compiles a predicate over two columns, for first records with the given number of fields.
+	 * 
+	 * @param numFields1 the number of fields of the first records, after which the second columns
+	 * are numbered
+	 */
+	private static BaseRecordPairPredicate compileColumnsPredicate(NestedMetadata inputRecordSignature1, NestedMetadata inputRecordSignature2, SimplePredicate simplePred,
+			int numFields1) {
+		final int column1 = simplePred.getColumn1();
+		final MetadataTypes type1 = inputRecordSignature1.getType(column1);
+		final int column2 = simplePred.getColumn2() - numFields1;
+		final MetadataTypes type2 = inputRecordSignature2.getType(column2);
+		switch(simplePred.getPredCode()) {
+			case PREDICATE_EQUAL:
+			case PREDICATE_NOTEQUAL:
+				return new PairColumnsEquality(new ValueColumn(column1, type1), new ValueColumn(column2, type2),
+						new DecodedValueColumn(column2, type2), simplePred.getPredCode() == PredicateType.PREDICATE_NOTEQUAL);
+			case PREDICATE_SMALLEROREQUALTHAN:
+			case PREDICATE_SMALLERTHAN:
+			case PREDICATE_GREATEROREQUALTHAN:
+			case PREDICATE_GREATERTHAN:
+				return new PairColumnsComparison(Comparison.get(simplePred.getPredCode()),
+						new NumberColumn(column1, type1, simplePred.getOperation1()),
+						new NumberColumn(column2, type2, simplePred.getOperation2()));
+			default:
+				return new PairUnsupported("Predicate " + simplePred.toString() + " not implemented yet!");
+		}
+	}
+	
+	/**
+	 * @return true if the characters match -?\d+([,.]\d+)?([eE]-?\d+)?
+	 */
+	private static boolean isNumeric(CharSequence chars) {
+		final int length = chars.length();
+		int i = 0;
+		if(i < length && chars.charAt(i) == '-')
+			i++;
+		int start = i;
+		while(i < length && isDigit(chars.charAt(i)))
+			i++;
+		if(i == start)
+			return false;
+		if(i < length && (chars.charAt(i) == '.' || chars.charAt(i) == ',')) {
+			start = ++i;
+			while(i < length && isDigit(chars.charAt(i)))
+				i++;
+			if(i == start)
+				return false;
+		}
+		if(i < length && (chars.charAt(i) == 'e' || chars.charAt(i) == 'E')) {
+			i++;
+			if(i < length && chars.charAt(i) == '-')
+				i++;
+			start = i;
+			while(i < length && isDigit(chars.charAt(i)))
+				i++;
+			if(i == start)
+				return false;
+		}
+		return i == length;
+	}
+	
+	private static boolean isDigit(char c) {
+		return c >= '0' && c <= '9';
+	}
+	
+	
+	// Values read from the records
+	
+	/**
+	 * Column read as a number, with the arithmetic operation of the predicate (if any).
+	 */
+	private static final class NumberColumn {
+		
+		private final int column;
+		
+		private final MetadataTypes type;
+		
+		private final ArithmeticOperation operation;
+		
+		private final DoubleValue doubleValue = new DoubleValue();
+		
+		private final LongValue longValue = new LongValue();
+		
+		private final StringColumn stringColumn;
+		
+		private double value;
+		
+		
+		NumberColumn(int column, MetadataTypes type, ArithmeticOperation operation) {
+			this.column = column;
+			this.type = type;
+			this.operation = operation;
+			this.stringColumn = new StringColumn(column, type);
+		}
+		
+		/**
+		 * Reads the number; it is then returned by {@link #getValue()}.
+		 * 
+		 * @return false if the column does not hold a number that can be parsed
+		 */
+		boolean read(Record record) {
+			double value;
+			switch(this.type) {
+				case DOUBLE_TYPE:
+					if(!record.getFieldInto(this.column, this.doubleValue))
+						return false;
+					value = this.doubleValue.getValue();
+					if(Double.isNaN(value))
+						return false;
+					break;
+				case LONG_TYPE:
+					if(!record.getFieldInto(this.column, this.longValue)
+							|| this.longValue.getValue() == RecordOperations.NULL_LONG)
+						return false;
+					value = this.longValue.getValue();
+					break;
+				default:
+					try {
+						value = Double.parseDouble(this.stringColumn.read(record).getValue());
+					} catch (NumberFormatException nfe) {
+						return false;
+					}
+			}
+			this.value = this.operation != null ? this.operation.calculate(value) : value;
+			return true;
+		}
+		
+		/**
+		 * @return true if the column holds a number: a non null value in a numeric column, or a
+		 * string that looks like a number
+		 */
+		boolean isNumber(Record record) {
+			switch(this.type) {
+				case DOUBLE_TYPE:
+					return record.getFieldInto(this.column, this.doubleValue)
+							&& !Double.isNaN(this.doubleValue.getValue());
+				case LONG_TYPE:
+					return record.getFieldInto(this.column, this.longValue)
+							&& this.longValue.getValue() != RecordOperations.NULL_LONG;
+				default:
+					return isNumeric(this.stringColumn.read(record));
+			}
+		}
+		
+		double getValue() {
+			return this.value;
+		}
+		
+	}
+	
+	/**
+	 * Numbers of a column over a batch of records, decoded when the batch changes.
+	 */
+	private static final class DecodedNumberColumn {
+		
+		private final NumberColumn number;
+		
+		private List<Record> records;
+		
+		private int size;
+		
+		private boolean[] isNumber = new boolean[0];
+		
+		private double[] values = new double[0];
+		
+		
+		DecodedNumberColumn(NumberColumn number) {
+			this.number = number;
+		}
+		
+		void decode(List<Record> records) {
+			if(records == this.records && records.size() == this.size)
+				return;
+			
+			this.records = records;
+			this.size = records.size();
+			if(this.values.length < this.size) {
+				this.isNumber = new boolean[this.size];
+				this.values = new double[this.size];
+			}
+			for(int i=0; i<this.size; i++) {
+				this.isNumber[i] = this.number.read(records.get(i));
+				this.values[i] = this.isNumber[i] ? this.number.getValue() : 0;
+			}
+		}
+		
+	}
+	
+	/**
+	 * Column read as a string.
+	 */
+	private static final class StringColumn {
+		
+		private final int column;
+		
+		private final MetadataTypes type;
+		
+		private final StringValue value = new StringValue();
+		
+		
+		StringColumn(int column, MetadataTypes type) {
+			this.column = column;
+			this.type = type;
+		}
+		
+		StringValue read(Record record) {
+			if(this.type == MetadataTypes.STRING_TYPE)
+				return record.getFieldInto(this.column, this.value) ? this.value : RecordOperations.createNullField();
+			return RecordOperations.getStringField(record, this.column, this.type);
+		}
+		
+	}
+	
+	/**
+	 * Column read with the value type of its column type.
+	 */
+	private static final class ValueColumn {
+		
+		private final int column;
+		
+		private final Value value;
+		
+		
+		ValueColumn(int column, MetadataTypes type) {
+			this.column = column;
+			this.value = InstantiationUtil.instantiate(MetadataTypesMapping.getValueClass(type), Value.class);
+		}
+		
+		/**
+		 * @return the value, or null if the field is null
+		 */
+		Value read(Record record) {
+			return record.getFieldInto(this.column, this.value) ? this.value : null;
+		}
+		
+	}
+	
+	/**
+	 * Values of a column over a batch of records, decoded when the batch changes.
+	 */
+	private static final class DecodedValueColumn {
+		
+		private final int column;
+		
+		private final Class<? extends Value> valueClass;
+		
+		private List<Record> records;
+		
+		private int size;
+		
+		private Value[] values = new Value[0];
+		
+		
+		DecodedValueColumn(int column, MetadataTypes type) {
+			this.column = column;
+			this.valueClass = MetadataTypesMapping.getValueClass(type);
+		}
+		
+		void decode(List<Record> records) {
+			if(records == this.records && records.size() == this.size)
+				return;
+			
+			this.records = records;
+			this.size = records.size();
+			if(this.values.length < this.size)
+				this.values = new Value[this.size];
+			for(int i=0; i<this.size; i++) {
+				final Value value = InstantiationUtil.instantiate(this.valueClass, Value.class);
+				this.values[i] = records.get(i).getFieldInto(this.column, value) ? value : null;
+			}
+		}
+		
+	}
+	
+	
+	// Predicates over a record
+	
+	private static enum Comparison {
+		EQUAL {
+			@Override
+			boolean compare(double value1, double value2) {
+				return value1 == value2;
+			}
+		},
+		NOTEQUAL {
+			@Override
+			boolean compare(double value1, double value2) {
+				return value1 != value2;
+			}
+		},
+		SMALLEROREQUALTHAN {
+			@Override
+			boolean compare(double value1, double value2) {
+				return value1 <= value2;
+			}
+		},
+		SMALLERTHAN {
+			@Override
+			boolean compare(double value1, double value2) {
+				return value1 < value2;
+			}
+		},
+		GREATEROREQUALTHAN {
+			@Override
+			boolean compare(double value1, double value2) {
+				return value1 >= value2;
+			}
+		},
+		GREATERTHAN {
+			@Override
+			boolean compare(double value1, double value2) {
+				return value1 > value2;
+			}
+		};
+		
+		abstract boolean compare(double value1, double value2);
+		
+		/**
+		 * @return the comparison of the predicate code, or null if it does not compare numbers
+		 */
+		static Comparison get(PredicateType predCode) {
+			switch(predCode) {
+				case PREDICATE_EQUAL:
+					return EQUAL;
+				case PREDICATE_NOTEQUAL:
+					return NOTEQUAL;
+				case PREDICATE_SMALLEROREQUALTHAN:
+					return SMALLEROREQUALTHAN;
+				case PREDICATE_SMALLERTHAN:
+					return SMALLERTHAN;
+				case PREDICATE_GREATEROREQUALTHAN:
+					return GREATEROREQUALTHAN;
+				case PREDICATE_GREATERTHAN:
+					return GREATERTHAN;
+				default:
+					return null;
+			}
+		}
+	}
+	
+	private static final class Disjunction extends BaseRecordPredicate {
+		
+		private final BaseRecordPredicate[] preds;
+		
+		
+		Disjunction(BaseRecordPredicate[] preds) {
+			this.preds = preds;
+		}
+		
+		@Override
+		public boolean evaluate(Record record) {
+			for(BaseRecordPredicate pred: this.preds)
+				if(pred.evaluate(record))
+					return true;
+			
+			return false;
+		}
+		
+	}
+	
+	private static final class Conjunction extends BaseRecordPredicate {
+		
+		private final BaseRecordPredicate[] preds;
+		
+		
+		Conjunction(BaseRecordPredicate[] preds) {
+			this.preds = preds;
+		}
+		
+		@Override
+		public boolean evaluate(Record record) {
+			for(BaseRecordPredicate pred: this.preds)
+				if(!pred.evaluate(record))
+					return false;
+			
+			return true;
+		}
+		
+	}
+	
+	/**
+	 * Equality of two columns: they are compared as numbers if both hold numbers, and as values
+	 * otherwise.
+	 */
+	private static final class ColumnsEquality extends BaseRecordPredicate {
+		
+		private final NumberColumn number1;
+		
+		private final ValueColumn value1;
+		
+		private final NumberColumn number2;
+		
+		private final ValueColumn value2;
+		
+		private final boolean negate;
+		
+		
+		ColumnsEquality(NumberColumn number1, ValueColumn value1, NumberColumn number2, ValueColumn value2, boolean negate) {
+			this.number1 = number1;
+			this.value1 = value1;
+			this.number2 = number2;
+			this.value2 = value2;
+			this.negate = negate;
+		}
+		
+		@Override
+		public boolean evaluate(Record record) {
+			final boolean isValue1Number = this.number1.isNumber(record);
+			final boolean isValue2Number = this.number2.isNumber(record);
+			if(isValue1Number && isValue2Number) {
+				//both columns contain numbers
+				if(!this.number1.read(record) || !this.number2.read(record))
+					return false;
+				return (this.number1.getValue() == this.number2.getValue()) != this.negate;
+			}
+			if(isValue1Number != isValue2Number && !this.negate)
+				//a number and a non-number, result must be false
+				return false;
+			final Value value = this.value1.read(record);
+			return (value != null && value.equals(this.value2.read(record))) != this.negate;
+		}
+		
+	}
+	
+	private static final class ColumnsComparison extends BaseRecordPredicate {
+		
+		private final Comparison comparison;
+		
+		private final NumberColumn number1;
+		
+		private final NumberColumn number2;
+		
+		
+		ColumnsComparison(Comparison comparison, NumberColumn number1, NumberColumn number2) {
+			this.comparison = comparison;
+			this.number1 = number1;
+			this.number2 = number2;
+		}
+		
+		@Override
+		public boolean evaluate(Record record) {
+			return this.number1.read(record) && this.number2.read(record)
+					&& this.comparison.compare(this.number1.getValue(), this.number2.getValue());
+		}
+		
+	}
+	
+	private static final class ConstantComparison extends BaseRecordPredicate {
+		
+		private final Comparison comparison;
+		
+		private final NumberColumn number;
+		
+		private final double constant;
+		
+		
+		ConstantComparison(Comparison comparison, NumberColumn number, double constant) {
+			this.comparison = comparison;
+			this.number = number;
+			this.constant = constant;
+		}
+		
+		@Override
+		public boolean evaluate(Record record) {
+			return this.number.read(record) && this.comparison.compare(this.number.getValue(), this.constant);
+		}
+		
+	}
+	
+	private static final class StringEquality extends BaseRecordPredicate {
+		
+		private final StringColumn string;
+		
+		private final StringValue constant;
+		
+		private final boolean negate;
+		
+		
+		StringEquality(StringColumn string, StringValue constant, boolean negate) {
+			this.string = string;
+			this.constant = constant;
+			this.negate = negate;
+		}
+		
+		@Override
+		public boolean evaluate(Record record) {
+			return (this.string.read(record).compareTo(this.constant) == 0) != this.negate;
+		}
+		
+	}
+	
+	/**
+	 * Keywords searched together in a column. The column is searched the first time one of
+	 * the keywords is looked up for a record.
+	 */
+	private static final class KeywordSearch {
+		
+		private final StringColumn string;
+		
+		private final List<String> keywords = new ArrayList<String>();
+		
+		private KeywordMatcher matcher;
+		
+		private boolean[] found;
+		
+		private boolean searched;
+		
+		
+		KeywordSearch(StringColumn string) {
+			this.string = string;
+		}
+		
+		int add(String keyword) {
+			int index = this.keywords.indexOf(keyword);
+			if(index == -1) {
+				index = this.keywords.size();
+				this.keywords.add(keyword);
+			}
+			return index;
+		}
+		
+		void prepare() {
+			this.matcher = KeywordMatcher.compile(this.keywords);
+			this.found = new boolean[this.keywords.size()];
+		}
+		
+		void reset() {
+			this.searched = false;
+		}
+		
+		boolean isFound(Record record, int keyword) {
+			if(!this.searched) {
+				this.matcher.find(this.string.read(record), this.found);
+				this.searched = true;
+			}
+			return this.found[keyword];
+		}
+		
+	}
+	
+	/**
+	 * Evaluation of a predicate that looks keywords up: the searches are reset for each record.
+	 */
+	private static final class KeywordScope extends BaseRecordPredicate {
+		
+		private final BaseRecordPredicate pred;
+		
+		private final KeywordSearch[] searches;
+		
+		
+		KeywordScope(BaseRecordPredicate pred, KeywordSearch[] searches) {
+			this.pred = pred;
+			this.searches = searches;
+		}
+		
+		@Override
+		public boolean evaluate(Record record) {
+			for(KeywordSearch search: this.searches)
+				search.reset();
+			return this.pred.evaluate(record);
+		}
+		
+	}
+	
+	/**
+	 * Match of a word of the string constant in the column.
+	 */
+	private static final class KeywordFound extends BaseRecordPredicate {
+		
+		private final KeywordSearch search;
+		
+		private final int keyword;
+		
+		private final boolean negate;
+		
+		
+		KeywordFound(KeywordSearch search, int keyword, boolean negate) {
+			this.search = search;
+			this.keyword = keyword;
+			this.negate = negate;
+		}
+		
+		@Override
+		public boolean evaluate(Record record) {
+			return this.search.isFound(record, this.keyword) != this.negate;
+		}
+		
+	}
+	
+	/**
+	 * Match of a string constant that is a regular expression, as a word of the column.
+	 */
+	private static final class KeywordMatch extends BaseRecordPredicate {
+		
+		private final StringColumn string;
+		
+		private final KeywordMatcher matcher;
+		
+		private final boolean negate;
+		
+		
+		KeywordMatch(StringColumn string, KeywordMatcher matcher, boolean negate) {
+			this.string = string;
+			this.matcher = matcher;
+			this.negate = negate;
+		}
+		
+		@Override
+		public boolean evaluate(Record record) {
+			return this.matcher.matches(this.string.read(record)) != this.negate;
+		}
+		
+	}
+	
+	private static final class Unsupported extends BaseRecordPredicate {
+		
+		private final String message;
+		
+		
+		Unsupported(String message) {
+			this.message = message;
+		}
+		
+		@Override
+		public boolean evaluate(Record record) {
+			throw new PAXQueryExecutionException(this.message);
+		}
+		
+	}
+	
+	
+	// Predicates over a pair of records
+	
+	private static final class PairDisjunction extends BaseRecordPairPredicate {
+		
+		private final BaseRecordPairPredicate[] preds;
+		
+		
+		PairDisjunction(BaseRecordPairPredicate[] preds) {
+			this.preds = preds;
+		}
+		
+		@Override
+		public boolean evaluate(Record record1, Record record2) {
+			for(BaseRecordPairPredicate pred: this.preds)
+				if(pred.evaluate(record1, record2))
+					return true;
+			
+			return false;
+		}
+		
+		@Override
+		protected int filter(Record record1, List<Record> records2, int[] selection, int size, boolean evaluation) {
+			if(evaluation)
+				return super.filter(record1, records2, selection, size, evaluation);
+			
+			//The pairs that satisfy none of the predicates
+			for(int i=0; i<this.preds.length && size != 0; i++)
+				size = this.preds[i].reject(record1, records2, selection, size);
+			return size;
+		}
+		
+	}
+	
+	private static final class PairConjunction extends BaseRecordPairPredicate {
+		
+		private final BaseRecordPairPredicate[] preds;
+		
+		
+		PairConjunction(BaseRecordPairPredicate[] preds) {
+			this.preds = preds;
+		}
+		
+		@Override
+		public boolean evaluate(Record record1, Record record2) {
+			for(BaseRecordPairPredicate pred: this.preds)
+				if(!pred.evaluate(record1, record2))
+					return false;
+			
+			return true;
+		}
+		
+		@Override
+		protected int filter(Record record1, List<Record> records2, int[] selection, int size, boolean evaluation) {
+			if(!evaluation)
+				return super.filter(record1, records2, selection, size, evaluation);
+			
+			//The pairs that satisfy all the predicates
+			for(int i=0; i<this.preds.length && size != 0; i++)
+				size = this.preds[i].select(record1, records2, selection, size);
+			return size;
+		}
+		
+	}
+	
+	/**
+	 * Predicate over a column of each record. The second column is numbered after the fields
+	 * of the first record, which may hold more fields than its signature (e.g. the marks added
+	 * by a previous join), so the predicate is compiled again when that number changes.
+	 */
+	private static final class PairColumns extends BaseRecordPairPredicate {
+		
+		private final NestedMetadata inputRecordSignature1;
+		
+		private final NestedMetadata inputRecordSignature2;
+		
+		private final SimplePredicate simplePred;
+		
+		private int numFields1 = -1;
+		
+		private BaseRecordPairPredicate pred;
+		
+		
+		PairColumns(NestedMetadata inputRecordSignature1, NestedMetadata inputRecordSignature2, SimplePredicate simplePred) {
+			this.inputRecordSignature1 = inputRecordSignature1;
+			this.inputRecordSignature2 = inputRecordSignature2;
+			this.simplePred = simplePred;
+		}
+		
+		private BaseRecordPairPredicate get(Record record1) {
+			final int numFields1 = record1.getNumFields();
+			if(numFields1 != this.numFields1) {
+				this.pred = compileColumnsPredicate(this.inputRecordSignature1, this.inputRecordSignature2, this.simplePred, numFields1);
+				this.numFields1 = numFields1;
+			}
+			return this.pred;
+		}
+		
+		@Override
+		public boolean evaluate(Record record1, Record record2) {
+			return get(record1).evaluate(record1, record2);
+		}
+		
+		@Override
+		protected int filter(Record record1, List<Record> records2, int[] selection, int size, boolean evaluation) {
+			return get(record1).filter(record1, records2, selection, size, evaluation);
+		}
+		
+	}
+	
+	private static final class PairColumnsEquality extends BaseRecordPairPredicate {
+		
+		private final ValueColumn value1;
+		
+		private final ValueColumn value2;
+		
+		private final DecodedValueColumn decodedValue2;
+		
+		private final boolean negate;
+		
+		
+		PairColumnsEquality(ValueColumn value1, ValueColumn value2, DecodedValueColumn decodedValue2, boolean negate) {
+			this.value1 = value1;
+			this.value2 = value2;
+			this.decodedValue2 = decodedValue2;
+			this.negate = negate;
+		}
+		
+		@Override
+		public boolean evaluate(Record record1, Record record2) {
+			final Value value = this.value1.read(record1);
+			return (value != null && value.equals(this.value2.read(record2))) != this.negate;
+		}
+		
+		@Override
+		protected int filter(Record record1, List<Record> records2, int[] selection, int size, boolean evaluation) {
+			final Value value = this.value1.read(record1);
+			if(value == null)
+				return this.negate == evaluation ? size : 0;
+			
+			this.decodedValue2.decode(records2);
+			final Value[] values2 = this.decodedValue2.values;
+			final boolean equality = evaluation != this.negate;
+			int kept = 0;
+			for(int i=0; i<size; i++)
+				if(value.equals(values2[selection[i]]) == equality)
+					selection[kept++] = selection[i];
+			return kept;
+		}
+		
+	}
+	
+	private static final class PairColumnsComparison extends BaseRecordPairPredicate {
+		
+		private final Comparison comparison;
+		
+		private final NumberColumn number1;
+		
+		private final NumberColumn number2;
+		
+		private final DecodedNumberColumn decodedNumber2;
+		
+		
+		PairColumnsComparison(Comparison comparison, NumberColumn number1, NumberColumn number2) {
+			this.comparison = comparison;
+			this.number1 = number1;
+			this.number2 = number2;
+			this.decodedNumber2 = new DecodedNumberColumn(number2);
+		}
+		
+		@Override
+		public boolean evaluate(Record record1, Record record2) {
+			return this.number1.read(record1) && this.number2.read(record2)
+					&& this.comparison.compare(this.number1.getValue(), this.number2.getValue());
+		}
+		
+		@Override
+		protected int filter(Record record1, List<Record> records2, int[] selection, int size, boolean evaluation) {
+			if(!this.number1.read(record1))
+				return evaluation ? 0 : size;
+			
+			this.decodedNumber2.decode(records2);
+			final double value1 = this.number1.getValue();
+			final boolean[] isNumber2 = this.decodedNumber2.isNumber;
+			final double[] values2 = this.decodedNumber2.values;
+			int kept = 0;
+			for(int i=0; i<size; i++) {
+				final int position = selection[i];
+				if((isNumber2[position] && this.comparison.compare(value1, values2[position])) == evaluation)
+					selection[kept++] = position;
+			}
+			return kept;
+		}
+		
+	}
+	
+	private static final class PairUnsupported extends BaseRecordPairPredicate {
+		
+		private final String message;
+		
+		
+		PairUnsupported(String message) {
+			this.message = message;
+		}
+		
+		@Override
+		public boolean evaluate(Record record1, Record record2) {
+			throw new PAXQueryExecutionException(this.message);
+		}
+		
+	}
+	
+}
@@ -0,0 +1,217 @@
+/*******************************************************************************
+ * Copyright (C) 2013, 2014, 2015 by Inria and Paris-Sud University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package fr.inria.oak.paxquery.pact.operations.xml.navigation;
+
+import java.io.IOException;
+import java.io.Reader;
+
+
+/**
+ * Reader that keeps a window over the characters that the XML stream reader has consumed,
+ * so that the content of a node can be taken as a slice of the original document, delimited
+ * by character offsets, instead of being rebuilt event by event.
+ *
+ * The window starts at the oldest offset that has not been released; characters before it
+ * are dropped when the window needs room.
+ *
+ */
+public class ContentCaptureReader extends Reader {
+
+	private static final int INITIAL_WINDOW_SIZE = 64 * 1024;
+
+
+	private final Reader in;
+
+	private char[] window;
+
+	private long windowStart;
+
+	private int windowLength;
+
+	private long released;
+
+
+	public ContentCaptureReader(Reader in) {
+		this.in = in;
+		this.window = new char[INITIAL_WINDOW_SIZE];
+	}
+
+	@Override
+	public int read(char[] cbuf, int off, int len) throws IOException {
+		final int n = this.in.read(cbuf, off, len);
+		if(n > 0)
+			this.append(cbuf, off, n);
+		return n;
+	}
+
+	@Override
+	public void close() throws IOException {
+		this.in.close();
+	}
+
+	/**
+	 * Allows dropping the characters before the last tag that begins before the given offset.
+	 * As the parser may have looked ahead, that tag may be the next one to be reported.
+	 */
+	public void release(long limit) {
+		long offset = limit;
+		for(long i = limit - 1; i >= this.windowStart && i >= this.released; i--) {
+			if(this.charAt(i) == '<') {
+				offset = i;
+				break;
+			}
+		}
+		if(offset > this.released)
+			this.released = offset;
+	}
+
+	/**
+	 * Converts a character offset given by the stream reader, which may have wrapped around
+	 * on large documents, into an offset in the window.
+	 */
+	public long offset(int characterOffset) {
+		long offset = (this.windowStart & ~0xFFFFFFFFL) | (characterOffset & 0xFFFFFFFFL);
+		if(offset < this.windowStart)
+			offset += 1L << 32;
+		return offset;
+	}
+
+	/**
+	 * Finds the start tag of an element that was just reported by the parser. The location of
+	 * the parser may be a few characters after the end of the tag, as it may have looked ahead.
+	 *
+	 * @param qName the qualified name of the element
+	 * @param limit the location of the parser
+	 * @return the offset of the '<' that begins the tag, or -1 if it is not in the window
+	 */
+	public long startTag(String qName, long limit) {
+		for(long i = limit - 1; i >= this.windowStart; i--) {
+			if(this.charAt(i) == '<' && this.nameAt(i + 1, qName)) {
+				final long end = this.tagEnd(i);
+				if(end != -1 && end <= limit)
+					return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Finds the end of an element that was just closed, given the offset of its start tag.
+	 *
+	 * @param qName the qualified name of the element
+	 * @param start the offset of the start tag
+	 * @param limit the location of the parser
+	 * @return the offset right after the end tag, or after the start tag for an empty element
+	 */
+	public long elementEnd(String qName, long start, long limit) {
+		for(long i = limit - 2; i > start; i--) {
+			if(this.charAt(i) == '<' && this.charAt(i + 1) == '/' && this.nameAt(i + 2, qName)) {
+				final long end = this.tagEnd(i);
+				if(end != -1 && end <= limit)
+					return end;
+			}
+		}
+		return this.tagEnd(start);
+	}
+
+	/**
+	 * Copies the characters of a node from the window. The given namespace declarations, if
+	 * any, are added to the start tag of the node.
+	 *
+	 * @param start the offset of the start tag of the node
+	 * @param end the offset right after the end tag of the node
+	 * @param declarations the namespace declarations to add, each one starting with a space
+	 */
+	public String getContent(long start, long end, String declarations) {
+		final int from = (int) (start - this.windowStart);
+		final int length = (int) (end - start);
+		if(declarations == null || declarations.length() == 0)
+			return new String(this.window, from, length);
+
+		// the declarations go right after the name of the element
+		int nameEnd = from + 1;
+		while(nameEnd < from + length) {
+			final char c = this.window[nameEnd];
+			if(c == '>' || c == '/' || c == ' ' || c == '\t' || c == '\n' || c == '\r')
+				break;
+			nameEnd++;
+		}
+		final StringBuilder sb = new StringBuilder(length + declarations.length());
+		sb.append(this.window, from, nameEnd - from);
+		sb.append(declarations);
+		sb.append(this.window, nameEnd, from + length - nameEnd);
+		return sb.toString();
+	}
+
+	private char charAt(long offset) {
+		return this.window[(int) (offset - this.windowStart)];
+	}
+
+	/**
+	 * @return true if the given name, followed by a delimiter, is at the given offset
+	 */
+	private boolean nameAt(long offset, String name) {
+		final long end = offset + name.length();
+		if(end >= this.windowStart + this.windowLength)
+			return false;
+		for(int i = 0; i < name.length(); i++) {
+			if(this.charAt(offset + i) != name.charAt(i))
+				return false;
+		}
+		final char c = this.charAt(end);
+		return c == '>' || c == '/' || c == ' ' || c == '\t' || c == '\n' || c == '\r';
+	}
+
+	/**
+	 * @return the offset right after the '>' that ends the tag beginning at the given offset,
+	 * or -1 if it is not in the window
+	 */
+	private long tagEnd(long start) {
+		char quote = 0;
+		for(long i = start + 1; i < this.windowStart + this.windowLength; i++) {
+			final char c = this.charAt(i);
+			if(quote != 0) {
+				if(c == quote)
+					quote = 0;
+			}
+			else if(c == '"' || c == '\'')
+				quote = c;
+			else if(c == '>')
+				return i + 1;
+		}
+		return -1;
+	}
+
+	private void append(char[] cbuf, int off, int len) {
+		if(this.windowLength + len > this.window.length) {
+			// drop the released characters first, then grow if that is not enough
+			final int drop = (int) Math.min(this.released - this.windowStart, this.windowLength);
+			if(drop > 0) {
+				System.arraycopy(this.window, drop, this.window, 0, this.windowLength - drop);
+				this.windowStart += drop;
+				this.windowLength -= drop;
+			}
+			if(this.windowLength + len > this.window.length) {
+				final char[] newWindow = new char[Math.max(2 * this.window.length, this.windowLength + len)];
+				System.arraycopy(this.window, 0, newWindow, 0, this.windowLength);
+				this.window = newWindow;
+			}
+		}
+		System.arraycopy(cbuf, off, this.window, this.windowLength, len);
+		this.windowLength += len;
+	}
+
+}
@@ -82,6 +82,12 @@ public final class ExtractorMatch {
 	 */
 	public boolean erased;
 
+	/**
+	 * Becomes true when records have been produced from this match before it closed
+	 * (streaming mode).
+	 */
+	public boolean streamed;
+
 	/**
 	 * If this match is under a semijoin, we collect in minOccur: the minimum
 	 * number of /a1/a2/a3.../ak descendants of elements on the path
@@ -104,6 +110,15 @@ public final class ExtractorMatch {
 	private StringBuilder contSB;
 	private String content;
 	
+	/**
+	 * In content capture mode, the content is a range of the document, copied from the
+	 * reader only when it is needed.
+	 */
+	private ContentCaptureReader contentReader;
+	private long contentStart;
+	private long contentEnd;
+	private String contentDeclarations;
+	
 
 	/**
 	 * Constructor method.
@@ -128,7 +143,7 @@ public final class ExtractorMatch {
 		this.val = "";
 		this.content = "";
 		this.id = null;
-		this.contSB = new StringBuilder();
+		this.contSB = null;
 		this.content = null;
 		this.valSB = new StringBuilder();
 		this.val = null;
@@ -166,10 +181,41 @@ public final class ExtractorMatch {
 	
 	public String getContent(){
 		if (content == null){
-			content = contSB.toString();
+			if (contentReader != null) {
+				content = contentReader.getContent(contentStart, contentEnd, contentDeclarations);
+				contentReader = null;
+			} else if (contSB != null) {
+				content = contSB.toString();
+			} else {
+				content = "";
+			}
 		}
 		return content;
 	}
+	
+	/**
+	 * Sets the beginning of the content of this match in the document (content capture mode).
+	 * 
+	 * @param reader the reader keeping the characters of the document
+	 * @param start the offset of the start tag
+	 * @param declarations the namespace declarations in scope to add to the start tag
+	 */
+	public void setContentStart(ContentCaptureReader reader, long start, String declarations) {
+		this.contentReader = reader;
+		this.contentStart = start;
+		this.contentDeclarations = declarations;
+	}
+	
+	public long getContentStart() {
+		return this.contentStart;
+	}
+	
+	/**
+	 * @param end the offset right after the end tag
+	 */
+	public void setContentEnd(long end) {
+		this.contentEnd = end;
+	}
 
 	public void setTag(String tag) {
 		this.tag = tag;
@@ -197,10 +243,16 @@ public final class ExtractorMatch {
 	}
 	
 	public void addToContent(StringBuilder add) {
+		if (this.contSB == null) {
+			this.contSB = new StringBuilder();
+		}
 		this.contSB.append(add);
 	}
 	
 	public void addToContent(char[] ch, int start, int length) {
+		if (this.contSB == null) {
+			this.contSB = new StringBuilder();
+		}
 		this.contSB.append(ch, start, length);
 	}
 
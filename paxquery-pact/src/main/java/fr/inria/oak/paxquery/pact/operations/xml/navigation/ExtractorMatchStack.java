@@ -107,6 +107,14 @@ public class ExtractorMatchStack {
 		this.entries.remove(se.no);
 	}
 
+	/**
+	 * Drops all the entries, e.g. those left open by a document that was not read to its end.
+	 */
+	public void clear() {
+		this.entries.clear();
+		this.dnop = null;
+	}
+
 	public int getEntriesSize() {
 		if (this.entries != null){
 			return this.entries.size();
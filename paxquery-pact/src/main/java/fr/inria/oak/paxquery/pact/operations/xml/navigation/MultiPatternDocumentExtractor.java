@@ -0,0 +1,162 @@
+/*******************************************************************************
+ * Copyright (C) 2013, 2014, 2015 by Inria and Paris-Sud University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package fr.inria.oak.paxquery.pact.operations.xml.navigation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.flink.types.Record;
+
+import fr.inria.oak.paxquery.common.xml.navigation.NavigationTreePattern;
+
+
+/**
+ * Records extractor using several tree patterns from a XML document, in a single pass over
+ * the document. Each pattern is matched by its own {@link SingleDocumentExtractor}, with its
+ * own match stacks, and all of them are notified of each event of the stream reader.
+ * 
+ * If there is more than one pattern, each record gets the position of its pattern as last
+ * field (see {@link RecordBuilder#produceTuples(ExtractorMatch, fr.inria.oak.paxquery.common.xml.navigation.NavigationTreePatternNode, List, NavigationTreePattern, int)}).
+ * 
+ */
+public class MultiPatternDocumentExtractor {
+	
+	private final SingleDocumentExtractor[] extractors;
+	
+	private final ArrayList<Record> vTuples;
+	
+	
+	public MultiPatternDocumentExtractor(NavigationTreePattern[] patterns, XMLStreamReader xmlReader) {
+		this.extractors = new SingleDocumentExtractor[patterns.length];
+		for(int i = 0; i < patterns.length; i++) {
+			this.extractors[i] = new SingleDocumentExtractor(patterns[i], xmlReader);
+			if(patterns.length > 1)
+				this.extractors[i].setPosition(i);
+		}
+		this.vTuples = new ArrayList<Record>();
+	}
+	
+	public final void startElement() {
+		for(SingleDocumentExtractor extractor : this.extractors)
+			extractor.startElement();
+	}
+	
+	public final void endElement() {
+		for(SingleDocumentExtractor extractor : this.extractors)
+			extractor.endElement();
+	}
+	
+	public final void characters() {
+		for(SingleDocumentExtractor extractor : this.extractors)
+			extractor.characters();
+	}
+	
+	/**
+	 * @see SingleDocumentExtractor#setNodeIDCounters(int, int)
+	 */
+	public final void setNodeIDCounters(int pre, int post) {
+		for(SingleDocumentExtractor extractor : this.extractors)
+			extractor.setNodeIDCounters(pre, post);
+	}
+	
+	public final int getPreCounter() {
+		return this.extractors[0].getPreCounter();
+	}
+	
+	public final int getPostCounter() {
+		return this.extractors[0].getPostCounter();
+	}
+	
+	/**
+	 * @return true if the subtree of the current element is irrelevant for all the patterns
+	 * @see SingleDocumentExtractor#canSkipSubtree()
+	 */
+	public final boolean canSkipSubtree() {
+		for(SingleDocumentExtractor extractor : this.extractors) {
+			if(!extractor.canSkipSubtree())
+				return false;
+		}
+		return true;
+	}
+	
+	/**
+	 * @see SingleDocumentExtractor#skipNodes(int)
+	 */
+	public final void skipNodes(int n) {
+		for(SingleDocumentExtractor extractor : this.extractors)
+			extractor.skipNodes(n);
+	}
+	
+	/**
+	 * @return true if some pattern is evaluated in streaming mode
+	 * @see SingleDocumentExtractor#setStreaming()
+	 */
+	public final boolean setStreaming() {
+		boolean streaming = false;
+		for(SingleDocumentExtractor extractor : this.extractors)
+			streaming |= extractor.setStreaming();
+		return streaming;
+	}
+	
+	/**
+	 * @see SingleDocumentExtractor#setMaxMatchesPerStack(int)
+	 */
+	public final void setMaxMatchesPerStack(int maxMatchesPerStack) {
+		for(SingleDocumentExtractor extractor : this.extractors)
+			extractor.setMaxMatchesPerStack(maxMatchesPerStack);
+	}
+	
+	/**
+	 * @see SingleDocumentExtractor#setContentReader(ContentCaptureReader)
+	 */
+	public final void setContentReader(ContentCaptureReader contentReader) {
+		for(SingleDocumentExtractor extractor : this.extractors)
+			extractor.setContentReader(contentReader);
+	}
+	
+	public final boolean hasOpenMatches() {
+		for(SingleDocumentExtractor extractor : this.extractors) {
+			if(extractor.hasOpenMatches())
+				return true;
+		}
+		return false;
+	}
+	
+	public final boolean storesNodeIDs() {
+		for(SingleDocumentExtractor extractor : this.extractors) {
+			if(extractor.storesNodeIDs())
+				return true;
+		}
+		return false;
+	}
+	
+	/**
+	 * Collects the records produced by the extractors so far.
+	 */
+	public List<Record> getRecords() {
+		for(SingleDocumentExtractor extractor : this.extractors) {
+			final List<Record> records = extractor.getRecords();
+			if(records.size() != 0) {
+				this.vTuples.addAll(records);
+				records.clear();
+			}
+		}
+		return this.vTuples;
+	}
+	
+}
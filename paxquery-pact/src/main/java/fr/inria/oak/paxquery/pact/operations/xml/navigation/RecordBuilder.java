@@ -22,6 +22,7 @@ import java.util.List;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.apache.flink.types.IntValue;
 import org.apache.flink.types.Record;
 import org.apache.flink.types.StringValue;
 
@@ -33,8 +34,13 @@ import fr.inria.oak.paxquery.common.exception.PAXQueryExecutionException;
 import fr.inria.oak.paxquery.common.xml.navigation.NavigationTreePattern;
 import fr.inria.oak.paxquery.common.xml.navigation.NavigationTreePatternEdge;
 import fr.inria.oak.paxquery.common.xml.navigation.NavigationTreePatternNode;
+import fr.inria.oak.paxquery.common.xml.nodeidentifier.NodeID;
 import fr.inria.oak.paxquery.common.xml.nodeidentifier.NodeIDScheme;
+import fr.inria.oak.paxquery.common.xml.nodeidentifier.OrderedIntegerElementID;
+import fr.inria.oak.paxquery.common.xml.nodeidentifier.PrePostDepthID;
+import fr.inria.oak.paxquery.pact.datamodel.type.OrderedIDValue;
 import fr.inria.oak.paxquery.pact.datamodel.type.RecordList;
+import fr.inria.oak.paxquery.pact.datamodel.type.StructuralIDValue;
 import fr.inria.oak.paxquery.pact.operations.RecordOperations;
 
 /**
@@ -97,9 +103,27 @@ public class RecordBuilder {
 		this.schemesByNodes = hm;
 	}
 	
+	/**
+	 * Produces the records for a pattern that is evaluated together with other patterns; each
+	 * record gets the position i of its pattern as last field.
+	 */
 	public void produceTuples(ExtractorMatch em, NavigationTreePatternNode pn,
 			List<Record> v, NavigationTreePattern p, int i) {
-		logger.error("Method produceTuples for multiple documents not implemented yet!");
+		this.thisIsFirstAttribute = true;
+
+		try {
+			List<Record> v2 = build(em, pn);
+
+			Iterator<Record> it = v2.iterator();
+			while (it.hasNext()) {
+				Record tuple = it.next();
+				tuple.addField(new IntValue(i));
+				this.tupleCount++;
+				v.add(tuple);
+			}
+		} catch (Exception e) {
+			logger.error("Exception", e);
+		}
 	}
 	
 	public final void produceTuples(ExtractorMatch em, NavigationTreePatternNode pn, List<Record> v, NavigationTreePattern x) {
@@ -382,19 +406,25 @@ public class RecordBuilder {
 
 		if (pn.storesID()) {
 			if (em != null) {
-				tuple.addField(new StringValue(em.getID().toString()));
+				final NodeID id = em.getID();
+				if (id instanceof PrePostDepthID)
+					tuple.addField(new StructuralIDValue((PrePostDepthID) id));
+				else if (id instanceof OrderedIntegerElementID)
+					tuple.addField(new OrderedIDValue((OrderedIntegerElementID) id));
+				else
+					tuple.addField(new StringValue(id.toString()));
 				iID++;
 			} else {
-				if (pn.isOrderIDType()) {
-					tuple.addField(new StringValue("\0"));
+				if (pn.isIdentityIDType() || pn.isOrderIDType()) {
+					tuple.addField(new OrderedIDValue());
 					iID++;
 				} else {
 					if (pn.isUpdateIDType()) {
-						tuple.addField(new StringValue("\0"));
+						tuple.addField(RecordOperations.createNullField());
 						iID++;
 					} else {
 						if (pn.isStructIDType()) {
-							tuple.addField(new StringValue("\0"));
+							tuple.addField(new StructuralIDValue());
 							iID++;
 						}
 					}
@@ -406,7 +436,7 @@ public class RecordBuilder {
 			if (em != null) {
 				tuple.addField(new StringValue(em.getTag()));
 			} else {
-				tuple.addField(new StringValue("\0"));
+				tuple.addField(RecordOperations.createNullField());
 			}
 			iString++;
 		}
@@ -414,12 +444,12 @@ public class RecordBuilder {
 		if (pn.storesValue()) {
 			if (em != null) {
 				if (em.getVal() != null) {
-					tuple.addField(new StringValue(em.getVal()));
+					tuple.addField(RecordOperations.createValueField(em.getVal(), pn.getValueType()));
 				} else {
-					tuple.addField(new StringValue("\0"));
+					tuple.addField(RecordOperations.createNullField(pn.getValueType()));
 				}
 			} else {
-				tuple.addField(new StringValue("\0"));
+				tuple.addField(RecordOperations.createNullField(pn.getValueType()));
 			}
 			iString++;
 		}
@@ -428,7 +458,7 @@ public class RecordBuilder {
 				if (em.getContent() != null) {
 					tuple.addField(new StringValue(em.getContent()));
 				} else {
-					tuple.addField(new StringValue("\0"));
+					tuple.addField(RecordOperations.createNullField());
 				}
 				iString++;
 			}
@@ -17,12 +17,11 @@ package fr.inria.oak.paxquery.pact.operations.xml.navigation;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Stack;
 import java.util.StringTokenizer;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import javax.xml.stream.XMLStreamReader;
 
@@ -31,12 +30,16 @@ import org.apache.commons.logging.LogFactory;
 import org.apache.flink.types.Record;
 
 import fr.inria.oak.paxquery.common.configuration.GlobalConfiguration;
+import fr.inria.oak.paxquery.common.exception.PAXQueryExecutionException;
 import fr.inria.oak.paxquery.common.xml.navigation.NavigationTreePattern;
 import fr.inria.oak.paxquery.common.xml.navigation.NavigationTreePatternEdge;
 import fr.inria.oak.paxquery.common.xml.navigation.NavigationTreePatternNode;
 import fr.inria.oak.paxquery.common.xml.nodeidentifier.NodeID;
 import fr.inria.oak.paxquery.common.xml.nodeidentifier.NodeIDScheme;
 import fr.inria.oak.paxquery.common.xml.nodeidentifier.NodeIDSchemeAssignator;
+import fr.inria.oak.paxquery.common.xml.nodeidentifier.OrderedIntegerIDScheme;
+import fr.inria.oak.paxquery.common.xml.nodeidentifier.PrePostDepthIDScheme;
+import fr.inria.oak.paxquery.pact.operations.predicates.KeywordMatcher;
 
 
 /**
@@ -84,6 +87,24 @@ public class SingleDocumentExtractor {
 	 * "*"-labeled query xam nodes.
 	 */
 	HashMap<String, ArrayList<ExtractorMatchStack>> stacksByTag;
+
+	/**
+	 * Codes of the tags met in the document: for each local name, the namespaces it was
+	 * met with and the code of each (namespace, local name) pair.
+	 */
+	HashMap<String, TagCode> tagCodes;
+
+	/**
+	 * For each tag code, the complete tag ({namespace}localName).
+	 */
+	ArrayList<String> completeTags;
+
+	/**
+	 * For each tag code, the stacks that may be interested in the tag: those of the nodes
+	 * labeled with the tag, followed by those of the "*"-labeled nodes. Computed once, when
+	 * the tag is first met.
+	 */
+	ArrayList<ExtractorMatchStack[]> stacksByTagCode;
 	
 	/**
 	 * The integer code of the last path summary node that was opened (the
@@ -103,6 +124,12 @@ public class SingleDocumentExtractor {
 	boolean[] usefulSchemes;
 	HashMap<NavigationTreePatternNode, NodeIDScheme> schemesByNode;
 
+	/**
+	 * For each query xam node selecting the values that contain a keyword ("~keyword"), the
+	 * matcher of the keyword. Built when the first value of the node is checked.
+	 */
+	HashMap<NavigationTreePatternNode, KeywordMatcher> keywordMatchersByNode;
+
 	StringBuilder sb;
 
 	/**
@@ -145,6 +172,15 @@ public class SingleDocumentExtractor {
 	 */
 	int numberOfStacksNeedingValue;
 
+	/**
+	 * All the stacks, and for each of them, whether its node is connected to its parent
+	 * node by a parent-child edge. This is used to find out whether the subtree of the
+	 * current element may produce matches.
+	 */
+	ExtractorMatchStack[] allStacks;
+	boolean[] childEdges;
+	int numberOfStacks;
+
 	/**
 	 * The builder will produce (nested) tuples from the matches extracted from
 	 * the document
@@ -161,6 +197,34 @@ public class SingleDocumentExtractor {
 	 */
 	StringBuilder characterSB;
 
+	/**
+	 * In content capture mode, the reader keeping the characters of the document: the
+	 * content of a node is then a range of the document instead of being rebuilt event by
+	 * event. The namespace declarations met on the open elements (pairs of prefix and URI),
+	 * and the number of them before each open element, are kept to declare the namespaces
+	 * in scope on the content.
+	 */
+	ContentCaptureReader contentReader;
+	ArrayList<String> namespaceDeclarations;
+	Stack<Integer> namespaceDeclarationCounts;
+
+	/**
+	 * The stack of the real root of the pattern.
+	 */
+	ExtractorMatchStack realRootStack;
+
+	/**
+	 * In streaming mode, the stack of the child of the real root whose matches are turned
+	 * into records as soon as they are complete, instead of when the root match closes.
+	 * Null if the pattern does not allow it.
+	 */
+	ExtractorMatchStack streamedStack;
+
+	/**
+	 * Maximum number of matches that a stack may hold, or 0 if there is no limit.
+	 */
+	int maxMatchesPerStack;
+
 	HashMap<NavigationTreePatternNode, ArrayList<String>> childrenContexts;
 	HashMap<NavigationTreePatternNode, ArrayList<String>> currentContexts;
 	
@@ -170,6 +234,160 @@ public class SingleDocumentExtractor {
 		this.myPosition = i;
 	}
 
+	/**
+	 * Sets the counters from which the ID schemes will number the next nodes. This is used
+	 * when the document is not read from its beginning, so that the IDs of the nodes are the
+	 * same whatever the portion of the document that is being read.
+	 *
+	 * @param pre the pre (resp. ordered integer) value of the next node that begins
+	 * @param post the post value of the next node that ends
+	 */
+	public final void setNodeIDCounters(int pre, int post) {
+		((PrePostDepthIDScheme) schemes[0]).setCounters(pre, post);
+		((OrderedIntegerIDScheme) schemes[1]).setCounter(pre);
+	}
+
+	public final int getPreCounter() {
+		return ((PrePostDepthIDScheme) schemes[0]).getCurrentPre();
+	}
+
+	public final int getPostCounter() {
+		return ((PrePostDepthIDScheme) schemes[0]).getCurrentPost();
+	}
+
+	/**
+	 * @return true if some node of the pattern stores IDs
+	 */
+	public final boolean storesNodeIDs() {
+		return usefulSchemes[0] || usefulSchemes[1];
+	}
+
+	/**
+	 * Turns on content capture mode: the content of the nodes is taken from the characters
+	 * read by the given reader, which must be the one the stream reader parses.
+	 */
+	public final void setContentReader(ContentCaptureReader contentReader) {
+		this.contentReader = contentReader;
+		this.namespaceDeclarations = new ArrayList<String>();
+		this.namespaceDeclarationCounts = new Stack<Integer>();
+	}
+
+	/**
+	 * Turns on streaming mode, if the pattern allows it. Records are then produced as soon as
+	 * each match of the only child of the root that contributes to them is complete, and the
+	 * matches are dropped right away. This requires that:
+	 * <ul>
+	 * <li>the root is the document element (parent-child edge from the document), so it has
+	 * a single match,</li>
+	 * <li>the root stores nothing that is only known when it closes (ID, value, content) and
+	 * has no value predicate,</li>
+	 * <li>exactly one child of the root stores something, through a non-nested edge, and the
+	 * other children are optional, so that they cannot invalidate the records already
+	 * produced.</li>
+	 * </ul>
+	 * 
+	 * @return true if the pattern is evaluated in streaming mode
+	 */
+	public final boolean setStreaming() {
+		final NavigationTreePatternEdge rootEdge = this.currentQP.getRoot().getEdges().get(0);
+		final NavigationTreePatternNode root = rootEdge.n2;
+		this.streamedStack = null;
+		if (!rootEdge.isParent() || root.storesID() || root.storesValue() || root.selectsValue() || root.storesContent()) {
+			return false;
+		}
+		NavigationTreePatternEdge streamedEdge = null;
+		for (NavigationTreePatternEdge e : root.getEdges()) {
+			if (e.n2.deepStoresSomething()) {
+				if (streamedEdge != null || e.isNested()) {
+					return false;
+				}
+				streamedEdge = e;
+			} else if (!e.isOptional()) {
+				return false;
+			}
+		}
+		if (streamedEdge == null) {
+			return false;
+		}
+		this.streamedStack = this.stacksByNodes.get(streamedEdge.n2);
+		return true;
+	}
+
+	/**
+	 * Limits the number of matches that each stack may hold; beyond it, the extraction fails
+	 * with an error naming the pattern node whose matches accumulate.
+	 * 
+	 * @param maxMatchesPerStack the limit, or 0 for no limit
+	 */
+	public final void setMaxMatchesPerStack(int maxMatchesPerStack) {
+		this.maxMatchesPerStack = maxMatchesPerStack;
+	}
+
+	/**
+	 * @return true if some match of the real root of the pattern is open, i.e. the matches
+	 * found so far may still produce records
+	 */
+	public final boolean hasOpenMatches() {
+		return this.realRootStack.dnop != null;
+	}
+
+
+	/**
+	 * Checks whether the subtree of the element that was just started may be skipped, that is,
+	 * whether none of its descendants can produce a match, and no open match needs the content
+	 * or the value of the element. This is checked right after {@link #startElement()}.
+	 *
+	 * @return true if the subtree of the current element is irrelevant for the pattern
+	 */
+	public final boolean canSkipSubtree() {
+		for (int i = 0; i < this.numberOfStacksNeedingContent; i++) {
+			if (this.stacksNeedingContent[i].dnop != null) {
+				return false;
+			}
+		}
+		for (int i = 0; i < this.numberOfStacksNeedingValue; i++) {
+			if (this.stacksNeedingValue[i].dnop != null) {
+				return false;
+			}
+		}
+		for (int i = 0; i < this.numberOfStacks; i++) {
+			final ExtractorMatchStack s = this.allStacks[i];
+			if (s.parentStack == null) {
+				// a root node with a parent-child edge only matches at depth 1,
+				// thus never below the current element
+				if (!this.childEdges[i]) {
+					return false;
+				}
+			} else {
+				// a child node may only match below an open match of its parent,
+				// at the next depth if the edge is parent-child
+				final ExtractorMatch parentMatch = s.parentStack.dnop;
+				if (parentMatch != null && (!this.childEdges[i] || parentMatch.depth == this.currentDepth)) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Accounts for nodes (elements and attributes) of the document that were skipped, so that
+	 * the following nodes get the same IDs as if the skipped ones had been processed.
+	 *
+	 * @param n the number of skipped nodes
+	 */
+	public final void skipNodes(int n) {
+		if (usefulSchemes[0]) {
+			final PrePostDepthIDScheme scheme = (PrePostDepthIDScheme) schemes[0];
+			scheme.setCounters(scheme.getCurrentPre() + n, scheme.getCurrentPost() + n);
+		}
+		if (usefulSchemes[1]) {
+			final OrderedIntegerIDScheme scheme = (OrderedIntegerIDScheme) schemes[1];
+			scheme.setCounter(scheme.getCounter() + n);
+		}
+		this.currentPathNo += n;
+	}
+
 
 	/**
 	 * Not called currently, since it is the DocumentTuplesMultiExtractor which drives the process.
@@ -193,7 +411,11 @@ public class SingleDocumentExtractor {
 		this.nodesByStacks = new HashMap<ExtractorMatchStack, NavigationTreePatternNode>();
 		this.currentNodes = new Stack<Integer>();
 		this.stacksByTag = new HashMap<String, ArrayList<ExtractorMatchStack>>();
+		this.tagCodes = new HashMap<String, TagCode>();
+		this.completeTags = new ArrayList<String>();
+		this.stacksByTagCode = new ArrayList<ExtractorMatchStack[]>();
 		this.schemesByNode = new HashMap<NavigationTreePatternNode, NodeIDScheme>();
+		this.keywordMatchersByNode = new HashMap<NavigationTreePatternNode, KeywordMatcher>();
 
 		this.childrenContexts = new HashMap<NavigationTreePatternNode, ArrayList<String>>();
 		this.currentContexts = new HashMap<NavigationTreePatternNode, ArrayList<String>>();
@@ -206,9 +428,13 @@ public class SingleDocumentExtractor {
 		this.numberOfStacksNeedingContent = 0;
 		this.stacksNeedingValue = new ExtractorMatchStack[qp.getNodesNo()];
 		this.numberOfStacksNeedingValue = 0;
+		this.allStacks = new ExtractorMatchStack[qp.getNodesNo()];
+		this.childEdges = new boolean[qp.getNodesNo()];
+		this.numberOfStacks = 0;
 
 		NavigationTreePatternNode root = qp.getRoot();
 		createStacks(root);
+		this.realRootStack = this.stacksByNodes.get(root.getEdges().get(0).n2);
 		this.currentContexts.put(root, this.childrenContexts.get(root));
 		this.setSchemes(qp.getRoot());
 		schemesBeginDocument();
@@ -220,6 +446,38 @@ public class SingleDocumentExtractor {
 		this.myPosition = -1;		
 	}
 
+	/**
+	 * Prepares the extractor to read another document from the given reader, keeping the
+	 * stacks, schemes and tag codes built for the pattern. The matches and records left by the
+	 * previous document are dropped, so a document that was not read to its end (e.g. because
+	 * it is not well formed) does not leak into the next one.
+	 */
+	public final void reset(XMLStreamReader xmlReader) {
+		this.streamReader = xmlReader;
+		for (ExtractorMatchStack stack : this.stacksByNodes.values()) {
+			stack.clear();
+		}
+		for (int i = 0; i < this.numberOfStacksNeedingContent; i++) {
+			this.prefixesDefined[i].clear();
+			this.defaultNamespaces[i].clear();
+		}
+		if (this.namespaceDeclarations != null) {
+			this.namespaceDeclarations.clear();
+			this.namespaceDeclarationCounts.clear();
+		}
+		this.currentNodes.clear();
+		this.currentContexts.clear();
+		final NavigationTreePatternNode root = this.currentQP.getRoot();
+		this.currentContexts.put(root, this.childrenContexts.get(root));
+		this.vTuples.clear();
+		this.sb.setLength(0);
+		this.characterSB.setLength(0);
+		this.lastCreatedMatch = null;
+		schemesBeginDocument();
+		this.currentDepth = 0;
+		this.currentPathNo = -1;
+	}
+
 	/**
 	 * This method handles a "start element" event. In this context, a "start
 	 * element" means a "start path summary node". What must be done:
@@ -286,17 +544,27 @@ public class SingleDocumentExtractor {
 	
 		// In this vector, we collect all matches produced for this node.
 		ArrayList<ExtractorMatch> matchesForThisNode = new ArrayList<ExtractorMatch>();
+		
+		int declarationsBefore = 0;
+		if (this.contentReader != null) {
+			declarationsBefore = this.namespaceDeclarations.size();
+			for (int i = 0; i < this.streamReader.getNamespaceCount(); i++) {
+				final String prefix = this.streamReader.getNamespacePrefix(i);
+				this.namespaceDeclarations.add(prefix != null ? prefix : "");
+				this.namespaceDeclarations.add(this.streamReader.getNamespaceURI(i));
+			}
+			this.namespaceDeclarationCounts.push(declarationsBefore);
+		}
 	
 		//Parameters.logger.debug("Looking for stacks...");
 		
-		StringBuilder completeTagBuilder = new StringBuilder(START_NAMESPACE_DELIMITER.length()+namespaceuri.length()+END_NAMESPACE_DELIMITER.length()+localName.length());
-		completeTagBuilder.append(START_NAMESPACE_DELIMITER).append(namespaceuri).append(END_NAMESPACE_DELIMITER).append(localName);
-		final String completeTag = completeTagBuilder.toString();
+		final int tagCode = getTagCode(namespaceuri, localName);
+		final String completeTag = this.completeTags.get(tagCode);
 		// For each stacks that may be interested in this node, try to produce
 		// matches
-		Iterator<ExtractorMatchStack> it1 = stacksCompatibleWithTag(completeTag);
-		while (it1.hasNext()) {
-			ExtractorMatchStack s = it1.next();
+		final ExtractorMatchStack[] compatibleStacks = this.stacksByTagCode.get(tagCode);
+		for (int k = 0; k < compatibleStacks.length; k++) {
+			ExtractorMatchStack s = compatibleStacks[k];
 			if (s.isAttribute) {
 				continue;
 			}
@@ -419,9 +687,18 @@ public class SingleDocumentExtractor {
 				if (nodeForThisMatch.storesTag() || nodeForThisMatch.selectsTag()) {
 					thisMatch.setTag(completeTag);
 				}
+				
+				if (this.contentReader != null && nodeForThisMatch.storesContent()) {
+					final long location = this.contentReader.offset(this.streamReader.getLocation().getCharacterOffset());
+					thisMatch.setContentStart(this.contentReader, this.contentReader.startTag(qName, location),
+							inScopeNamespaceDeclarations(declarationsBefore));
+				}
 	
 				// push this match
 				s.push(thisMatch);
+				if (this.maxMatchesPerStack > 0 && s.getEntriesSize() > this.maxMatchesPerStack) {
+					tooManyMatches(nodeForThisMatch, s);
+				}
 				
 				// update the last open match on this stack, if needed
 				if (s.dnop != null) {
@@ -442,7 +719,7 @@ public class SingleDocumentExtractor {
 		// Note that we have made the convention that only the word
 		// elements (words that have been converted into elements) can 
 		// start with _
-		if(localName.charAt(0) != '_')
+		if(this.contentReader == null && localName.charAt(0) != '_')
 			addBeginElementToContStacks(namespaceuri, localName, qName);
 	}
 	
@@ -472,14 +749,13 @@ public class SingleDocumentExtractor {
 		// In this vector, we collect all matches produced for this node.
 		ArrayList<ExtractorMatch> matchesForThisNode = new ArrayList<ExtractorMatch>();
 	
-		StringBuilder completeTagBuilder = new StringBuilder(START_NAMESPACE_DELIMITER.length()+namespaceuri.length()+END_NAMESPACE_DELIMITER.length()+localName.length());
-		completeTagBuilder.append(START_NAMESPACE_DELIMITER).append(namespaceuri).append(END_NAMESPACE_DELIMITER).append(localName);
-		final String completeTag = completeTagBuilder.toString();
+		final int tagCode = getTagCode(namespaceuri, localName);
+		final String completeTag = this.completeTags.get(tagCode);
 		// For each stacks that may be interested in this node, try to produce
 		// matches
-		Iterator<ExtractorMatchStack> it1 = stacksCompatibleWithTag(completeTag);
-		while (it1.hasNext()) {
-			ExtractorMatchStack s = it1.next();
+		final ExtractorMatchStack[] compatibleStacks = this.stacksByTagCode.get(tagCode);
+		for (int k = 0; k < compatibleStacks.length; k++) {
+			ExtractorMatchStack s = compatibleStacks[k];
 			if (!s.isAttribute) {
 				continue;
 			}
@@ -611,7 +887,7 @@ public class SingleDocumentExtractor {
 		int start = this.streamReader.getTextStart();
 		int length = this.streamReader.getTextLength();
 		
-		if(this.numberOfStacksNeedingContent > 0){
+		if(this.contentReader == null && this.numberOfStacksNeedingContent > 0){
 			addTextToContStacks(ch, start, length);
 		}
 		if (this.numberOfStacksNeedingValue > 0){
@@ -678,18 +954,17 @@ public class SingleDocumentExtractor {
 		// Note that we have made the convention that only the word
 		// elements (words that have been converted into elements) can 
 		// start with _
-		if(localName.charAt(0) != '_')
+		if(this.contentReader == null && localName.charAt(0) != '_')
 			addEndElementToContStacks(qName);
 	
 		//Parameters.logger.debug("Getting ending node number");
 		int endingNode = currentNodes.pop().intValue();
 	
-		StringBuilder completeTagBuilder = new StringBuilder(START_NAMESPACE_DELIMITER.length()+namespaceuri.length()+END_NAMESPACE_DELIMITER.length()+localName.length());
-		completeTagBuilder.append(START_NAMESPACE_DELIMITER).append(namespaceuri).append(END_NAMESPACE_DELIMITER).append(localName);
-		final String completeTag = completeTagBuilder.toString();
-		Iterator<ExtractorMatchStack> it1 = stacksCompatibleWithTag(completeTag);
-		while (it1.hasNext()) {
-			ExtractorMatchStack s = it1.next();
+		final int tagCode = getTagCode(namespaceuri, localName);
+		final String completeTag = this.completeTags.get(tagCode);
+		final ExtractorMatchStack[] compatibleStacks = this.stacksByTagCode.get(tagCode);
+		for (int k = 0; k < compatibleStacks.length; k++) {
+			ExtractorMatchStack s = compatibleStacks[k];
 
 			if (s.isAttribute) {
 				continue;
@@ -710,15 +985,28 @@ public class SingleDocumentExtractor {
 					if (pn.storesID()) {
 						em.setID(currentElementID);
 					}
+					if (this.contentReader != null && pn.storesContent()) {
+						final long location = this.contentReader.offset(this.streamReader.getLocation().getCharacterOffset());
+						em.setContentEnd(this.contentReader.elementEnd(qName, em.getContentStart(), location));
+					}
 					
 					checkPruneAndFillIn(s, endingNode);
 					
 					NavigationTreePatternNode realPatternRoot = ( (NavigationTreePatternEdge) (this.currentQP.getRoot().getEdges().get(0))).n2;
+					
+					// in streaming mode, once no match of the streamed node is open, the
+					// ones collected by the root match are complete
+					if (s == this.streamedStack && s.dnop == null && em.parent != null) {
+						produceStreamedTuples(em.parent, realPatternRoot);
+					}
 
 					if (this.stacksByNodes.get(realPatternRoot) == s) {
 						if(logger.isDebugEnabled())
 							logger.debug("Associated to the real xam root we have the stack named "+ s.tag);
-						if (!em.erased) {
+						if (em.streamed) {
+							// its records have already been produced
+							recursivePop(em, s);
+						} else if (!em.erased) {
 							if(logger.isDebugEnabled())
 								logger.debug("ExtractorMatch " + em.tag + " not erased ! Producing tuples");
 
@@ -745,6 +1033,13 @@ public class SingleDocumentExtractor {
 			}
 		}
 	
+		if (this.contentReader != null) {
+			final int declarationsBefore = this.namespaceDeclarationCounts.pop();
+			for (int i = this.namespaceDeclarations.size() - 1; i >= declarationsBefore; i--) {
+				this.namespaceDeclarations.remove(i);
+			}
+		}
+	
 		currentDepth--;
 	}
 
@@ -763,12 +1058,11 @@ public class SingleDocumentExtractor {
 	
 		int endingNode = currentNodes.pop().intValue();
 	
-		StringBuilder completeTagBuilder = new StringBuilder(START_NAMESPACE_DELIMITER.length()+namespaceuri.length()+END_NAMESPACE_DELIMITER.length()+localName.length());
-		completeTagBuilder.append(START_NAMESPACE_DELIMITER).append(namespaceuri).append(END_NAMESPACE_DELIMITER).append(localName);
-		final String completeTag = completeTagBuilder.toString();
-		Iterator<ExtractorMatchStack> it1 = stacksCompatibleWithTag(completeTag);
-		while (it1.hasNext()) {
-			ExtractorMatchStack s = it1.next();
+		final int tagCode = getTagCode(namespaceuri, localName);
+		final String completeTag = this.completeTags.get(tagCode);
+		final ExtractorMatchStack[] compatibleStacks = this.stacksByTagCode.get(tagCode);
+		for (int k = 0; k < compatibleStacks.length; k++) {
+			ExtractorMatchStack s = compatibleStacks[k];
 			if (!s.isAttribute) {
 				continue;
 			}
@@ -840,9 +1134,12 @@ public class SingleDocumentExtractor {
 						correctValue = false;
 					} else {
 						if (thisVal.startsWith("~")) {
-							Pattern p = Pattern.compile("(^|\\s+|[^a-zA-Z0-9]+)" + thisVal.substring(1, thisVal.length()) + "($|\\s+|[^a-zA-Z0-9]+)", Pattern.MULTILINE);
-							Matcher m = p.matcher(se.getVal());
-							if (!m.find())
+							KeywordMatcher matcher = this.keywordMatchersByNode.get(pns);
+							if (matcher == null) {
+								matcher = KeywordMatcher.compile(thisVal.substring(1, thisVal.length()));
+								this.keywordMatchersByNode.put(pns, matcher);
+							}
+							if (!matcher.matches(se.getVal()))
 								correctValue = false;
 						}
 						else {
@@ -1093,7 +1390,7 @@ public class SingleDocumentExtractor {
 			NavigationTreePatternEdge e = it.next();
 			NavigationTreePatternNode onlyChild = e.getN2();
 			rootContext.add(START_NAMESPACE_DELIMITER + onlyChild.getNamespace() + END_NAMESPACE_DELIMITER + onlyChild.getTag());
-			recCreateStacks(onlyChild, null);
+			recCreateStacks(onlyChild, null, e.isParent());
 		}
 		childrenContexts.put(pn, rootContext);
 	}
@@ -1103,12 +1400,16 @@ public class SingleDocumentExtractor {
 	 * 
 	 * @param pn
 	 * @param sParent
+	 * @param childEdge true if pn is connected to its parent by a parent-child edge
 	 */
-	private final void recCreateStacks(NavigationTreePatternNode pn, ExtractorMatchStack sParent) {		
+	private final void recCreateStacks(NavigationTreePatternNode pn, ExtractorMatchStack sParent, boolean childEdge) {		
 		ExtractorMatchStack s1 = new ExtractorMatchStack(START_NAMESPACE_DELIMITER + pn.getNamespace() + END_NAMESPACE_DELIMITER + pn.getTag(), pn.isAttribute(), sParent);
 	
 		stacksByNodes.put(pn, s1);
 		nodesByStacks.put(s1, pn);
+		this.allStacks[numberOfStacks] = s1;
+		this.childEdges[numberOfStacks] = childEdge;
+		this.numberOfStacks++;
 		if (pn.storesContent()) {
 			this.stacksNeedingContent[numberOfStacksNeedingContent] = s1;
 			this.prefixesDefined[numberOfStacksNeedingContent] = new Stack<HashMap<String,String>>();
@@ -1136,41 +1437,72 @@ public class SingleDocumentExtractor {
 			NavigationTreePatternEdge pe = it.next();
 			NavigationTreePatternNode n2 = pe.n2;
 			childrenContext.add(START_NAMESPACE_DELIMITER + n2.getNamespace() + END_NAMESPACE_DELIMITER + n2.getTag());
-			recCreateStacks(n2, s1);
+			recCreateStacks(n2, s1, pe.isParent());
 		}
 
 		childrenContexts.put(pn, childrenContext);
 	}
 
 	/**
-	 * Fetches all stacks of a given tag
+	 * Builds the declarations of the namespaces in scope at the current element, except those
+	 * that the element declares itself, to be added to the start tag of its content.
+	 * 
+	 * @param declarationsBefore the number of declarations before those of the current element
 	 */
-	private final Iterator<ExtractorMatchStack> stacksCompatibleWithTag(String s) {
-		ArrayList<ExtractorMatchStack> v = stacksByTag.get(s);
-		ArrayList<ExtractorMatchStack> stars = stacksByTag.get("{}*");
-		if (stars == null){
-			if (v == null){
-				return (new ArrayList<ExtractorMatchStack>()).iterator();
+	private final String inScopeNamespaceDeclarations(int declarationsBefore) {
+		if (declarationsBefore == 0) {
+			return null;
+		}
+		final HashSet<String> declaredPrefixes = new HashSet<String>();
+		for (int i = declarationsBefore; i < this.namespaceDeclarations.size(); i += 2) {
+			declaredPrefixes.add(this.namespaceDeclarations.get(i));
+		}
+		final StringBuilder declarations = new StringBuilder();
+		for (int i = declarationsBefore - 2; i >= 0; i -= 2) {
+			final String prefix = this.namespaceDeclarations.get(i);
+			if (declaredPrefixes.add(prefix)) {
+				declarations.append(prefix.length() == 0 ? " xmlns" : " xmlns:" + prefix);
+				declarations.append("=\"").append(this.namespaceDeclarations.get(i + 1)).append('"');
 			}
-
-			return v.iterator();
 		}
+		return declarations.toString();
+	}
 
-		if (v == null) {
-			return stars.iterator();
+	/**
+	 * Returns the code of a tag, registering the tag the first time it is met. Local names
+	 * come from the name table of the stream reader, thus are mostly the same String instances
+	 * and are hashed and compared quickly.
+	 */
+	private final int getTagCode(final String namespaceuri, final String localName) {
+		final TagCode first = this.tagCodes.get(localName);
+		for (TagCode tc = first; tc != null; tc = tc.next) {
+			if (tc.namespace.equals(namespaceuri)) {
+				return tc.code;
+			}
 		}
 
-		// v != null and stars != null
+		final String completeTag = START_NAMESPACE_DELIMITER + namespaceuri + END_NAMESPACE_DELIMITER + localName;
+		final int code = this.completeTags.size();
+		this.completeTags.add(completeTag);
+		this.stacksByTagCode.add(stacksCompatibleWithTag(completeTag));
+		this.tagCodes.put(localName, new TagCode(namespaceuri, code, first));
+		return code;
+	}
+
+	/**
+	 * Fetches all stacks of a given tag, including the stacks of "*"-labeled nodes
+	 */
+	private final ExtractorMatchStack[] stacksCompatibleWithTag(String s) {
+		ArrayList<ExtractorMatchStack> v = stacksByTag.get(s);
+		ArrayList<ExtractorMatchStack> stars = stacksByTag.get("{}*");
 		ArrayList<ExtractorMatchStack> vRes = new ArrayList<ExtractorMatchStack>();
-		Iterator<ExtractorMatchStack> it = v.iterator();
-		while (it.hasNext()) {
-			vRes.add(it.next());
+		if (v != null) {
+			vRes.addAll(v);
 		}
-		it = stars.iterator();
-		while (it.hasNext()) {
-			vRes.add(it.next());
+		if (stars != null) {
+			vRes.addAll(stars);
 		}
-		return vRes.iterator();
+		return vRes.toArray(new ExtractorMatchStack[vRes.size()]);
 	}
 
 	/**
@@ -1395,6 +1727,42 @@ public class SingleDocumentExtractor {
 		return sb.toString();
 	}
 
+	/**
+	 * Produces the records of the root match for the matches of the streamed node that it has
+	 * collected so far, then drops these matches.
+	 */
+	private final void produceStreamedTuples(ExtractorMatch rootMatch, NavigationTreePatternNode realPatternRoot) {
+		final ArrayList<ExtractorMatch> children = rootMatch.childrenByStack.get(this.streamedStack);
+		if (children == null) {
+			return;
+		}
+		boolean someChildPresent = false;
+		for (ExtractorMatch child : children) {
+			if (!child.erased) {
+				someChildPresent = true;
+				break;
+			}
+		}
+		if (someChildPresent) {
+			if (myPosition >= 0) {
+				builder.produceTuples(rootMatch, realPatternRoot, vTuples, this.currentQP, this.myPosition);
+			} else {
+				builder.produceTuples(rootMatch, realPatternRoot, vTuples, this.currentQP);
+			}
+			rootMatch.streamed = true;
+		}
+		for (ExtractorMatch child : children) {
+			recursivePop(child, this.streamedStack);
+		}
+		children.clear();
+	}
+
+	private final void tooManyMatches(NavigationTreePatternNode node, ExtractorMatchStack s) {
+		throw new PAXQueryExecutionException("More than " + this.maxMatchesPerStack + " matches of pattern node " +
+				node.getNodeCode() + " (" + s.tag + ") are held in memory at depth " + this.currentDepth +
+				"; the records of the pattern cannot be produced before its root match closes");
+	}
+
 	/**
 	 * This method eliminates a match from a stack, taking some care to fix the
 	 * dnop if needed. The invariant is that elimination is attempted only for a
@@ -1419,11 +1787,9 @@ public class SingleDocumentExtractor {
 	 * @param s
 	 */
 	private void recursivePop(ExtractorMatch em, ExtractorMatchStack s) {
+		eliminate(s, em);
 		if (em.childrenByStack == null) {
-			eliminate(s, em);
-		}
-		if (em.childrenByStack.size() == 0) {
-			eliminate(s, em);
+			return;
 		}
 		Iterator<ExtractorMatchStack> it = em.childrenByStack.keySet().iterator();
 		while (it.hasNext()) {
@@ -1495,4 +1861,20 @@ public class SingleDocumentExtractor {
 	public List<Record> getRecords() {
 		return vTuples;
 	}
+
+	/**
+	 * Entry of the tag dictionary; entries with the same local name are chained.
+	 */
+	private static final class TagCode {
+		final String namespace;
+		final int code;
+		final TagCode next;
+
+		TagCode(String namespace, int code, TagCode next) {
+			this.namespace = namespace;
+			this.code = code;
+			this.next = next;
+		}
+	}
+
 }
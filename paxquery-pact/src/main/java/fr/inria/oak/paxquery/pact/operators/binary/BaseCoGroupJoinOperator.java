@@ -23,21 +23,15 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.flink.types.IntValue;
 import org.apache.flink.types.Record;
-import org.apache.flink.types.StringValue;
 import org.apache.flink.util.Collector;
 
 import fr.inria.oak.paxquery.common.aggregation.AggregationType;
+import fr.inria.oak.paxquery.common.datamodel.metadata.MetadataTypes;
 import fr.inria.oak.paxquery.common.datamodel.metadata.NestedMetadata;
-import fr.inria.oak.paxquery.common.predicates.ConjunctivePredicate;
-import fr.inria.oak.paxquery.common.predicates.DisjunctivePredicate;
 import fr.inria.oak.paxquery.pact.datamodel.type.RecordList;
 import fr.inria.oak.paxquery.pact.operations.RecordOperations;
-import fr.inria.oak.paxquery.pact.operations.RecordPredicateEvaluation;
 import fr.inria.oak.paxquery.pact.operations.aggregation.BaseAggregationOperation;
-import fr.inria.oak.paxquery.pact.operations.aggregation.Count;
-import fr.inria.oak.paxquery.pact.operations.aggregation.Max;
-import fr.inria.oak.paxquery.pact.operations.aggregation.Min;
-import fr.inria.oak.paxquery.pact.operations.aggregation.Sum;
+import fr.inria.oak.paxquery.pact.operations.predicates.BaseRecordPairPredicate;
 import fr.inria.oak.paxquery.pact.operators.BaseCoGroupOperator;
 
 /**
@@ -47,18 +41,18 @@ import fr.inria.oak.paxquery.pact.operators.BaseCoGroupOperator;
 public abstract class BaseCoGroupJoinOperator extends BaseCoGroupOperator {
 	
 	private static final Log logger = LogFactory.getLog(BaseCoGroupJoinOperator.class);
+	
+	/**
+	 * Used by the conjunctive joins, which do not need to reevaluate any previous predicate
+	 */
+	protected static final BaseRecordPairPredicate[] NO_PREVIOUS_PREDICATES = new BaseRecordPairPredicate[0];
 
 	
 	protected static void coGroupJoin(NestedMetadata inputRecordsSignature1, Iterator<Record> records1, NestedMetadata inputRecordsSignature2, Iterator<Record> records2, 
-			DisjunctivePredicate pred, int from, boolean outer, Record nullRecord, boolean addMark, Collector<Record> collector) {
+			BaseRecordPairPredicate[] previousPreds, boolean outer, Record nullRecord, boolean addMark, Collector<Record> collector) {
 		if(records1.hasNext()) {
 			//If there are records in the right
 			if(records2.hasNext()) {
-				//First we extract the predicates that we need to reevaluate
-				ConjunctivePredicate[] conjPreds = new ConjunctivePredicate[from];
-				for(int i=0; i<from; i++)
-					conjPreds[i] = pred.getConjunctivePreds().get(i);
-				
 				//Take the first left record
 				Record record1 = records1.next();
 				
@@ -66,14 +60,22 @@ public abstract class BaseCoGroupJoinOperator extends BaseCoGroupOperator {
 				//right iterator
 				List<Record> cachedRecords2 = new ArrayList<Record>();
 				
+				//The output record is filled again for every pair, as it is copied when it is collected:
+				//the fields of the left record are copied once, and those of each right record are
+				//appended after them
+				Record newRecord = new Record();
+				record1.copyTo(newRecord);
+				int numFields1 = record1.getNumFields();
+				final IntValue mark = new IntValue(1);
+				
 				do {
 					Record record2 = records2.next().createCopy();
 					cachedRecords2.add(record2);
 					
 					//We check if any of the previous predicates evaluate to true
 					boolean evaluation = false;
-					for(int i=0; i<from; i++) {
-						evaluation = RecordPredicateEvaluation.evaluate(inputRecordsSignature1, record1, inputRecordsSignature2, record2, conjPreds[i]);
+					for(int i=0; i<previousPreds.length; i++) {
+						evaluation = previousPreds[i].evaluate(record1, record2);
 						if(evaluation)
 							break;
 					}
@@ -81,36 +83,31 @@ public abstract class BaseCoGroupJoinOperator extends BaseCoGroupOperator {
 					//If any of them does, we do not emit the record. Like this we will not generate
 					//duplicates for the next operation
 					if(!evaluation) {
-						Record newRecord = record1.createCopy();
+						newRecord.setNumFields(numFields1);
 						RecordOperations.concatenate(newRecord,record2);
 						if(addMark)
-							newRecord.addField(new IntValue(1));
+							newRecord.addField(mark);
 						collector.collect(newRecord);
 					}
 				} while(records2.hasNext());
 	
-				//Then, in the next iterations we use the cached records
+				//Then, in the next iterations we use the cached records, evaluating the
+				//previous predicates over all of them at once
+				int[] selection = new int[cachedRecords2.size()];
 				while (records1.hasNext()) {
 					record1 = records1.next();
-						
-					for(Record record2: cachedRecords2) {
-						//We check if any of the previous predicates evaluate to true
-						boolean evaluation = false;
-						for(int i=0; i<from; i++) {
-							evaluation = RecordPredicateEvaluation.evaluate(inputRecordsSignature1, record1, inputRecordsSignature2, record2, conjPreds[i]);
-							if(evaluation)
-								break;
-						}
-						
-						//If any of them does, we do not emit the record. Like this we will not generate
-						//duplicates for the next operation
-						if(!evaluation) {
-							Record newRecord = record1.createCopy();
-							RecordOperations.concatenate(newRecord,record2);
-							if(addMark)
-								newRecord.addField(new IntValue(1));
-							collector.collect(newRecord);
-						}
+					
+					final int selected = rejectPrevious(previousPreds, record1, cachedRecords2, selection);
+					if(selected != 0) {
+						record1.copyTo(newRecord);
+						numFields1 = record1.getNumFields();
+					}
+					for(int i=0; i<selected; i++) {
+						newRecord.setNumFields(numFields1);
+						RecordOperations.concatenate(newRecord,cachedRecords2.get(selection[i]));
+						if(addMark)
+							newRecord.addField(mark);
+						collector.collect(newRecord);
 					}
 				}
 			}
@@ -135,37 +132,17 @@ public abstract class BaseCoGroupJoinOperator extends BaseCoGroupOperator {
 	
 	
 	protected static void coGroupNestedJoin(NestedMetadata inputRecordsSignature1, Iterator<Record> records1, NestedMetadata inputRecordsSignature2, Iterator<Record> records2, 
-			DisjunctivePredicate pred, int from, boolean outer, Record nullRecord, boolean addMark, int aggregationColumn, AggregationType aggregationType,
+			BaseRecordPairPredicate[] previousPreds, boolean outer, Record nullRecord, boolean addMark, int[] aggregationColumns, AggregationType[] aggregationTypes,
 			boolean excludeNestedField, Collector<Record> collector) {
 		if(records1.hasNext()) {
-			BaseAggregationOperation operation = null;
-			if(aggregationColumn != -1) {
-				switch(aggregationType) {
-					case COUNT:
-						operation = new Count();
-						break;
-					case MAX:
-						operation = new Max(inputRecordsSignature2.types[aggregationColumn]);
-						break;
-					case MIN:
-						operation = new Min(inputRecordsSignature2.types[aggregationColumn]);
-						break;
-					case SUM:
-						operation = new Sum(inputRecordsSignature2.types[aggregationColumn]);
-						break;
-					default:
-						logger.error("Aggregation type not supported!");
-						return;
-				}
-			}
+			final MetadataTypes[] aggregationColumnTypes = inputRecordsSignature2.getTypes(aggregationColumns);
+			//With the mark, the records go through the post join, which merges the partial results of the aggregations
+			BaseAggregationOperation[] operations = BaseAggregationOperation.create(aggregationTypes, aggregationColumnTypes);
+			if(operations == null)
+				return;
 			
 			//If there are records in the right
 			if(records2.hasNext()) {
-				//First we extract the predicates that we need to reevaluate
-				ConjunctivePredicate[] conjPreds = new ConjunctivePredicate[from];
-				for(int i=0; i<from; i++)
-					conjPreds[i] = pred.getConjunctivePreds().get(i);
-				
 				//Take the first left record
 				Record record1 = records1.next();
 				
@@ -175,6 +152,9 @@ public abstract class BaseCoGroupJoinOperator extends BaseCoGroupOperator {
 				
 				//Evaluate against all right records
 				RecordList listNestedRecords = new RecordList();
+				
+				//Positions of the cached records kept for each left record, created when needed
+				int[] selection = null;
 					
 				do {
 					Record record2 = records2.next().createCopy();
@@ -182,8 +162,8 @@ public abstract class BaseCoGroupJoinOperator extends BaseCoGroupOperator {
 						
 					//We check if any of the previous predicates evaluate to true
 					boolean evaluation = false;
-					for(int i=0; i<from; i++) {
-						evaluation = RecordPredicateEvaluation.evaluate(inputRecordsSignature1, record1, inputRecordsSignature2, record2, conjPreds[i]);
+					for(int i=0; i<previousPreds.length; i++) {
+						evaluation = previousPreds[i].evaluate(record1, record2);
 						if(evaluation)
 							break;
 					}
@@ -191,8 +171,8 @@ public abstract class BaseCoGroupJoinOperator extends BaseCoGroupOperator {
 					//If any of them does, we do not emit the record. Like this we will not generate
 					//duplicates for the next operation
 					if(!evaluation) {
-						if(aggregationColumn != -1)
-							operation.aggregate(record2.getField(aggregationColumn, StringValue.class));
+						for(int i=0; i<operations.length; i++)
+							operations[i].aggregate(RecordOperations.getField(record2, aggregationColumns[i], aggregationColumnTypes[i]));
 						
 						if(!excludeNestedField)
 							listNestedRecords.add(record2);
@@ -206,58 +186,31 @@ public abstract class BaseCoGroupJoinOperator extends BaseCoGroupOperator {
 						if(addMark)
 							record1.addField(new IntValue(1));
 					}
-					//We add the result of the aggregation (if any)
-					if(aggregationColumn != -1)
-						record1.addField(operation.returnResult());
+					//We add the results of the aggregations (if any)
+					for(BaseAggregationOperation operation: operations)
+						record1.addField(addMark ? operation.returnPartialResult() : operation.returnResult());
 					collector.collect(record1);
 				}
 	
-				//Then, in the next iterations we use the cached records
+				//Then, in the next iterations we use the cached records; without previous predicates,
+				//every left record is nested with the same right records, and gets the same aggregations
 				while (records1.hasNext()) {
 					record1 = records1.next();
 					
-					if(aggregationColumn != -1) {
-						switch(aggregationType) {
-							case COUNT:
-								operation = new Count();
-								break;
-							case MAX:
-								operation = new Max(inputRecordsSignature2.types[aggregationColumn]);
-								break;
-							case MIN:
-								operation = new Min(inputRecordsSignature2.types[aggregationColumn]);
-								break;
-							case SUM:
-								operation = new Sum(inputRecordsSignature2.types[aggregationColumn]);
-								break;
-							default:
-								logger.error("Aggregation type not supported!");
-								return;
-						}
-					}
-					
-					if(from != 0) {
+					if(previousPreds.length != 0) {
+						operations = BaseAggregationOperation.create(aggregationTypes, aggregationColumnTypes);
 						listNestedRecords = new RecordList();
-
-						for(Record record2: cachedRecords2) {
-							//We check if any of the previous predicates evaluate to true
-							boolean evaluation = false;
-							for(int i=0; i<from; i++) {
-								evaluation = RecordPredicateEvaluation.evaluate(inputRecordsSignature1, record1, inputRecordsSignature2, record2, conjPreds[i]);
-								if(evaluation)
-									break;
-							}
+						
+						if(selection == null)
+							selection = new int[cachedRecords2.size()];
+						final int selected = rejectPrevious(previousPreds, record1, cachedRecords2, selection);
+						for(int i=0; i<selected; i++) {
+							Record record2 = cachedRecords2.get(selection[i]);
+							for(int j=0; j<operations.length; j++)
+								operations[j].aggregate(RecordOperations.getField(record2, aggregationColumns[j], aggregationColumnTypes[j]));
 							
-							//If any of them does, we do not emit the record. Like this we will not generate
-							//duplicates for the next operation
-							if(!evaluation) {
-								if(aggregationColumn != -1)
-									operation.aggregate(record2.getField(aggregationColumn, StringValue.class));
-								
-								if(!excludeNestedField)
-									listNestedRecords.add(record2);
-							}
-
+							if(!excludeNestedField)
+								listNestedRecords.add(record2);
 						}
 					}
 					
@@ -267,9 +220,9 @@ public abstract class BaseCoGroupJoinOperator extends BaseCoGroupOperator {
 							if(addMark)
 								record1.addField(new IntValue(1));
 						}
-						//We add the result of the aggregation (if any)
-						if(aggregationColumn != -1)
-							record1.addField(operation.returnResult());
+						//We add the results of the aggregations (if any)
+						for(BaseAggregationOperation operation: operations)
+							record1.addField(addMark ? operation.returnPartialResult() : operation.returnResult());
 						collector.collect(record1);
 					}
 				}
@@ -294,14 +247,34 @@ public abstract class BaseCoGroupJoinOperator extends BaseCoGroupOperator {
 							if(addMark)
 								record1.addField(new IntValue(0));
 						}
-						//We add the result of the aggregation (if any)
-						if(aggregationColumn != -1)
-							record1.addField(operation.returnResult());
+						//We add the results of the aggregations (if any)
+						for(BaseAggregationOperation operation: operations)
+							record1.addField(addMark ? operation.returnPartialResult() : operation.returnResult());
 						collector.collect(record1);
 					} while(records1.hasNext());
 				}
 			}
 		}
 	}
-
+	
+	/**
+	 * Finds the right records that do not satisfy any of the previous predicates together with
+	 * the left record. The pairs that satisfy one of them are produced by the joins on those
+	 * predicates, so they are not emitted again.
+	 * 
+	 * @param previousPreds
+	 * @param record1
+	 * @param records2
+	 * @param selection filled with the positions of the records kept in records2
+	 * @return the number of records kept
+	 */
+	private static int rejectPrevious(BaseRecordPairPredicate[] previousPreds, Record record1, List<Record> records2, int[] selection) {
+		int selected = records2.size();
+		for(int i=0; i<selected; i++)
+			selection[i] = i;
+		for(int i=0; i<previousPreds.length && selected != 0; i++)
+			selected = previousPreds[i].reject(record1, records2, selection, selected);
+		return selected;
+	}
+	
 }
@@ -19,19 +19,14 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.flink.types.IntValue;
 import org.apache.flink.types.Record;
-import org.apache.flink.types.StringValue;
 
 import fr.inria.oak.paxquery.common.aggregation.AggregationType;
+import fr.inria.oak.paxquery.common.datamodel.metadata.MetadataTypes;
 import fr.inria.oak.paxquery.common.datamodel.metadata.NestedMetadata;
-import fr.inria.oak.paxquery.common.predicates.BasePredicate;
 import fr.inria.oak.paxquery.pact.datamodel.type.RecordList;
 import fr.inria.oak.paxquery.pact.operations.RecordOperations;
-import fr.inria.oak.paxquery.pact.operations.RecordPredicateEvaluation;
 import fr.inria.oak.paxquery.pact.operations.aggregation.BaseAggregationOperation;
-import fr.inria.oak.paxquery.pact.operations.aggregation.Count;
-import fr.inria.oak.paxquery.pact.operations.aggregation.Max;
-import fr.inria.oak.paxquery.pact.operations.aggregation.Min;
-import fr.inria.oak.paxquery.pact.operations.aggregation.Sum;
+import fr.inria.oak.paxquery.pact.operations.predicates.BaseRecordPairPredicate;
 import fr.inria.oak.paxquery.pact.operators.BaseCrossOperator;
 
 /**
@@ -43,31 +38,15 @@ public abstract class BaseCrossJoinOperator extends BaseCrossOperator {
 	private static final Log logger = LogFactory.getLog(BaseCrossJoinOperator.class);
 	
 	
-	protected static Record crossJoin(NestedMetadata inputRecordSignature1, Record record1, NestedMetadata inputRecordSignature2, Record record2, BasePredicate pred, 
-			boolean outer, Record nullRecord, boolean nested, boolean addMark, int aggregationColumn, AggregationType aggregationType, boolean excludeNestedField) {
-		BaseAggregationOperation operation = null;
-		if(aggregationColumn != -1) {
-			switch(aggregationType) {
-				case COUNT:
-					operation = new Count();
-					break;
-				case MAX:
-					operation = new Max(inputRecordSignature2.types[aggregationColumn]);
-					break;
-				case MIN:
-					operation = new Min(inputRecordSignature2.types[aggregationColumn]);
-					break;
-				case SUM:
-					operation = new Sum(inputRecordSignature2.types[aggregationColumn]);
-					break;
-				default:
-					logger.error("Aggregation type not supported!");
-					return null;
-			}
-		}
+	protected static Record crossJoin(NestedMetadata inputRecordSignature1, Record record1, NestedMetadata inputRecordSignature2, Record record2, BaseRecordPairPredicate pred, 
+			boolean outer, Record nullRecord, boolean nested, boolean addMark, int[] aggregationColumns, AggregationType[] aggregationTypes, boolean excludeNestedField) {
+		final MetadataTypes[] aggregationColumnTypes = inputRecordSignature2.getTypes(aggregationColumns);
+		final BaseAggregationOperation[] operations = BaseAggregationOperation.create(aggregationTypes, aggregationColumnTypes);
+		if(operations == null)
+			return null;
 		
 		// Evaluate predicate on the pair of records
-		final boolean evaluation = RecordPredicateEvaluation.evaluate(inputRecordSignature1, record1, inputRecordSignature2, record2, pred);
+		final boolean evaluation = pred.evaluate(record1, record2);
 			
 		if(evaluation) {
 			if(nested) {
@@ -78,10 +57,10 @@ public abstract class BaseCrossJoinOperator extends BaseCrossOperator {
 					if(addMark)
 						record1.addField(new IntValue(1));
 				}
-				//We add the value of the aggregation column (if any)
-				if(aggregationColumn != -1) {
-					operation.aggregate(record2.getField(aggregationColumn, StringValue.class));
-					record1.addField(operation.returnResult());
+				//We add the values of the aggregation columns (if any), merged by the post join
+				for(int i=0; i<operations.length; i++) {
+					operations[i].aggregate(RecordOperations.getField(record2, aggregationColumns[i], aggregationColumnTypes[i]));
+					record1.addField(operations[i].returnPartialResult());
 				}
 			}
 			else {
@@ -105,10 +84,10 @@ public abstract class BaseCrossJoinOperator extends BaseCrossOperator {
 						if(addMark)
 							record1.addField(new IntValue(0));
 					}
-					//We add the value of the aggregation column (if any)
-					if(aggregationColumn != -1) {
+					//We add the values of the aggregation columns (if any)
+					for(BaseAggregationOperation operation: operations) {
 						operation.aggregate(RecordOperations.createNullField());
-						record1.addField(operation.returnResult());
+						record1.addField(operation.returnPartialResult());
 					}
 				}
 				else {
@@ -23,6 +23,7 @@ import org.apache.flink.util.Collector;
 
 import fr.inria.oak.paxquery.common.datamodel.metadata.NestedMetadata;
 import fr.inria.oak.paxquery.pact.operations.RecordOperations;
+import fr.inria.oak.paxquery.pact.operations.aggregation.BaseAggregationOperation;
 
 
 /**
@@ -61,7 +62,8 @@ public class ConjLNOEquiJoinOperator extends BaseCoGroupJoinOperator {
 	public static void conjLNOEquiJoin(NestedMetadata inputRecordsSignature1, Iterator<Record> records1, NestedMetadata inputRecordsSignature2, Iterator<Record> records2, 
 			Record nullRecord, Collector<Record> collector) {
 		coGroupNestedJoin(inputRecordsSignature1, records1, inputRecordsSignature2, records2, 
-				null, 0, true, nullRecord, false, -1, null, false, collector);
+				NO_PREVIOUS_PREDICATES, true, nullRecord, false, BaseAggregationOperation.NO_AGGREGATION_COLUMNS,
+				BaseAggregationOperation.NO_AGGREGATION_TYPES, false, collector);
 	}
 
 }
@@ -30,15 +30,15 @@ import fr.inria.oak.paxquery.pact.configuration.PACTOperatorsConfiguration;
 
 
 /**
- * Conjunctive left nested outer equi-join operator in PACT, plus aggregation on a field
+ * Conjunctive left nested outer equi-join operator in PACT, plus aggregations on fields
  * of the nested record. The operator may project the right nested field.
  * 
  */
 public class ConjLNOEquiJoinWithAggregationOperator extends ConjLNOEquiJoinOperator {
 
-	private int aggregationColumn;
+	private int[] aggregationColumns;
 
-	private AggregationType aggregationType;
+	private AggregationType[] aggregationTypes;
 	
 	private boolean excludeNestedField;
 
@@ -47,12 +47,14 @@ public class ConjLNOEquiJoinWithAggregationOperator extends ConjLNOEquiJoinOpera
 	public void open(Configuration parameters) throws Exception {
 		super.open(parameters);
 		
-		this.aggregationColumn = parameters.getInteger(PACTOperatorsConfiguration.AGGREGATION_COLUMN_INT.toString(), -1);
+		String aggregationColumnsEncoded = parameters.getString(PACTOperatorsConfiguration.AGGREGATION_COLUMNS_BINARY.toString(), null);
+		byte[] aggregationColumnsBytes = DatatypeConverter.parseBase64Binary(aggregationColumnsEncoded);
+		this.aggregationColumns = (int[]) SerializationUtils.deserialize(aggregationColumnsBytes);
 
-		String aggregationTypeEncoded = parameters.getString(PACTOperatorsConfiguration.AGGREGATION_TYPE_BINARY.toString(), null);
-		byte[] aggregationTypeBytes = DatatypeConverter.parseBase64Binary(aggregationTypeEncoded);
-		final AggregationType aggregationType = (AggregationType) SerializationUtils.deserialize(aggregationTypeBytes);
-		this.aggregationType = aggregationType;	
+		String aggregationTypesEncoded = parameters.getString(PACTOperatorsConfiguration.AGGREGATION_TYPES_BINARY.toString(), null);
+		byte[] aggregationTypesBytes = DatatypeConverter.parseBase64Binary(aggregationTypesEncoded);
+		final AggregationType[] aggregationTypes = (AggregationType[]) SerializationUtils.deserialize(aggregationTypesBytes);
+		this.aggregationTypes = aggregationTypes;
 		
 		this.excludeNestedField = parameters.getBoolean(PACTOperatorsConfiguration.EXCLUDE_NESTED_FIELD_BOOLEAN.toString(), false);
 	}
@@ -60,7 +62,7 @@ public class ConjLNOEquiJoinWithAggregationOperator extends ConjLNOEquiJoinOpera
 	@Override
 	public void coGroup(Iterator<Record> records1, Iterator<Record> records2, Collector<Record> collector) {
 		conjLNOEquiJoinWithAggregation(this.inputRecordsSignature1, records1, this.inputRecordsSignature2, records2,
-				this.nullRecord, this.aggregationColumn, this.aggregationType, this.excludeNestedField, collector);
+				this.nullRecord, this.aggregationColumns, this.aggregationTypes, this.excludeNestedField, collector);
 	}
 	
 	/**
@@ -70,14 +72,14 @@ public class ConjLNOEquiJoinWithAggregationOperator extends ConjLNOEquiJoinOpera
 	 * @param inputRecordsSignature2
 	 * @param records2
 	 * @param outer
-	 * @param aggregationColumn
-	 * @param aggregationType
+	 * @param aggregationColumns
+	 * @param aggregationTypes
 	 * @param collector
 	 */
 	public static void conjLNOEquiJoinWithAggregation(NestedMetadata inputRecordsSignature1, Iterator<Record> records1, NestedMetadata inputRecordsSignature2, Iterator<Record> records2, 
-			Record nullRecord, int aggregationColumn, AggregationType aggregationType, boolean excludeNestedField, Collector<Record> collector) {
+			Record nullRecord, int[] aggregationColumns, AggregationType[] aggregationTypes, boolean excludeNestedField, Collector<Record> collector) {
 		coGroupNestedJoin(inputRecordsSignature1, records1, inputRecordsSignature2, records2, 
-				null, 0, true, nullRecord, false, aggregationColumn, aggregationType, excludeNestedField, collector);
+				NO_PREVIOUS_PREDICATES, true, nullRecord, false, aggregationColumns, aggregationTypes, excludeNestedField, collector);
 	}
 
 }
@@ -61,7 +61,7 @@ public class ConjLOEquiJoinOperator extends BaseCoGroupJoinOperator {
 	public static void conjLOEquiJoin(NestedMetadata inputRecordsSignature1, Iterator<Record> records1, NestedMetadata inputRecordsSignature2, Iterator<Record> records2, 
 			Record nullRecord, Collector<Record> collector) {
 		coGroupJoin(inputRecordsSignature1, records1, inputRecordsSignature2, records2, 
-				null, 0, true, nullRecord, false, collector);
+				NO_PREVIOUS_PREDICATES, true, nullRecord, false, collector);
 	}
 
 }
@@ -23,12 +23,12 @@ import org.apache.flink.types.Record;
 import org.apache.flink.util.Collector;
 
 import fr.inria.oak.paxquery.common.datamodel.metadata.NestedMetadata;
-import fr.inria.oak.paxquery.common.predicates.ConjunctivePredicate;
 import fr.inria.oak.paxquery.common.predicates.DisjunctivePredicate;
 import fr.inria.oak.paxquery.pact.configuration.PACTOperatorsConfiguration;
 import fr.inria.oak.paxquery.pact.datamodel.type.RecordList;
 import fr.inria.oak.paxquery.pact.operations.RecordOperations;
-import fr.inria.oak.paxquery.pact.operations.RecordPredicateEvaluation;
+import fr.inria.oak.paxquery.pact.operations.predicates.BaseRecordPairPredicate;
+import fr.inria.oak.paxquery.pact.operations.predicates.RecordPredicateCompiler;
 import fr.inria.oak.paxquery.pact.operators.BaseMatchOperator;
 
 /**
@@ -37,9 +37,7 @@ import fr.inria.oak.paxquery.pact.operators.BaseMatchOperator;
  */
 public class DisjEquiJoinOperator extends BaseMatchOperator {
 
-	private DisjunctivePredicate pred;
-	
-	private int predNumber;
+	private BaseRecordPairPredicate[] previousPreds;
 	
 	
 	@Override
@@ -48,15 +46,16 @@ public class DisjEquiJoinOperator extends BaseMatchOperator {
 
 		String predEncoded = parameters.getString(PACTOperatorsConfiguration.PRED_BINARY.toString(), null);
 		byte[] predBytes = DatatypeConverter.parseBase64Binary(predEncoded);
-		this.pred = (DisjunctivePredicate) SerializationUtils.deserialize(predBytes);
+		final DisjunctivePredicate pred = (DisjunctivePredicate) SerializationUtils.deserialize(predBytes);
 		
-		this.predNumber = parameters.getInteger(PACTOperatorsConfiguration.PRED_INT.toString(), -1);
+		final int predNumber = parameters.getInteger(PACTOperatorsConfiguration.PRED_INT.toString(), -1);
+		this.previousPreds = RecordPredicateCompiler.compilePrevious(this.inputRecordsSignature1, this.inputRecordsSignature2, pred, predNumber);
 	}
 	
 	@Override
 	public void join(Record record1, Record record2, Collector<Record> collector) {
 		disjEquiJoin(this.inputRecordsSignature1, record1, this.inputRecordsSignature2, record2, 
-				this.pred, this.predNumber, false, collector);	
+				this.previousPreds, false, collector);	
 	}
 
 	/**
@@ -66,20 +65,15 @@ public class DisjEquiJoinOperator extends BaseMatchOperator {
 	 * @param record1
 	 * @param inputRecordSignature2
 	 * @param record2
-	 * @param pred
+	 * @param previousPreds
 	 * @param collector
 	 */
 	public static void disjEquiJoin(NestedMetadata inputRecordSignature1, Record record1, NestedMetadata inputRecordSignature2, Record record2,
-			DisjunctivePredicate pred, int from, boolean nested, Collector<Record> collector) {
-		//First we extract the predicates that we need to reevaluate
-		ConjunctivePredicate[] conjPreds = new ConjunctivePredicate[from];
-		for(int i=0; i<from; i++)
-			conjPreds[i] = pred.getConjunctivePreds().get(i);
-		
+			BaseRecordPairPredicate[] previousPreds, boolean nested, Collector<Record> collector) {
 		//We check if any of the previous predicates evaluate to true
 		boolean evaluation = false;
-		for(int i=0; i<from; i++) {
-			evaluation = RecordPredicateEvaluation.evaluate(inputRecordSignature1, record1, inputRecordSignature2, record2, conjPreds[i]);
+		for(int i=0; i<previousPreds.length; i++) {
+			evaluation = previousPreds[i].evaluate(record1, record2);
 			if(evaluation)
 				break;
 		}
@@ -28,6 +28,9 @@ import fr.inria.oak.paxquery.common.datamodel.metadata.NestedMetadata;
 import fr.inria.oak.paxquery.common.predicates.DisjunctivePredicate;
 import fr.inria.oak.paxquery.pact.configuration.PACTOperatorsConfiguration;
 import fr.inria.oak.paxquery.pact.operations.RecordOperations;
+import fr.inria.oak.paxquery.pact.operations.aggregation.BaseAggregationOperation;
+import fr.inria.oak.paxquery.pact.operations.predicates.BaseRecordPairPredicate;
+import fr.inria.oak.paxquery.pact.operations.predicates.RecordPredicateCompiler;
 
 /**
  * Disjunctive left nested outer equi-join operator in PACT.
@@ -37,9 +40,7 @@ public class DisjLNOEquiJoinOperator extends BaseCoGroupJoinOperator {
 	
 	protected Record nullRecord;
 
-	protected DisjunctivePredicate pred;
-	
-	protected int predNumber;
+	protected BaseRecordPairPredicate[] previousPreds;
 	
 
 	@Override
@@ -50,15 +51,16 @@ public class DisjLNOEquiJoinOperator extends BaseCoGroupJoinOperator {
 
 		String predEncoded = parameters.getString(PACTOperatorsConfiguration.PRED_BINARY.toString(), null);
 		byte[] predBytes = DatatypeConverter.parseBase64Binary(predEncoded);
-		this.pred = (DisjunctivePredicate) SerializationUtils.deserialize(predBytes);
+		final DisjunctivePredicate pred = (DisjunctivePredicate) SerializationUtils.deserialize(predBytes);
 		
-		this.predNumber = parameters.getInteger(PACTOperatorsConfiguration.PRED_INT.toString(), -1);
+		final int predNumber = parameters.getInteger(PACTOperatorsConfiguration.PRED_INT.toString(), -1);
+		this.previousPreds = RecordPredicateCompiler.compilePrevious(this.inputRecordsSignature1, this.inputRecordsSignature2, pred, predNumber);
 	}
 	
 	@Override
 	public void coGroup(Iterator<Record> records1, Iterator<Record> records2, Collector<Record> collector) {
 		disjLNOEquiJoin(this.inputRecordsSignature1, records1, this.inputRecordsSignature2, records2, 
-				this.pred, this.predNumber, this.nullRecord, collector);
+				this.previousPreds, this.nullRecord, collector);
 	}
 	
 	/**
@@ -67,8 +69,7 @@ public class DisjLNOEquiJoinOperator extends BaseCoGroupJoinOperator {
 	 * @param records1
 	 * @param inputRecordsSignature2
 	 * @param records2
-	 * @param pred
-	 * @param from
+	 * @param previousPreds
 	 * @param outer
 	 * @param addMark
 	 * @param aggregationColumn
@@ -76,9 +77,10 @@ public class DisjLNOEquiJoinOperator extends BaseCoGroupJoinOperator {
 	 * @param collector
 	 */
 	public static void disjLNOEquiJoin(NestedMetadata inputRecordsSignature1, Iterator<Record> records1, NestedMetadata inputRecordsSignature2, Iterator<Record> records2, 
-			DisjunctivePredicate pred, int from, Record nullRecord, Collector<Record> collector) {
+			BaseRecordPairPredicate[] previousPreds, Record nullRecord, Collector<Record> collector) {
 		coGroupNestedJoin(inputRecordsSignature1, records1, inputRecordsSignature2, records2, 
-				pred, from, true, nullRecord, true, -1, null, false, collector);
+				previousPreds, true, nullRecord, true, BaseAggregationOperation.NO_AGGREGATION_COLUMNS,
+				BaseAggregationOperation.NO_AGGREGATION_TYPES, false, collector);
 	}
 
 }
@@ -26,20 +26,20 @@ import org.apache.flink.util.Collector;
 
 import fr.inria.oak.paxquery.common.aggregation.AggregationType;
 import fr.inria.oak.paxquery.common.datamodel.metadata.NestedMetadata;
-import fr.inria.oak.paxquery.common.predicates.DisjunctivePredicate;
 import fr.inria.oak.paxquery.pact.configuration.PACTOperatorsConfiguration;
+import fr.inria.oak.paxquery.pact.operations.predicates.BaseRecordPairPredicate;
 
 
 /**
- * Disjunctive left nested outer equi-join operator in PACT, plus aggregation on a field
+ * Disjunctive left nested outer equi-join operator in PACT, plus aggregations on fields
  * of the nested record. The operator may project the right nested field.
  * 
  */
 public class DisjLNOEquiJoinWithAggregationOperator extends DisjLNOEquiJoinOperator {
 	
-	private int aggregationColumn;
+	private int[] aggregationColumns;
 
-	private AggregationType aggregationType;
+	private AggregationType[] aggregationTypes;
 	
 	private boolean excludeNestedField;
 
@@ -48,12 +48,14 @@ public class DisjLNOEquiJoinWithAggregationOperator extends DisjLNOEquiJoinOpera
 	public void open(Configuration parameters) throws Exception {
 		super.open(parameters);
 						
-		this.aggregationColumn = parameters.getInteger(PACTOperatorsConfiguration.AGGREGATION_COLUMN_INT.toString(), -1);
+		String aggregationColumnsEncoded = parameters.getString(PACTOperatorsConfiguration.AGGREGATION_COLUMNS_BINARY.toString(), null);
+		byte[] aggregationColumnsBytes = DatatypeConverter.parseBase64Binary(aggregationColumnsEncoded);
+		this.aggregationColumns = (int[]) SerializationUtils.deserialize(aggregationColumnsBytes);
 
-		String aggregationTypeEncoded = parameters.getString(PACTOperatorsConfiguration.AGGREGATION_TYPE_BINARY.toString(), null);
-		byte[] aggregationTypeBytes = DatatypeConverter.parseBase64Binary(aggregationTypeEncoded);
-		final AggregationType aggregationType = (AggregationType) SerializationUtils.deserialize(aggregationTypeBytes);
-		this.aggregationType = aggregationType;
+		String aggregationTypesEncoded = parameters.getString(PACTOperatorsConfiguration.AGGREGATION_TYPES_BINARY.toString(), null);
+		byte[] aggregationTypesBytes = DatatypeConverter.parseBase64Binary(aggregationTypesEncoded);
+		final AggregationType[] aggregationTypes = (AggregationType[]) SerializationUtils.deserialize(aggregationTypesBytes);
+		this.aggregationTypes = aggregationTypes;
 		
 		this.excludeNestedField = parameters.getBoolean(PACTOperatorsConfiguration.EXCLUDE_NESTED_FIELD_BOOLEAN.toString(), false);
 	}
@@ -61,7 +63,7 @@ public class DisjLNOEquiJoinWithAggregationOperator extends DisjLNOEquiJoinOpera
 	@Override
 	public void coGroup(Iterator<Record> records1, Iterator<Record> records2, Collector<Record> collector) {
 		disjLNOEquiJoinWithAggregation(this.inputRecordsSignature1, records1, this.inputRecordsSignature2, records2, 
-				this.pred, this.predNumber, this.nullRecord, this.aggregationColumn, this.aggregationType, this.excludeNestedField, collector);
+				this.previousPreds, this.nullRecord, this.aggregationColumns, this.aggregationTypes, this.excludeNestedField, collector);
 	}
 	
 	/**
@@ -70,18 +72,17 @@ public class DisjLNOEquiJoinWithAggregationOperator extends DisjLNOEquiJoinOpera
 	 * @param records1
 	 * @param inputRecordsSignature2
 	 * @param records2
-	 * @param pred
-	 * @param from
+	 * @param previousPreds
 	 * @param outer
 	 * @param addMark
-	 * @param aggregationColumn
-	 * @param aggregationType
+	 * @param aggregationColumns
+	 * @param aggregationTypes
 	 * @param collector
 	 */
 	public static void disjLNOEquiJoinWithAggregation(NestedMetadata inputRecordsSignature1, Iterator<Record> records1, NestedMetadata inputRecordsSignature2, Iterator<Record> records2, 
-			DisjunctivePredicate pred, int from, Record nullRecord, int aggregationColumn, AggregationType aggregationType, boolean excludeNestedField, Collector<Record> collector) {
+			BaseRecordPairPredicate[] previousPreds, Record nullRecord, int[] aggregationColumns, AggregationType[] aggregationTypes, boolean excludeNestedField, Collector<Record> collector) {
 		coGroupNestedJoin(inputRecordsSignature1, records1, inputRecordsSignature2, records2, 
-				pred, from, true, nullRecord, true, aggregationColumn, aggregationType, excludeNestedField, collector);
+				previousPreds, true, nullRecord, true, aggregationColumns, aggregationTypes, excludeNestedField, collector);
 	}
 
 }
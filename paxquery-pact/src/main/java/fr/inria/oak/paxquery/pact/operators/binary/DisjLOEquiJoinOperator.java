@@ -28,6 +28,8 @@ import fr.inria.oak.paxquery.common.datamodel.metadata.NestedMetadata;
 import fr.inria.oak.paxquery.common.predicates.DisjunctivePredicate;
 import fr.inria.oak.paxquery.pact.configuration.PACTOperatorsConfiguration;
 import fr.inria.oak.paxquery.pact.operations.RecordOperations;
+import fr.inria.oak.paxquery.pact.operations.predicates.BaseRecordPairPredicate;
+import fr.inria.oak.paxquery.pact.operations.predicates.RecordPredicateCompiler;
 
 /**
  * Disjunctive left outer equi-join operator in PACT.
@@ -37,9 +39,7 @@ public class DisjLOEquiJoinOperator extends BaseCoGroupJoinOperator {
 	
 	protected Record nullRecord;
 
-	private DisjunctivePredicate pred;
-	
-	private int predNumber;
+	private BaseRecordPairPredicate[] previousPreds;
 	
 
 	@Override
@@ -50,15 +50,16 @@ public class DisjLOEquiJoinOperator extends BaseCoGroupJoinOperator {
 						
 		String predEncoded = parameters.getString(PACTOperatorsConfiguration.PRED_BINARY.toString(), null);
 		byte[] predBytes = DatatypeConverter.parseBase64Binary(predEncoded);
-		this.pred = (DisjunctivePredicate) SerializationUtils.deserialize(predBytes);
+		final DisjunctivePredicate pred = (DisjunctivePredicate) SerializationUtils.deserialize(predBytes);
 		
-		this.predNumber = parameters.getInteger(PACTOperatorsConfiguration.PRED_INT.toString(), -1);
+		final int predNumber = parameters.getInteger(PACTOperatorsConfiguration.PRED_INT.toString(), -1);
+		this.previousPreds = RecordPredicateCompiler.compilePrevious(this.inputRecordsSignature1, this.inputRecordsSignature2, pred, predNumber);
 	}
 	
 	@Override
 	public void coGroup(Iterator<Record> records1, Iterator<Record> records2, Collector<Record> collector) {
 		disjLOEquiJoin(this.inputRecordsSignature1, records1, this.inputRecordsSignature2, records2, 
-				this.nullRecord, this.pred, this.predNumber, collector);			
+				this.nullRecord, this.previousPreds, collector);			
 	}
 	
 	/**
@@ -67,16 +68,15 @@ public class DisjLOEquiJoinOperator extends BaseCoGroupJoinOperator {
 	 * @param records1
 	 * @param inputRecordsSignature2
 	 * @param records2
-	 * @param pred
-	 * @param from
+	 * @param previousPreds
 	 * @param outer
 	 * @param addMark
 	 * @param collector
 	 */
 	public static void disjLOEquiJoin(NestedMetadata inputRecordsSignature1, Iterator<Record> records1, NestedMetadata inputRecordsSignature2, Iterator<Record> records2, 
-			Record nullRecord, DisjunctivePredicate pred, int from, Collector<Record> collector) {
+			Record nullRecord, BaseRecordPairPredicate[] previousPreds, Collector<Record> collector) {
 		coGroupJoin(inputRecordsSignature1, records1, inputRecordsSignature2, records2, 
-				pred, from, true, nullRecord, true, collector);
+				previousPreds, true, nullRecord, true, collector);
 	}
 
 }
@@ -24,6 +24,9 @@ import org.apache.flink.types.Record;
 import fr.inria.oak.paxquery.common.datamodel.metadata.NestedMetadata;
 import fr.inria.oak.paxquery.common.predicates.BasePredicate;
 import fr.inria.oak.paxquery.pact.configuration.PACTOperatorsConfiguration;
+import fr.inria.oak.paxquery.pact.operations.aggregation.BaseAggregationOperation;
+import fr.inria.oak.paxquery.pact.operations.predicates.BaseRecordPairPredicate;
+import fr.inria.oak.paxquery.pact.operations.predicates.RecordPredicateCompiler;
 
 /**
  * Theta-join operator in PACT.
@@ -31,7 +34,7 @@ import fr.inria.oak.paxquery.pact.configuration.PACTOperatorsConfiguration;
  */
 public class ThetaJoinOperator extends BaseCrossJoinOperator {
 	
-	private BasePredicate pred;
+	private BaseRecordPairPredicate pred;
 
 
 	@Override
@@ -40,7 +43,8 @@ public class ThetaJoinOperator extends BaseCrossJoinOperator {
 		
 		String predEncoded = parameters.getString(PACTOperatorsConfiguration.PRED_BINARY.toString(), null);
 		byte[] predBytes = DatatypeConverter.parseBase64Binary(predEncoded);
-		this.pred = (BasePredicate) SerializationUtils.deserialize(predBytes);
+		final BasePredicate pred = (BasePredicate) SerializationUtils.deserialize(predBytes);
+		this.pred = RecordPredicateCompiler.compile(this.inputRecordsSignature1, this.inputRecordsSignature2, pred);
 	}
 
 	@Override
@@ -61,9 +65,9 @@ public class ThetaJoinOperator extends BaseCrossJoinOperator {
 	 * @param nested
 	 * @param addMark
 	 */
-	public static Record thetaJoin(NestedMetadata inputRecordSignature1, Record record1, NestedMetadata inputRecordSignature2, Record record2, BasePredicate pred) {
+	public static Record thetaJoin(NestedMetadata inputRecordSignature1, Record record1, NestedMetadata inputRecordSignature2, Record record2, BaseRecordPairPredicate pred) {
 		return crossJoin(inputRecordSignature1, record1, inputRecordSignature2, record2, pred, 
-			false, null, false, false, -1, null, false);
+			false, null, false, false, BaseAggregationOperation.NO_AGGREGATION_COLUMNS, BaseAggregationOperation.NO_AGGREGATION_TYPES, false);
 	}
 
 }
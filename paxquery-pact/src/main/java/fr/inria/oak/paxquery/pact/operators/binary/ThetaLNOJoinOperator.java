@@ -25,6 +25,9 @@ import fr.inria.oak.paxquery.common.datamodel.metadata.NestedMetadata;
 import fr.inria.oak.paxquery.common.predicates.BasePredicate;
 import fr.inria.oak.paxquery.pact.configuration.PACTOperatorsConfiguration;
 import fr.inria.oak.paxquery.pact.operations.RecordOperations;
+import fr.inria.oak.paxquery.pact.operations.aggregation.BaseAggregationOperation;
+import fr.inria.oak.paxquery.pact.operations.predicates.BaseRecordPairPredicate;
+import fr.inria.oak.paxquery.pact.operations.predicates.RecordPredicateCompiler;
 
 /**
  * Left nested outer theta-join operator in PACT.
@@ -34,7 +37,7 @@ public class ThetaLNOJoinOperator extends BaseCrossJoinOperator {
 	
 	protected Record nullRecord;
 
-	protected BasePredicate pred;
+	protected BaseRecordPairPredicate pred;
 
 
 	@Override
@@ -45,7 +48,8 @@ public class ThetaLNOJoinOperator extends BaseCrossJoinOperator {
 			
 		String predEncoded = parameters.getString(PACTOperatorsConfiguration.PRED_BINARY.toString(), null);
 		byte[] predBytes = DatatypeConverter.parseBase64Binary(predEncoded);
-		this.pred = (BasePredicate) SerializationUtils.deserialize(predBytes);
+		final BasePredicate pred = (BasePredicate) SerializationUtils.deserialize(predBytes);
+		this.pred = RecordPredicateCompiler.compile(this.inputRecordsSignature1, this.inputRecordsSignature2, pred);
 	}
 
 	@Override
@@ -66,10 +70,10 @@ public class ThetaLNOJoinOperator extends BaseCrossJoinOperator {
 	 * @param nested
 	 * @param addMark
 	 */
-	public static Record thetaLNOJoin(NestedMetadata inputRecordSignature1, Record record1, NestedMetadata inputRecordSignature2, Record record2, BasePredicate pred, 
+	public static Record thetaLNOJoin(NestedMetadata inputRecordSignature1, Record record1, NestedMetadata inputRecordSignature2, Record record2, BaseRecordPairPredicate pred, 
 			Record nullRecord) {
 		return crossJoin(inputRecordSignature1, record1, inputRecordSignature2, record2, pred, 
-				true, nullRecord, true, true, -1, null, false);
+				true, nullRecord, true, true, BaseAggregationOperation.NO_AGGREGATION_COLUMNS, BaseAggregationOperation.NO_AGGREGATION_TYPES, false);
 	}
 	
 }
@@ -23,20 +23,20 @@ import org.apache.flink.types.Record;
 
 import fr.inria.oak.paxquery.common.aggregation.AggregationType;
 import fr.inria.oak.paxquery.common.datamodel.metadata.NestedMetadata;
-import fr.inria.oak.paxquery.common.predicates.BasePredicate;
 import fr.inria.oak.paxquery.pact.configuration.PACTOperatorsConfiguration;
+import fr.inria.oak.paxquery.pact.operations.predicates.BaseRecordPairPredicate;
 
 
 /**
- * Left nested outer theta-join operator in PACT, plus aggregation on a field
+ * Left nested outer theta-join operator in PACT, plus aggregations on fields
  * of the nested record. The operator may project the right nested field.
  * 
  */
 public class ThetaLNOJoinWithAggregationOperator extends ThetaLNOJoinOperator {
 	
-	private int aggregationColumn;
+	private int[] aggregationColumns;
 
-	private AggregationType aggregationType;
+	private AggregationType[] aggregationTypes;
 	
 	private boolean excludeNestedField;
 	
@@ -45,12 +45,14 @@ public class ThetaLNOJoinWithAggregationOperator extends ThetaLNOJoinOperator {
 	public void open(Configuration parameters) throws Exception {
 		super.open(parameters);
 			
-		this.aggregationColumn = parameters.getInteger(PACTOperatorsConfiguration.AGGREGATION_COLUMN_INT.toString(), -1);
+		String aggregationColumnsEncoded = parameters.getString(PACTOperatorsConfiguration.AGGREGATION_COLUMNS_BINARY.toString(), null);
+		byte[] aggregationColumnsBytes = DatatypeConverter.parseBase64Binary(aggregationColumnsEncoded);
+		this.aggregationColumns = (int[]) SerializationUtils.deserialize(aggregationColumnsBytes);
 
-		String aggregationTypeEncoded = parameters.getString(PACTOperatorsConfiguration.AGGREGATION_TYPE_BINARY.toString(), null);
-		byte[] aggregationTypeBytes = DatatypeConverter.parseBase64Binary(aggregationTypeEncoded);
-		final AggregationType aggregationType = (AggregationType) SerializationUtils.deserialize(aggregationTypeBytes);
-		this.aggregationType = aggregationType;
+		String aggregationTypesEncoded = parameters.getString(PACTOperatorsConfiguration.AGGREGATION_TYPES_BINARY.toString(), null);
+		byte[] aggregationTypesBytes = DatatypeConverter.parseBase64Binary(aggregationTypesEncoded);
+		final AggregationType[] aggregationTypes = (AggregationType[]) SerializationUtils.deserialize(aggregationTypesBytes);
+		this.aggregationTypes = aggregationTypes;
 		
 		this.excludeNestedField = parameters.getBoolean(PACTOperatorsConfiguration.EXCLUDE_NESTED_FIELD_BOOLEAN.toString(), false);
 	}
@@ -58,7 +60,7 @@ public class ThetaLNOJoinWithAggregationOperator extends ThetaLNOJoinOperator {
 	@Override
 	public Record cross(Record record1, Record record2) {
 		return thetaLNOJoinWithAggregation(this.inputRecordsSignature1, record1, this.inputRecordsSignature2, record2,
-				this.pred, this.nullRecord, this.aggregationColumn, this.aggregationType, this.excludeNestedField);
+				this.pred, this.nullRecord, this.aggregationColumns, this.aggregationTypes, this.excludeNestedField);
 	}
 	
 	/**
@@ -68,14 +70,14 @@ public class ThetaLNOJoinWithAggregationOperator extends ThetaLNOJoinOperator {
 	 * @param inputRecordSignature2
 	 * @param record2
 	 * @param pred
-	 * @param aggregationColumn
-	 * @param aggregationType
+	 * @param aggregationColumns
+	 * @param aggregationTypes
 	 * @param collector
 	 */
-	public static Record thetaLNOJoinWithAggregation(NestedMetadata inputRecordSignature1, Record record1, NestedMetadata inputRecordSignature2, Record record2, BasePredicate pred, 
-			Record nullRecord, int aggregationColumn, AggregationType aggregationType, boolean excludeNestedField) {
+	public static Record thetaLNOJoinWithAggregation(NestedMetadata inputRecordSignature1, Record record1, NestedMetadata inputRecordSignature2, Record record2, BaseRecordPairPredicate pred, 
+			Record nullRecord, int[] aggregationColumns, AggregationType[] aggregationTypes, boolean excludeNestedField) {
 		return crossJoin(inputRecordSignature1, record1, inputRecordSignature2, record2, pred, 
-				true, nullRecord, true, true, aggregationColumn, aggregationType, excludeNestedField);
+				true, nullRecord, true, true, aggregationColumns, aggregationTypes, excludeNestedField);
 	}
 
 }
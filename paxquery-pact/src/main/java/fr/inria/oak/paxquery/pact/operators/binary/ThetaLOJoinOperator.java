@@ -25,6 +25,9 @@ import fr.inria.oak.paxquery.common.datamodel.metadata.NestedMetadata;
 import fr.inria.oak.paxquery.common.predicates.BasePredicate;
 import fr.inria.oak.paxquery.pact.configuration.PACTOperatorsConfiguration;
 import fr.inria.oak.paxquery.pact.operations.RecordOperations;
+import fr.inria.oak.paxquery.pact.operations.aggregation.BaseAggregationOperation;
+import fr.inria.oak.paxquery.pact.operations.predicates.BaseRecordPairPredicate;
+import fr.inria.oak.paxquery.pact.operations.predicates.RecordPredicateCompiler;
 
 /**
  * Left outer theta-join operator in PACT.
@@ -34,7 +37,7 @@ public class ThetaLOJoinOperator extends BaseCrossJoinOperator {
 	
 	protected Record nullRecord;
 
-	private BasePredicate pred;
+	private BaseRecordPairPredicate pred;
 
 
 	@Override
@@ -45,7 +48,8 @@ public class ThetaLOJoinOperator extends BaseCrossJoinOperator {
 		
 		String predEncoded = parameters.getString(PACTOperatorsConfiguration.PRED_BINARY.toString(), null);
 		byte[] predBytes = DatatypeConverter.parseBase64Binary(predEncoded);
-		this.pred = (BasePredicate) SerializationUtils.deserialize(predBytes);
+		final BasePredicate pred = (BasePredicate) SerializationUtils.deserialize(predBytes);
+		this.pred = RecordPredicateCompiler.compile(this.inputRecordsSignature1, this.inputRecordsSignature2, pred);
 	}
 
 	@Override
@@ -66,10 +70,10 @@ public class ThetaLOJoinOperator extends BaseCrossJoinOperator {
 	 * @param nested
 	 * @param addMark
 	 */
-	public static Record thetaLOJoin(NestedMetadata inputRecordSignature1, Record record1, NestedMetadata inputRecordSignature2, Record record2, BasePredicate pred, 
+	public static Record thetaLOJoin(NestedMetadata inputRecordSignature1, Record record1, NestedMetadata inputRecordSignature2, Record record2, BaseRecordPairPredicate pred, 
 			Record nullRecord) {
 		return crossJoin(inputRecordSignature1, record1, inputRecordSignature2, record2, pred, 
-				true, nullRecord, false, true, -1, null, false);
+				true, nullRecord, false, true, BaseAggregationOperation.NO_AGGREGATION_COLUMNS, BaseAggregationOperation.NO_AGGREGATION_TYPES, false);
 	}
 
 }
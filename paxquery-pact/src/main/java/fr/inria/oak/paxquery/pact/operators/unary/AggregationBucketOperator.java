@@ -0,0 +1,52 @@
+/*******************************************************************************
+ * Copyright (C) 2013, 2014, 2015 by Inria and Paris-Sud University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package fr.inria.oak.paxquery.pact.operators.unary;
+
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.types.IntValue;
+import org.apache.flink.types.Record;
+import org.apache.flink.util.Collector;
+
+import fr.inria.oak.paxquery.pact.configuration.PACTOperatorsConfiguration;
+import fr.inria.oak.paxquery.pact.operators.BaseMapOperator;
+
+
+/**
+ * Attaches to each record the bucket of its partial aggregation, when the aggregation is over the complete data
+ * set. All the records of a task go to the same bucket, so that the combiner pre-aggregates them into a single
+ * record; the buckets spread the partial results of the tasks over the reducers of the intermediate level.
+ * 
+ */
+public class AggregationBucketOperator extends BaseMapOperator {
+	
+	private IntValue bucket;
+	
+	
+	@Override
+	public void open(Configuration parameters) throws Exception {
+		super.open(parameters);
+		
+		final int buckets = parameters.getInteger(PACTOperatorsConfiguration.AGGREGATION_BUCKETS_INT.toString(), 1);
+		this.bucket = new IntValue(getRuntimeContext().getIndexOfThisSubtask() % buckets);
+	}
+	
+	@Override
+	public void map(Record record, Collector<Record> collector) {
+		record.addField(this.bucket);
+		collector.collect(record);
+	}
+
+}
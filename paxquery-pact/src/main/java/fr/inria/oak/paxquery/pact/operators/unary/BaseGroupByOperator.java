@@ -17,24 +17,16 @@ package fr.inria.oak.paxquery.pact.operators.unary;
 
 import java.util.Iterator;
 
-import org.apache.commons.logging.Log;
-import org.apache.commons.logging.LogFactory;
 import org.apache.flink.types.IntValue;
 import org.apache.flink.types.Record;
-import org.apache.flink.types.StringValue;
-import org.apache.flink.types.Value;
 import org.apache.flink.util.Collector;
 
 import fr.inria.oak.paxquery.common.aggregation.AggregationType;
+import fr.inria.oak.paxquery.common.datamodel.metadata.MetadataTypes;
 import fr.inria.oak.paxquery.common.datamodel.metadata.NestedMetadata;
-import fr.inria.oak.paxquery.pact.datamodel.metadata.MetadataTypesMapping;
 import fr.inria.oak.paxquery.pact.datamodel.type.RecordList;
 import fr.inria.oak.paxquery.pact.operations.RecordOperations;
 import fr.inria.oak.paxquery.pact.operations.aggregation.BaseAggregationOperation;
-import fr.inria.oak.paxquery.pact.operations.aggregation.Count;
-import fr.inria.oak.paxquery.pact.operations.aggregation.Max;
-import fr.inria.oak.paxquery.pact.operations.aggregation.Min;
-import fr.inria.oak.paxquery.pact.operations.aggregation.Sum;
 import fr.inria.oak.paxquery.pact.operators.BaseReduceOperator;
 
 /**
@@ -43,49 +35,30 @@ import fr.inria.oak.paxquery.pact.operators.BaseReduceOperator;
  */
 public abstract class BaseGroupByOperator extends BaseReduceOperator {
 	
-	private static final Log logger = LogFactory.getLog(BaseGroupByOperator.class);
-
-	
 	/**
 	 * 
 	 * @param records
 	 * @param columnsToKeep
 	 * @param columnsToConcatenate
+	 * @param aggregationColumns the aggregated columns, each one with its type and aggregation; all the aggregations
+	 * are computed in the same pass over the group, and their results are output in the same order
 	 * @param collector
 	 */
 	protected static void groupBy(NestedMetadata inputRecordsSignature, Iterator<Record> records, int[] groupByColumns,
-			int[] nestColumns, int aggregationColumn, AggregationType aggregationType, boolean excludeNestedField,
-			boolean attachDummyColumn, Collector<Record> collector) throws InstantiationException, IllegalAccessException {
-		BaseAggregationOperation operation = null;
-		if(aggregationColumn != -1) {
-			switch(aggregationType) {
-				case COUNT:
-					operation = new Count();
-					break;
-				case MAX:
-					operation = new Max(inputRecordsSignature.types[aggregationColumn]);
-					break;
-				case MIN:
-					operation = new Min(inputRecordsSignature.types[aggregationColumn]);
-					break;
-				case SUM:
-					operation = new Sum(inputRecordsSignature.types[aggregationColumn]);
-					break;
-				default:
-					logger.error("Aggregation type not supported!");
-					return;
-			}
-		}
+			int[] nestColumns, int[] aggregationColumns, MetadataTypes[] aggregationColumnTypes, AggregationType[] aggregationTypes,
+			boolean excludeNestedField, boolean attachDummyColumn, Collector<Record> collector) throws InstantiationException, IllegalAccessException {
+		final BaseAggregationOperation[] operations = BaseAggregationOperation.create(aggregationTypes, aggregationColumnTypes);
+		if(operations == null)
+			return;
 		
 		//Initialize the list to be nested records...
 		RecordList resultsToKeep = new RecordList();
 
-		//Store the contents for the new record
+		//Store the contents for the new record; the nested field follows the grouping columns, whatever the
+		//columns added after it
 		NestedMetadata nestedNRSMD = null;
 		if(!excludeNestedField) {
-			nestedNRSMD = inputRecordsSignature.getNestedChild(
-			        aggregationColumn != -1 ? inputRecordsSignature.getColNo()-2 :
-			          inputRecordsSignature.getColNo()-1);
+			nestedNRSMD = inputRecordsSignature.getNestedChild(groupByColumns.length);
 		}
 
 		Record record;
@@ -93,31 +66,26 @@ public abstract class BaseGroupByOperator extends BaseReduceOperator {
 			record = records.next();
 			
 			if(!excludeNestedField) {
-				Record nestedRecord = new Record(nestedNRSMD.getColNo());	
-				int k=0;
-				for(int columnToNest: nestColumns) {
-					Value value = MetadataTypesMapping.getValueClass(nestedNRSMD.getType(k)).newInstance();
-					record.getFieldInto(columnToNest, value);
-					nestedRecord.setField(k, value);
-					k++;
-				}
-				if(k != 0)
+				if(nestColumns.length != 0) {
+					Record nestedRecord = new Record(nestedNRSMD.getColNo());
+					RecordOperations.project(record, nestColumns, nestedRecord);
 					resultsToKeep.add(nestedRecord);
+				}
 			}
-			if(aggregationColumn != -1) //Logic for aggregation...
-				operation.aggregate(record.getField(aggregationColumn, StringValue.class));
+			//Logic for aggregation...
+			for(int i=0; i<operations.length; i++)
+				operations[i].aggregate(RecordOperations.getField(record, aggregationColumns[i], aggregationColumnTypes[i]));
 		} while(records.hasNext());
 
-		//We create the output record as a copy of the last one
-		Record outputRecord = record.createCopy();
-		//We project the columns that were kept nested
-		RecordOperations.project(outputRecord, groupByColumns);
+		//We create the output record with the grouping columns of the last one
+		Record outputRecord = new Record();
+		RecordOperations.project(record, groupByColumns, outputRecord);
 		//We add the nested field
 		if(!excludeNestedField)
 			outputRecord.addField(resultsToKeep);
-		//We add the result of the aggregation (if any)
-		if(aggregationColumn != -1)
-			outputRecord.addField(operation.returnResult());
+		//We add the results of the aggregations (if any), partial when they are merged by the post aggregation
+		for(BaseAggregationOperation operation: operations)
+			outputRecord.addField(attachDummyColumn ? operation.returnPartialResult() : operation.returnResult());
 		if(attachDummyColumn)
 			outputRecord.addField(new IntValue(1));
 		
@@ -17,22 +17,17 @@ package fr.inria.oak.paxquery.pact.operators.unary;
 
 import java.util.Iterator;
 
-import org.apache.commons.logging.Log;
-import org.apache.commons.logging.LogFactory;
 import org.apache.flink.types.IntValue;
 import org.apache.flink.types.Record;
 import org.apache.flink.types.StringValue;
 import org.apache.flink.util.Collector;
 
 import fr.inria.oak.paxquery.common.aggregation.AggregationType;
+import fr.inria.oak.paxquery.common.datamodel.metadata.MetadataTypes;
 import fr.inria.oak.paxquery.common.datamodel.metadata.NestedMetadata;
 import fr.inria.oak.paxquery.pact.datamodel.type.RecordList;
 import fr.inria.oak.paxquery.pact.operations.RecordOperations;
 import fr.inria.oak.paxquery.pact.operations.aggregation.BaseAggregationOperation;
-import fr.inria.oak.paxquery.pact.operations.aggregation.Count;
-import fr.inria.oak.paxquery.pact.operations.aggregation.Max;
-import fr.inria.oak.paxquery.pact.operations.aggregation.Min;
-import fr.inria.oak.paxquery.pact.operations.aggregation.Sum;
 import fr.inria.oak.paxquery.pact.operators.BaseReduceOperator;
 
 /**
@@ -41,33 +36,13 @@ import fr.inria.oak.paxquery.pact.operators.BaseReduceOperator;
  */
 public abstract class BasePostJoinOperator extends BaseReduceOperator {
 	
-	private static final Log logger = LogFactory.getLog(BasePostJoinOperator.class);
-
-	
 	protected static void postJoin(NestedMetadata inputRecordsSignature, Iterator<Record> records, boolean outer, boolean nested,
 			int nestedRecordsColumn, int evaluationColumn, int combinationColumn,
-			AggregationType aggregationType, boolean excludeNestedField, Collector<Record> collector) {
-		//CREATING AGGREGATION IN CASE WE NEED IT
-		BaseAggregationOperation operation = null;
-		if(combinationColumn != -1) {
-			switch(aggregationType) {
-				case COUNT:
-					operation = new Count();
-					break;
-				case MAX:
-					operation = new Max(inputRecordsSignature.types[combinationColumn]);
-					break;
-				case MIN:
-					operation = new Min(inputRecordsSignature.types[combinationColumn]);
-					break;
-				case SUM:
-					operation = new Sum(inputRecordsSignature.types[combinationColumn]);
-					break;
-				default:
-					logger.error("Aggregation type not supported!");
-					return;
-			}
-		}
+			AggregationType[] aggregationTypes, boolean excludeNestedField, Collector<Record> collector) {
+		//CREATING AGGREGATIONS IN CASE WE NEED THEM, THEIR PARTIAL RESULTS ARE FROM THE COMBINATION COLUMN ON
+		final BaseAggregationOperation[] operations = BaseAggregationOperation.create(aggregationTypes, MetadataTypes.STRING_TYPE);
+		if(operations == null)
+			return;
 		
 		if(!outer) { //INNER NESTED JOIN - WE JUST NEED TO FUSE THE NESTED LISTS AND COMBINE THE AGGREGATION
 			RecordList newListNestedRecords = new RecordList();
@@ -78,13 +53,13 @@ public abstract class BasePostJoinOperator extends BaseReduceOperator {
 				if(!excludeNestedField)
 					newListNestedRecords.addAll(record.getField(nestedRecordsColumn, RecordList.class));
 				
-				if(combinationColumn != -1)
-					operation.combineAggregation(record.getField(combinationColumn, StringValue.class));
+				for(int i=0; i<operations.length; i++)
+					operations[i].combineAggregation(record.getField(combinationColumn + i, StringValue.class));
 			} while(records.hasNext());
 
 			if(!excludeNestedField)
 				record.addField(newListNestedRecords);
-			if(combinationColumn != -1)
+			for(BaseAggregationOperation operation: operations)
 				record.addField(operation.returnResult());
 			collector.collect(record);
 		}
@@ -101,8 +76,8 @@ public abstract class BasePostJoinOperator extends BaseReduceOperator {
 						evaluation = true;
 					}
 				}
-				if(combinationColumn != -1)
-					operation.combineAggregation(record.getField(combinationColumn, StringValue.class));
+				for(int i=0; i<operations.length; i++)
+					operations[i].combineAggregation(record.getField(combinationColumn + i, StringValue.class));
 			} while(records.hasNext());
 			
 			if(!excludeNestedField && !evaluation)
@@ -111,7 +86,7 @@ public abstract class BasePostJoinOperator extends BaseReduceOperator {
 			if(nested) { //OUTER NESTED JOIN
 				if(!excludeNestedField)
 					record.addField(newListNestedRecords);
-				if(combinationColumn != -1)
+				for(BaseAggregationOperation operation: operations)
 					record.addField(operation.returnResult());
 				collector.collect(record);
 			}
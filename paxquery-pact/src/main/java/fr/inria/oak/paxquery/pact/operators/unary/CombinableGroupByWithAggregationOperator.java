@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * Copyright (C) 2013, 2014, 2015 by Inria and Paris-Sud University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package fr.inria.oak.paxquery.pact.operators.unary;
+
+import java.util.Iterator;
+
+import org.apache.flink.api.java.record.operators.ReduceOperator.Combinable;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.types.IntValue;
+import org.apache.flink.types.Record;
+import org.apache.flink.types.StringValue;
+import org.apache.flink.util.Collector;
+
+import fr.inria.oak.paxquery.common.datamodel.metadata.MetadataTypes;
+import fr.inria.oak.paxquery.pact.configuration.PACTOperatorsConfiguration;
+import fr.inria.oak.paxquery.pact.operations.RecordOperations;
+import fr.inria.oak.paxquery.pact.operations.aggregation.BaseAggregationOperation;
+
+/**
+ * GroupBy operator in PACT, plus aggregations on fields of the grouped records, when the group field with the nested
+ * records is not kept. The records of each group are combined before they are shipped: the combiner replaces them
+ * with the last record of the group, extended with the partial results of the aggregations from the combination
+ * column on.
+ * The reducer merges the partial results with the aggregation of the records that were not combined.
+ * 
+ */
+@Combinable
+public class CombinableGroupByWithAggregationOperator extends GroupByWithAggregationOperator {
+	
+	private int combinationColumn;
+	
+	
+	@Override
+	public void open(Configuration parameters) throws Exception {
+		super.open(parameters);
+		
+		this.combinationColumn = parameters.getInteger(PACTOperatorsConfiguration.COMBINATION_COLUMN_INT.toString(), -1);
+	}
+	
+	@Override
+	public void combine(Iterator<Record> records, Collector<Record> collector) {
+		final BaseAggregationOperation[] partialResults = BaseAggregationOperation.create(this.aggregationTypes, MetadataTypes.STRING_TYPE);
+		if(partialResults == null)
+			return;
+		
+		final Record record = aggregate(records, partialResults);
+		for(int i=0; i<partialResults.length; i++)
+			record.setField(this.combinationColumn + i, partialResults[i].returnPartialResult());
+		collector.collect(record);
+	}
+	
+	@Override
+	public void reduce(Iterator<Record> records, Collector<Record> collector) {
+		final BaseAggregationOperation[] results = BaseAggregationOperation.create(this.aggregationTypes, MetadataTypes.STRING_TYPE);
+		if(results == null)
+			return;
+		
+		final Record record = aggregate(records, results);
+		
+		//We create the output record with the grouping columns of the last one
+		Record outputRecord = new Record();
+		RecordOperations.project(record, this.groupByColumns, outputRecord);
+		for(BaseAggregationOperation result: results)
+			outputRecord.addField(this.attachDummyColumn ? result.returnPartialResult() : result.returnResult());
+		if(this.attachDummyColumn)
+			outputRecord.addField(new IntValue(1));
+		collector.collect(outputRecord);
+	}
+	
+	/**
+	 * Aggregates the records of a group into the given operations, which merge the partial results of the
+	 * combined records.
+	 * 
+	 * @param records
+	 * @param partialResults one per aggregation
+	 * @return the last record of the group
+	 */
+	private Record aggregate(Iterator<Record> records, BaseAggregationOperation[] partialResults) {
+		final BaseAggregationOperation[] operations = BaseAggregationOperation.create(this.aggregationTypes, this.aggregationColumnTypes);
+		
+		Record record;
+		do {
+			record = records.next();
+			if(record.getNumFields() > this.combinationColumn) {
+				for(int i=0; i<partialResults.length; i++)
+					partialResults[i].combineAggregation(record.getField(this.combinationColumn + i, StringValue.class));
+			}
+			else {
+				for(int i=0; i<operations.length; i++)
+					operations[i].aggregate(RecordOperations.getField(record, this.aggregationColumns[i], this.aggregationColumnTypes[i]));
+			}
+		} while(records.hasNext());
+		for(int i=0; i<partialResults.length; i++)
+			partialResults[i].combineAggregation(operations[i].returnPartialResult());
+		
+		return record;
+	}
+
+}
@@ -0,0 +1,53 @@
+/*******************************************************************************
+ * Copyright (C) 2013, 2014, 2015 by Inria and Paris-Sud University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package fr.inria.oak.paxquery.pact.operators.unary;
+
+import java.util.Iterator;
+
+import org.apache.flink.api.java.record.operators.ReduceOperator.Combinable;
+import org.apache.flink.types.Record;
+import org.apache.flink.types.StringValue;
+import org.apache.flink.util.Collector;
+
+import fr.inria.oak.paxquery.pact.operations.aggregation.BaseAggregationOperation;
+
+
+/**
+ * Post aggregation operator in PACT, when the nested records are not kept. The partial results of each task
+ * are combined into a single record before they are shipped.
+ * 
+ */
+@Combinable
+public class CombinablePostAggregationOperator extends PostAggregationOperator {
+	
+	@Override
+	public void combine(Iterator<Record> records, Collector<Record> collector) {
+		final BaseAggregationOperation operation = BaseAggregationOperation.create(this.aggregationType,
+				this.inputRecordsSignature.getType(this.aggregationColumn));
+		if(operation == null)
+			return;
+		
+		Record record;
+		do {
+			record = records.next();
+			operation.combineAggregation(record.getField(this.aggregationColumn, StringValue.class));
+		} while(records.hasNext());
+		
+		record.setField(this.aggregationColumn, operation.returnPartialResult());
+		collector.collect(record);
+	}
+
+}
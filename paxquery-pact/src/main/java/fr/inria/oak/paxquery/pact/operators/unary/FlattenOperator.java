@@ -109,8 +109,11 @@ public class FlattenOperator extends BaseMapOperator {
 						Iterator<Record> iterator = list.iterator();
 						
 						while(iterator.hasNext()) {
-							Record copy = output.createCopy();
-							RecordOperations.concatenate(copy,iterator.next());
+							Record nestedRecord = iterator.next();
+							// The last nested record is appended to the output record itself,
+							// as it is not used anymore
+							Record copy = iterator.hasNext() ? output.createCopy() : output;
+							RecordOperations.concatenate(copy,nestedRecord);
 							newOutputRecords.add(copy);
 						}
 					}
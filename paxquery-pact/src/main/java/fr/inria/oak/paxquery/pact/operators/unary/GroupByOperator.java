@@ -28,6 +28,7 @@ import org.apache.flink.util.Collector;
 
 import fr.inria.oak.paxquery.common.datamodel.metadata.NestedMetadata;
 import fr.inria.oak.paxquery.pact.configuration.PACTOperatorsConfiguration;
+import fr.inria.oak.paxquery.pact.operations.aggregation.BaseAggregationOperation;
 
 
 /**
@@ -66,7 +67,8 @@ public class GroupByOperator extends BaseGroupByOperator {
 	
 	public static void groupBy(NestedMetadata inputRecordsSignature, Iterator<Record> records, int[] groupByColumns,
 			int[] nestColumns, Collector<Record> collector) throws InstantiationException, IllegalAccessException {
-		groupBy(inputRecordsSignature, records, groupByColumns, nestColumns, -1, null, false, false, collector);		
+		groupBy(inputRecordsSignature, records, groupByColumns, nestColumns, BaseAggregationOperation.NO_AGGREGATION_COLUMNS,
+				BaseAggregationOperation.NO_AGGREGATION_COLUMN_TYPES, BaseAggregationOperation.NO_AGGREGATION_TYPES, false, false, collector);		
 	}
 
 }
@@ -15,6 +15,7 @@
  ******************************************************************************/
 package fr.inria.oak.paxquery.pact.operators.unary;
 
+import java.util.Arrays;
 import java.util.Iterator;
 
 import javax.xml.bind.DatatypeConverter;
@@ -25,35 +26,50 @@ import org.apache.flink.types.Record;
 import org.apache.flink.util.Collector;
 
 import fr.inria.oak.paxquery.common.aggregation.AggregationType;
+import fr.inria.oak.paxquery.common.datamodel.metadata.MetadataTypes;
 import fr.inria.oak.paxquery.common.datamodel.metadata.NestedMetadata;
 import fr.inria.oak.paxquery.pact.configuration.PACTOperatorsConfiguration;
 
 /**
- * GroupBy operator in PACT, plus aggregation on a field of the grouped records. The group field with the nested records
+ * GroupBy operator in PACT, plus aggregations on fields of the grouped records. The group field with the nested records
  * may be projected after calculating the aggregation result.
  * 
  */
 public class GroupByWithAggregationOperator extends GroupByOperator {
 	
-	private int aggregationColumn;
+	protected int[] aggregationColumns;
 
-	private AggregationType aggregationType;
+	protected MetadataTypes[] aggregationColumnTypes;
+
+	protected AggregationType[] aggregationTypes;
 	
-	private boolean excludeNestedField;
+	protected boolean excludeNestedField;
 	
-	private boolean attachDummyColumn;
+	protected boolean attachDummyColumn;
 
 	
 	@Override
 	public void open(Configuration parameters) throws Exception {
 		super.open(parameters);
 		
-		this.aggregationColumn = parameters.getInteger(PACTOperatorsConfiguration.AGGREGATION_COLUMN_INT.toString(), -1);
+		String aggregationColumnsEncoded = parameters.getString(PACTOperatorsConfiguration.AGGREGATION_COLUMNS_BINARY.toString(), null);
+		byte[] aggregationColumnsBytes = DatatypeConverter.parseBase64Binary(aggregationColumnsEncoded);
+		this.aggregationColumns = (int[]) SerializationUtils.deserialize(aggregationColumnsBytes);
+
+		String aggregationColumnTypesEncoded = parameters.getString(PACTOperatorsConfiguration.AGGREGATION_COLUMN_TYPES_BINARY.toString(), null);
+		if(aggregationColumnTypesEncoded != null) {
+			byte[] aggregationColumnTypesBytes = DatatypeConverter.parseBase64Binary(aggregationColumnTypesEncoded);
+			this.aggregationColumnTypes = (MetadataTypes[]) SerializationUtils.deserialize(aggregationColumnTypesBytes);
+		}
+		else {
+			this.aggregationColumnTypes = new MetadataTypes[this.aggregationColumns.length];
+			Arrays.fill(this.aggregationColumnTypes, MetadataTypes.STRING_TYPE);
+		}
 
-		String aggregationTypeEncoded = parameters.getString(PACTOperatorsConfiguration.AGGREGATION_TYPE_BINARY.toString(), null);
-		byte[] aggregationTypeBytes = DatatypeConverter.parseBase64Binary(aggregationTypeEncoded);
-		final AggregationType aggregationType = (AggregationType) SerializationUtils.deserialize(aggregationTypeBytes);
-		this.aggregationType = aggregationType;
+		String aggregationTypesEncoded = parameters.getString(PACTOperatorsConfiguration.AGGREGATION_TYPES_BINARY.toString(), null);
+		byte[] aggregationTypesBytes = DatatypeConverter.parseBase64Binary(aggregationTypesEncoded);
+		final AggregationType[] aggregationTypes = (AggregationType[]) SerializationUtils.deserialize(aggregationTypesBytes);
+		this.aggregationTypes = aggregationTypes;
 		
 		this.excludeNestedField = parameters.getBoolean(PACTOperatorsConfiguration.EXCLUDE_NESTED_FIELD_BOOLEAN.toString(), false);
 		
@@ -63,13 +79,13 @@ public class GroupByWithAggregationOperator extends GroupByOperator {
 	@Override
 	public void reduce(Iterator<Record> records, Collector<Record> collector) throws InstantiationException, IllegalAccessException {
 		groupByWithAggregation(this.inputRecordsSignature, records, this.groupByColumns, this.nestColumns,
-				this.aggregationColumn, this.aggregationType, this.excludeNestedField, this.attachDummyColumn, collector);
+				this.aggregationColumns, this.aggregationColumnTypes, this.aggregationTypes, this.excludeNestedField, this.attachDummyColumn, collector);
 	}
 	
 	public static void groupByWithAggregation(NestedMetadata inputRecordsSignature, Iterator<Record> records, int[] groupByColumns,
-			int[] nestColumns, int aggregationColumn, AggregationType aggregationType, boolean excludeNestedField,
-			boolean attachDummyColumn, Collector<Record> collector) throws InstantiationException, IllegalAccessException {
-		groupBy(inputRecordsSignature, records, groupByColumns, nestColumns, aggregationColumn, aggregationType, excludeNestedField, attachDummyColumn, collector);		
+			int[] nestColumns, int[] aggregationColumns, MetadataTypes[] aggregationColumnTypes, AggregationType[] aggregationTypes,
+			boolean excludeNestedField, boolean attachDummyColumn, Collector<Record> collector) throws InstantiationException, IllegalAccessException {
+		groupBy(inputRecordsSignature, records, groupByColumns, nestColumns, aggregationColumns, aggregationColumnTypes, aggregationTypes, excludeNestedField, attachDummyColumn, collector);		
 	}
 
 	
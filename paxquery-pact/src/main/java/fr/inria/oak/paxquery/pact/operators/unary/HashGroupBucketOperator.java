@@ -0,0 +1,115 @@
+/*******************************************************************************
+ * Copyright (C) 2013, 2014, 2015 by Inria and Paris-Sud University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package fr.inria.oak.paxquery.pact.operators.unary;
+
+import java.io.IOException;
+
+import javax.xml.bind.DatatypeConverter;
+
+import org.apache.commons.lang.SerializationUtils;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.types.IntValue;
+import org.apache.flink.types.Record;
+import org.apache.flink.types.Value;
+import org.apache.flink.util.Collector;
+
+import fr.inria.oak.paxquery.common.datamodel.metadata.MetadataTypes;
+import fr.inria.oak.paxquery.pact.configuration.PACTOperatorsConfiguration;
+import fr.inria.oak.paxquery.pact.operations.grouping.GroupingHashTable;
+import fr.inria.oak.paxquery.pact.operators.BaseMapOperator;
+
+
+/**
+ * Attaches to each record the bucket of its group, computed from the hash of its key columns. The records are
+ * partitioned on the bucket, without being sorted, and {@link HashGroupByOperator} groups the records of each task
+ * in a hash table.
+ * 
+ * When the aggregations of the groups can be merged, and the position of their state follows the bucket, the
+ * records are also pre-grouped before shipping, in a hash table that does not spill: it outputs the partial record
+ * of each group, which holds the state of its aggregations, when it is full and when the task closes. The operator
+ * must then not be chained to its input, whose task closes the output of the chain before closing the operator.
+ * 
+ */
+public class HashGroupBucketOperator extends BaseMapOperator {
+	
+	private int[] keyColumns;
+	
+	private Class<? extends Value>[] keyClasses;
+	
+	private int buckets;
+	
+	private final IntValue bucket = new IntValue();
+	
+	/**
+	 * The groups of the records, or null if they are not pre-grouped.
+	 */
+	private GroupingHashTable table;
+	
+	/**
+	 * The collector of the task, kept to output the groups when it closes.
+	 */
+	private Collector<Record> collector;
+	
+	
+	@Override
+	public void open(Configuration parameters) throws Exception {
+		super.open(parameters);
+		
+		String keyColumnsEncoded = parameters.getString(PACTOperatorsConfiguration.HASH_KEY_COLUMNS_BINARY.toString(), null);
+		byte[] keyColumnsBytes = DatatypeConverter.parseBase64Binary(keyColumnsEncoded);
+		this.keyColumns = (int[]) SerializationUtils.deserialize(keyColumnsBytes);
+		
+		String keyTypesEncoded = parameters.getString(PACTOperatorsConfiguration.HASH_KEY_TYPES_BINARY.toString(), null);
+		byte[] keyTypesBytes = DatatypeConverter.parseBase64Binary(keyTypesEncoded);
+		this.keyClasses = GroupingHashTable.getKeyClasses((MetadataTypes[]) SerializationUtils.deserialize(keyTypesBytes));
+		
+		this.buckets = parameters.getInteger(PACTOperatorsConfiguration.HASH_BUCKETS_INT.toString(), 1);
+		
+		if(parameters.getInteger(PACTOperatorsConfiguration.COMBINATION_COLUMN_INT.toString(), -1) >= 0) {
+			this.table = HashGroupByOperator.createTable(parameters);
+			this.table.setSpilling(false);
+		}
+	}
+	
+	@Override
+	public void map(Record record, Collector<Record> collector) {
+		final int hash = GroupingHashTable.hash(record, this.keyColumns, this.keyClasses);
+		this.bucket.setValue((hash & Integer.MAX_VALUE) % this.buckets);
+		record.addField(this.bucket);
+		if(this.table == null) {
+			collector.collect(record);
+			return;
+		}
+		
+		this.collector = collector;
+		try {
+			this.table.add(record);
+			if(this.table.isFull())
+				this.table.emit(collector, true);
+		} catch (IOException ioe) {
+			// not thrown by a table that does not spill
+			throw new IllegalStateException(ioe);
+		}
+	}
+	
+	@Override
+	public void close() throws Exception {
+		if(this.table != null && this.collector != null)
+			this.table.emit(this.collector, true);
+		super.close();
+	}
+
+}
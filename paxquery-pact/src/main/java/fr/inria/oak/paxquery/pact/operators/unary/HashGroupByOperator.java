@@ -0,0 +1,141 @@
+/*******************************************************************************
+ * Copyright (C) 2013, 2014, 2015 by Inria and Paris-Sud University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package fr.inria.oak.paxquery.pact.operators.unary;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import javax.xml.bind.DatatypeConverter;
+
+import org.apache.commons.lang.SerializationUtils;
+import org.apache.flink.api.java.record.functions.JoinFunction;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.types.Record;
+import org.apache.flink.util.Collector;
+
+import fr.inria.oak.paxquery.common.aggregation.AggregationType;
+import fr.inria.oak.paxquery.common.datamodel.metadata.MetadataTypes;
+import fr.inria.oak.paxquery.pact.configuration.PACTOperatorsConfiguration;
+import fr.inria.oak.paxquery.pact.operations.aggregation.BaseAggregationOperation;
+import fr.inria.oak.paxquery.pact.operations.grouping.GroupingHashTable;
+
+/**
+ * GroupBy operator in PACT, optionally with aggregation, that groups the records in a hash table. Flink has no reduce
+ * that is not sorted, so the records are partitioned on the bucket attached by {@link HashGroupBucketOperator} by
+ * joining them, in a hash join, with the list of the buckets: each record comes with its bucket, which is ignored.
+ * All the records of a task are added to a {@link GroupingHashTable}, which spills the groups to disk when they go
+ * over its memory budget, and the groups are output when the task closes.
+ * 
+ */
+public class HashGroupByOperator extends JoinFunction {
+	
+	private GroupingHashTable table;
+	
+	/**
+	 * The collector of the task, kept to output the groups when it closes.
+	 */
+	private Collector<Record> collector;
+	
+	
+	@Override
+	public void open(Configuration parameters) throws Exception {
+		super.open(parameters);
+		
+		this.table = createTable(parameters);
+	}
+	
+	/**
+	 * Creates the hash table of the groups from the parameters of the operator; its memory budget, on the heap, is
+	 * {@link GroupingHashTable#getDefaultMemory()} unless the operator sets it.
+	 */
+	static GroupingHashTable createTable(Configuration parameters) {
+		String groupByColumnsEncoded = parameters.getString(PACTOperatorsConfiguration.GROUP_BY_COLUMNS_BINARY.toString(), null);
+		byte[] groupByColumnsBytes = DatatypeConverter.parseBase64Binary(groupByColumnsEncoded);
+		final int[] groupByColumns = (int[]) SerializationUtils.deserialize(groupByColumnsBytes);
+		
+		String nestColumnsEncoded = parameters.getString(PACTOperatorsConfiguration.NEST_COLUMNS_BINARY.toString(), null);
+		byte[] nestColumnsBytes = DatatypeConverter.parseBase64Binary(nestColumnsEncoded);
+		final int[] nestColumns = (int[]) SerializationUtils.deserialize(nestColumnsBytes);
+		
+		String keyColumnsEncoded = parameters.getString(PACTOperatorsConfiguration.HASH_KEY_COLUMNS_BINARY.toString(), null);
+		byte[] keyColumnsBytes = DatatypeConverter.parseBase64Binary(keyColumnsEncoded);
+		final int[] keyColumns = (int[]) SerializationUtils.deserialize(keyColumnsBytes);
+		
+		String keyTypesEncoded = parameters.getString(PACTOperatorsConfiguration.HASH_KEY_TYPES_BINARY.toString(), null);
+		byte[] keyTypesBytes = DatatypeConverter.parseBase64Binary(keyTypesEncoded);
+		final MetadataTypes[] keyTypes = (MetadataTypes[]) SerializationUtils.deserialize(keyTypesBytes);
+		
+		int[] aggregationColumns = BaseAggregationOperation.NO_AGGREGATION_COLUMNS;
+		MetadataTypes[] aggregationColumnTypes = BaseAggregationOperation.NO_AGGREGATION_COLUMN_TYPES;
+		AggregationType[] aggregationTypes = BaseAggregationOperation.NO_AGGREGATION_TYPES;
+		String aggregationColumnsEncoded = parameters.getString(PACTOperatorsConfiguration.AGGREGATION_COLUMNS_BINARY.toString(), null);
+		if(aggregationColumnsEncoded != null) {
+			byte[] aggregationColumnsBytes = DatatypeConverter.parseBase64Binary(aggregationColumnsEncoded);
+			aggregationColumns = (int[]) SerializationUtils.deserialize(aggregationColumnsBytes);
+			
+			String aggregationColumnTypesEncoded = parameters.getString(PACTOperatorsConfiguration.AGGREGATION_COLUMN_TYPES_BINARY.toString(), null);
+			if(aggregationColumnTypesEncoded != null) {
+				byte[] aggregationColumnTypesBytes = DatatypeConverter.parseBase64Binary(aggregationColumnTypesEncoded);
+				aggregationColumnTypes = (MetadataTypes[]) SerializationUtils.deserialize(aggregationColumnTypesBytes);
+			}
+			else {
+				aggregationColumnTypes = new MetadataTypes[aggregationColumns.length];
+				Arrays.fill(aggregationColumnTypes, MetadataTypes.STRING_TYPE);
+			}
+			
+			String aggregationTypesEncoded = parameters.getString(PACTOperatorsConfiguration.AGGREGATION_TYPES_BINARY.toString(), null);
+			byte[] aggregationTypesBytes = DatatypeConverter.parseBase64Binary(aggregationTypesEncoded);
+			aggregationTypes = (AggregationType[]) SerializationUtils.deserialize(aggregationTypesBytes);
+		}
+		
+		final boolean excludeNestedField = parameters.getBoolean(PACTOperatorsConfiguration.EXCLUDE_NESTED_FIELD_BOOLEAN.toString(), false);
+		
+		final boolean attachDummyColumn = parameters.getBoolean(PACTOperatorsConfiguration.ATTACH_DUMMY_COLUMN_BOOLEAN.toString(), false);
+		
+		// the state of the partial records that are spilled follows the columns of the records and their bucket
+		final int stateColumn = parameters.getInteger(PACTOperatorsConfiguration.COMBINATION_COLUMN_INT.toString(), -1);
+		
+		final int memory = parameters.getInteger(PACTOperatorsConfiguration.HASH_MEMORY_INT.toString(),
+				(int) GroupingHashTable.getDefaultMemory());
+		
+		return new GroupingHashTable(keyColumns, keyTypes, stateColumn, groupByColumns, nestColumns,
+				excludeNestedField, aggregationColumns, aggregationColumnTypes, aggregationTypes, attachDummyColumn, memory);
+	}
+	
+	@Override
+	public void join(Record record, Record bucket, Collector<Record> collector) {
+		this.collector = collector;
+		try {
+			this.table.add(record);
+		} catch (IOException ioe) {
+			this.table.close();
+			throw new IllegalStateException("Could not spill the groups to disk", ioe);
+		}
+	}
+	
+	@Override
+	public void close() throws Exception {
+		try {
+			// a task that got no record has no group
+			if(this.collector != null)
+				this.table.emit(this.collector, false);
+		} finally {
+			this.table.close();
+		}
+		super.close();
+	}
+
+}
@@ -30,7 +30,6 @@ import org.apache.flink.types.Record;
 import org.apache.flink.types.StringValue;
 import org.apache.flink.util.Collector;
 
-import fr.inria.oak.paxquery.common.datamodel.metadata.NestedMetadata;
 import fr.inria.oak.paxquery.common.xml.navigation.NavigationTreePattern;
 import fr.inria.oak.paxquery.common.xml.navigation.NavigationTreePatternUtils;
 import fr.inria.oak.paxquery.pact.configuration.PACTOperatorsConfiguration;
@@ -52,6 +51,18 @@ public class NavigationOperator extends BaseMapOperator {
 	
 	private NavigationTreePattern navigationTreePattern;
 	
+	private XMLInputFactory factory;
+	
+	/**
+	 * Extractor of the pattern, reset for the document of every input record.
+	 */
+	private SingleDocumentExtractor extractor;
+	
+	/**
+	 * Output record, reused for every record that is emitted.
+	 */
+	private Record outputRecord;
+	
 
 	@Override
 	public void open(Configuration parameters) throws Exception {
@@ -64,29 +75,40 @@ public class NavigationOperator extends BaseMapOperator {
 				parameters.getString(PACTOperatorsConfiguration.NTP_STRING.toString(), null),
 				"queryTest");
 		this.navigationTreePattern = ntp;
+		
+		this.factory = XMLInputFactory.newInstance();
+		this.extractor = new SingleDocumentExtractor(ntp, null);
+		this.outputRecord = new Record();
 	}
 	
 	@Override
 	public void map(Record record, Collector<Record> collector) {
-		navigation(this.inputRecordsSignature, record, this.column, this.navigationTreePattern, collector);
+		navigation(record, this.column, this.extractor, this.factory, this.outputRecord, collector);
 	}
 
 	/**
+	 * Extracts the records matching a tree pattern from the document in a field of the record,
+	 * and emits each of them concatenated to the record.
 	 * 
 	 * @param record
-	 * @param treePattern
+	 * @param column the field holding the document
+	 * @param extractor extractor of the tree pattern, which is reset for the document
+	 * @param factory
+	 * @param outputRecord record that is filled and emitted for every match; it can be reused
+	 * once it is collected
 	 * @param collector
 	 */
-	public static void navigation(NestedMetadata inputRecordSignature, Record record, int column, NavigationTreePattern navigationTreePattern, Collector<Record> collector) {
-		XMLInputFactory factory = XMLInputFactory.newInstance();
-
+	public static void navigation(Record record, int column, SingleDocumentExtractor extractor,
+			XMLInputFactory factory, Record outputRecord, Collector<Record> collector) {
 		try {
 			StringValue value = record.getField(column, StringValue.class);
 			XMLStreamReader streamReader = factory.createXMLStreamReader(new StringReader(value.getValue()));
-
-			SingleDocumentExtractor extractor = new SingleDocumentExtractor(
-					navigationTreePattern,
-					streamReader);
+			extractor.reset(streamReader);
+			
+			//The fields of the input record are copied once, and the fields of each match are
+			//appended after them
+			final int numFields = record.getNumFields();
+			record.copyTo(outputRecord);
 		
 			while(streamReader.hasNext()) {
 			    streamReader.next();
@@ -103,9 +125,9 @@ public class NavigationOperator extends BaseMapOperator {
 		    	if(extractor.getRecords().size() != 0) {
 		    		Iterator<Record> pactRecordsIterator = extractor.getRecords().iterator();
 		    		while(pactRecordsIterator.hasNext()) {
-						Record originalRecord = record.createCopy();
-						RecordOperations.concatenate(originalRecord,pactRecordsIterator.next());
-		    			collector.collect(originalRecord);
+		    			outputRecord.setNumFields(numFields);
+						RecordOperations.concatenate(outputRecord,pactRecordsIterator.next());
+		    			collector.collect(outputRecord);
 		    		}
 
 		    		extractor.getRecords().clear();
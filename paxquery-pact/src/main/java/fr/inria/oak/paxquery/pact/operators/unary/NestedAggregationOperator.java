@@ -18,23 +18,18 @@ package fr.inria.oak.paxquery.pact.operators.unary;
 import javax.xml.bind.DatatypeConverter;
 
 import org.apache.commons.lang.SerializationUtils;
-import org.apache.commons.logging.Log;
-import org.apache.commons.logging.LogFactory;
 import org.apache.flink.configuration.Configuration;
 import org.apache.flink.types.IntValue;
 import org.apache.flink.types.Record;
-import org.apache.flink.types.StringValue;
+import org.apache.flink.types.Value;
 import org.apache.flink.util.Collector;
 
 import fr.inria.oak.paxquery.common.aggregation.AggregationType;
 import fr.inria.oak.paxquery.common.datamodel.metadata.NestedMetadata;
 import fr.inria.oak.paxquery.pact.configuration.PACTOperatorsConfiguration;
 import fr.inria.oak.paxquery.pact.datamodel.type.RecordList;
+import fr.inria.oak.paxquery.pact.operations.RecordOperations;
 import fr.inria.oak.paxquery.pact.operations.aggregation.BaseAggregationOperation;
-import fr.inria.oak.paxquery.pact.operations.aggregation.Count;
-import fr.inria.oak.paxquery.pact.operations.aggregation.Max;
-import fr.inria.oak.paxquery.pact.operations.aggregation.Min;
-import fr.inria.oak.paxquery.pact.operations.aggregation.Sum;
 import fr.inria.oak.paxquery.pact.operators.BaseMapOperator;
 
 
@@ -44,9 +39,6 @@ import fr.inria.oak.paxquery.pact.operators.BaseMapOperator;
  */
 public class NestedAggregationOperator extends BaseMapOperator {
 	
-	private static final Log logger = LogFactory.getLog(NestedAggregationOperator.class);
-
-
 	private int[] aggregationPath;
 
 	private AggregationType aggregationType;
@@ -99,29 +91,16 @@ public class NestedAggregationOperator extends BaseMapOperator {
 				nestedAggregationRec(inputRecordsSignature, nestedRecord, aggregationPath, pos, aggregationType, attachDummyColumn, collector);
 		}
 		else {
-			BaseAggregationOperation operation;
-			switch(aggregationType) {
-				case COUNT:
-					operation = new Count();
-					break;
-				case MAX:
-					operation = new Max(inputRecordsSignature.getNestedType(aggregationPath));
-					break;
-				case MIN:
-					operation = new Min(inputRecordsSignature.getNestedType(aggregationPath));
-					break;
-				case SUM:
-					operation = new Sum(inputRecordsSignature.getNestedType(aggregationPath));
-					break;
-				default:
-					logger.error("Aggregation type not supported!");
-					return;
-			}
+			final BaseAggregationOperation operation = BaseAggregationOperation.create(aggregationType,
+					inputRecordsSignature.getNestedType(aggregationPath));
+			if(operation == null)
+				return;
 			
-			// For each record, we aggregate the proper value and we add it to the list
+			// For each record, we aggregate the proper value and we add it to the list; only the
+			// aggregated column of the nested records is read
 			RecordList list = record.getField(aggregationPath[pos++], RecordList.class);
-			for(Record nestedRecord: list)
-				operation.aggregate(nestedRecord.getField(aggregationPath[pos], StringValue.class));
+			for(Value value: RecordOperations.getColumn(list, aggregationPath[pos], inputRecordsSignature.getNestedType(aggregationPath)))
+				operation.aggregate(value);
 			record.addField(operation.returnResult());
 			if(attachDummyColumn)
 				record.addField(new IntValue(1));
@@ -0,0 +1,66 @@
+/*******************************************************************************
+ * Copyright (C) 2013, 2014, 2015 by Inria and Paris-Sud University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package fr.inria.oak.paxquery.pact.operators.unary;
+
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.types.IntValue;
+import org.apache.flink.types.Record;
+import org.apache.flink.util.Collector;
+
+import fr.inria.oak.paxquery.pact.configuration.PACTOperatorsConfiguration;
+import fr.inria.oak.paxquery.pact.operators.BaseMapOperator;
+
+
+/**
+ * Operator in PACT that keeps the records produced by one of the patterns of a multi-pattern
+ * XML input, i.e. the records whose last field is the position of the pattern. The last field
+ * is removed.
+ * 
+ */
+public class PatternSplitOperator extends BaseMapOperator {
+	
+	private int patternIndex;
+
+
+	@Override
+	public void open(Configuration parameters) throws Exception {
+		super.open(parameters);
+		
+		this.patternIndex = parameters.getInteger(PACTOperatorsConfiguration.PATTERN_INDEX_INT.toString(), -1);
+	}
+	
+	@Override
+	public void map(Record record, Collector<Record> collector) {
+		patternSplit(record, this.patternIndex, collector);
+	}
+	
+	/**
+	 * 
+	 * @param record
+	 * @param patternIndex
+	 * @param collector
+	 */
+	public static void patternSplit(Record record, int patternIndex, Collector<Record> collector) {
+		final int tagColumn = record.getNumFields() - 1;
+		if(record.getField(tagColumn, IntValue.class).getValue() != patternIndex)
+			return;
+		
+		record.removeField(tagColumn);
+		record.updateBinaryRepresenation();
+		collector.collect(record);
+	}
+
+}
@@ -20,8 +20,6 @@ import java.util.Iterator;
 import javax.xml.bind.DatatypeConverter;
 
 import org.apache.commons.lang.SerializationUtils;
-import org.apache.commons.logging.Log;
-import org.apache.commons.logging.LogFactory;
 import org.apache.flink.configuration.Configuration;
 import org.apache.flink.types.Record;
 import org.apache.flink.types.StringValue;
@@ -32,10 +30,6 @@ import fr.inria.oak.paxquery.common.datamodel.metadata.NestedMetadata;
 import fr.inria.oak.paxquery.pact.configuration.PACTOperatorsConfiguration;
 import fr.inria.oak.paxquery.pact.datamodel.type.RecordList;
 import fr.inria.oak.paxquery.pact.operations.aggregation.BaseAggregationOperation;
-import fr.inria.oak.paxquery.pact.operations.aggregation.Count;
-import fr.inria.oak.paxquery.pact.operations.aggregation.Max;
-import fr.inria.oak.paxquery.pact.operations.aggregation.Min;
-import fr.inria.oak.paxquery.pact.operations.aggregation.Sum;
 import fr.inria.oak.paxquery.pact.operators.BaseReduceOperator;
 
 
@@ -46,16 +40,13 @@ import fr.inria.oak.paxquery.pact.operators.BaseReduceOperator;
  */
 public class PostAggregationOperator extends BaseReduceOperator {
 	
-	private static final Log logger = LogFactory.getLog(PostAggregationOperator.class);
+	protected int aggregationColumn;
 
-
-	private int aggregationColumn;
-
-	private AggregationType aggregationType;
+	protected AggregationType aggregationType;
 	
-	private int nestedColumn;
+	protected int nestedColumn;
 	
-	private boolean excludeNestedField;
+	protected boolean excludeNestedField;
 	
 	
 	
@@ -89,24 +80,10 @@ public class PostAggregationOperator extends BaseReduceOperator {
 	 */
 	public static void postAggregation(NestedMetadata inputRecordsSignature, Iterator<Record> records, int aggregationColumn,
 			AggregationType aggregationType, int nestedColumn, boolean excludeNestedField, Collector<Record> collector) {
-		BaseAggregationOperation operation;
-		switch(aggregationType) {
-			case COUNT:
-				operation = new Count();
-				break;
-			case MAX:
-				operation = new Max(inputRecordsSignature.getCompleteMetadata()[aggregationColumn]);
-				break;
-			case MIN:
-				operation = new Min(inputRecordsSignature.getCompleteMetadata()[aggregationColumn]);
-				break;
-			case SUM:
-				operation = new Sum(inputRecordsSignature.getCompleteMetadata()[aggregationColumn]);
-				break;
-			default:
-				logger.error("Aggregation type not supported!");
-				return;
-		}
+		BaseAggregationOperation operation = BaseAggregationOperation.create(aggregationType,
+				inputRecordsSignature.getCompleteMetadata()[aggregationColumn]);
+		if(operation == null)
+			return;
 		
 		// For each record, we aggregate the proper value and we add it to the list
 		RecordList list = new RecordList();
@@ -37,7 +37,7 @@ public class PostLNOJoinWithAggregationOperator extends PostLNOJoinOperator {
 	
 	private int combinationColumn;
 
-	private AggregationType aggregationType;
+	private AggregationType[] aggregationTypes;
 	
 	private boolean excludeNestedField;
 	
@@ -48,10 +48,10 @@ public class PostLNOJoinWithAggregationOperator extends PostLNOJoinOperator {
 
 		this.combinationColumn = parameters.getInteger(PACTOperatorsConfiguration.COMBINATION_COLUMN_INT.toString(), -1);
 
-		String aggregationTypeEncoded = parameters.getString(PACTOperatorsConfiguration.AGGREGATION_TYPE_BINARY.toString(), null);
-		byte[] aggregationTypeBytes = DatatypeConverter.parseBase64Binary(aggregationTypeEncoded);
-		final AggregationType aggregationType = (AggregationType) SerializationUtils.deserialize(aggregationTypeBytes);
-		this.aggregationType = aggregationType;
+		String aggregationTypesEncoded = parameters.getString(PACTOperatorsConfiguration.AGGREGATION_TYPES_BINARY.toString(), null);
+		byte[] aggregationTypesBytes = DatatypeConverter.parseBase64Binary(aggregationTypesEncoded);
+		final AggregationType[] aggregationTypes = (AggregationType[]) SerializationUtils.deserialize(aggregationTypesBytes);
+		this.aggregationTypes = aggregationTypes;
 		
 		this.excludeNestedField = parameters.getBoolean(PACTOperatorsConfiguration.EXCLUDE_NESTED_FIELD_BOOLEAN.toString(), false);
 	}
@@ -60,7 +60,7 @@ public class PostLNOJoinWithAggregationOperator extends PostLNOJoinOperator {
 	public void reduce(Iterator<Record> records, Collector<Record> collector) {
 		postLNOJoinWithAggregation(this.inputRecordsSignature, records,
 				this.nestedRecordsColumn, this.evaluationColumn,
-				this.combinationColumn, this.aggregationType, this.excludeNestedField, collector);
+				this.combinationColumn, this.aggregationTypes, this.excludeNestedField, collector);
 	}
 	
 	/**
@@ -72,15 +72,15 @@ public class PostLNOJoinWithAggregationOperator extends PostLNOJoinOperator {
 	 * @param recordIdentifierColumn
 	 * @param nestedRecordsColumn
 	 * @param evaluationColumn
-	 * @param aggregationColumn
-	 * @param aggregationType
+	 * @param combinationColumn the first column of the partial results of the aggregations
+	 * @param aggregationTypes
 	 * @param collector
 	 */
 	public static void postLNOJoinWithAggregation(NestedMetadata inputRecordsSignature, Iterator<Record> records,
 			int nestedRecordsColumn, int evaluationColumn, int combinationColumn,
-			AggregationType aggregationType, boolean excludeNestedField, Collector<Record> collector) {
+			AggregationType[] aggregationTypes, boolean excludeNestedField, Collector<Record> collector) {
 		postJoin(inputRecordsSignature, records, true, true, nestedRecordsColumn,
-				evaluationColumn, combinationColumn, aggregationType, excludeNestedField, collector);
+				evaluationColumn, combinationColumn, aggregationTypes, excludeNestedField, collector);
 	}
 
 }
@@ -23,6 +23,7 @@ import org.apache.flink.util.Collector;
 
 import fr.inria.oak.paxquery.common.datamodel.metadata.NestedMetadata;
 import fr.inria.oak.paxquery.pact.configuration.PACTOperatorsConfiguration;
+import fr.inria.oak.paxquery.pact.operations.aggregation.BaseAggregationOperation;
 
 
 /**
@@ -65,7 +66,7 @@ public class PostLOJoinOperator extends BasePostJoinOperator {
 	public static void postLOJoin(NestedMetadata inputRecordsSignature, Iterator<Record> records,
 			int nestedRecordsColumn, int evaluationColumn, Collector<Record> collector) {
 		postJoin(inputRecordsSignature, records, true, false, nestedRecordsColumn, 
-				evaluationColumn, -1, null, false, collector);
+				evaluationColumn, -1, BaseAggregationOperation.NO_AGGREGATION_TYPES, false, collector);
 	}
 
 }
@@ -35,6 +35,11 @@ import fr.inria.oak.paxquery.pact.operators.BaseMapOperator;
 public class ProjectionOperator extends BaseMapOperator {
 	
 	private int[] keepColumns;
+	
+	/**
+	 * Output record, reused for every record that is emitted.
+	 */
+	private Record outputRecord;
 
 	
 	@Override
@@ -45,22 +50,25 @@ public class ProjectionOperator extends BaseMapOperator {
 		byte[] keepColumnsBytes = DatatypeConverter.parseBase64Binary(keepColumnsEncoded);
 		final int[] keepColumns = (int[]) SerializationUtils.deserialize(keepColumnsBytes);
 		this.keepColumns = keepColumns;
+		this.outputRecord = new Record();
 	}
 	
 	@Override
 	public void map(Record record, Collector<Record> collector) {
-		projection(this.inputRecordsSignature, record, this.keepColumns, collector);
+		projection(this.inputRecordsSignature, record, this.keepColumns, this.outputRecord, collector);
 	}
 	
 	/**
 	 * 
 	 * @param record
 	 * @param projectedColumns
+	 * @param outputRecord record that is filled with the projected fields; it can be reused
+	 * once it is collected
 	 * @param collector
 	 */
-	public static void projection(NestedMetadata inputRecordSignature, Record record, int[] keepColumns, Collector<Record> collector) {
-		RecordOperations.project(record, keepColumns);
-		collector.collect(record);
+	public static void projection(NestedMetadata inputRecordSignature, Record record, int[] keepColumns, Record outputRecord, Collector<Record> collector) {
+		RecordOperations.project(record, keepColumns, outputRecord);
+		collector.collect(outputRecord);
 	}
 	
 }
@@ -25,7 +25,8 @@ import org.apache.flink.util.Collector;
 import fr.inria.oak.paxquery.common.datamodel.metadata.NestedMetadata;
 import fr.inria.oak.paxquery.common.predicates.BasePredicate;
 import fr.inria.oak.paxquery.pact.configuration.PACTOperatorsConfiguration;
-import fr.inria.oak.paxquery.pact.operations.RecordPredicateEvaluation;
+import fr.inria.oak.paxquery.pact.operations.predicates.BaseRecordPredicate;
+import fr.inria.oak.paxquery.pact.operations.predicates.RecordPredicateCompiler;
 import fr.inria.oak.paxquery.pact.operators.BaseMapOperator;
 
 
@@ -35,7 +36,7 @@ import fr.inria.oak.paxquery.pact.operators.BaseMapOperator;
  */
 public class SelectionOperator extends BaseMapOperator {
 	
-	private BasePredicate pred;
+	private BaseRecordPredicate pred;
 
 
 	@Override
@@ -45,7 +46,7 @@ public class SelectionOperator extends BaseMapOperator {
 		String predEncoded = parameters.getString(PACTOperatorsConfiguration.PRED_BINARY.toString(), null);
 		byte[] predBytes = DatatypeConverter.parseBase64Binary(predEncoded);
 		final BasePredicate pred = (BasePredicate) SerializationUtils.deserialize(predBytes);
-		this.pred = pred;
+		this.pred = RecordPredicateCompiler.compile(this.inputRecordsSignature, pred);
 	}
 	
 	@Override
@@ -59,9 +60,9 @@ public class SelectionOperator extends BaseMapOperator {
 	 * @param pred
 	 * @param collector
 	 */
-	public static void selection(NestedMetadata inputRecordSignature, Record record, BasePredicate pred, Collector<Record> collector) {
+	public static void selection(NestedMetadata inputRecordSignature, Record record, BaseRecordPredicate pred, Collector<Record> collector) {
 		// Evaluate predicate on record
-		final boolean evaluation = RecordPredicateEvaluation.evaluate(inputRecordSignature, record, pred);
+		final boolean evaluation = pred.evaluate(record);
 			
 		if(evaluation)
 			collector.collect(record);
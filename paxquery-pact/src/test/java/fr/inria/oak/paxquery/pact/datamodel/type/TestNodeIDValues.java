@@ -0,0 +1,208 @@
+/*******************************************************************************
+ * Copyright (C) 2013, 2014, 2015 by Inria and Paris-Sud University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package fr.inria.oak.paxquery.pact.datamodel.type;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.flink.core.memory.InputViewDataInputStreamWrapper;
+import org.apache.flink.core.memory.MemorySegment;
+import org.apache.flink.core.memory.OutputViewDataOutputStreamWrapper;
+import org.apache.flink.types.NormalizableKey;
+import org.apache.flink.types.Record;
+import org.apache.flink.types.StringValue;
+import org.apache.flink.types.Value;
+import org.junit.Test;
+
+import fr.inria.oak.paxquery.common.datamodel.metadata.MetadataTypes;
+import fr.inria.oak.paxquery.common.xml.nodeidentifier.OrderedIntegerElementID;
+import fr.inria.oak.paxquery.common.xml.nodeidentifier.PrePostDepthID;
+import fr.inria.oak.paxquery.pact.operations.RecordOperations;
+
+
+public class TestNodeIDValues {
+
+	private static byte[] serialize(Value value) throws IOException {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		value.write(new OutputViewDataOutputStreamWrapper(new DataOutputStream(bytes)));
+		return bytes.toByteArray();
+	}
+
+	private static <T extends Value> T deserialize(byte[] bytes, T value) throws IOException {
+		value.read(new InputViewDataInputStreamWrapper(new DataInputStream(new ByteArrayInputStream(bytes))));
+		return value;
+	}
+
+	private static List<StructuralIDValue> structuralIDs() {
+		final List<StructuralIDValue> ids = new ArrayList<StructuralIDValue>();
+		ids.add(new StructuralIDValue());
+		ids.add(new StructuralIDValue(0, 0, 0));
+		ids.add(new StructuralIDValue(Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE));
+		// IDs that only differ in their post or depth, and in the high bytes of their numbers
+		ids.add(new StructuralIDValue(5, 3, 1));
+		ids.add(new StructuralIDValue(5, 3, 2));
+		ids.add(new StructuralIDValue(5, 4, 0));
+		ids.add(new StructuralIDValue(256, 1, 1));
+		ids.add(new StructuralIDValue(1 << 24, 1, 1));
+		final Random random = new Random(13);
+		for(int i = 0; i < 200; i++)
+			ids.add(new StructuralIDValue(random.nextInt(1000), random.nextInt(1000), random.nextInt(10)));
+		return ids;
+	}
+
+	private static List<OrderedIDValue> orderedIDs() {
+		final List<OrderedIDValue> ids = new ArrayList<OrderedIDValue>();
+		ids.add(new OrderedIDValue());
+		ids.add(new OrderedIDValue(0));
+		ids.add(new OrderedIDValue(255));
+		ids.add(new OrderedIDValue(256));
+		ids.add(new OrderedIDValue(Integer.MAX_VALUE));
+		final Random random = new Random(17);
+		for(int i = 0; i < 200; i++)
+			ids.add(new OrderedIDValue(random.nextInt(100000)));
+		return ids;
+	}
+
+	private static <T extends NormalizableKey<T>> byte[] normalizedKey(T key, int len) {
+		final MemorySegment segment = new MemorySegment(new byte[len]);
+		key.copyNormalizedKey(segment, 0, len);
+		final byte[] bytes = new byte[len];
+		segment.get(0, bytes);
+		return bytes;
+	}
+
+	private static int compareUnsigned(byte[] bytes1, byte[] bytes2) {
+		for(int i = 0; i < bytes1.length; i++)
+			if(bytes1[i] != bytes2[i])
+				return (bytes1[i] & 0xFF) < (bytes2[i] & 0xFF) ? -1 : 1;
+		return 0;
+	}
+
+	/**
+	 * Checks that the normalized keys of every length compare as the keys, or are equal when
+	 * they are too short to tell the keys apart.
+	 */
+	private static <T extends NormalizableKey<T>> void assertSameOrder(List<T> keys) {
+		final int maxLength = keys.get(0).getMaxNormalizedKeyLen();
+		for(int len = 1; len <= maxLength + 2; len++) {
+			for(T key1 : keys) {
+				for(T key2 : keys) {
+					final int order = Integer.signum(key1.compareTo(key2));
+					final int normalizedOrder = compareUnsigned(normalizedKey(key1, len), normalizedKey(key2, len));
+					if(len >= maxLength)
+						assertEquals(key1 + " and " + key2, order, normalizedOrder);
+					else
+						assertTrue(key1 + " and " + key2, normalizedOrder == 0 || normalizedOrder == order);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testStructuralIDOrder() {
+		final List<StructuralIDValue> ids = structuralIDs();
+		assertSameOrder(ids);
+		// the null ID comes first
+		for(StructuralIDValue id : ids)
+			assertTrue(new StructuralIDValue().compareTo(id) <= 0);
+	}
+
+	@Test
+	public void testOrderedIDOrder() {
+		final List<OrderedIDValue> ids = orderedIDs();
+		assertSameOrder(ids);
+		for(OrderedIDValue id : ids)
+			assertTrue(new OrderedIDValue().compareTo(id) <= 0);
+	}
+
+	@Test
+	public void testRoundTrip() throws IOException {
+		for(StructuralIDValue id : structuralIDs()) {
+			final byte[] bytes = serialize(id);
+			assertEquals(id.getBinaryLength(), bytes.length);
+			final StructuralIDValue read = deserialize(bytes, new StructuralIDValue(1, 2, 3));
+			assertEquals(id, read);
+			assertEquals(id.hashCode(), read.hashCode());
+		}
+		for(OrderedIDValue id : orderedIDs()) {
+			final byte[] bytes = serialize(id);
+			assertEquals(id.getBinaryLength(), bytes.length);
+			assertEquals(id, deserialize(bytes, new OrderedIDValue(1)));
+		}
+
+		final Record record = new Record();
+		record.addField(new StructuralIDValue(4, 2, 1));
+		record.addField(new StringValue("name"));
+		record.addField(new OrderedIDValue(7));
+		record.addField(new StructuralIDValue());
+		final Record read = deserialize(serialize(record), new Record());
+		assertEquals(new StructuralIDValue(4, 2, 1), read.getField(0, StructuralIDValue.class));
+		assertEquals("name", read.getField(1, StringValue.class).getValue());
+		assertEquals(new OrderedIDValue(7), read.getField(2, OrderedIDValue.class));
+		assertTrue(read.getField(3, StructuralIDValue.class).isNull());
+	}
+
+	@Test
+	public void testCopy() throws IOException {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		final StructuralIDValue id = new StructuralIDValue(9, 8, 7);
+		id.copy(new InputViewDataInputStreamWrapper(new DataInputStream(new ByteArrayInputStream(serialize(id)))),
+				new OutputViewDataOutputStreamWrapper(new DataOutputStream(bytes)));
+		assertEquals(id, deserialize(bytes.toByteArray(), new StructuralIDValue()));
+
+		final StructuralIDValue target = new StructuralIDValue();
+		id.copyTo(target);
+		assertEquals(id, target);
+		final OrderedIDValue orderedTarget = new OrderedIDValue();
+		new OrderedIDValue(3).copyTo(orderedTarget);
+		assertEquals(3, orderedTarget.getValue());
+	}
+
+	/**
+	 * The IDs read as strings have the text they had when they were stored as strings.
+	 */
+	@Test
+	public void testText() {
+		final PrePostDepthID prePostDepth = new PrePostDepthID(4, 1);
+		prePostDepth.post = 2;
+		assertEquals(prePostDepth.toString(), new StructuralIDValue(prePostDepth).toString());
+		assertEquals(PrePostDepthID.theNull.toString(), new StructuralIDValue(PrePostDepthID.theNull).toString());
+		assertEquals(new OrderedIntegerElementID(12).toString(), new OrderedIDValue(new OrderedIntegerElementID(12)).toString());
+
+		final Record record = new Record();
+		record.addField(new StructuralIDValue(4, 2, 1));
+		record.addField(RecordOperations.createNullField(MetadataTypes.STRUCTURAL_ID));
+		record.addField(new OrderedIDValue(12));
+		record.addField(RecordOperations.createNullField(MetadataTypes.ORDERED_ID));
+		assertEquals("4 2 1", RecordOperations.getStringField(record, 0, MetadataTypes.STRUCTURAL_ID).getValue());
+		assertTrue(RecordOperations.isNull(RecordOperations.getStringField(record, 1, MetadataTypes.STRUCTURAL_ID)));
+		assertEquals("12", RecordOperations.getStringField(record, 2, MetadataTypes.ORDERED_ID).getValue());
+		assertTrue(RecordOperations.isNull(RecordOperations.getStringField(record, 3, MetadataTypes.ORDERED_ID)));
+		assertFalse(RecordOperations.isNull(record.getField(0, StructuralIDValue.class)));
+		assertTrue(RecordOperations.isNull(record.getField(1, StructuralIDValue.class)));
+	}
+
+}
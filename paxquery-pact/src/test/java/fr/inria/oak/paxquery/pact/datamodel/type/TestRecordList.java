@@ -0,0 +1,222 @@
+/*******************************************************************************
+ * Copyright (C) 2013, 2014, 2015 by Inria and Paris-Sud University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package fr.inria.oak.paxquery.pact.datamodel.type;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.flink.core.memory.InputViewDataInputStreamWrapper;
+import org.apache.flink.core.memory.OutputViewDataOutputStreamWrapper;
+import org.apache.flink.types.IntValue;
+import org.apache.flink.types.LongValue;
+import org.apache.flink.types.Record;
+import org.apache.flink.types.StringValue;
+import org.junit.Test;
+
+
+public class TestRecordList {
+
+	private static byte[] serialize(Record record) throws IOException {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		record.write(new OutputViewDataOutputStreamWrapper(new DataOutputStream(bytes)));
+		return bytes.toByteArray();
+	}
+
+	private static Record deserialize(byte[] bytes) throws IOException {
+		final Record record = new Record();
+		record.read(new InputViewDataInputStreamWrapper(new DataInputStream(new ByteArrayInputStream(bytes))));
+		return record;
+	}
+
+	/**
+	 * Ships a list as a field of a record, between two other fields, and reads it back.
+	 */
+	private static RecordList roundTrip(RecordList list) throws IOException {
+		final Record record = new Record(3);
+		record.setField(0, new StringValue("before"));
+		record.setField(1, list);
+		record.setField(2, new LongValue(42));
+		final Record read = deserialize(serialize(record));
+		assertEquals("before", read.getField(0, StringValue.class).getValue());
+		assertEquals(42, read.getField(2, LongValue.class).getValue());
+		return read.getField(1, RecordList.class);
+	}
+
+	/**
+	 * @return true if the list is written column by column, which its negative size tells
+	 */
+	private static boolean isColumnar(RecordList list) throws IOException {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		list.write(new OutputViewDataOutputStreamWrapper(new DataOutputStream(bytes)));
+		return new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())).readInt() < 0;
+	}
+
+	private static Record record(int id, String name, long value) {
+		final Record record = new Record(3);
+		record.setField(0, new IntValue(id));
+		record.setField(1, new StringValue(name));
+		record.setField(2, new LongValue(value));
+		return record;
+	}
+
+	/**
+	 * Records with fixed length (int, long) and variable length (string) columns.
+	 */
+	private static RecordList uniformList(int size) {
+		final RecordList list = new RecordList();
+		for(int i = 0; i < size; i++) {
+			final StringBuilder name = new StringBuilder("name");
+			for(int j = 0; j < i % 7; j++)
+				name.append("-é").append(j);
+			list.add(record(i, name.toString(), 1000L * i));
+		}
+		return list;
+	}
+
+	private static void assertSameRecords(RecordList expected, RecordList actual) {
+		assertEquals(expected.size(), actual.size());
+		for(int i = 0; i < expected.size(); i++) {
+			final Record e = expected.get(i);
+			final Record a = actual.get(i);
+			assertEquals(e.getNumFields(), a.getNumFields());
+			assertEquals(e.getField(0, IntValue.class), a.getField(0, IntValue.class));
+			if(e.getNumFields() > 1)
+				assertEquals(e.getField(1, StringValue.class), a.getField(1, StringValue.class));
+			if(e.getNumFields() > 2)
+				assertEquals(e.getField(2, LongValue.class), a.getField(2, LongValue.class));
+		}
+	}
+
+	@Test
+	public void testEmptyList() throws IOException {
+		final RecordList list = new RecordList();
+		assertFalse(isColumnar(list));
+		final RecordList read = roundTrip(list);
+		assertEquals(0, read.size());
+		assertFalse(read.iterator().hasNext());
+		assertEquals(0, read.getColumn(0, IntValue.class).size());
+	}
+
+	@Test
+	public void testSingleRecord() throws IOException {
+		final RecordList list = uniformList(1);
+		assertFalse(isColumnar(list));
+		assertSameRecords(list, roundTrip(list));
+	}
+
+	@Test
+	public void testColumnar() throws IOException {
+		final RecordList list = uniformList(50);
+		assertTrue(isColumnar(list));
+		final RecordList read = roundTrip(list);
+		assertEquals(50, read.size());
+		assertSameRecords(list, read);
+	}
+
+	@Test
+	public void testMixedFieldCounts() throws IOException {
+		final RecordList list = uniformList(5);
+		final Record shorter = new Record(2);
+		shorter.setField(0, new IntValue(-1));
+		shorter.setField(1, new StringValue("short"));
+		list.add(2, shorter);
+		assertFalse(isColumnar(list));
+		assertSameRecords(list, roundTrip(list));
+	}
+
+	@Test
+	public void testNullFields() throws IOException {
+		final RecordList list = uniformList(5);
+		list.get(3).setNull(1);
+		assertFalse(isColumnar(list));
+		final RecordList read = roundTrip(list);
+		assertEquals(5, read.size());
+		assertTrue(read.get(3).isNull(1));
+		assertEquals("name-é0-é1-é2-é3", read.get(4).getField(1, StringValue.class).getValue());
+	}
+
+	@Test
+	public void testGetColumn() throws IOException {
+		final RecordList list = uniformList(20);
+		// a list read column by column, whose records are not built yet
+		final RecordList columnar = roundTrip(list);
+		final List<StringValue> names = columnar.getColumn(1, StringValue.class);
+		final List<LongValue> values = columnar.getColumn(2, LongValue.class);
+		// a list of records
+		final RecordList rows = roundTrip(list);
+		rows.get(0);
+		assertEquals(names, rows.getColumn(1, StringValue.class));
+		assertEquals(values, rows.getColumn(2, LongValue.class));
+		for(int i = 0; i < list.size(); i++) {
+			assertEquals(list.get(i).getField(1, StringValue.class), names.get(i));
+			assertEquals(list.get(i).getField(2, LongValue.class), values.get(i));
+			assertEquals(list.get(i).getField(0, IntValue.class), columnar.getColumn(0, IntValue.class).get(i));
+		}
+	}
+
+	@Test
+	public void testNestedLists() throws IOException {
+		final RecordList outer = new RecordList();
+		for(int i = 0; i < 10; i++) {
+			final Record record = new Record(2);
+			record.setField(0, new IntValue(i));
+			// columnar, single record and empty lists, in the same column
+			record.setField(1, uniformList(i % 3 == 0 ? 0 : i % 3 == 1 ? 1 : 2 + i));
+			outer.add(record);
+		}
+		assertTrue(isColumnar(outer));
+		final RecordList read = roundTrip(outer);
+		assertEquals(10, read.size());
+		final List<RecordList> nested = read.getColumn(1, RecordList.class);
+		for(int i = 0; i < 10; i++) {
+			assertEquals(i, read.get(i).getField(0, IntValue.class).getValue());
+			final RecordList expected = outer.get(i).getField(1, RecordList.class);
+			assertSameRecords(expected, read.get(i).getField(1, RecordList.class));
+			assertSameRecords(expected, nested.get(i));
+		}
+	}
+
+	@Test
+	public void testWriteUndecoded() throws IOException {
+		// a list read column by column is shipped again without being decoded
+		final RecordList list = uniformList(30);
+		final RecordList again = roundTrip(roundTrip(list));
+		assertTrue(isColumnar(roundTrip(list)));
+		assertSameRecords(list, again);
+	}
+
+	@Test
+	public void testModifyColumnar() throws IOException {
+		final RecordList read = roundTrip(uniformList(10));
+		read.remove(0);
+		read.add(record(100, "added", 7));
+		final List<Record> expected = new ArrayList<Record>(uniformList(10).subList(1, 10));
+		expected.add(record(100, "added", 7));
+		final RecordList expectedList = new RecordList();
+		expectedList.addAll(expected);
+		assertSameRecords(expectedList, roundTrip(read));
+	}
+
+}
@@ -0,0 +1,270 @@
+/*******************************************************************************
+ * Copyright (C) 2013, 2014, 2015 by Inria and Paris-Sud University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package fr.inria.oak.paxquery.pact.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.List;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.flink.api.java.record.operators.FileDataSource;
+import org.apache.flink.core.fs.Path;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import fr.inria.oak.paxquery.common.datamodel.metadata.NestedMetadata;
+import fr.inria.oak.paxquery.common.xml.navigation.NavigationTreePattern;
+
+
+public class TestXmlBinTreePatternInputFormat {
+
+	private static final String DOCUMENT =
+			"<?xml version=\"1.0\"?>\n<!-- converted -->\n" +
+			"<root xmlns=\"urn:default\" xmlns:p=\"urn:p\" version=\"2\">" +
+			"<x id=\"1\" p:kind=\"a\"><y>v1<z>déep</z></y><skip><q><q>noise &amp; more</q></q><x id=\"9\"/></skip>" +
+			"<x id=\"2\"><y>v2</y><x id=\"3\"><w a=\"b\"/><y>v3<y>v3.1</y></y></x></x></x>" +
+			"<p:other><q><x><y>v4</y></x></q><q><![CDATA[<x>cdata</x>]]></q></p:other><y>v5<z>deep</z></y></root>";
+
+	private static final String[] PATTERNS = {
+		" \nE: 1 ID s [Tag=\"x\"]\nE: 2 ID s [Tag=\"y\"] Val\n;\n1,2 // nj\n",
+		" \nE: 1 ID s [Tag=\"x\"]\nE: 2 ID s [Tag=\"x\"]\nE: 3 ID s [Tag=\"y\"] Val\n;\n1,2 // j\n2,3 / no\n",
+		" \nE: 1 ID s [Tag=\"y\"] Val\nE: 2 ID s [Tag=\"y\"] Val\n;\n1,2 // o\n",
+		" \nE: 1 ID s [Tag=\"x\"]\nE: 2 ID s Tag\n;\n1,2 / j\n",
+		" \nE: 1 ID s [Tag=\"q\"]\nE: 2 ID s Tag Val\n;\n1,2 // j\n",
+		" \nE: 1 ID s [Tag=\"x\"]\nA: 2 [Tag=\"id\"] Val\nE: 3 ID s [Tag=\"w\"]\nA: 4 [Tag=\"a\"] Val\n;\n1,2 / j\n1,3 // o\n3,4 / j\n",
+		" \nE: 1 ID s [Tag=\"x\"] Val\nE: 2 ID s [Tag=\"w\"]\n;\n1,2 // o\n",
+		// a tag that the document lacks
+		" \nE: 1 ID s [Tag=\"x\"]\nE: 2 ID s [Tag=\"missing\"]\n;\n1,2 // j\n",
+	};
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	File xml;
+	File binary;
+
+
+	@Before
+	public void init() throws Exception {
+		this.xml = XmlInputFormats.writeDocument(this.folder.newFolder("xml"), "document.xml", DOCUMENT);
+		this.binary = convert(this.xml, this.folder.newFolder("binary"));
+	}
+
+	private static File convert(File xml, File directory) throws Exception {
+		final File binary = new File(directory, xml.getName() + BinaryXmlWriter.EXTENSION);
+		final OutputStream out = new FileOutputStream(binary);
+		try {
+			BinaryXmlWriter.convert(new Path(xml.toURI().toString()), out);
+		} finally {
+			out.close();
+		}
+		return binary;
+	}
+
+	/**
+	 * @return a reader over the events of the converted document
+	 */
+	private BinaryXmlStreamReader binaryReader() throws Exception {
+		return binaryReader(this.binary);
+	}
+
+	private static BinaryXmlStreamReader binaryReader(File binary) throws Exception {
+		final byte[] bytes = Files.readAllBytes(binary.toPath());
+		assertEquals(BinaryXmlWriter.MAGIC, ByteBuffer.wrap(bytes).getInt());
+		assertEquals(BinaryXmlWriter.MAGIC, ByteBuffer.wrap(bytes).getInt(bytes.length - 4));
+		final int dictionaryOffset = (int) ByteBuffer.wrap(bytes).getLong(bytes.length - 12);
+		final BinaryXmlStreamReader.TagDictionary dictionary = BinaryXmlStreamReader.TagDictionary.read(
+				new DataInputStream(new ByteArrayInputStream(bytes, dictionaryOffset, bytes.length - dictionaryOffset)));
+		return new BinaryXmlStreamReader(new ByteArrayInputStream(bytes, 4, bytes.length - 4), dictionary);
+	}
+
+	private XMLStreamReader xmlReader() throws Exception {
+		return xmlReader(this.xml);
+	}
+
+	private static XMLStreamReader xmlReader(File xml) throws Exception {
+		return XMLInputFactory.newInstance().createXMLStreamReader(new FileInputStream(xml));
+	}
+
+	/**
+	 * Moves a reader to its next start element, end element or characters event, the events that
+	 * the conversion keeps.
+	 */
+	private static int next(XMLStreamReader reader) throws Exception {
+		while(reader.hasNext()) {
+			final int event = reader.next();
+			if(event == XMLStreamConstants.START_ELEMENT || event == XMLStreamConstants.END_ELEMENT ||
+					event == XMLStreamConstants.CHARACTERS)
+				return event;
+		}
+		return XMLStreamConstants.END_DOCUMENT;
+	}
+
+	private static void assertSameEvent(XMLStreamReader expected, XMLStreamReader actual) {
+		assertEquals(expected.getEventType(), actual.getEventType());
+		if(expected.getEventType() == XMLStreamConstants.START_ELEMENT) {
+			assertEquals(expected.getLocalName(), actual.getLocalName());
+			assertEquals(expected.getNamespaceURI(), actual.getNamespaceURI());
+			assertEquals(expected.getPrefix(), actual.getPrefix());
+			assertEquals(expected.getAttributeCount(), actual.getAttributeCount());
+			for(int i = 0; i < expected.getAttributeCount(); i++) {
+				assertEquals(expected.getAttributeLocalName(i), actual.getAttributeLocalName(i));
+				assertEquals(empty(expected.getAttributeNamespace(i)), empty(actual.getAttributeNamespace(i)));
+				assertEquals(expected.getAttributeValue(i), actual.getAttributeValue(i));
+			}
+			assertEquals(expected.getNamespaceCount(), actual.getNamespaceCount());
+			for(int i = 0; i < expected.getNamespaceCount(); i++) {
+				assertEquals(empty(expected.getNamespacePrefix(i)), empty(actual.getNamespacePrefix(i)));
+				assertEquals(expected.getNamespaceURI(i), actual.getNamespaceURI(i));
+			}
+		}
+		else if(expected.getEventType() == XMLStreamConstants.END_ELEMENT)
+			assertEquals(expected.getLocalName(), actual.getLocalName());
+		else if(expected.getEventType() == XMLStreamConstants.CHARACTERS)
+			assertEquals(expected.getText(), actual.getText());
+	}
+
+	private static String empty(String s) {
+		return s != null ? s : "";
+	}
+
+	@Test
+	public void testRoundTrip() throws Exception {
+		final XMLStreamReader expected = this.xmlReader();
+		final BinaryXmlStreamReader actual = this.binaryReader();
+		int events = 0;
+		while(next(expected) != XMLStreamConstants.END_DOCUMENT) {
+			actual.next();
+			assertSameEvent(expected, actual);
+			events++;
+		}
+		assertEquals(XMLStreamConstants.END_DOCUMENT, actual.next());
+		assertFalse(actual.hasNext());
+		assertTrue(events > 0);
+	}
+
+	/**
+	 * Checks the namespaces declared, and in scope, on every element against the parser.
+	 */
+	@Test
+	public void testNamespaceContext() throws Exception {
+		final File directory = this.folder.newFolder();
+		final File xml = XmlInputFormats.writeDocument(directory, "namespaces.xml", XmlInputFormats.NAMESPACES);
+		final XMLStreamReader expected = xmlReader(xml);
+		final BinaryXmlStreamReader actual = binaryReader(convert(xml, directory));
+		int elements = 0;
+		while(next(expected) != XMLStreamConstants.END_DOCUMENT) {
+			actual.next();
+			assertSameEvent(expected, actual);
+			XmlInputFormats.assertSameNamespaces(expected, actual);
+			if(expected.isStartElement())
+				elements++;
+		}
+		assertEquals(6, elements);
+	}
+
+	@Test
+	public void testElementTextAndNextTag() throws Exception {
+		final File directory = this.folder.newFolder();
+		final File xml = XmlInputFormats.writeDocument(directory, "text.xml", XmlInputFormats.TEXT);
+		// the parser as a reference
+		final XMLStreamReader expected = xmlReader(xml);
+		expected.nextTag();
+		XmlInputFormats.assertElementTextAndNextTag(expected);
+		final BinaryXmlStreamReader actual = binaryReader(convert(xml, directory));
+		actual.nextTag();
+		XmlInputFormats.assertElementTextAndNextTag(actual);
+	}
+
+	private static int countStartElements(XMLStreamReader reader) throws Exception {
+		int elements = 0;
+		int event;
+		while((event = next(reader)) != XMLStreamConstants.END_DOCUMENT) {
+			if(event == XMLStreamConstants.START_ELEMENT)
+				elements++;
+		}
+		return elements;
+	}
+
+	/**
+	 * Skips the subtree of each element in turn, and checks the number of skipped nodes and the
+	 * events that follow against the parser.
+	 */
+	@Test
+	public void testSkipElement() throws Exception {
+		final XmlNavTreePatternInputFormat format = new XmlNavTreePatternInputFormat();
+		final int elements = countStartElements(this.xmlReader());
+		for(int skipped = 0; skipped < elements; skipped++) {
+			final XMLStreamReader expected = this.xmlReader();
+			final BinaryXmlStreamReader actual = this.binaryReader();
+			int element = -1;
+			while(next(expected) != XMLStreamConstants.END_DOCUMENT) {
+				actual.next();
+				assertSameEvent(expected, actual);
+				if(expected.getEventType() == XMLStreamConstants.START_ELEMENT && ++element == skipped) {
+					assertEquals(format.skipToEndElement(expected), actual.skipElement());
+					assertSameEvent(expected, actual);
+				}
+			}
+			assertEquals(XMLStreamConstants.END_DOCUMENT, actual.next());
+		}
+	}
+
+	/**
+	 * Reads the document and its conversion with the same patterns, with and without subtree
+	 * skipping, and checks that the records and their node IDs are the same.
+	 */
+	@Test
+	public void testSameRecords() throws Exception {
+		for(String pattern : PATTERNS) {
+			final NavigationTreePattern ntp = XmlInputFormats.pattern(pattern);
+			final NestedMetadata signature = XmlInputFormats.signature(ntp);
+			final List<String> expected = XmlInputFormats.print(XmlInputFormats.read(
+					this.format(XmlNavTreePatternInputFormat.class, this.xml.getParentFile(), ntp, false), 1), signature);
+			for(boolean skipSubtrees : new boolean[]{false, true}) {
+				assertEquals(pattern, expected, XmlInputFormats.print(XmlInputFormats.read(
+						this.format(XmlBinTreePatternInputFormat.class, this.binary.getParentFile(), ntp, skipSubtrees), 1),
+						signature));
+			}
+		}
+	}
+
+	private <T extends XmlNavTreePatternInputFormat> T format(Class<T> formatClass, File collection,
+			NavigationTreePattern ntp, boolean skipSubtrees) throws Exception {
+		final FileDataSource source = XmlInputFormats.source(formatClass, collection);
+		XmlNavTreePatternInputFormat.configureXmlNavInputFormat(source)
+				.setNavigationTreePattern(ntp)
+				.setSkipSubtrees(skipSubtrees)
+				.setSampleDocuments(0);
+		return XmlInputFormats.configure(formatClass, source);
+	}
+
+}
@@ -0,0 +1,694 @@
+/*******************************************************************************
+ * Copyright (C) 2013, 2014, 2015 by Inria and Paris-Sud University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package fr.inria.oak.paxquery.pact.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.flink.api.java.record.operators.FileDataSource;
+import org.apache.flink.core.fs.FileInputSplit;
+import org.apache.flink.core.fs.Path;
+import org.apache.flink.core.memory.InputViewDataInputStreamWrapper;
+import org.apache.flink.core.memory.OutputViewDataOutputStreamWrapper;
+import org.apache.flink.types.Record;
+import org.apache.flink.util.Collector;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import fr.inria.oak.paxquery.common.datamodel.metadata.NestedMetadata;
+import fr.inria.oak.paxquery.common.xml.navigation.NavigationTreePattern;
+import fr.inria.oak.paxquery.pact.operators.unary.PatternSplitOperator;
+
+
+public class TestXmlNavTreePatternInputFormat {
+
+	private static final String ITEM_NAMES = " \nE: 1 [Tag=\"item\"]\nE: 2 [Tag=\"name\"] Val\n;\n1,2 / j\n";
+
+	private static final String SITE_ITEM_NAMES = " \nE: 1 [Tag=\"site\"]\nE: 2 [Tag=\"item\"]\nE: 3 [Tag=\"name\"] Val\n;\n1,2 // j\n2,3 / j\n";
+
+	private static final String SITE_ID_ITEM_NAMES = " \nE: 1 ID s [Tag=\"site\"]\nE: 2 [Tag=\"item\"]\nE: 3 [Tag=\"name\"] Val\n;\n1,2 // j\n2,3 / j\n";
+
+	private static final String SITE_NESTED_ITEM_NAMES = " \nE: 1 [Tag=\"site\"]\nE: 2 [Tag=\"item\"]\nE: 3 [Tag=\"name\"] Val\n;\n1,2 // nj\n2,3 / j\n";
+
+	private static final String ITEMS = " \nE: 1 ID s [Tag=\"item\"]\nE: 2 [Tag=\"name\"] Val\nE: 3 ID o [Tag=\"bid\"] Val\n;\n1,2 / j\n1,3 / no\n";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	File collection;
+	NavigationTreePattern ntp;
+
+
+	@Before
+	public void init() throws Exception {
+		this.collection = this.folder.newFolder("collection");
+		for(int i = 0; i < 6; i++) {
+			StringBuilder document = new StringBuilder("<site><items>");
+			for(int j = 0; j < 3 + i; j++)
+				document.append("<item><name>item").append(i).append('.').append(j).append("</name><bid>").append(j)
+						.append("</bid><bid>").append(10 * j).append("</bid></item>");
+			document.append("</items></site>");
+			XmlInputFormats.writeDocument(this.collection, "doc" + i + ".xml", document.toString());
+		}
+		this.ntp = XmlInputFormats.pattern(ITEMS);
+	}
+
+	private XmlNavTreePatternInputFormat format(boolean pipelined, int packSize) throws Exception {
+		return this.format(this.collection, pipelined, packSize);
+	}
+
+	/**
+	 * @param packSize the pack size, or -1 for the default one
+	 */
+	private XmlNavTreePatternInputFormat format(File input, boolean pipelined, int packSize) throws Exception {
+		final FileDataSource source = XmlInputFormats.source(XmlNavTreePatternInputFormat.class, input);
+		final XmlNavTreePatternInputFormat.ConfigBuilder config = XmlNavTreePatternInputFormat.configureXmlNavInputFormat(source)
+				.setNavigationTreePattern(this.ntp)
+				.setAttachDocumentID(true)
+				.setPipelined(pipelined)
+				.setSampleDocuments(0);
+		if(packSize >= 0)
+			config.setPackSize(packSize);
+		return XmlInputFormats.configure(XmlNavTreePatternInputFormat.class, source);
+	}
+
+	/**
+	 * Writes a document whose comments, CDATA sections, processing instructions and attribute
+	 * values contain what looks like records.
+	 */
+	private File writeSplittableDocument(int items) throws Exception {
+		final StringBuilder document = new StringBuilder("<?xml version=\"1.0\"?>\n<!DOCTYPE site [<!ELEMENT site ANY>]>\n");
+		document.append("<site region=\"a > b\"><!-- <item><name>comment</name></item> --><items>\n");
+		for(int i = 0; i < items; i++) {
+			document.append("<item note=\"x > y\"><name>item").append(i).append("</name>");
+			if(i % 3 == 0)
+				document.append("<![CDATA[ <item><name>cdata</name></item> ]]>");
+			if(i % 4 == 0)
+				document.append("<?note <item><name>pi</name></item> ?>");
+			if(i % 5 == 0)
+				document.append("<!-- <item><name>comment</name></item> -->");
+			document.append("</item>\n");
+		}
+		document.append("</items></site>\n");
+		final File directory = this.folder.newFolder();
+		return XmlInputFormats.writeDocument(directory, "split.xml", document.toString());
+	}
+
+	private static XmlNavTreePatternInputFormat splitFormat(File document, NavigationTreePattern ntp, String recordElement)
+			throws Exception {
+		final FileDataSource source = XmlInputFormats.source(XmlNavTreePatternInputFormat.class, document);
+		final XmlNavTreePatternInputFormat.ConfigBuilder config = XmlNavTreePatternInputFormat.configureXmlNavInputFormat(source)
+				.setNavigationTreePattern(ntp)
+				.setSampleDocuments(0);
+		if(recordElement != null)
+			config.setRecordElement(recordElement);
+		return XmlInputFormats.configure(XmlNavTreePatternInputFormat.class, source);
+	}
+
+	private static List<String> read(File document, String pattern, String recordElement, int minSplits) throws Exception {
+		final NavigationTreePattern ntp = XmlInputFormats.pattern(pattern);
+		final XmlNavTreePatternInputFormat format = splitFormat(document, ntp, recordElement);
+		if(recordElement != null)
+			assertTrue(format.createInputSplits(minSplits).length >= minSplits);
+		return XmlInputFormats.print(XmlInputFormats.read(format, minSplits), XmlInputFormats.signature(ntp));
+	}
+
+	private List<String> read(XmlNavTreePatternInputFormat format, int minSplits) throws Exception {
+		final NestedMetadata signature = XmlInputFormats.signatureWithDocumentID(this.ntp);
+		return XmlInputFormats.print(XmlInputFormats.read(format, minSplits), signature);
+	}
+
+	private static int countThreads(String prefix) {
+		int threads = 0;
+		for(Thread thread : Thread.getAllStackTraces().keySet()) {
+			if(thread.isAlive() && thread.getName().startsWith(prefix))
+				threads++;
+		}
+		return threads;
+	}
+
+	private static List<String> sorted(List<String> records) {
+		final List<String> sorted = new ArrayList<String>(records);
+		Collections.sort(sorted);
+		return sorted;
+	}
+
+	@Test
+	public void testPackedSameRecords() throws Exception {
+		final List<String> expected = this.read(this.format(false, 0), 1);
+		assertEquals(3 + 4 + 5 + 6 + 7 + 8, expected.size());
+		assertEquals(expected, this.read(this.format(false, 1024 * 1024), 1));
+		assertEquals(expected, this.read(this.format(false, 1024 * 1024), 4));
+		assertEquals(expected, this.read(this.format(false, 1), 1));
+	}
+
+	@Test
+	public void testPackedSplits() throws Exception {
+		final XmlNavTreePatternInputFormat format = this.format(false, 1024 * 1024);
+		assertEquals(1, format.createInputSplits(1).length);
+
+		// each split holds consecutive documents, up to the size that gives the requested splits
+		final FileInputSplit[] splits = format.createInputSplits(3);
+		assertTrue(splits.length >= 3);
+		final List<String> documents = new ArrayList<String>();
+		for(int i = 0; i < splits.length; i++) {
+			assertTrue(splits[i] instanceof PackedInputSplit);
+			assertEquals(i, splits[i].getSplitNumber());
+			final PackedInputSplit split = (PackedInputSplit) splits[i];
+			long length = 0;
+			for(int j = 0; j < split.getNumberOfDocuments(); j++) {
+				documents.add(split.getDocumentID(j));
+				length += split.getDocumentSplit(j).getLength();
+			}
+			assertEquals(split.getLength(), length);
+		}
+		assertEquals(6, documents.size());
+		assertEquals(6, new HashSet<String>(documents).size());
+
+		// a document larger than the pack size gets its own split
+		assertEquals(6, this.format(false, 1).createInputSplits(1).length);
+	}
+
+	@Test
+	public void testPackedInputSplitSerialization() throws Exception {
+		final PackedInputSplit split = (PackedInputSplit) this.format(false, 1024 * 1024).createInputSplits(1)[0];
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		split.write(new OutputViewDataOutputStreamWrapper(new DataOutputStream(bytes)));
+		final PackedInputSplit read = new PackedInputSplit();
+		read.read(new InputViewDataInputStreamWrapper(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))));
+
+		assertEquals(split.getNumberOfDocuments(), read.getNumberOfDocuments());
+		assertEquals(split.getLength(), read.getLength());
+		for(int i = 0; i < split.getNumberOfDocuments(); i++) {
+			assertEquals(split.getDocumentID(i), read.getDocumentID(i));
+			assertEquals(split.getDocumentSplit(i).getPath(), read.getDocumentSplit(i).getPath());
+			assertEquals(split.getDocumentSplit(i).getStart(), read.getDocumentSplit(i).getStart());
+			assertEquals(split.getDocumentSplit(i).getLength(), read.getDocumentSplit(i).getLength());
+		}
+	}
+
+	@Test
+	public void testContainer() throws Exception {
+		final List<Path> documents = new ArrayList<Path>();
+		for(File document : this.collection.listFiles())
+			documents.add(new Path(document.toURI().toString()));
+		final File container = new File(this.folder.newFolder("packed"), "collection" + XmlDocumentPacker.EXTENSION);
+		final OutputStream out = new FileOutputStream(container);
+		try {
+			XmlDocumentPacker.pack(documents, out);
+		} finally {
+			out.close();
+		}
+
+		// containers are packed by default, and keep the IDs of the documents
+		final XmlNavTreePatternInputFormat format = this.format(container, false, -1);
+		final FileInputSplit[] splits = format.createInputSplits(1);
+		assertEquals(1, splits.length);
+		assertEquals(6, ((PackedInputSplit) splits[0]).getNumberOfDocuments());
+		final List<String> expected = sorted(this.read(this.format(false, 0), 1));
+		assertEquals(expected, sorted(this.read(format, 1)));
+		assertEquals(expected, sorted(this.read(this.format(container, false, -1), 3)));
+		assertEquals(expected, sorted(this.read(this.format(container, true, -1), 3)));
+	}
+
+	@Test
+	public void testSplitSameRecords() throws Exception {
+		final File document = this.writeSplittableDocument(200);
+		final List<String> expected = read(document, ITEM_NAMES, null, 1);
+		assertEquals(200, expected.size());
+		assertEquals("(item0)", expected.get(0));
+		for(int splits : new int[]{ 1, 2, 3, 7, 16, 40 })
+			assertEquals("splits: " + splits, expected, read(document, ITEM_NAMES, "item", splits));
+		// the ancestors of the records may be used as context
+		for(int splits : new int[]{ 1, 7 })
+			assertEquals("splits: " + splits, expected, read(document, SITE_ITEM_NAMES, "item", splits));
+	}
+
+	@Test
+	public void testSplitNodeIDs() throws Exception {
+		final File document = this.writeSplittableDocument(100);
+		final List<String> expected = read(document, ITEMS, "item", 1);
+		assertEquals(100, expected.size());
+		for(int splits : new int[]{ 2, 5, 13 })
+			assertEquals("splits: " + splits, expected, read(document, ITEMS, "item", splits));
+
+		// the IDs follow document order
+		int lastPre = -1;
+		for(String record : expected) {
+			final int pre = Integer.parseInt(record.substring(1, record.indexOf(' ')));
+			assertTrue(record, pre > lastPre);
+			lastPre = pre;
+		}
+	}
+
+	@Test
+	public void testSplitRejectsAncestorBindings() throws Exception {
+		final File document = this.writeSplittableDocument(20);
+		for(String pattern : new String[]{ SITE_ID_ITEM_NAMES, SITE_NESTED_ITEM_NAMES }) {
+			try {
+				read(document, pattern, "item", 3);
+				fail("Pattern binding an ancestor of the records accepted: " + pattern);
+			} catch (IOException e) {
+				assertTrue(e.getMessage(), e.getMessage().contains("site"));
+			}
+		}
+	}
+
+	private static final String RECURSIVE =
+			"<root><x id=\"1\"><y>v1<z>deep</z></y><skip><q><q>noise</q></q><x id=\"9\"/></skip>" +
+			"<x id=\"2\"><y>v2</y><x id=\"3\"><w a=\"b\"/><y>v3<y>v3.1</y></y></x></x></x>" +
+			"<other><q><x><y>v4</y></x></q><q>noise</q></other><y>v5<z>deep</z></y></root>";
+
+	private static final String[] SKIP_PATTERNS = {
+		// recursive nodes, through descendant and child edges
+		" \nE: 1 ID s [Tag=\"x\"]\nE: 2 ID s [Tag=\"y\"] Val\n;\n1,2 // nj\n",
+		" \nE: 1 ID s [Tag=\"x\"]\nE: 2 ID s [Tag=\"y\"] Val\n;\n1,2 / j\n",
+		" \nE: 1 ID s [Tag=\"x\"]\nE: 2 ID s [Tag=\"x\"]\nE: 3 ID s [Tag=\"y\"] Val\n;\n1,2 // j\n2,3 / no\n",
+		" \nE: 1 ID s [Tag=\"y\"] Val\nE: 2 ID s [Tag=\"y\"] Val\n;\n1,2 // o\n",
+		// wildcards
+		" \nE: 1 ID s [Tag=\"x\"]\nE: 2 ID s Tag\n;\n1,2 / j\n",
+		" \nE: 1 ID s [Tag=\"other\"]\nE: 2 ID s Tag\nE: 3 ID s [Tag=\"y\"] Val\n;\n1,2 // j\n2,3 / j\n",
+		"/\nE: 1 ID s [Tag=\"root\"]\nE: 2 ID s Tag\n;\n1,2 / nj\n",
+		// attributes, values and content
+		" \nE: 1 ID s [Tag=\"x\"]\nA: 2 [Tag=\"id\"] Val\nE: 3 ID s [Tag=\"w\"]\nA: 4 [Tag=\"a\"] Val\n;\n1,2 / j\n1,3 // o\n3,4 / j\n",
+		" \nE: 1 ID s [Tag=\"y\"] Cont\nE: 2 ID s [Tag=\"z\"] Val\n;\n1,2 / o\n",
+		" \nE: 1 ID s [Tag=\"x\"] Val\nE: 2 ID s [Tag=\"w\"]\n;\n1,2 // o\n",
+	};
+
+	@Test
+	public void testSkipSubtreesSameRecords() throws Exception {
+		final File document = XmlInputFormats.writeDocument(this.folder.newFolder(), "recursive.xml", RECURSIVE);
+		for(String pattern : SKIP_PATTERNS) {
+			final NavigationTreePattern ntp = XmlInputFormats.pattern(pattern);
+			final NestedMetadata signature = XmlInputFormats.signature(ntp);
+			final List<String> expected = XmlInputFormats.print(
+					XmlInputFormats.read(this.skipFormat(document, ntp, false), 1), signature);
+			assertFalse(pattern, expected.isEmpty());
+			assertEquals(pattern, expected, XmlInputFormats.print(
+					XmlInputFormats.read(this.skipFormat(document, ntp, true), 1), signature));
+		}
+	}
+
+	private XmlNavTreePatternInputFormat skipFormat(File document, NavigationTreePattern ntp, boolean skipSubtrees)
+			throws Exception {
+		final FileDataSource source = XmlInputFormats.source(XmlNavTreePatternInputFormat.class, document);
+		XmlNavTreePatternInputFormat.configureXmlNavInputFormat(source)
+				.setNavigationTreePattern(ntp)
+				.setSkipSubtrees(skipSubtrees)
+				.setSampleDocuments(0);
+		return XmlInputFormats.configure(XmlNavTreePatternInputFormat.class, source);
+	}
+
+	private static final String NAMESPACES =
+			"<root xmlns:a=\"urn:a\" xmlns:b=\"urn:b\"><a:item><name>a1</name></a:item><b:item><name>b1</name></b:item>" +
+			"<item><name>n1</name></item><a:item b:code=\"x\" code=\"y\"><name>a2</name></a:item>" +
+			"<b:item xmlns=\"urn:a\"><name>b2</name></b:item></root>";
+
+	/**
+	 * Elements and attributes with the same local name in several namespaces are told apart,
+	 * and the "*" nodes match all of them.
+	 */
+	@Test
+	public void testNamespacedTags() throws Exception {
+		final File document = XmlInputFormats.writeDocument(this.folder.newFolder(), "namespaces.xml", NAMESPACES);
+		final String[][] expected = {
+			{ " \nE: 1 [Tag=\"{urn:a}item\"]\nE: 2 [Tag=\"name\"] Val\n;\n1,2 / j\n", "[(a1), (a2)]" },
+			{ " \nE: 1 [Tag=\"item\"]\nE: 2 [Tag=\"name\"] Val\n;\n1,2 / j\n", "[(n1)]" },
+			{ " \nE: 1 [Tag=\"{urn:b}item\"]\nE: 2 Tag Val\n;\n1,2 / j\n", "[({}name, b1), ({urn:a}name, b2)]" },
+			{ " \nE: 1 Tag\nE: 2 [Tag=\"name\"] Val\n;\n1,2 / j\n",
+					"[({urn:a}item, a1), ({urn:b}item, b1), ({}item, n1), ({urn:a}item, a2)]" },
+			{ " \nE: 1 Tag\nE: 2 [Tag=\"{urn:a}name\"] Val\n;\n1,2 / j\n", "[({urn:b}item, b2)]" },
+			{ " \nE: 1 [Tag=\"{urn:a}item\"]\nA: 2 [Tag=\"{urn:b}code\"] Val\n;\n1,2 / j\n", "[(x)]" },
+			{ " \nE: 1 [Tag=\"{urn:a}item\"]\nA: 2 [Tag=\"code\"] Val\n;\n1,2 / j\n", "[(y)]" },
+		};
+		for(String[] patternRecords : expected) {
+			final NavigationTreePattern ntp = XmlInputFormats.pattern(patternRecords[0]);
+			for(boolean skipSubtrees : new boolean[]{ false, true }) {
+				final List<Record> records = XmlInputFormats.read(this.skipFormat(document, ntp, skipSubtrees), 1);
+				assertEquals(patternRecords[0], patternRecords[1],
+						XmlInputFormats.print(records, XmlInputFormats.signature(ntp)).toString());
+			}
+		}
+	}
+
+	private XmlNavTreePatternInputFormat contentFormat(File document, NavigationTreePattern ntp, boolean captureContent)
+			throws Exception {
+		final FileDataSource source = XmlInputFormats.source(XmlNavTreePatternInputFormat.class, document);
+		XmlNavTreePatternInputFormat.configureXmlNavInputFormat(source)
+				.setNavigationTreePattern(ntp)
+				.setCaptureContent(captureContent)
+				.setSampleDocuments(0);
+		return XmlInputFormats.configure(XmlNavTreePatternInputFormat.class, source);
+	}
+
+	/**
+	 * The content sliced from the document is the content rebuilt from the parser events, when
+	 * the document has nothing that the rebuilt content normalizes, also when the records span
+	 * more characters than the initial window of the reader.
+	 */
+	@Test
+	public void testCaptureContentSameRecords() throws Exception {
+		final StringBuilder document = new StringBuilder("<site><items>\n");
+		for(int i = 0; i < 3000; i++) {
+			document.append("<item id=\"").append(i).append("\"><name>\u00e9t\u00e9 ").append(i)
+					.append("</name><desc>text <b>bold ").append(i).append("</b> more</desc></item>\n");
+		}
+		document.append("</items></site>");
+		final File input = XmlInputFormats.writeDocument(this.folder.newFolder(), "content.xml", document.toString());
+		assertTrue(input.length() > 128 * 1024);
+
+		final String[] patterns = {
+			" \nE: 1 ID s [Tag=\"item\"] Cont\n;\n",
+			" \nE: 1 ID s [Tag=\"item\"]\nE: 2 [Tag=\"desc\"] Cont\nE: 3 [Tag=\"b\"] Val\n;\n1,2 / j\n2,3 / j\n",
+			" \nE: 1 [Tag=\"site\"]\nE: 2 [Tag=\"name\"] Val Cont\n;\n1,2 // nj\n",
+		};
+		for(String pattern : patterns) {
+			final NavigationTreePattern ntp = XmlInputFormats.pattern(pattern);
+			final NestedMetadata signature = XmlInputFormats.signature(ntp);
+			final List<String> expected = XmlInputFormats.print(
+					XmlInputFormats.read(this.contentFormat(input, ntp, false), 1), signature);
+			assertFalse(pattern, expected.isEmpty());
+			assertTrue(pattern, expected.toString().contains(" 2999</"));
+			assertEquals(pattern, expected, XmlInputFormats.print(
+					XmlInputFormats.read(this.contentFormat(input, ntp, true), 1), signature));
+		}
+	}
+
+	/**
+	 * Comments, CDATA sections and entities are kept as written, and the namespaces declared by
+	 * the ancestors are declared on the start tag.
+	 */
+	@Test
+	public void testCaptureContentAsWritten() throws Exception {
+		final String doc = "<root xmlns:a=\"urn:a\"><x><y>v1 <z k=\"v\">d</z></y></x>" +
+				"<a:x><y a:k=\"w\">v2<!-- c --><![CDATA[<q>]]>&amp;</y></a:x></root>";
+		final File document = XmlInputFormats.writeDocument(this.folder.newFolder(), "content.xml", doc);
+		final NavigationTreePattern ntp = XmlInputFormats.pattern(" \nE: 1 Tag\nE: 2 [Tag=\"y\"] Cont\n;\n1,2 / j\n");
+		final NestedMetadata signature = XmlInputFormats.signature(ntp);
+		assertEquals(Arrays.asList(
+				"({}x, <y xmlns:a=\"urn:a\">v1 <z k=\"v\">d</z></y>)",
+				"({urn:a}x, <y xmlns:a=\"urn:a\" a:k=\"w\">v2<!-- c --><![CDATA[<q>]]>&amp;</y>)"),
+				XmlInputFormats.print(XmlInputFormats.read(this.contentFormat(document, ntp, true), 1), signature));
+		assertEquals(Arrays.asList(
+				"({}x, <y>v1 <z k=\"v\">d</z></y>)",
+				"({urn:a}x, <y a:k=\"w\" xmlns:a=\"urn:a\">v2<q>&</y>)"),
+				XmlInputFormats.print(XmlInputFormats.read(this.contentFormat(document, ntp, false), 1), signature));
+	}
+
+	private XmlNavTreePatternInputFormat streamingFormat(File document, NavigationTreePattern ntp, boolean streaming,
+			int maxMatches) throws Exception {
+		final FileDataSource source = XmlInputFormats.source(XmlNavTreePatternInputFormat.class, document);
+		XmlNavTreePatternInputFormat.configureXmlNavInputFormat(source)
+				.setNavigationTreePattern(ntp)
+				.setStreaming(streaming)
+				.setMaxMatches(maxMatches)
+				.setSampleDocuments(0);
+		return XmlInputFormats.configure(XmlNavTreePatternInputFormat.class, source);
+	}
+
+	private static final String[] STREAMING_PATTERNS = {
+		// streamed: the records come from the items, the other child is optional
+		"/\nE: 1 [Tag=\"site\"]\nE: 2 ID s [Tag=\"item\"]\nE: 3 [Tag=\"name\"] Val\nE: 4 [Tag=\"bid\"] Val\n" +
+				"E: 5 [Tag=\"people\"]\n;\n1,2 // j\n2,3 / j\n2,4 / no\n1,5 / o\n",
+		"/\nE: 1 [Tag=\"site\"]\nE: 2 [Tag=\"name\"] Val\n;\n1,2 // j\n",
+		// not streamed: nested items, or another required child
+		"/\nE: 1 [Tag=\"site\"]\nE: 2 ID s [Tag=\"item\"]\nE: 3 [Tag=\"name\"] Val\n;\n1,2 // nj\n2,3 / j\n",
+		"/\nE: 1 [Tag=\"site\"]\nE: 2 ID s [Tag=\"item\"]\nE: 3 [Tag=\"items\"]\n;\n1,2 // j\n1,3 / j\n",
+	};
+
+	/**
+	 * The records are the same, and in the same order, whether the pattern is streamed or not.
+	 */
+	@Test
+	public void testStreamingSameRecords() throws Exception {
+		final File document = this.collection.listFiles()[0];
+		for(String pattern : STREAMING_PATTERNS) {
+			final NavigationTreePattern ntp = XmlInputFormats.pattern(pattern);
+			final NestedMetadata signature = XmlInputFormats.signature(ntp);
+			final List<String> expected = XmlInputFormats.print(
+					XmlInputFormats.read(this.streamingFormat(document, ntp, false, 0), 1), signature);
+			assertFalse(pattern, expected.isEmpty());
+			assertEquals(pattern, expected, XmlInputFormats.print(
+					XmlInputFormats.read(this.streamingFormat(document, ntp, true, 0), 1), signature));
+		}
+	}
+
+	@Test
+	public void testMaxMatches() throws Exception {
+		final StringBuilder document = new StringBuilder("<site><items>");
+		for(int i = 0; i < 1000; i++)
+			document.append("<item><name>item").append(i).append("</name><bid>").append(i).append("</bid></item>");
+		document.append("</items></site>");
+		final File input = XmlInputFormats.writeDocument(this.folder.newFolder(), "large.xml", document.toString());
+
+		final NavigationTreePattern ntp = XmlInputFormats.pattern(STREAMING_PATTERNS[0]);
+		final NestedMetadata signature = XmlInputFormats.signature(ntp);
+		final List<String> expected = XmlInputFormats.print(
+				XmlInputFormats.read(this.streamingFormat(input, ntp, false, 0), 1), signature);
+		assertEquals(1000, expected.size());
+		// streamed, the matches of the items do not accumulate
+		assertEquals(expected, XmlInputFormats.print(
+				XmlInputFormats.read(this.streamingFormat(input, ntp, true, 10), 1), signature));
+		try {
+			XmlInputFormats.read(this.streamingFormat(input, ntp, false, 10), 1);
+			fail("More matches held than allowed");
+		} catch (IOException e) {
+			assertTrue(e.getMessage(), e.getMessage().contains("pattern node 2 ({}item)"));
+		}
+	}
+
+	@Test
+	public void testStatisticsCountBytes() throws Exception {
+		// names of two-byte characters, and more than the bytes sampled in a document
+		final StringBuilder document = new StringBuilder("<site><items>");
+		final StringBuilder name = new StringBuilder();
+		for(int i = 0; i < 100; i++)
+			name.append('\u00e9');
+		final int items = 60000;
+		for(int i = 0; i < items; i++)
+			document.append("<item><name>").append(name).append(i).append("</name></item>\n");
+		document.append("</items></site>");
+		final File input = this.folder.newFolder();
+		XmlInputFormats.writeDocument(input, "large.xml", document.toString());
+		
+		final FileDataSource source = XmlInputFormats.source(XmlNavTreePatternInputFormat.class, input);
+		XmlNavTreePatternInputFormat.configureXmlNavInputFormat(source)
+				.setNavigationTreePattern(this.ntp)
+				.setPipelined(true)
+				.setStatisticsCache(this.folder.newFolder().getPath());
+		final XmlNavTreePatternInputFormat format = XmlInputFormats.configure(XmlNavTreePatternInputFormat.class, source);
+		final long records = format.getStatistics(null).getNumberOfRecords();
+		assertTrue(String.valueOf(records), Math.abs(records - items) < items / 20);
+		
+		// sampling leaves the format as configured
+		assertEquals(items, XmlInputFormats.read(format, 1).size());
+	}
+	
+	/**
+	 * Keeps the records of one pattern of a multi-pattern input, the way the map after the
+	 * shared data source does.
+	 */
+	private static List<Record> patternSplit(List<Record> records, int patternIndex) {
+		final List<Record> split = new ArrayList<Record>();
+		final Collector<Record> collector = new Collector<Record>() {
+			@Override
+			public void collect(Record record) {
+				split.add(record);
+			}
+
+			@Override
+			public void close() {
+			}
+		};
+		for(Record record : records)
+			PatternSplitOperator.patternSplit(record.createCopy(), patternIndex, collector);
+		return split;
+	}
+
+	@Test
+	public void testMultiplePatternsSameRecords() throws Exception {
+		final NavigationTreePattern[] ntps = new NavigationTreePattern[]{
+				XmlInputFormats.pattern(ITEMS), XmlInputFormats.pattern(ITEM_NAMES), XmlInputFormats.pattern(SITE_ITEM_NAMES)};
+		for(boolean pipelined : new boolean[]{ false, true }) {
+			final FileDataSource source = XmlInputFormats.source(XmlNavTreePatternInputFormat.class, this.collection);
+			XmlNavTreePatternInputFormat.configureXmlNavInputFormat(source)
+					.setNavigationTreePatterns(ntps)
+					.setAttachDocumentID(true)
+					.setPipelined(pipelined)
+					.setPackSize(1024 * 1024)
+					.setSampleDocuments(0);
+			final List<Record> records = XmlInputFormats.read(
+					XmlInputFormats.configure(XmlNavTreePatternInputFormat.class, source), 2);
+
+			int total = 0;
+			for(int i = 0; i < ntps.length; i++) {
+				this.ntp = ntps[i];
+				final List<String> expected = this.read(this.format(pipelined, 1024 * 1024), 2);
+				assertEquals(3 + 4 + 5 + 6 + 7 + 8, expected.size());
+				final List<Record> split = patternSplit(records, i);
+				assertEquals(expected, XmlInputFormats.print(split, XmlInputFormats.signatureWithDocumentID(ntps[i])));
+				total += split.size();
+			}
+			// each record is tagged with exactly one pattern
+			assertEquals(records.size(), total);
+		}
+	}
+
+	@Test
+	public void testPipelinedPackedSplit() throws Exception {
+		final List<String> expected = this.read(this.format(false, 1024 * 1024), 1);
+		assertEquals(3 + 4 + 5 + 6 + 7 + 8, expected.size());
+		assertTrue(expected.get(0), expected.get(0).contains(", item"));
+		assertEquals(expected, this.read(this.format(true, 1024 * 1024), 1));
+		assertEquals(expected, this.read(this.format(true, 1024 * 1024), 3));
+	}
+
+	@Test
+	public void testPipelinedUnpackedSplits() throws Exception {
+		assertEquals(this.read(this.format(false, 0), 1), this.read(this.format(true, 0), 1));
+	}
+
+	@Test
+	public void testPipelineReusedAcrossDocuments() throws Exception {
+		final XmlNavTreePatternInputFormat format = this.format(true, 1024 * 1024);
+		final FileInputSplit[] splits = format.createInputSplits(1);
+		assertEquals(1, splits.length);
+
+		format.open(splits[0]);
+		try {
+			int records = 0;
+			while(!format.reachedEnd()) {
+				if(format.nextRecord(new Record()) != null)
+					records++;
+				// the threads of the split go from one document to the next
+				assertTrue(countThreads("XML parsing") <= 1);
+				assertTrue(countThreads("XML extraction") <= 1);
+			}
+			assertEquals(33, records);
+		} finally {
+			format.close();
+		}
+		assertEquals(0, countThreads("XML parsing"));
+		assertEquals(0, countThreads("XML extraction"));
+	}
+
+	@Test
+	public void testPipelinedMalformedDocument() throws Exception {
+		XmlInputFormats.writeDocument(this.collection, "doc2.xml", "<site><items><item><name>broken</name></item><item><name>");
+		final List<String> expected = this.read(this.format(false, 1024 * 1024), 1);
+		assertEquals(expected, this.read(this.format(true, 1024 * 1024), 1));
+		assertEquals(3 + 4 + 1 + 6 + 7 + 8, expected.size());
+	}
+
+	@Test
+	public void testPipelinedCloseBeforeEnd() throws Exception {
+		final XmlNavTreePatternInputFormat format = this.format(true, 1024 * 1024);
+		final List<Record> records = new ArrayList<Record>();
+		format.open(format.createInputSplits(1)[0]);
+		try {
+			records.add(format.nextRecord(new Record()));
+		} finally {
+			format.close();
+		}
+		assertEquals(1, records.size());
+		assertEquals(0, countThreads("XML parsing"));
+		assertEquals(0, countThreads("XML extraction"));
+	}
+
+	private static PipelinedXmlStreamReader.DocumentSource documents(final String... documents) {
+		return new PipelinedXmlStreamReader.DocumentSource() {
+			private int next;
+			public XMLStreamReader nextDocument() throws IOException {
+				if(this.next == documents.length)
+					return null;
+				return xmlReader(documents[this.next++]);
+			}
+			public String getDocumentID() {
+				return "doc" + this.next;
+			}
+			public void close() {
+			}
+		};
+	}
+
+	private static XMLStreamReader xmlReader(String document) {
+		try {
+			return XMLInputFactory.newInstance().createXMLStreamReader(new StringReader(document));
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Checks the namespaces against the parser; the scopes of a document left halfway are
+	 * dropped by the next one.
+	 */
+	@Test
+	public void testPipelinedNamespaceContext() throws Exception {
+		final PipelinedXmlStreamReader actual = new PipelinedXmlStreamReader(
+				documents(XmlInputFormats.NAMESPACES, XmlInputFormats.NAMESPACES, XmlInputFormats.TEXT));
+		actual.start("XML parsing test");
+		try {
+			assertTrue(actual.nextDocument());
+			assertEquals(XMLStreamConstants.START_ELEMENT, actual.nextTag());
+			assertEquals(XMLStreamConstants.START_ELEMENT, actual.nextTag());
+			assertEquals("a", actual.getLocalName());
+			assertTrue(actual.nextDocument());
+			assertEquals("doc2", actual.getDocumentID());
+			final XMLStreamReader expected = xmlReader(XmlInputFormats.NAMESPACES);
+			int elements = 0;
+			while(expected.hasNext()) {
+				assertEquals(expected.next(), actual.next());
+				if(expected.hasName())
+					assertEquals(expected.getName(), actual.getName());
+				XmlInputFormats.assertSameNamespaces(expected, actual);
+				if(expected.isStartElement())
+					elements++;
+			}
+			assertEquals(6, elements);
+			assertTrue(actual.nextDocument());
+			assertEquals(XMLStreamConstants.START_ELEMENT, actual.nextTag());
+			XmlInputFormats.assertElementTextAndNextTag(actual);
+			assertFalse(actual.nextDocument());
+		} finally {
+			actual.stop();
+		}
+	}
+
+}
@@ -0,0 +1,267 @@
+/*******************************************************************************
+ * Copyright (C) 2013, 2014, 2015 by Inria and Paris-Sud University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package fr.inria.oak.paxquery.pact.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import javax.xml.XMLConstants;
+import javax.xml.namespace.NamespaceContext;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.flink.api.java.record.operators.FileDataSource;
+import org.apache.flink.core.fs.FileInputSplit;
+import org.apache.flink.types.Record;
+import org.apache.flink.types.Value;
+
+import fr.inria.oak.paxquery.common.datamodel.metadata.MetadataTypes;
+import fr.inria.oak.paxquery.common.datamodel.metadata.NestedMetadata;
+import fr.inria.oak.paxquery.common.datamodel.metadata.NestedMetadataUtils;
+import fr.inria.oak.paxquery.common.xml.navigation.NavigationTreePattern;
+import fr.inria.oak.paxquery.common.xml.navigation.NavigationTreePatternUtils;
+import fr.inria.oak.paxquery.pact.datamodel.type.RecordList;
+import fr.inria.oak.paxquery.pact.operations.RecordOperations;
+
+
+/**
+ * Runs the XML input formats over documents written by the tests, the way a data source task
+ * does, and prints the records they produce. Also checks the stream readers that replay events.
+ * 
+ */
+final class XmlInputFormats {
+	
+	/**
+	 * Document whose elements declare, rebind and undeclare namespaces.
+	 */
+	static final String NAMESPACES =
+			"<r xmlns=\"urn:d\" xmlns:p=\"urn:p\"><a xmlns:p=\"urn:q\" xmlns:s=\"urn:p\"><p:b/><c xmlns=\"\"/></a>" +
+			"<p:d xmlns:t=\"urn:t\">x</p:d><e/></r>";
+	
+	private static final String[] PREFIXES = { "", "p", "s", "t", "xml", "xmlns", "unbound" };
+	
+	private static final String[] NAMESPACE_URIS = { "urn:d", "urn:p", "urn:q", "urn:t", XMLConstants.XML_NS_URI, "urn:unbound" };
+	
+	/**
+	 * Document read by {@link #assertElementTextAndNextTag(XMLStreamReader)}.
+	 */
+	static final String TEXT = "<r>\n  <a>text &amp; <![CDATA[more]]></a>\n  <b><c/></b>\n  <d/>\n</r>";
+	
+	private XmlInputFormats() {
+	}
+	
+	static NavigationTreePattern pattern(String pattern) {
+		return NavigationTreePatternUtils.getTreePatternFromString(pattern, "NavigationTreePattern");
+	}
+	
+	/**
+	 * Writes a document in a new temporary file, in UTF-8.
+	 */
+	static File writeDocument(File directory, String name, String document) throws IOException {
+		final File file = new File(directory, name);
+		final OutputStream out = new FileOutputStream(file);
+		try {
+			out.write(document.getBytes("UTF-8"));
+		} finally {
+			out.close();
+		}
+		return file;
+	}
+	
+	/**
+	 * @return the source of a collection, whose parameters are set through
+	 * {@link XmlNavTreePatternInputFormat#configureXmlNavInputFormat(FileDataSource)}
+	 */
+	static FileDataSource source(Class<? extends XmlNavTreePatternInputFormat> formatClass, File collection) {
+		return new FileDataSource(formatClass, collection.toURI().toString(), "XmlScan");
+	}
+	
+	static <T extends XmlNavTreePatternInputFormat> T configure(Class<T> formatClass, FileDataSource source) throws Exception {
+		final T format = formatClass.newInstance();
+		format.setFilePath(source.getFilePath());
+		format.configure(source.getParameters());
+		return format;
+	}
+	
+	/**
+	 * Reads all the splits of the input, in order, with the same format instance.
+	 */
+	static List<Record> read(XmlNavTreePatternInputFormat format, int minSplits) throws IOException {
+		final List<Record> records = new ArrayList<Record>();
+		for(FileInputSplit split : format.createInputSplits(minSplits))
+			records.addAll(read(format, split));
+		return records;
+	}
+	
+	static List<Record> read(XmlNavTreePatternInputFormat format, FileInputSplit split) throws IOException {
+		final List<Record> records = new ArrayList<Record>();
+		format.open(split);
+		try {
+			while(!format.reachedEnd()) {
+				final Record record = format.nextRecord(new Record());
+				if(record != null)
+					records.add(record);
+			}
+		} finally {
+			format.close();
+		}
+		return records;
+	}
+	
+	/**
+	 * @return the signature of the records of a pattern
+	 */
+	static NestedMetadata signature(NavigationTreePattern ntp) throws Exception {
+		return NestedMetadataUtils.getNRSMD(ntp.getRoot(), new HashMap<Integer, HashMap<String, ArrayList<Integer>>>());
+	}
+	
+	/**
+	 * @return the signature of the records of a pattern, prefixed with the document ID
+	 */
+	static NestedMetadata signatureWithDocumentID(NavigationTreePattern ntp) throws Exception {
+		return NestedMetadataUtils.appendNRSMD(new NestedMetadata(1, new MetadataTypes[]{MetadataTypes.STRING_TYPE}),
+				signature(ntp));
+	}
+	
+	/**
+	 * Checks the namespaces declared by the current element of a reader, and those in scope,
+	 * against a parser at the same event.
+	 */
+	static void assertSameNamespaces(XMLStreamReader expected, XMLStreamReader actual) {
+		if(!expected.hasName())
+			return;
+		assertEquals(expected.getNamespaceCount(), actual.getNamespaceCount());
+		for(int i = 0; i < expected.getNamespaceCount(); i++) {
+			assertEquals(empty(expected.getNamespacePrefix(i)), empty(actual.getNamespacePrefix(i)));
+			assertEquals(expected.getNamespaceURI(i), actual.getNamespaceURI(i));
+		}
+		final NamespaceContext expectedContext = expected.getNamespaceContext();
+		final NamespaceContext actualContext = actual.getNamespaceContext();
+		for(String prefix : PREFIXES) {
+			assertEquals(prefix, empty(expectedContext.getNamespaceURI(prefix)), actualContext.getNamespaceURI(prefix));
+			assertEquals(prefix, empty(expected.getNamespaceURI(prefix)), empty(actual.getNamespaceURI(prefix)));
+		}
+		for(String namespaceURI : NAMESPACE_URIS) {
+			// the parser also gives the prefixes that an inner declaration binds to another namespace
+			final Set<Object> expectedPrefixes = new HashSet<Object>();
+			for(Iterator<?> it = expectedContext.getPrefixes(namespaceURI); it.hasNext(); ) {
+				final String prefix = (String) it.next();
+				if(namespaceURI.equals(expectedContext.getNamespaceURI(prefix)))
+					expectedPrefixes.add(prefix);
+			}
+			final Set<Object> actualPrefixes = new HashSet<Object>();
+			for(Iterator<?> it = actualContext.getPrefixes(namespaceURI); it.hasNext(); )
+				actualPrefixes.add(it.next());
+			assertEquals(namespaceURI, expectedPrefixes, actualPrefixes);
+			final String prefix = actualContext.getPrefix(namespaceURI);
+			assertTrue(namespaceURI, prefix == null ? expectedPrefixes.isEmpty() : expectedPrefixes.contains(prefix));
+		}
+	}
+	
+	private static String empty(String s) {
+		return s != null ? s : "";
+	}
+	
+	/**
+	 * Reads {@link #TEXT} with getElementText and nextTag, from its root element.
+	 */
+	static void assertElementTextAndNextTag(XMLStreamReader reader) throws XMLStreamException {
+		assertEquals("r", reader.getLocalName());
+		assertEquals(XMLStreamConstants.START_ELEMENT, reader.nextTag());
+		assertEquals("a", reader.getLocalName());
+		// the text of an element, up to its end element
+		assertEquals("text & more", reader.getElementText());
+		assertEquals(XMLStreamConstants.END_ELEMENT, reader.getEventType());
+		assertEquals("a", reader.getLocalName());
+		// an element has no text
+		assertEquals(XMLStreamConstants.START_ELEMENT, reader.nextTag());
+		try {
+			reader.getElementText();
+			fail("Element text read over a start element");
+		} catch (XMLStreamException e) {
+			assertEquals("c", reader.getLocalName());
+		}
+		assertEquals(XMLStreamConstants.END_ELEMENT, reader.nextTag());
+		assertEquals(XMLStreamConstants.END_ELEMENT, reader.nextTag());
+		assertEquals("b", reader.getLocalName());
+		// nor an end element
+		try {
+			reader.getElementText();
+			fail("Element text read from an end element");
+		} catch (XMLStreamException e) {
+			assertEquals("b", reader.getLocalName());
+		}
+		assertEquals(XMLStreamConstants.START_ELEMENT, reader.nextTag());
+		assertEquals("", reader.getElementText());
+		assertEquals(XMLStreamConstants.END_ELEMENT, reader.nextTag());
+		assertEquals("r", reader.getLocalName());
+		try {
+			reader.nextTag();
+			fail("End of document read as a tag");
+		} catch (XMLStreamException e) {
+			assertEquals(XMLStreamConstants.END_DOCUMENT, reader.getEventType());
+		}
+	}
+	
+	static List<String> print(List<Record> records, NestedMetadata signature) {
+		final List<String> printed = new ArrayList<String>();
+		for(Record record : records)
+			printed.add(print(record, signature));
+		return printed;
+	}
+	
+	/**
+	 * Prints the fields of a record, nested lists between brackets and null fields as "null".
+	 */
+	static String print(Record record, NestedMetadata signature) {
+		final StringBuilder sb = new StringBuilder("(");
+		for(int i = 0; i < signature.getColNo(); i++) {
+			if(i > 0)
+				sb.append(", ");
+			final MetadataTypes type = signature.getType(i);
+			if(type == MetadataTypes.TUPLE_TYPE) {
+				sb.append('[');
+				boolean first = true;
+				for(Record nested : record.getField(i, RecordList.class)) {
+					if(!first)
+						sb.append(", ");
+					sb.append(print(nested, signature.getNestedChild(i)));
+					first = false;
+				}
+				sb.append(']');
+			}
+			else {
+				final Value value = RecordOperations.getField(record, i, type);
+				sb.append(RecordOperations.isNull(value) ? "null" : value.toString());
+			}
+		}
+		return sb.append(')').toString();
+	}
+	
+}
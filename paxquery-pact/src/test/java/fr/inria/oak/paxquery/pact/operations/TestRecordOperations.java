@@ -0,0 +1,234 @@
+/*******************************************************************************
+ * Copyright (C) 2013, 2014, 2015 by Inria and Paris-Sud University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package fr.inria.oak.paxquery.pact.operations;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import org.apache.flink.core.memory.InputViewDataInputStreamWrapper;
+import org.apache.flink.core.memory.OutputViewDataOutputStreamWrapper;
+import org.apache.flink.types.DoubleValue;
+import org.apache.flink.types.LongValue;
+import org.apache.flink.types.Record;
+import org.apache.flink.types.StringValue;
+import org.apache.flink.types.Value;
+import org.junit.Test;
+
+import fr.inria.oak.paxquery.common.aggregation.AggregationType;
+import fr.inria.oak.paxquery.common.datamodel.metadata.MetadataTypes;
+import fr.inria.oak.paxquery.common.datamodel.metadata.NestedMetadata;
+import fr.inria.oak.paxquery.pact.datamodel.type.OrderedIDValue;
+import fr.inria.oak.paxquery.pact.datamodel.type.RecordList;
+import fr.inria.oak.paxquery.pact.datamodel.type.StructuralIDValue;
+import fr.inria.oak.paxquery.pact.operations.aggregation.BaseAggregationOperation;
+
+
+public class TestRecordOperations {
+
+	private static final MetadataTypes[] TYPES = {MetadataTypes.STRING_TYPE, MetadataTypes.INTEGER_TYPE,
+			MetadataTypes.LONG_TYPE, MetadataTypes.DOUBLE_TYPE, MetadataTypes.STRUCTURAL_ID, MetadataTypes.ORDERED_ID,
+			MetadataTypes.UPDATE_ID};
+
+	/**
+	 * @return a record [s0, 1, s2, 3, ...] of the given number of fields, whose last field is a
+	 * nested list
+	 */
+	private static Record record(int fieldNo) {
+		final Record record = new Record();
+		for(int i = 0; i < fieldNo - 1; i++)
+			record.addField(i % 2 == 0 ? new StringValue("s" + i) : new LongValue(i));
+		final RecordList list = new RecordList();
+		final Record nestedRecord = new Record();
+		nestedRecord.addField(new StringValue("nested"));
+		list.add(nestedRecord);
+		record.addField(list);
+		return record;
+	}
+
+	/**
+	 * Checks that the field of the projection comes from the given field of the record.
+	 */
+	private static void assertField(Record record, int column, Record projection, int projectedColumn) {
+		final int fieldNo = record.getNumFields();
+		if(column == fieldNo - 1) {
+			final RecordList list = projection.getField(projectedColumn, RecordList.class);
+			assertEquals(1, list.size());
+			for(Record nestedRecord : list)
+				assertEquals("nested", nestedRecord.getField(0, StringValue.class).getValue());
+		}
+		else if(column % 2 == 0)
+			assertEquals("s" + column, projection.getField(projectedColumn, StringValue.class).getValue());
+		else
+			assertEquals(column, projection.getField(projectedColumn, LongValue.class).getValue());
+	}
+
+	private static Record roundTrip(Record record) throws IOException {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		record.write(new OutputViewDataOutputStreamWrapper(new DataOutputStream(bytes)));
+		final Record read = new Record();
+		read.read(new InputViewDataInputStreamWrapper(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))));
+		return read;
+	}
+
+	@Test
+	public void testProject() throws IOException {
+		final Record output = new Record();
+		// reordered and repeated columns, beyond the cached positions, and no column at all
+		final int[][] keepColumnsList = {{0, 1, 2}, {4, 0, 2}, {3, 3}, {}, {39, 1, 34, 0}, {5}};
+		for(int fieldNo : new int[]{6, 40}) {
+			final Record record = record(fieldNo);
+			for(int[] keepColumns : keepColumnsList) {
+				boolean inRecord = true;
+				for(int column : keepColumns)
+					inRecord &= column < fieldNo;
+				if(!inRecord)
+					continue;
+
+				// the output record is reused, with more fields than the projection
+				RecordOperations.project(record, keepColumns, output);
+				assertEquals(keepColumns.length, output.getNumFields());
+				final Record read = roundTrip(output);
+				for(int i = 0; i < keepColumns.length; i++) {
+					assertField(record, keepColumns[i], output, i);
+					assertField(record, keepColumns[i], read, i);
+				}
+			}
+			// the record is not modified
+			assertEquals(fieldNo, record.getNumFields());
+			for(int i = 0; i < fieldNo; i++)
+				assertField(record, i, record, i);
+		}
+	}
+
+	@Test
+	public void testAppendFields() throws IOException {
+		final Record record = record(4);
+		final Record target = record(3);
+		RecordOperations.appendFields(target, record, new int[]{3, 1});
+		assertEquals(5, target.getNumFields());
+		assertEquals("s0", target.getField(0, StringValue.class).getValue());
+		assertField(record, 3, target, 3);
+		assertField(record, 1, target, 4);
+
+		final Record concatenation = record(2);
+		RecordOperations.concatenate(concatenation, record);
+		final Record read = roundTrip(concatenation);
+		assertEquals(6, read.getNumFields());
+		assertEquals("s0", read.getField(0, StringValue.class).getValue());
+		for(int i = 0; i < 4; i++)
+			assertField(record, i, read, i + 2);
+
+		RecordOperations.concatenate(concatenation, new Record());
+		assertEquals(6, concatenation.getNumFields());
+	}
+
+	@Test
+	public void testNullFields() {
+		for(MetadataTypes type : TYPES)
+			assertTrue(type.toString(), RecordOperations.isNull(RecordOperations.createNullField(type)));
+		assertTrue(RecordOperations.isNull(RecordOperations.createNullField()));
+		assertTrue(RecordOperations.isNull(new StringValue("\0")));
+
+		// values that look like the null string, and the other values of each type
+		assertFalse(RecordOperations.isNull(new StringValue("")));
+		assertFalse(RecordOperations.isNull(new StringValue("\0\0")));
+		assertFalse(RecordOperations.isNull(new StringValue("0")));
+		assertFalse(RecordOperations.isNull(new LongValue(0)));
+		assertFalse(RecordOperations.isNull(new LongValue(-1)));
+		assertFalse(RecordOperations.isNull(new DoubleValue(0)));
+		assertFalse(RecordOperations.isNull(new DoubleValue(Double.NEGATIVE_INFINITY)));
+		assertFalse(RecordOperations.isNull(new StructuralIDValue(0, 0, 0)));
+		assertFalse(RecordOperations.isNull(new OrderedIDValue(0)));
+		assertFalse(RecordOperations.isNull(new RecordList()));
+	}
+
+	@Test
+	public void testValueFields() {
+		assertEquals(new LongValue(42), RecordOperations.createValueField("42", MetadataTypes.LONG_TYPE));
+		assertEquals(new DoubleValue(4.5), RecordOperations.createValueField("4.5", MetadataTypes.DOUBLE_TYPE));
+		assertEquals(new StringValue("42"), RecordOperations.createValueField("42", MetadataTypes.STRING_TYPE));
+		// missing values and values that are not numbers of the type are null
+		for(MetadataTypes type : TYPES) {
+			if(type != MetadataTypes.STRUCTURAL_ID && type != MetadataTypes.ORDERED_ID)
+				assertTrue(RecordOperations.isNull(RecordOperations.createValueField(null, type)));
+		}
+		assertTrue(RecordOperations.isNull(RecordOperations.createValueField("4.5", MetadataTypes.LONG_TYPE)));
+		assertTrue(RecordOperations.isNull(RecordOperations.createValueField("many", MetadataTypes.DOUBLE_TYPE)));
+	}
+
+	@Test
+	public void testNullRecord() {
+		final NestedMetadata child = new NestedMetadata(2, new MetadataTypes[]{MetadataTypes.STRING_TYPE, MetadataTypes.LONG_TYPE});
+		final NestedMetadata signature = new NestedMetadata(new MetadataTypes[]{MetadataTypes.STRUCTURAL_ID,
+				MetadataTypes.DOUBLE_TYPE, MetadataTypes.TUPLE_TYPE}, new NestedMetadata[]{child});
+		final Record record = RecordOperations.createNullRecord(signature);
+		assertEquals(3, record.getNumFields());
+		assertTrue(RecordOperations.isNull(RecordOperations.getField(record, 0, MetadataTypes.STRUCTURAL_ID)));
+		assertTrue(RecordOperations.isNull(RecordOperations.getField(record, 1, MetadataTypes.DOUBLE_TYPE)));
+		final RecordList list = record.getField(2, RecordList.class);
+		assertEquals(1, list.size());
+		for(Record nestedRecord : list) {
+			assertTrue(RecordOperations.isNull(RecordOperations.getField(nestedRecord, 0, MetadataTypes.STRING_TYPE)));
+			assertTrue(RecordOperations.isNull(RecordOperations.getField(nestedRecord, 1, MetadataTypes.LONG_TYPE)));
+		}
+
+		// null numbers and IDs are read as the null string
+		for(int column = 0; column < 2; column++)
+			assertTrue(RecordOperations.isNull(RecordOperations.getStringField(record, column, signature.getType(column))));
+	}
+
+	/**
+	 * The aggregations skip the null values of every column type.
+	 */
+	@Test
+	public void testAggregationsSkipNulls() {
+		final MetadataTypes[] types = {MetadataTypes.STRING_TYPE, MetadataTypes.LONG_TYPE, MetadataTypes.DOUBLE_TYPE};
+		final Value[] values = {new StringValue("2"), new LongValue(2), new DoubleValue(2)};
+		final AggregationType[] aggregationTypes = {AggregationType.COUNT, AggregationType.MAX, AggregationType.MIN, AggregationType.SUM};
+		final String[] expected = {"1", "2.0", "2.0", "2.0"};
+		for(int t = 0; t < types.length; t++) {
+			for(int a = 0; a < aggregationTypes.length; a++) {
+				final BaseAggregationOperation operation = BaseAggregationOperation.create(aggregationTypes[a], types[t]);
+				operation.aggregate(RecordOperations.createNullField(types[t]));
+				operation.aggregate(values[t]);
+				operation.aggregate(RecordOperations.createNullField(types[t]));
+				assertEquals(aggregationTypes[a] + " of " + types[t], expected[a], operation.returnResult().toString());
+			}
+		}
+
+		// without values, the maximum and the minimum are null
+		final BaseAggregationOperation max = BaseAggregationOperation.create(AggregationType.MAX, MetadataTypes.LONG_TYPE);
+		max.aggregate(RecordOperations.createNullField(MetadataTypes.LONG_TYPE));
+		assertTrue(RecordOperations.isNull(max.returnResult()));
+		final BaseAggregationOperation count = BaseAggregationOperation.create(AggregationType.COUNT, MetadataTypes.STRUCTURAL_ID);
+		count.aggregate(RecordOperations.createNullField(MetadataTypes.STRUCTURAL_ID));
+		count.aggregate(new StructuralIDValue(1, 1, 1));
+		assertEquals("1", count.returnResult().toString());
+
+		// null partial results are skipped when they are combined
+		count.combineAggregation(RecordOperations.createNullField());
+		count.combineAggregation(new StringValue("3"));
+		assertEquals("4", count.returnResult().toString());
+	}
+
+}
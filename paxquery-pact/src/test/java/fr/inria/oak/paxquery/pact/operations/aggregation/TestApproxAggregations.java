@@ -0,0 +1,113 @@
+/*******************************************************************************
+ * Copyright (C) 2013, 2014, 2015 by Inria and Paris-Sud University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package fr.inria.oak.paxquery.pact.operations.aggregation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.flink.types.DoubleValue;
+import org.apache.flink.types.LongValue;
+import org.apache.flink.types.StringValue;
+import org.apache.flink.types.Value;
+import org.junit.Test;
+
+import fr.inria.oak.paxquery.common.aggregation.AggregationType;
+import fr.inria.oak.paxquery.common.datamodel.metadata.MetadataTypes;
+import fr.inria.oak.paxquery.pact.operations.RecordOperations;
+
+
+
+public class TestApproxAggregations {
+	
+	private static double getDouble(Value result) {
+		return Double.parseDouble(((StringValue) result).getValue());
+	}
+	
+	@Test
+	public void testMedian() {
+		final BaseAggregationOperation median = BaseAggregationOperation.create(AggregationType.APPROX_MEDIAN, MetadataTypes.STRING_TYPE);
+		for(String value: new String[]{"5", "1", "\0", "4", "abc", "2", "", "NaN", "3"})
+			median.aggregate(new StringValue(value));
+		assertEquals(3, getDouble(median.returnResult()), 0);
+		
+		final BaseAggregationOperation doubleMedian = BaseAggregationOperation.create(AggregationType.APPROX_MEDIAN, MetadataTypes.DOUBLE_TYPE);
+		doubleMedian.aggregate(new DoubleValue(2.5));
+		doubleMedian.aggregate(new DoubleValue(RecordOperations.NULL_DOUBLE));
+		assertEquals(2.5, getDouble(doubleMedian.returnResult()), 0);
+		
+		final BaseAggregationOperation longMedian = BaseAggregationOperation.create(AggregationType.APPROX_MEDIAN, MetadataTypes.LONG_TYPE);
+		longMedian.aggregate(new LongValue(RecordOperations.NULL_LONG));
+		longMedian.aggregate(new LongValue(7));
+		assertEquals(7, getDouble(longMedian.returnResult()), 0);
+	}
+	
+	@Test
+	public void testMedianWithoutNumbers() {
+		final BaseAggregationOperation median = BaseAggregationOperation.create(AggregationType.APPROX_MEDIAN, MetadataTypes.STRING_TYPE);
+		median.aggregate(new StringValue("abc"));
+		median.aggregate(RecordOperations.createNullField());
+		assertTrue(RecordOperations.isNull(median.returnResult()));
+		
+		final BaseAggregationOperation merged = BaseAggregationOperation.create(AggregationType.APPROX_MEDIAN, MetadataTypes.STRING_TYPE);
+		merged.combineAggregation(median.returnPartialResult());
+		merged.combineAggregation(RecordOperations.createNullField());
+		assertTrue(RecordOperations.isNull(merged.returnResult()));
+	}
+	
+	@Test
+	public void testMedianOfUnsupportedType() {
+		final BaseAggregationOperation median = BaseAggregationOperation.create(AggregationType.APPROX_MEDIAN, MetadataTypes.TUPLE_TYPE);
+		median.aggregate(new StringValue("1"));
+		median.combineAggregation(new StringValue("1"));
+		assertNull(median.returnResult());
+		assertNull(median.returnPartialResult());
+	}
+	
+	@Test
+	public void testMedianMerge() {
+		final BaseAggregationOperation[] partials = new BaseAggregationOperation[3];
+		for(int i=0; i<partials.length; i++)
+			partials[i] = BaseAggregationOperation.create(AggregationType.APPROX_MEDIAN, MetadataTypes.STRING_TYPE);
+		for(int i=1; i<=99; i++)
+			partials[i % partials.length].aggregate(new StringValue(String.valueOf(i)));
+		
+		final BaseAggregationOperation merged = BaseAggregationOperation.create(AggregationType.APPROX_MEDIAN, MetadataTypes.STRING_TYPE);
+		for(BaseAggregationOperation partial: partials)
+			merged.combineAggregation(partial.returnPartialResult());
+		assertEquals(50, getDouble(merged.returnResult()), 0);
+	}
+	
+	@Test
+	public void testCountDistinctMerge() {
+		final BaseAggregationOperation[] partials = new BaseAggregationOperation[3];
+		for(int i=0; i<partials.length; i++)
+			partials[i] = BaseAggregationOperation.create(AggregationType.APPROX_COUNT_DISTINCT, MetadataTypes.STRING_TYPE);
+		//every value is seen by two of the operations, and null values are not counted
+		for(int i=0; i<600; i++) {
+			partials[i % 3].aggregate(new StringValue("value" + i));
+			partials[(i + 1) % 3].aggregate(new StringValue("value" + i));
+			partials[i % 3].aggregate(RecordOperations.createNullField());
+		}
+		
+		final BaseAggregationOperation merged = BaseAggregationOperation.create(AggregationType.APPROX_COUNT_DISTINCT, MetadataTypes.STRING_TYPE);
+		for(BaseAggregationOperation partial: partials)
+			merged.combineAggregation(partial.returnPartialResult());
+		merged.combineAggregation(RecordOperations.createNullField());
+		assertEquals(600, (long) getDouble(merged.returnResult()));
+	}
+	
+}
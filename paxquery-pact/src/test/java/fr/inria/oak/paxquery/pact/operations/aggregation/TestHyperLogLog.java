@@ -0,0 +1,110 @@
+/*******************************************************************************
+ * Copyright (C) 2013, 2014, 2015 by Inria and Paris-Sud University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package fr.inria.oak.paxquery.pact.operations.aggregation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+
+
+public class TestHyperLogLog {
+	
+	/**
+	 * Three times the standard error of the sketch with registers
+	 */
+	private static final double ERROR_BOUND = 3 * 1.04 / Math.sqrt(1 << 14);
+	
+	
+	private static HyperLogLog sketch(int from, int to) {
+		final HyperLogLog sketch = new HyperLogLog();
+		for(int i=from; i<to; i++)
+			sketch.add(HyperLogLog.hash("value" + i));
+		return sketch;
+	}
+	
+	private static void assertEstimate(long expected, long estimate) {
+		final double error = Math.abs(estimate - expected) / (double) expected;
+		assertTrue("estimate " + estimate + " of " + expected, error <= ERROR_BOUND);
+	}
+	
+	@Test
+	public void testSmallSetIsExact() {
+		final HyperLogLog sketch = sketch(0, 1000);
+		for(int i=0; i<1000; i+=3)
+			sketch.add(HyperLogLog.hash("value" + i));
+		assertEquals(1000, sketch.estimate());
+		assertEquals(0, new HyperLogLog().estimate());
+	}
+	
+	@Test
+	public void testErrorBound() {
+		for(int distinct: new int[]{1025, 5000, 50000, 500000})
+			assertEstimate(distinct, sketch(0, distinct).estimate());
+	}
+	
+	@Test
+	public void testDuplicates() {
+		final HyperLogLog sketch = sketch(0, 20000);
+		final long estimate = sketch.estimate();
+		for(int i=0; i<20000; i++)
+			sketch.add(HyperLogLog.hash("value" + i));
+		assertEquals(estimate, sketch.estimate());
+	}
+	
+	@Test
+	public void testMerge() {
+		//overlapping sets, with registers
+		final HyperLogLog merged = sketch(0, 30000);
+		merged.merge(sketch(20000, 60000));
+		merged.merge(sketch(50000, 100000));
+		assertEquals(sketch(0, 100000).estimate(), merged.estimate());
+		assertEstimate(100000, merged.estimate());
+		
+		//small sets, counted exactly as long as their union is small
+		final HyperLogLog small = sketch(0, 400);
+		small.merge(sketch(200, 900));
+		assertEquals(900, small.estimate());
+		
+		//small sets whose union needs registers
+		small.merge(sketch(900, 1800));
+		assertEquals(sketch(0, 1800).estimate(), small.estimate());
+		
+		//sketches with and without registers
+		final HyperLogLog sparse = sketch(0, 500);
+		sparse.merge(sketch(500, 10000));
+		assertEquals(sketch(0, 10000).estimate(), sparse.estimate());
+		final HyperLogLog dense = sketch(500, 10000);
+		dense.merge(sketch(0, 500));
+		assertEquals(sketch(0, 10000).estimate(), dense.estimate());
+	}
+	
+	@Test
+	public void testEncode() {
+		for(int distinct: new int[]{0, 100, 1024, 1025, 50000}) {
+			final HyperLogLog sketch = sketch(0, distinct);
+			final HyperLogLog decoded = HyperLogLog.decode(sketch.encode());
+			assertEquals(sketch.estimate(), decoded.estimate());
+			assertEquals(sketch.encode(), decoded.encode());
+		}
+		
+		final HyperLogLog merged = HyperLogLog.decode(sketch(0, 600).encode());
+		merged.merge(HyperLogLog.decode(sketch(300, 900).encode()));
+		assertEquals(900, merged.estimate());
+	}
+	
+}
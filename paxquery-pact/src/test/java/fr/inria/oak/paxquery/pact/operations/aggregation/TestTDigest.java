@@ -0,0 +1,119 @@
+/*******************************************************************************
+ * Copyright (C) 2013, 2014, 2015 by Inria and Paris-Sud University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package fr.inria.oak.paxquery.pact.operations.aggregation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+
+
+public class TestTDigest {
+	
+	private static final int VALUES = 100000;
+	
+	private static final double[] QUANTILES = {0.001, 0.01, 0.1, 0.25, 0.5, 0.75, 0.9, 0.99, 0.999};
+	
+	/**
+	 * Largest difference between the quantile and the rank of its estimate, as a fraction of the values
+	 */
+	private static final double RANK_ERROR = 0.005;
+	
+	
+	double[] values;
+	
+	
+	@Before
+	public void init() {
+		this.values = new double[VALUES];
+		final Random random = new Random(11);
+		for(int i=0; i<VALUES; i++)
+			this.values[i] = Math.exp(random.nextGaussian());
+	}
+	
+	private void assertQuantiles(TDigest digest) {
+		final double[] sorted = this.values.clone();
+		Arrays.sort(sorted);
+		for(double q: QUANTILES) {
+			final double estimate = digest.quantile(q);
+			int rank = Arrays.binarySearch(sorted, estimate);
+			if(rank < 0)
+				rank = -rank - 1;
+			final double error = Math.abs((double) rank / sorted.length - q);
+			assertTrue("quantile " + q + " estimated at rank " + rank, error <= RANK_ERROR);
+		}
+		assertEquals(sorted[0], digest.quantile(0), 0);
+		assertEquals(sorted[sorted.length - 1], digest.quantile(1), 0);
+	}
+	
+	@Test
+	public void testErrorBound() {
+		final TDigest digest = new TDigest();
+		for(double value: this.values)
+			digest.add(value);
+		assertQuantiles(digest);
+	}
+	
+	@Test
+	public void testMerge() {
+		final TDigest[] digests = {new TDigest(), new TDigest(), new TDigest()};
+		for(int i=0; i<VALUES; i++)
+			digests[i % digests.length].add(this.values[i]);
+		
+		//as the partial results are merged, through their encoding
+		final TDigest merged = new TDigest();
+		for(TDigest digest: digests)
+			merged.merge(TDigest.decode(digest.encode()));
+		assertQuantiles(merged);
+	}
+	
+	@Test
+	public void testSortedValues() {
+		final TDigest digest = new TDigest();
+		final double[] sorted = this.values.clone();
+		Arrays.sort(sorted);
+		for(double value: sorted)
+			digest.add(value);
+		assertQuantiles(digest);
+	}
+	
+	@Test
+	public void testFewValues() {
+		final TDigest empty = new TDigest();
+		assertTrue(Double.isNaN(empty.quantile(0.5)));
+		assertTrue(Double.isNaN(TDigest.decode(empty.encode()).quantile(0.5)));
+		
+		final TDigest single = new TDigest();
+		single.add(42);
+		assertEquals(42, single.quantile(0.5), 0);
+		
+		final TDigest odd = new TDigest();
+		for(double value: new double[]{5, 1, 4, 2, 3})
+			odd.add(value);
+		assertEquals(3, odd.quantile(0.5), 0);
+		
+		final TDigest merged = new TDigest();
+		merged.merge(single);
+		merged.merge(empty);
+		assertEquals(42, merged.quantile(0.5), 0);
+	}
+	
+}
@@ -0,0 +1,254 @@
+/*******************************************************************************
+ * Copyright (C) 2013, 2014, 2015 by Inria and Paris-Sud University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package fr.inria.oak.paxquery.pact.operations.grouping;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.apache.flink.types.Record;
+import org.apache.flink.types.StringValue;
+import org.apache.flink.util.Collector;
+import org.junit.Before;
+import org.junit.Test;
+
+import fr.inria.oak.paxquery.common.aggregation.AggregationType;
+import fr.inria.oak.paxquery.common.datamodel.metadata.MetadataTypes;
+import fr.inria.oak.paxquery.pact.datamodel.type.RecordList;
+
+
+
+public class TestGroupingHashTable {
+	
+	private static final int RECORDS = 2000;
+	
+	private static final int GROUPS = 50;
+	
+	/**
+	 * Records [category, name, price], grouped on the category with the names nested, and the sum and count of the
+	 * prices.
+	 */
+	private static final int[] KEY_COLUMNS = {0};
+	
+	private static final MetadataTypes[] KEY_TYPES = {MetadataTypes.STRING_TYPE};
+	
+	private static final int STATE_COLUMN = 3;
+	
+	private static final int[] GROUP_BY_COLUMNS = {0};
+	
+	private static final int[] NEST_COLUMNS = {1};
+	
+	private static final int[] AGGREGATION_COLUMNS = {2, 2};
+	
+	private static final MetadataTypes[] AGGREGATION_COLUMN_TYPES = {MetadataTypes.STRING_TYPE, MetadataTypes.STRING_TYPE};
+	
+	private static final AggregationType[] AGGREGATION_TYPES = {AggregationType.SUM, AggregationType.COUNT};
+	
+	
+	List<Record> records;
+	Map<String, String> expected;
+	
+	
+	@Before
+	public void init() {
+		this.records = new ArrayList<Record>();
+		final Map<String, List<String>> names = new TreeMap<String, List<String>>();
+		final Map<String, Integer> sums = new TreeMap<String, Integer>();
+		final Random random = new Random(7);
+		for(int i=0; i<RECORDS; i++) {
+			final String category = "category" + random.nextInt(GROUPS);
+			final String name = "name" + i;
+			final int price = random.nextInt(100);
+			
+			Record record = new Record();
+			record.addField(new StringValue(category));
+			record.addField(new StringValue(name));
+			record.addField(new StringValue(String.valueOf(price)));
+			this.records.add(record);
+			
+			if(!names.containsKey(category)) {
+				names.put(category, new ArrayList<String>());
+				sums.put(category, 0);
+			}
+			names.get(category).add(name);
+			sums.put(category, sums.get(category) + price);
+		}
+		
+		this.expected = new TreeMap<String, String>();
+		for(String category: names.keySet()) {
+			final List<String> groupNames = names.get(category);
+			Collections.sort(groupNames);
+			this.expected.put(category, groupNames + " " + (double) sums.get(category) + " " + groupNames.size());
+		}
+	}
+	
+	@Test
+	public void testInMemory() throws IOException {
+		GroupingHashTable table = createTable(Long.MAX_VALUE);
+		for(Record record: this.records)
+			table.add(record);
+		
+		assertEquals(this.expected, getGroups(emit(table, false)));
+	}
+	
+	@Test
+	public void testSpilling() throws IOException {
+		final int spillFiles = getSpillFiles().length;
+		
+		// the budget is smaller than a group, so that the partitions are spilled as soon as they have a group
+		GroupingHashTable table = createTable(1);
+		for(Record record: this.records)
+			table.add(record);
+		assertTrue(getSpillFiles().length > spillFiles);
+		
+		assertEquals(this.expected, getGroups(emit(table, false)));
+		assertEquals(spillFiles, getSpillFiles().length);
+	}
+	
+	@Test
+	public void testMergePartialRecords() throws IOException {
+		// the first parts of the input are combined in a table each, some of them spilling
+		List<Record> partialRecords = new ArrayList<Record>();
+		final int parts = 4;
+		for(int i=0; i<parts-1; i++) {
+			GroupingHashTable combiner = createTable(i == 0 ? Long.MAX_VALUE : 1);
+			for(int j=i*RECORDS/parts; j<(i+1)*RECORDS/parts; j++)
+				combiner.add(this.records.get(j));
+			partialRecords.addAll(emit(combiner, true));
+		}
+		assertTrue(partialRecords.size() <= (parts - 1) * GROUPS);
+		
+		// the partial records are merged together with the records left, through spilled partitions
+		GroupingHashTable table = createTable(1);
+		for(Record partialRecord: partialRecords)
+			table.add(partialRecord);
+		for(int j=(parts-1)*RECORDS/parts; j<RECORDS; j++)
+			table.add(this.records.get(j));
+		
+		assertEquals(this.expected, getGroups(emit(table, false)));
+	}
+	
+	@Test
+	public void testNestedKey() throws IOException {
+		// records [name, list of [zip, city]] grouped on their list, which is built again for each record
+		final String[][] lists = {{"75", "Paris"}, {"69", "Lyon"}, {"75", "Paris"}, {"75", "Paris", "69", "Lyon"}, {"69", "Lyon"}, {"75"}};
+		final int[] keyColumns = {1};
+		final MetadataTypes[] keyTypes = {MetadataTypes.TUPLE_TYPE};
+		GroupingHashTable table = new GroupingHashTable(keyColumns, keyTypes, 2, new int[] {1}, new int[] {0}, false,
+				new int[0], new MetadataTypes[0], new AggregationType[0], false, 1);
+		for(int i=0; i<lists.length; i++) {
+			Record record = new Record();
+			record.addField(new StringValue("name" + i));
+			RecordList list = new RecordList();
+			for(int j=0; j+1<lists[i].length; j+=2) {
+				Record nestedRecord = new Record();
+				nestedRecord.addField(new StringValue(lists[i][j]));
+				nestedRecord.addField(new StringValue(lists[i][j + 1]));
+				list.add(nestedRecord);
+			}
+			if(lists[i].length % 2 != 0) {
+				Record nestedRecord = new Record();
+				nestedRecord.addField(new StringValue(lists[i][lists[i].length - 1]));
+				list.add(nestedRecord);
+			}
+			record.addField(list);
+			
+			assertEquals(GroupingHashTable.hash(record, keyColumns, GroupingHashTable.getKeyClasses(keyTypes)),
+					GroupingHashTable.hash(record.createCopy(), keyColumns, GroupingHashTable.getKeyClasses(keyTypes)));
+			table.add(record);
+		}
+		
+		Map<String, String> groups = new TreeMap<String, String>();
+		for(Record group: emit(table, false)) {
+			final RecordList key = group.getField(0, RecordList.class);
+			final StringBuilder keyString = new StringBuilder();
+			for(Record nestedRecord: key)
+				for(int i=0; i<nestedRecord.getNumFields(); i++)
+					keyString.append(nestedRecord.getField(i, StringValue.class).getValue()).append(' ');
+			groups.put(keyString.toString().trim(), getNestedValues(group.getField(1, RecordList.class)).toString());
+		}
+		
+		Map<String, String> expected = new TreeMap<String, String>();
+		expected.put("75 Paris", "[name0, name2]");
+		expected.put("69 Lyon", "[name1, name4]");
+		expected.put("75 Paris 69 Lyon", "[name3]");
+		expected.put("75", "[name5]");
+		assertEquals(expected, groups);
+	}
+	
+	private static GroupingHashTable createTable(long memory) {
+		return new GroupingHashTable(KEY_COLUMNS, KEY_TYPES, STATE_COLUMN, GROUP_BY_COLUMNS, NEST_COLUMNS, false,
+				AGGREGATION_COLUMNS, AGGREGATION_COLUMN_TYPES, AGGREGATION_TYPES, false, memory);
+	}
+	
+	private static List<Record> emit(GroupingHashTable table, boolean partial) throws IOException {
+		final List<Record> output = new ArrayList<Record>();
+		table.emit(new Collector<Record>() {
+			@Override
+			public void collect(Record record) {
+				output.add(record.createCopy());
+			}
+			
+			@Override
+			public void close() {
+			}
+		}, partial);
+		return output;
+	}
+	
+	/**
+	 * @return for each group, its nested names in order, the sum and the count
+	 */
+	private static Map<String, String> getGroups(List<Record> output) {
+		Map<String, String> groups = new TreeMap<String, String>();
+		for(Record record: output) {
+			final String category = record.getField(0, StringValue.class).getValue();
+			assertTrue("Group " + category + " output twice", !groups.containsKey(category));
+			
+			final List<String> names = getNestedValues(record.getField(1, RecordList.class));
+			Collections.sort(names);
+			groups.put(category, names + " " + record.getField(2, StringValue.class).getValue()
+					+ " " + record.getField(3, StringValue.class).getValue());
+		}
+		return groups;
+	}
+	
+	private static List<String> getNestedValues(RecordList list) {
+		List<String> values = new ArrayList<String>();
+		for(Record nestedRecord: list)
+			values.add(nestedRecord.getField(0, StringValue.class).getValue());
+		return values;
+	}
+	
+	private static File[] getSpillFiles() {
+		return new File(System.getProperty("java.io.tmpdir")).listFiles(new FilenameFilter() {
+			@Override
+			public boolean accept(File dir, String name) {
+				return name.startsWith("paxquery-groups");
+			}
+		});
+	}
+
+}
@@ -0,0 +1,123 @@
+/*******************************************************************************
+ * Copyright (C) 2013, 2014, 2015 by Inria and Paris-Sud University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package fr.inria.oak.paxquery.pact.operations.predicates;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import org.apache.flink.types.StringValue;
+import org.junit.Test;
+
+
+public class TestKeywordMatcher {
+
+	/**
+	 * Characters of the random texts: letters of the keywords, delimiters, and characters that
+	 * share the low byte of a letter
+	 */
+	private static final char[] CHARS = {'a', 'b', 'n', ' ', ',', '-', '\n', '\u0161', '\u0262', '\u00e9'};
+
+	private static final List<String> KEYWORDS = Arrays.asList("ab", "ban", "banana", "n", "a\u00e9");
+
+
+	/**
+	 * @return the expression that matched the keywords before the matchers
+	 */
+	private static Pattern pattern(String keyword) {
+		return Pattern.compile("(^|\\s+|[^a-zA-Z0-9]+)" + Pattern.quote(keyword) + "($|\\s+|[^a-zA-Z0-9]+)", Pattern.MULTILINE);
+	}
+
+	private static String randomText(Random random) {
+		final char[] text = new char[random.nextInt(20)];
+		for(int i=0; i<text.length; i++)
+			text[i] = CHARS[random.nextInt(CHARS.length)];
+		return new String(text);
+	}
+
+	@Test
+	public void testSingleKeyword() {
+		final KeywordMatcher matcher = KeywordMatcher.compile("banana");
+		assertTrue(matcher.matches("banana"));
+		assertTrue(matcher.matches("a banana, please"));
+		assertTrue(matcher.matches("bananas and a banana"));
+		assertFalse(matcher.matches("bananas"));
+		assertFalse(matcher.matches("bbanana"));
+		assertFalse(matcher.matches("banan"));
+		assertFalse(matcher.matches(""));
+		// the text may be the characters of a value
+		assertTrue(matcher.matches(new StringValue("one banana")));
+	}
+
+	@Test
+	public void testSameMatchesAsExpression() {
+		final Random random = new Random(3);
+		for(String keyword: KEYWORDS) {
+			final KeywordMatcher matcher = KeywordMatcher.compile(keyword);
+			final Pattern pattern = pattern(keyword);
+			for(int i=0; i<5000; i++) {
+				final String text = randomText(random);
+				assertEquals(keyword + " in \"" + text + "\"", pattern.matcher(text).find(), matcher.matches(text));
+			}
+		}
+	}
+
+	@Test
+	public void testSeveralKeywords() {
+		final KeywordMatcher matcher = KeywordMatcher.compile(KEYWORDS);
+		final Pattern[] patterns = new Pattern[KEYWORDS.size()];
+		for(int k=0; k<patterns.length; k++)
+			patterns[k] = pattern(KEYWORDS.get(k));
+		final boolean[] found = new boolean[KEYWORDS.size()];
+		final Random random = new Random(5);
+		for(int i=0; i<5000; i++) {
+			final String text = randomText(random);
+			int count = 0;
+			boolean any = false;
+			final int foundNo = matcher.find(text, found);
+			for(int k=0; k<patterns.length; k++) {
+				final boolean expected = patterns[k].matcher(text).find();
+				assertEquals(KEYWORDS.get(k) + " in \"" + text + "\"", expected, found[k]);
+				if(expected)
+					count++;
+				any |= expected;
+			}
+			assertEquals(count, foundNo);
+			assertEquals(any, matcher.matches(text));
+		}
+	}
+
+	@Test
+	public void testRegularExpression() {
+		assertTrue(KeywordMatcher.isLiteral("banana"));
+		assertFalse(KeywordMatcher.isLiteral("ban.na"));
+		assertFalse(KeywordMatcher.isLiteral(""));
+
+		final KeywordMatcher matcher = KeywordMatcher.compile("ban.na");
+		assertTrue(matcher.matches("a banana"));
+		assertTrue(matcher.matches("banxna!"));
+		assertFalse(matcher.matches("bananas"));
+		final boolean[] found = new boolean[1];
+		assertEquals(1, matcher.find("banana", found));
+		assertTrue(found[0]);
+	}
+
+}
@@ -0,0 +1,297 @@
+/*******************************************************************************
+ * Copyright (C) 2013, 2014, 2015 by Inria and Paris-Sud University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package fr.inria.oak.paxquery.pact.operations.predicates;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.flink.types.DoubleValue;
+import org.apache.flink.types.IntValue;
+import org.apache.flink.types.LongValue;
+import org.apache.flink.types.Record;
+import org.apache.flink.types.StringValue;
+import org.junit.Test;
+
+import fr.inria.oak.paxquery.common.datamodel.metadata.MetadataTypes;
+import fr.inria.oak.paxquery.common.datamodel.metadata.NestedMetadata;
+import fr.inria.oak.paxquery.common.exception.PAXQueryExecutionException;
+import fr.inria.oak.paxquery.common.predicates.ArithmeticOperation;
+import fr.inria.oak.paxquery.common.predicates.ArithmeticOperation.Operation;
+import fr.inria.oak.paxquery.common.predicates.BasePredicate.PredicateType;
+import fr.inria.oak.paxquery.common.predicates.ConjunctivePredicate;
+import fr.inria.oak.paxquery.common.predicates.DisjunctivePredicate;
+import fr.inria.oak.paxquery.common.predicates.SimplePredicate;
+import fr.inria.oak.paxquery.pact.operations.RecordOperations;
+
+
+public class TestRecordPredicateCompiler {
+
+	private static final NestedMetadata LEFT = new NestedMetadata(2, new MetadataTypes[]{MetadataTypes.STRING_TYPE, MetadataTypes.LONG_TYPE});
+
+	private static final NestedMetadata RIGHT = new NestedMetadata(2, new MetadataTypes[]{MetadataTypes.LONG_TYPE, MetadataTypes.STRING_TYPE});
+
+	/**
+	 * Records [name, price, quantity, weight] of the selections.
+	 */
+	private static final NestedMetadata ITEM = new NestedMetadata(4, new MetadataTypes[]{MetadataTypes.STRING_TYPE,
+			MetadataTypes.STRING_TYPE, MetadataTypes.LONG_TYPE, MetadataTypes.DOUBLE_TYPE});
+
+	private static Record item(String name, String price, long quantity, double weight) {
+		final Record record = new Record(4);
+		record.setField(0, new StringValue(name));
+		record.setField(1, new StringValue(price));
+		record.setField(2, new LongValue(quantity));
+		record.setField(3, new DoubleValue(weight));
+		return record;
+	}
+
+	private static Record left(String name, long value) {
+		final Record record = new Record(2);
+		record.setField(0, new StringValue(name));
+		record.setField(1, new LongValue(value));
+		return record;
+	}
+
+	private static Record right(long value, String name) {
+		final Record record = new Record(2);
+		record.setField(0, new LongValue(value));
+		record.setField(1, new StringValue(name));
+		return record;
+	}
+
+	private static List<Record> rights() {
+		return Arrays.asList(right(1, "a"), right(5, "b"), right(RecordOperations.NULL_LONG, "a"),
+				right(10, "c"), right(3, "a"), right(7, "12"));
+	}
+
+	private static ConjunctivePredicate conjunction(SimplePredicate... preds) {
+		return new ConjunctivePredicate(new ArrayList<SimplePredicate>(Arrays.asList(preds)));
+	}
+
+	/**
+	 * Checks that the batch evaluation of a predicate keeps the same pairs as the evaluation of
+	 * each pair, in order.
+	 */
+	private static void assertSameSelection(BaseRecordPairPredicate pred, Record record1, List<Record> records2) {
+		final List<Integer> selected = new ArrayList<Integer>();
+		final List<Integer> rejected = new ArrayList<Integer>();
+		for(int i = 0; i < records2.size(); i++)
+			(pred.evaluate(record1, records2.get(i)) ? selected : rejected).add(i);
+
+		final int[] selection = new int[records2.size()];
+		for(int i = 0; i < selection.length; i++)
+			selection[i] = i;
+		final int kept = pred.select(record1, records2, selection, selection.length);
+		assertEquals(selected, toList(selection, kept));
+
+		for(int i = 0; i < selection.length; i++)
+			selection[i] = i;
+		assertEquals(rejected, toList(selection, pred.reject(record1, records2, selection, selection.length)));
+	}
+
+	private static List<Integer> toList(int[] selection, int size) {
+		final List<Integer> list = new ArrayList<Integer>();
+		for(int i = 0; i < size; i++)
+			list.add(selection[i]);
+		return list;
+	}
+
+	@Test
+	public void testPairComparison() {
+		// left.1 < right.0
+		final BaseRecordPairPredicate pred = RecordPredicateCompiler.compile(LEFT, RIGHT,
+				new SimplePredicate(1, 2, PredicateType.PREDICATE_SMALLERTHAN));
+		final Record record1 = left("a", 4);
+		assertTrue(pred.evaluate(record1, right(5, "x")));
+		assertFalse(pred.evaluate(record1, right(4, "x")));
+		// null numbers are never compared
+		assertFalse(pred.evaluate(record1, right(RecordOperations.NULL_LONG, "x")));
+		assertFalse(pred.evaluate(left("a", RecordOperations.NULL_LONG), right(5, "x")));
+		assertSameSelection(pred, record1, rights());
+		assertSameSelection(pred, left("a", RecordOperations.NULL_LONG), rights());
+	}
+
+	@Test
+	public void testPairEquality() {
+		// left.0 = right.1, and left.0 != right.1
+		for(PredicateType type : new PredicateType[]{PredicateType.PREDICATE_EQUAL, PredicateType.PREDICATE_NOTEQUAL}) {
+			final BaseRecordPairPredicate pred = RecordPredicateCompiler.compile(LEFT, RIGHT, new SimplePredicate(0, 3, type));
+			assertEquals(type == PredicateType.PREDICATE_EQUAL, pred.evaluate(left("a", 0), right(0, "a")));
+			assertEquals(type != PredicateType.PREDICATE_EQUAL, pred.evaluate(left("a", 0), right(0, "b")));
+			assertSameSelection(pred, left("a", 0), rights());
+			assertSameSelection(pred, left("zz", 0), rights());
+		}
+	}
+
+	@Test
+	public void testPairConjunctionAndDisjunction() {
+		final ConjunctivePredicate nameAndSmaller = conjunction(new SimplePredicate(0, 3, PredicateType.PREDICATE_EQUAL),
+				new SimplePredicate(1, 2, PredicateType.PREDICATE_SMALLEROREQUALTHAN));
+		final ConjunctivePredicate greater = conjunction(new SimplePredicate(1, 2, PredicateType.PREDICATE_GREATERTHAN));
+		final BaseRecordPairPredicate conj = RecordPredicateCompiler.compile(LEFT, RIGHT, nameAndSmaller);
+		final BaseRecordPairPredicate disj = RecordPredicateCompiler.compile(LEFT, RIGHT,
+				new DisjunctivePredicate(new ArrayList<ConjunctivePredicate>(Arrays.asList(nameAndSmaller, greater))));
+		final Record record1 = left("a", 3);
+		final List<Record> records2 = rights();
+		final boolean[] expectedConj = {false, false, false, false, true, false};
+		final boolean[] expectedDisj = {true, false, false, false, true, false};
+		final boolean[] actualConj = new boolean[records2.size()];
+		final boolean[] actualDisj = new boolean[records2.size()];
+		for(int i = 0; i < records2.size(); i++) {
+			actualConj[i] = conj.evaluate(record1, records2.get(i));
+			actualDisj[i] = disj.evaluate(record1, records2.get(i));
+		}
+		assertTrue(Arrays.equals(expectedConj, actualConj));
+		assertTrue(Arrays.equals(expectedDisj, actualDisj));
+		assertSameSelection(conj, record1, records2);
+		assertSameSelection(disj, record1, records2);
+	}
+
+	/**
+	 * The columns of the second records are numbered after the fields of the first record,
+	 * which may be more than its signature tells, e.g. with the mark of a previous outer join.
+	 */
+	@Test
+	public void testLeftRecordWithMoreFields() {
+		// left.1 < right.0, numbered after a left record of 3 fields
+		final BaseRecordPairPredicate pred = RecordPredicateCompiler.compile(LEFT, RIGHT,
+				new SimplePredicate(1, 3, PredicateType.PREDICATE_SMALLERTHAN));
+		final Record marked = left("a", 4);
+		marked.addField(new IntValue(1));
+		assertTrue(pred.evaluate(marked, right(5, "x")));
+		assertFalse(pred.evaluate(marked, right(4, "x")));
+		// right.1 holds a number, which is not the column of the predicate
+		assertFalse(pred.evaluate(marked, right(1, "100")));
+		assertSameSelection(pred, marked, rights());
+
+		// the same predicate over left records of 2 fields reads right.1
+		final Record plain = left("a", 4);
+		assertTrue(pred.evaluate(plain, right(1, "100")));
+		assertFalse(pred.evaluate(plain, right(5, "x")));
+		assertSameSelection(pred, plain, rights());
+		// and again over a record of 3 fields
+		assertTrue(pred.evaluate(marked, right(5, "x")));
+	}
+
+	@Test
+	public void testConstantComparison() {
+		// price > 10
+		final BaseRecordPredicate price = RecordPredicateCompiler.compile(ITEM,
+				new SimplePredicate(1, 10.0, PredicateType.PREDICATE_GREATERTHAN));
+		assertTrue(price.evaluate(item("a", "10.5", 1, 1)));
+		assertFalse(price.evaluate(item("a", "10", 1, 1)));
+		// strings that are not numbers, and null strings, are never compared
+		assertFalse(price.evaluate(item("a", "cheap", 1, 1)));
+		assertFalse(price.evaluate(item("a", String.valueOf('\0'), 1, 1)));
+
+		// quantity * 2 <= 8, weight = 1.5
+		final BaseRecordPredicate quantity = RecordPredicateCompiler.compile(ITEM,
+				new SimplePredicate(2, new ArithmeticOperation(Operation.MUL, 2), 8.0, PredicateType.PREDICATE_SMALLEROREQUALTHAN));
+		assertTrue(quantity.evaluate(item("a", "1", 4, 1)));
+		assertFalse(quantity.evaluate(item("a", "1", 5, 1)));
+		assertFalse(quantity.evaluate(item("a", "1", RecordOperations.NULL_LONG, 1)));
+		final BaseRecordPredicate weight = RecordPredicateCompiler.compile(ITEM,
+				new SimplePredicate(3, 1.5, PredicateType.PREDICATE_EQUAL));
+		assertTrue(weight.evaluate(item("a", "1", 1, 1.5)));
+		assertFalse(weight.evaluate(item("a", "1", 1, RecordOperations.NULL_DOUBLE)));
+	}
+
+	@Test
+	public void testStringConstant() {
+		final BaseRecordPredicate equal = RecordPredicateCompiler.compile(ITEM,
+				new SimplePredicate(0, "pen", PredicateType.PREDICATE_EQUAL));
+		final BaseRecordPredicate notEqual = RecordPredicateCompiler.compile(ITEM,
+				new SimplePredicate(0, "pen", PredicateType.PREDICATE_NOTEQUAL));
+		for(String name: new String[]{"pen", "pencil", "", "Pen"}) {
+			assertEquals(name.equals("pen"), equal.evaluate(item(name, "1", 1, 1)));
+			assertEquals(!name.equals("pen"), notEqual.evaluate(item(name, "1", 1, 1)));
+		}
+		// a number column compared with a string
+		final BaseRecordPredicate quantity = RecordPredicateCompiler.compile(ITEM,
+				new SimplePredicate(2, "3", PredicateType.PREDICATE_EQUAL));
+		assertTrue(quantity.evaluate(item("a", "1", 3, 1)));
+		assertFalse(quantity.evaluate(item("a", "1", 4, 1)));
+	}
+
+	@Test
+	public void testColumns() {
+		// price = quantity: compared as numbers when both are numbers
+		final BaseRecordPredicate equal = RecordPredicateCompiler.compile(ITEM,
+				new SimplePredicate(1, 2, PredicateType.PREDICATE_EQUAL));
+		final BaseRecordPredicate notEqual = RecordPredicateCompiler.compile(ITEM,
+				new SimplePredicate(1, 2, PredicateType.PREDICATE_NOTEQUAL));
+		assertTrue(equal.evaluate(item("a", "3.0", 3, 1)));
+		assertFalse(notEqual.evaluate(item("a", "3.0", 3, 1)));
+		assertFalse(equal.evaluate(item("a", "4", 3, 1)));
+		assertTrue(notEqual.evaluate(item("a", "4", 3, 1)));
+		// a number and a string that is not a number are never equal
+		assertFalse(equal.evaluate(item("a", "three", 3, 1)));
+		assertTrue(notEqual.evaluate(item("a", "three", 3, 1)));
+
+		// name = price: compared as strings when neither is a number
+		final BaseRecordPredicate strings = RecordPredicateCompiler.compile(ITEM,
+				new SimplePredicate(0, 1, PredicateType.PREDICATE_EQUAL));
+		assertTrue(strings.evaluate(item("free", "free", 1, 1)));
+		assertFalse(strings.evaluate(item("free", "gift", 1, 1)));
+
+		// price + 1 < weight
+		final BaseRecordPredicate smaller = RecordPredicateCompiler.compile(ITEM, new SimplePredicate(1,
+				new ArithmeticOperation(Operation.ADD, 1), 3, null, PredicateType.PREDICATE_SMALLERTHAN));
+		assertTrue(smaller.evaluate(item("a", "1", 1, 2.5)));
+		assertFalse(smaller.evaluate(item("a", "2", 1, 2.5)));
+		assertFalse(smaller.evaluate(item("a", "none", 1, 2.5)));
+		assertFalse(smaller.evaluate(item("a", "1", 1, RecordOperations.NULL_DOUBLE)));
+	}
+
+	@Test
+	public void testContains() {
+		// contains(name, "red") or contains(name, "blue") and not contains(name, "dark")
+		final DisjunctivePredicate pred = new DisjunctivePredicate(new ArrayList<ConjunctivePredicate>(Arrays.asList(
+				conjunction(new SimplePredicate(0, "~red", PredicateType.PREDICATE_EQUAL)),
+				conjunction(new SimplePredicate(0, "~blue", PredicateType.PREDICATE_EQUAL),
+						new SimplePredicate(0, "~dark", PredicateType.PREDICATE_NOTEQUAL)))));
+		final BaseRecordPredicate compiled = RecordPredicateCompiler.compile(ITEM, pred);
+		assertTrue(compiled.evaluate(item("a red pen", "1", 1, 1)));
+		assertTrue(compiled.evaluate(item("blue", "1", 1, 1)));
+		assertFalse(compiled.evaluate(item("dark blue", "1", 1, 1)));
+		assertTrue(compiled.evaluate(item("dark red", "1", 1, 1)));
+		// keywords are words, not parts of words
+		assertFalse(compiled.evaluate(item("bored bluejay", "1", 1, 1)));
+		// the keywords are searched again for each record
+		assertTrue(compiled.evaluate(item("blue, not darker", "1", 1, 1)));
+		assertFalse(compiled.evaluate(item("green", "1", 1, 1)));
+
+		// a keyword with the characters of a regular expression
+		final BaseRecordPredicate regex = RecordPredicateCompiler.compile(ITEM,
+				new SimplePredicate(0, "~gr[ae]y", PredicateType.PREDICATE_EQUAL));
+		assertTrue(regex.evaluate(item("light grey", "1", 1, 1)));
+		assertTrue(regex.evaluate(item("gray", "1", 1, 1)));
+		assertFalse(regex.evaluate(item("greyish", "1", 1, 1)));
+	}
+
+	@Test(expected = PAXQueryExecutionException.class)
+	public void testUnsupported() {
+		final BaseRecordPredicate pred = RecordPredicateCompiler.compile(ITEM,
+				new SimplePredicate(0, "pen", PredicateType.PREDICATE_SMALLERTHAN));
+		pred.evaluate(item("pen", "1", 1, 1));
+	}
+
+}
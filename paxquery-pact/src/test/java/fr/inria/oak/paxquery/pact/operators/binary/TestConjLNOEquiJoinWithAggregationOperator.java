@@ -0,0 +1,125 @@
+/*******************************************************************************
+ * Copyright (C) 2013, 2014, 2015 by Inria and Paris-Sud University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package fr.inria.oak.paxquery.pact.operators.binary;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.flink.types.IntValue;
+import org.apache.flink.types.LongValue;
+import org.apache.flink.types.Record;
+import org.apache.flink.types.StringValue;
+import org.apache.flink.util.Collector;
+import org.junit.Test;
+
+import fr.inria.oak.paxquery.common.aggregation.AggregationType;
+import fr.inria.oak.paxquery.common.datamodel.metadata.MetadataTypes;
+import fr.inria.oak.paxquery.common.datamodel.metadata.NestedMetadata;
+import fr.inria.oak.paxquery.pact.datamodel.type.RecordList;
+import fr.inria.oak.paxquery.pact.operations.RecordOperations;
+
+
+public class TestConjLNOEquiJoinWithAggregationOperator {
+
+	private static final NestedMetadata LEFT = new NestedMetadata(2, new MetadataTypes[]{MetadataTypes.INTEGER_TYPE, MetadataTypes.STRING_TYPE});
+
+	private static final NestedMetadata RIGHT = new NestedMetadata(2, new MetadataTypes[]{MetadataTypes.INTEGER_TYPE, MetadataTypes.LONG_TYPE});
+
+	private static final int[] COLUMNS = new int[]{1, 1, 1};
+
+	private static final AggregationType[] TYPES = new AggregationType[]{AggregationType.COUNT, AggregationType.SUM, AggregationType.MAX};
+
+	private static class HoldingCollector implements Collector<Record> {
+
+		final List<Record> records = new ArrayList<Record>();
+
+		@Override
+		public void collect(Record record) {
+			this.records.add(record.createCopy());
+		}
+
+		@Override
+		public void close() {
+		}
+	}
+
+	private static Record left(int key, String name) {
+		final Record record = new Record(2);
+		record.setField(0, new IntValue(key));
+		record.setField(1, new StringValue(name));
+		return record;
+	}
+
+	private static Record right(int key, long value) {
+		final Record record = new Record(2);
+		record.setField(0, new IntValue(key));
+		record.setField(1, new LongValue(value));
+		return record;
+	}
+
+	/**
+	 * Every left record of a group is nested with all the right records, and gets the results
+	 * of all the aggregations over them; not only the first one.
+	 */
+	@Test
+	public void testAggregationsForEveryLeftRecord() {
+		final HoldingCollector collector = new HoldingCollector();
+		ConjLNOEquiJoinWithAggregationOperator.conjLNOEquiJoinWithAggregation(
+				LEFT, Arrays.asList(left(1, "a"), left(1, "bb"), left(1, "ccc")).iterator(),
+				RIGHT, Arrays.asList(right(1, 10), right(1, 20)).iterator(),
+				RecordOperations.createNullRecord(RIGHT), COLUMNS, TYPES, false, collector);
+
+		assertEquals(3, collector.records.size());
+		final String[] names = new String[]{"a", "bb", "ccc"};
+		for(int i=0; i<names.length; i++) {
+			final Record record = collector.records.get(i);
+			assertEquals(6, record.getNumFields());
+			assertEquals(names[i], record.getField(1, StringValue.class).getValue());
+			final RecordList nested = record.getField(2, RecordList.class);
+			assertEquals(2, nested.size());
+			assertEquals(10, nested.get(0).getField(1, LongValue.class).getValue());
+			assertEquals(20, nested.get(1).getField(1, LongValue.class).getValue());
+			assertEquals("2", record.getField(3, StringValue.class).getValue());
+			assertEquals("30.0", record.getField(4, StringValue.class).getValue());
+			assertEquals("20.0", record.getField(5, StringValue.class).getValue());
+		}
+	}
+
+	@Test
+	public void testOuter() {
+		final HoldingCollector collector = new HoldingCollector();
+		ConjLNOEquiJoinWithAggregationOperator.conjLNOEquiJoinWithAggregation(
+				LEFT, Arrays.asList(left(3, "e"), left(3, "f")).iterator(),
+				RIGHT, new ArrayList<Record>().iterator(),
+				RecordOperations.createNullRecord(RIGHT), COLUMNS, TYPES, false, collector);
+
+		assertEquals(2, collector.records.size());
+		for(Record record : collector.records) {
+			assertEquals(6, record.getNumFields());
+			final RecordList nested = record.getField(2, RecordList.class);
+			assertEquals(1, nested.size());
+			assertTrue(RecordOperations.isNull(nested.get(0).getField(1, LongValue.class)));
+			assertEquals("0", record.getField(3, StringValue.class).getValue());
+			assertEquals("0.0", record.getField(4, StringValue.class).getValue());
+			assertTrue(RecordOperations.isNull(record.getField(5, StringValue.class)));
+		}
+	}
+
+}
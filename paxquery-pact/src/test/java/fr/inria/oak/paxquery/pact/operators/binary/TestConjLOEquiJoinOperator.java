@@ -0,0 +1,121 @@
+/*******************************************************************************
+ * Copyright (C) 2013, 2014, 2015 by Inria and Paris-Sud University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package fr.inria.oak.paxquery.pact.operators.binary;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.flink.types.IntValue;
+import org.apache.flink.types.LongValue;
+import org.apache.flink.types.Record;
+import org.apache.flink.types.StringValue;
+import org.apache.flink.util.Collector;
+import org.junit.Test;
+
+import fr.inria.oak.paxquery.common.datamodel.metadata.MetadataTypes;
+import fr.inria.oak.paxquery.common.datamodel.metadata.NestedMetadata;
+import fr.inria.oak.paxquery.pact.operations.RecordOperations;
+
+
+public class TestConjLOEquiJoinOperator {
+
+	private static final NestedMetadata LEFT = new NestedMetadata(2, new MetadataTypes[]{MetadataTypes.INTEGER_TYPE, MetadataTypes.STRING_TYPE});
+
+	private static final NestedMetadata RIGHT = new NestedMetadata(2, new MetadataTypes[]{MetadataTypes.INTEGER_TYPE, MetadataTypes.LONG_TYPE});
+
+	/**
+	 * Keeps the records it collects across calls. Like the collectors of the runtime, which
+	 * serialize each record, it copies them: the operator refills its output record.
+	 */
+	private static class HoldingCollector implements Collector<Record> {
+
+		final List<Record> records = new ArrayList<Record>();
+
+		@Override
+		public void collect(Record record) {
+			this.records.add(record.createCopy());
+		}
+
+		@Override
+		public void close() {
+		}
+	}
+
+	private static Record left(int key, String name) {
+		final Record record = new Record(2);
+		record.setField(0, new IntValue(key));
+		record.setField(1, new StringValue(name));
+		return record;
+	}
+
+	private static Record right(int key, long value) {
+		final Record record = new Record(2);
+		record.setField(0, new IntValue(key));
+		record.setField(1, new LongValue(value));
+		return record;
+	}
+
+	private static String print(Record record) {
+		final StringBuilder sb = new StringBuilder();
+		sb.append(record.getField(0, IntValue.class).getValue()).append(',');
+		sb.append(record.getField(1, StringValue.class).getValue()).append(',');
+		sb.append(record.getField(2, IntValue.class).getValue()).append(',');
+		sb.append(record.getField(3, LongValue.class).getValue());
+		return sb.toString();
+	}
+
+	/**
+	 * Joins several groups with the same operator call sequence, and checks the pairs that
+	 * are held across the calls.
+	 */
+	@Test
+	public void testPairsHeldAcrossGroups() {
+		final Record nullRecord = RecordOperations.createNullRecord(RIGHT);
+		final HoldingCollector collector = new HoldingCollector();
+		ConjLOEquiJoinOperator.conjLOEquiJoin(LEFT, Arrays.asList(left(1, "a"), left(1, "bb"), left(1, "ccc")).iterator(),
+				RIGHT, Arrays.asList(right(1, 10), right(1, 20)).iterator(), nullRecord, collector);
+		ConjLOEquiJoinOperator.conjLOEquiJoin(LEFT, Arrays.asList(left(2, "d")).iterator(),
+				RIGHT, Arrays.asList(right(2, 30), right(2, 40), right(2, 50)).iterator(), nullRecord, collector);
+
+		final List<String> printed = new ArrayList<String>();
+		for(Record record : collector.records) {
+			assertEquals(4, record.getNumFields());
+			printed.add(print(record));
+		}
+		assertEquals(Arrays.asList(
+				"1,a,1,10", "1,a,1,20", "1,bb,1,10", "1,bb,1,20", "1,ccc,1,10", "1,ccc,1,20",
+				"2,d,2,30", "2,d,2,40", "2,d,2,50"), printed);
+	}
+
+	@Test
+	public void testOuter() {
+		final HoldingCollector collector = new HoldingCollector();
+		ConjLOEquiJoinOperator.conjLOEquiJoin(LEFT, Arrays.asList(left(3, "e"), left(3, "f")).iterator(),
+				RIGHT, new ArrayList<Record>().iterator(), RecordOperations.createNullRecord(RIGHT), collector);
+		assertEquals(2, collector.records.size());
+		for(Record record : collector.records) {
+			assertEquals(4, record.getNumFields());
+			assertTrue(RecordOperations.isNull(record.getField(3, LongValue.class)));
+		}
+		assertEquals("e", collector.records.get(0).getField(1, StringValue.class).getValue());
+		assertEquals("f", collector.records.get(1).getField(1, StringValue.class).getValue());
+	}
+
+}
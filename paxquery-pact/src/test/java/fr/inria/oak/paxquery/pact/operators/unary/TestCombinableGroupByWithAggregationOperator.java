@@ -0,0 +1,232 @@
+/*******************************************************************************
+ * Copyright (C) 2013, 2014, 2015 by Inria and Paris-Sud University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package fr.inria.oak.paxquery.pact.operators.unary;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import javax.xml.bind.DatatypeConverter;
+
+import org.apache.commons.lang.SerializationUtils;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.types.IntValue;
+import org.apache.flink.types.Record;
+import org.apache.flink.types.StringValue;
+import org.apache.flink.util.Collector;
+import org.junit.Before;
+import org.junit.Test;
+
+import fr.inria.oak.paxquery.common.aggregation.AggregationType;
+import fr.inria.oak.paxquery.common.datamodel.metadata.MetadataTypes;
+import fr.inria.oak.paxquery.common.datamodel.metadata.NestedMetadata;
+import fr.inria.oak.paxquery.pact.configuration.PACTOperatorsConfiguration;
+
+
+/**
+ * Combines parts of each group before reducing it, as the combiners of the tasks do, and checks
+ * that the results are those of the groups reduced without being combined.
+ */
+public class TestCombinableGroupByWithAggregationOperator {
+
+	private static final int RECORDS = 1000;
+
+	private static final int GROUPS = 20;
+
+	/**
+	 * Records [category, name, price], grouped on the category with the aggregations of the
+	 * prices, without the nested names.
+	 */
+	private static final NestedMetadata INPUT = new NestedMetadata(3,
+			new MetadataTypes[]{MetadataTypes.STRING_TYPE, MetadataTypes.STRING_TYPE, MetadataTypes.STRING_TYPE});
+
+	private static final AggregationType[] AGGREGATION_TYPES = {AggregationType.SUM, AggregationType.COUNT,
+			AggregationType.MAX, AggregationType.MIN, AggregationType.APPROX_COUNT_DISTINCT};
+
+
+	private static class CopyingCollector implements Collector<Record> {
+
+		final List<Record> records = new ArrayList<Record>();
+
+		@Override
+		public void collect(Record record) {
+			this.records.add(record.createCopy());
+		}
+
+		@Override
+		public void close() {
+		}
+	}
+
+	Map<String, List<Record>> groups;
+
+
+	@Before
+	public void init() {
+		this.groups = new TreeMap<String, List<Record>>();
+		final Random random = new Random(19);
+		for(int i = 0; i < RECORDS; i++) {
+			final Record record = new Record();
+			final String category = "category" + random.nextInt(GROUPS);
+			record.addField(new StringValue(category));
+			record.addField(new StringValue("name" + i));
+			record.addField(new StringValue(String.valueOf(random.nextInt(50))));
+			if(!this.groups.containsKey(category))
+				this.groups.put(category, new ArrayList<Record>());
+			this.groups.get(category).add(record);
+		}
+	}
+
+	private static String encode(Serializable object) {
+		return DatatypeConverter.printBase64Binary(SerializationUtils.serialize(object));
+	}
+
+	/**
+	 * @return the parameters of the grouping, as the translation sets them
+	 */
+	private static Configuration parameters(int[] groupByColumns, AggregationType[] aggregationTypes, boolean attachDummyColumn) {
+		final int[] aggregationColumns = new int[aggregationTypes.length];
+		for(int i = 0; i < aggregationColumns.length; i++)
+			aggregationColumns[i] = 2;
+		final Configuration parameters = new Configuration();
+		parameters.setString(PACTOperatorsConfiguration.NRSMD1_BINARY.toString(), encode(INPUT));
+		parameters.setString(PACTOperatorsConfiguration.GROUP_BY_COLUMNS_BINARY.toString(), encode(groupByColumns));
+		parameters.setString(PACTOperatorsConfiguration.NEST_COLUMNS_BINARY.toString(), encode(new int[]{1}));
+		parameters.setString(PACTOperatorsConfiguration.AGGREGATION_COLUMNS_BINARY.toString(), encode(aggregationColumns));
+		parameters.setString(PACTOperatorsConfiguration.AGGREGATION_TYPES_BINARY.toString(), encode(aggregationTypes));
+		parameters.setBoolean(PACTOperatorsConfiguration.EXCLUDE_NESTED_FIELD_BOOLEAN.toString(), true);
+		parameters.setBoolean(PACTOperatorsConfiguration.ATTACH_DUMMY_COLUMN_BOOLEAN.toString(), attachDummyColumn);
+		parameters.setInteger(PACTOperatorsConfiguration.COMBINATION_COLUMN_INT.toString(), INPUT.getColNo());
+		return parameters;
+	}
+
+	/**
+	 * Splits the records of a group in random parts. Some parts are combined, some of the combined
+	 * records are combined again with other records, and the other records are left as they are.
+	 */
+	private static List<Record> combine(CombinableGroupByWithAggregationOperator operator, List<Record> group, Random random) {
+		final List<Record> input = new ArrayList<Record>();
+		int start = 0;
+		while(start < group.size()) {
+			final int end = Math.min(group.size(), start + 1 + random.nextInt(40));
+			final List<Record> part = new ArrayList<Record>();
+			for(Record record : group.subList(start, end))
+				part.add(record.createCopy());
+			switch(random.nextInt(3)) {
+				case 0:
+					input.addAll(part);
+					break;
+				case 1:
+					final CopyingCollector combined = new CopyingCollector();
+					operator.combine(part.iterator(), combined);
+					assertEquals(1, combined.records.size());
+					input.addAll(combined.records);
+					break;
+				default:
+					final CopyingCollector recombined = new CopyingCollector();
+					operator.combine(part.iterator(), recombined);
+					if(!input.isEmpty())
+						recombined.records.add(input.remove(input.size() - 1));
+					final CopyingCollector combinedAgain = new CopyingCollector();
+					operator.combine(recombined.records.iterator(), combinedAgain);
+					input.addAll(combinedAgain.records);
+			}
+			start = end;
+		}
+		return input;
+	}
+
+	private static String toString(Record record) {
+		final StringBuilder result = new StringBuilder();
+		for(int i = 0; i < record.getNumFields(); i++)
+			result.append(record.getField(i, StringValue.class).getValue()).append(' ');
+		return result.toString();
+	}
+
+	@Test
+	public void testSameGroups() throws Exception {
+		final GroupByWithAggregationOperator operator = new GroupByWithAggregationOperator();
+		operator.open(parameters(new int[]{0}, AGGREGATION_TYPES, false));
+		final CombinableGroupByWithAggregationOperator combinableOperator = new CombinableGroupByWithAggregationOperator();
+		combinableOperator.open(parameters(new int[]{0}, AGGREGATION_TYPES, false));
+		final Random random = new Random(23);
+		for(List<Record> group : this.groups.values()) {
+			final CopyingCollector expected = new CopyingCollector();
+			operator.reduce(group.iterator(), expected);
+			final CopyingCollector actual = new CopyingCollector();
+			combinableOperator.reduce(combine(combinableOperator, group, random).iterator(), actual);
+			assertEquals(1, actual.records.size());
+			assertEquals(toString(expected.records.get(0)), toString(actual.records.get(0)));
+		}
+	}
+
+	/**
+	 * Without grouping columns, for the post aggregation: the partial results are output, with the
+	 * dummy column that the post aggregation groups on.
+	 */
+	@Test
+	public void testPostAggregation() throws Exception {
+		for(AggregationType aggregationType : AGGREGATION_TYPES) {
+			final AggregationType[] aggregationTypes = {aggregationType};
+			final CombinableGroupByWithAggregationOperator combinableOperator = new CombinableGroupByWithAggregationOperator();
+			combinableOperator.open(parameters(new int[0], aggregationTypes, true));
+			final GroupByWithAggregationOperator operator = new GroupByWithAggregationOperator();
+			operator.open(parameters(new int[0], aggregationTypes, false));
+
+			// a partial result per group, as if each group was read by its own task
+			final Random random = new Random(29);
+			final List<Record> partialResults = new ArrayList<Record>();
+			final List<Record> all = new ArrayList<Record>();
+			for(List<Record> group : this.groups.values()) {
+				final CopyingCollector collector = new CopyingCollector();
+				combinableOperator.reduce(combine(combinableOperator, group, random).iterator(), collector);
+				assertEquals(1, collector.records.size());
+				final Record partialResult = collector.records.get(0);
+				assertEquals(2, partialResult.getNumFields());
+				assertEquals(1, partialResult.getField(1, IntValue.class).getValue());
+				partialResults.add(partialResult);
+				all.addAll(group);
+			}
+
+			final Configuration postParameters = new Configuration();
+			postParameters.setString(PACTOperatorsConfiguration.NRSMD1_BINARY.toString(),
+					encode(new NestedMetadata(1, new MetadataTypes[]{MetadataTypes.STRING_TYPE})));
+			postParameters.setInteger(PACTOperatorsConfiguration.POST_AGGREGATION_COLUMN_INT.toString(), 0);
+			postParameters.setString(PACTOperatorsConfiguration.AGGREGATION_TYPE_BINARY.toString(), encode(aggregationType));
+			postParameters.setBoolean(PACTOperatorsConfiguration.EXCLUDE_NESTED_FIELD_BOOLEAN.toString(), true);
+			final CombinablePostAggregationOperator postOperator = new CombinablePostAggregationOperator();
+			postOperator.open(postParameters);
+			// the partial results of half of the tasks are combined
+			final List<Record> postInput = new ArrayList<Record>();
+			final CopyingCollector combined = new CopyingCollector();
+			postOperator.combine(partialResults.subList(0, partialResults.size() / 2).iterator(), combined);
+			postInput.addAll(combined.records);
+			postInput.addAll(partialResults.subList(partialResults.size() / 2, partialResults.size()));
+			final CopyingCollector result = new CopyingCollector();
+			postOperator.reduce(postInput.iterator(), result);
+
+			final CopyingCollector expected = new CopyingCollector();
+			operator.reduce(all.iterator(), expected);
+			assertEquals(aggregationType.toString(), toString(expected.records.get(0)), toString(result.records.get(0)));
+		}
+	}
+
+}
@@ -0,0 +1,310 @@
+/*******************************************************************************
+ * Copyright (C) 2013, 2014, 2015 by Inria and Paris-Sud University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package fr.inria.oak.paxquery.pact.operators.unary;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import javax.xml.bind.DatatypeConverter;
+
+import org.apache.commons.lang.SerializationUtils;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.types.IntValue;
+import org.apache.flink.types.Record;
+import org.apache.flink.types.StringValue;
+import org.apache.flink.util.Collector;
+import org.junit.Before;
+import org.junit.Test;
+
+import fr.inria.oak.paxquery.common.aggregation.AggregationType;
+import fr.inria.oak.paxquery.common.datamodel.metadata.MetadataTypes;
+import fr.inria.oak.paxquery.common.datamodel.metadata.NestedMetadata;
+import fr.inria.oak.paxquery.common.datamodel.metadata.NestedMetadataUtils;
+import fr.inria.oak.paxquery.pact.configuration.PACTOperatorsConfiguration;
+import fr.inria.oak.paxquery.pact.datamodel.type.RecordList;
+
+
+/**
+ * Groups the same records in hash tables, the way the translation plans it, and by sorting them,
+ * and checks that the groups are the same.
+ */
+public class TestHashGroupByOperator {
+
+	private static final int RECORDS = 1000;
+
+	private static final int GROUPS = 30;
+
+	private static final int TASKS = 3;
+
+	/**
+	 * Records [category, name, price], grouped on the category with the names nested.
+	 */
+	private static final NestedMetadata INPUT = new NestedMetadata(3,
+			new MetadataTypes[]{MetadataTypes.STRING_TYPE, MetadataTypes.STRING_TYPE, MetadataTypes.STRING_TYPE});
+
+	/**
+	 * Records [list of [category], name], grouped on their list.
+	 */
+	private static final NestedMetadata NESTED_KEY_INPUT = new NestedMetadata(
+			new MetadataTypes[]{MetadataTypes.TUPLE_TYPE, MetadataTypes.STRING_TYPE},
+			new NestedMetadata[]{new NestedMetadata(1, new MetadataTypes[]{MetadataTypes.STRING_TYPE})});
+
+	private static final int[] GROUP_BY_COLUMNS = {0};
+
+	private static final int[] NEST_COLUMNS = {1};
+
+
+	private static class CopyingCollector implements Collector<Record> {
+
+		final List<Record> records = new ArrayList<Record>();
+
+		@Override
+		public void collect(Record record) {
+			this.records.add(record.createCopy());
+		}
+
+		@Override
+		public void close() {
+		}
+	}
+
+	List<Record> records;
+
+
+	@Before
+	public void init() {
+		this.records = new ArrayList<Record>();
+		final Random random = new Random(11);
+		for(int i = 0; i < RECORDS; i++) {
+			final Record record = new Record();
+			record.addField(new StringValue("category" + random.nextInt(GROUPS)));
+			record.addField(new StringValue("name" + i));
+			record.addField(new StringValue(String.valueOf(random.nextInt(100))));
+			this.records.add(record);
+		}
+	}
+
+	private static String encode(Serializable object) {
+		return DatatypeConverter.printBase64Binary(SerializationUtils.serialize(object));
+	}
+
+	private static NestedMetadata output(NestedMetadata input) {
+		return NestedMetadataUtils.addNestedField(NestedMetadataUtils.makeProjectRSMD(input, GROUP_BY_COLUMNS),
+				NestedMetadataUtils.makeProjectRSMD(input, NEST_COLUMNS));
+	}
+
+	/**
+	 * @return the parameters of the grouping, as the translation sets them
+	 */
+	private static Configuration parameters(NestedMetadata input, boolean aggregation, int memory) {
+		return parameters(input, aggregation, false, memory);
+	}
+
+	private static Configuration parameters(NestedMetadata input, boolean aggregation, boolean excludeNestedField, int memory) {
+		final Configuration parameters = new Configuration();
+		parameters.setString(PACTOperatorsConfiguration.NRSMD1_BINARY.toString(), encode(output(input)));
+		parameters.setString(PACTOperatorsConfiguration.GROUP_BY_COLUMNS_BINARY.toString(), encode(GROUP_BY_COLUMNS));
+		parameters.setString(PACTOperatorsConfiguration.NEST_COLUMNS_BINARY.toString(), encode(NEST_COLUMNS));
+		if(aggregation) {
+			parameters.setString(PACTOperatorsConfiguration.AGGREGATION_COLUMNS_BINARY.toString(), encode(new int[]{2, 2}));
+			parameters.setString(PACTOperatorsConfiguration.AGGREGATION_TYPES_BINARY.toString(),
+					encode(new AggregationType[]{AggregationType.SUM, AggregationType.COUNT}));
+			parameters.setBoolean(PACTOperatorsConfiguration.EXCLUDE_NESTED_FIELD_BOOLEAN.toString(), excludeNestedField);
+		}
+		parameters.setString(PACTOperatorsConfiguration.HASH_KEY_COLUMNS_BINARY.toString(), encode(GROUP_BY_COLUMNS));
+		parameters.setString(PACTOperatorsConfiguration.HASH_KEY_TYPES_BINARY.toString(), encode(input.getTypes(GROUP_BY_COLUMNS)));
+		parameters.setInteger(PACTOperatorsConfiguration.COMBINATION_COLUMN_INT.toString(), input.getColNo() + 1);
+		parameters.setInteger(PACTOperatorsConfiguration.HASH_MEMORY_INT.toString(), memory);
+		return parameters;
+	}
+
+	/**
+	 * Tags the records with their bucket, partitions them on it over a few tasks, and groups the
+	 * records of each task in its own operator.
+	 */
+	private static List<Record> hashGroupBy(List<Record> records, NestedMetadata input, boolean aggregation, int memory) throws Exception {
+		return hashGroupBy(bucket(records, input, null), input, parameters(input, aggregation, memory));
+	}
+
+	/**
+	 * Tags the records with their bucket; given the parameters of the grouping, the records are
+	 * also pre-grouped.
+	 */
+	private static List<Record> bucket(List<Record> records, NestedMetadata input, Configuration grouping) throws Exception {
+		final Configuration bucketParameters = new Configuration();
+		if(grouping != null)
+			bucketParameters.addAll(grouping);
+		bucketParameters.setString(PACTOperatorsConfiguration.NRSMD1_BINARY.toString(), encode(input));
+		bucketParameters.setString(PACTOperatorsConfiguration.HASH_KEY_COLUMNS_BINARY.toString(), encode(GROUP_BY_COLUMNS));
+		bucketParameters.setString(PACTOperatorsConfiguration.HASH_KEY_TYPES_BINARY.toString(), encode(input.getTypes(GROUP_BY_COLUMNS)));
+		bucketParameters.setInteger(PACTOperatorsConfiguration.HASH_BUCKETS_INT.toString(), 256);
+		final HashGroupBucketOperator bucketOperator = new HashGroupBucketOperator();
+		bucketOperator.open(bucketParameters);
+		final CopyingCollector tagged = new CopyingCollector();
+		for(Record record : records)
+			bucketOperator.map(record.createCopy(), tagged);
+		bucketOperator.close();
+		return tagged.records;
+	}
+
+	private static List<Record> hashGroupBy(List<Record> tagged, NestedMetadata input, Configuration parameters) throws Exception {
+		final CopyingCollector collector = new CopyingCollector();
+		for(int task = 0; task < TASKS; task++) {
+			final HashGroupByOperator operator = new HashGroupByOperator();
+			operator.open(parameters);
+			for(Record record : tagged) {
+				final IntValue bucket = record.getField(input.getColNo(), IntValue.class);
+				if(bucket.getValue() % TASKS == task)
+					operator.join(record, new Record(bucket), collector);
+			}
+			operator.close();
+		}
+		return collector.records;
+	}
+
+	/**
+	 * Sorts the records on their category, and reduces each group.
+	 */
+	private static List<Record> sortGroupBy(List<Record> records, GroupByOperator operator, boolean aggregation) throws Exception {
+		return sortGroupBy(records, operator, parameters(INPUT, aggregation, 0));
+	}
+
+	private static List<Record> sortGroupBy(List<Record> records, GroupByOperator operator, Configuration parameters) throws Exception {
+		operator.open(parameters);
+		final Map<String, List<Record>> groups = new TreeMap<String, List<Record>>();
+		for(Record record : records) {
+			final String category = record.getField(0, StringValue.class).getValue();
+			if(!groups.containsKey(category))
+				groups.put(category, new ArrayList<Record>());
+			groups.get(category).add(record.createCopy());
+		}
+		final CopyingCollector collector = new CopyingCollector();
+		for(List<Record> group : groups.values())
+			operator.reduce(group.iterator(), collector);
+		operator.close();
+		return collector.records;
+	}
+
+	/**
+	 * @return for each group, its category, its nested names in order and its aggregations
+	 */
+	private static Map<String, String> getGroups(List<Record> output, boolean nestedKey) {
+		return getGroups(output, nestedKey, false);
+	}
+
+	private static Map<String, String> getGroups(List<Record> output, boolean nestedKey, boolean excludeNestedField) {
+		final Map<String, String> groups = new TreeMap<String, String>();
+		for(Record record : output) {
+			final String category = nestedKey ?
+					record.getField(0, RecordList.class).get(0).getField(0, StringValue.class).getValue() :
+					record.getField(0, StringValue.class).getValue();
+			assertTrue("Group " + category + " output twice", !groups.containsKey(category));
+			final List<String> names = new ArrayList<String>();
+			if(!excludeNestedField) {
+				for(Record nestedRecord : record.getField(1, RecordList.class))
+					names.add(nestedRecord.getField(0, StringValue.class).getValue());
+			}
+			Collections.sort(names);
+			final StringBuilder group = new StringBuilder(names.toString());
+			for(int i = excludeNestedField ? 1 : 2; i < record.getNumFields(); i++)
+				group.append(' ').append(record.getField(i, StringValue.class).getValue());
+			groups.put(category, group.toString());
+		}
+		return groups;
+	}
+
+	@Test
+	public void testGroupBy() throws Exception {
+		final Map<String, String> expected = getGroups(sortGroupBy(this.records, new GroupByOperator(), false), false);
+		assertEquals(GROUPS, expected.size());
+		assertEquals(expected, getGroups(hashGroupBy(this.records, INPUT, false, Integer.MAX_VALUE), false));
+	}
+
+	@Test
+	public void testGroupByWithAggregation() throws Exception {
+		final Map<String, String> expected = getGroups(sortGroupBy(this.records, new GroupByWithAggregationOperator(), true), false);
+		assertEquals(expected, getGroups(hashGroupBy(this.records, INPUT, true, Integer.MAX_VALUE), false));
+	}
+
+	/**
+	 * The budget is smaller than a group, so that the groups go through spilled partitions.
+	 */
+	@Test
+	public void testSpilling() throws Exception {
+		final Map<String, String> expected = getGroups(sortGroupBy(this.records, new GroupByWithAggregationOperator(), true), false);
+		assertEquals(expected, getGroups(hashGroupBy(this.records, INPUT, true, 1), false));
+	}
+
+	/**
+	 * Without the nested records, the records are pre-grouped before shipping, into partial
+	 * records that the groups merge; the pre-grouping outputs its groups whenever they go over
+	 * its budget.
+	 */
+	@Test
+	public void testPreGrouped() throws Exception {
+		final Map<String, String> expected = getGroups(sortGroupBy(this.records, new GroupByWithAggregationOperator(),
+				parameters(INPUT, true, true, 0)), false, true);
+		assertEquals(GROUPS, expected.size());
+
+		final Configuration parameters = parameters(INPUT, true, true, Integer.MAX_VALUE);
+		final List<Record> partialRecords = bucket(this.records, INPUT, parameters);
+		assertEquals(GROUPS, partialRecords.size());
+		assertEquals(expected, getGroups(hashGroupBy(partialRecords, INPUT, parameters), false, true));
+
+		final Configuration smallParameters = parameters(INPUT, true, true, 1500);
+		final List<Record> flushedRecords = bucket(this.records, INPUT, smallParameters);
+		assertTrue(String.valueOf(flushedRecords.size()), flushedRecords.size() > GROUPS && flushedRecords.size() < RECORDS);
+		assertEquals(expected, getGroups(hashGroupBy(flushedRecords, INPUT, smallParameters), false, true));
+	}
+
+	/**
+	 * Grouping on a nested column, which cannot be sorted on, gives the groups of its values.
+	 */
+	@Test
+	public void testNestedKey() throws Exception {
+		final List<Record> nestedKeyRecords = new ArrayList<Record>();
+		for(Record record : this.records) {
+			final RecordList key = new RecordList();
+			key.add(new Record(record.getField(0, StringValue.class)));
+			final Record nestedKeyRecord = new Record();
+			nestedKeyRecord.addField(key);
+			nestedKeyRecord.addField(record.getField(1, StringValue.class));
+			nestedKeyRecords.add(nestedKeyRecord);
+		}
+		final Map<String, String> expected = getGroups(sortGroupBy(this.records, new GroupByOperator(), false), false);
+		assertEquals(expected, getGroups(hashGroupBy(nestedKeyRecords, NESTED_KEY_INPUT, false, 1), true));
+	}
+
+	/**
+	 * A task that gets no record outputs nothing.
+	 */
+	@Test
+	public void testNoRecord() throws Exception {
+		final HashGroupByOperator operator = new HashGroupByOperator();
+		operator.open(parameters(INPUT, true, Integer.MAX_VALUE));
+		operator.close();
+		assertEquals(0, hashGroupBy(new ArrayList<Record>(), INPUT, true, Integer.MAX_VALUE).size());
+	}
+
+}
@@ -0,0 +1,137 @@
+/*******************************************************************************
+ * Copyright (C) 2013, 2014, 2015 by Inria and Paris-Sud University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package fr.inria.oak.paxquery.pact.operators.unary;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.stream.XMLInputFactory;
+
+import org.apache.flink.types.IntValue;
+import org.apache.flink.types.Record;
+import org.apache.flink.types.StringValue;
+import org.apache.flink.util.Collector;
+import org.junit.Test;
+
+import fr.inria.oak.paxquery.common.xml.navigation.NavigationTreePattern;
+import fr.inria.oak.paxquery.common.xml.navigation.NavigationTreePatternUtils;
+import fr.inria.oak.paxquery.pact.operations.xml.navigation.SingleDocumentExtractor;
+
+
+public class TestNavigationOperator {
+
+	/**
+	 * Keeps the records it collects across calls. Like the collectors of the runtime, which
+	 * serialize each record, it copies them: the operator refills its output record.
+	 */
+	private static class HoldingCollector implements Collector<Record> {
+
+		final List<Record> records = new ArrayList<Record>();
+
+		final List<Record> collected = new ArrayList<Record>();
+
+		@Override
+		public void collect(Record record) {
+			this.records.add(record.createCopy());
+			this.collected.add(record);
+		}
+
+		@Override
+		public void close() {
+		}
+	}
+
+	private static Record input(int id, String document) {
+		final Record record = new Record(2);
+		record.setField(0, new IntValue(id));
+		record.setField(1, new StringValue(document));
+		return record;
+	}
+
+	private static void assertRecord(int id, String document, String value, Record record) {
+		assertEquals(3, record.getNumFields());
+		assertEquals(id, record.getField(0, IntValue.class).getValue());
+		assertEquals(document, record.getField(1, StringValue.class).getValue());
+		assertEquals(value, record.getField(2, StringValue.class).getValue());
+	}
+
+	/**
+	 * Navigates the documents of several records with the same extractor and output record,
+	 * including a document that is not well formed, and checks the records that are held
+	 * across the calls.
+	 */
+	@Test
+	public void testReuseAcrossRecords() {
+		final NavigationTreePattern ntp = NavigationTreePatternUtils.getTreePatternFromString(
+				" \nE: 1 [Tag=\"y\"] Val\n;\n", "NavigationTreePattern");
+		final SingleDocumentExtractor extractor = new SingleDocumentExtractor(ntp, null);
+		final XMLInputFactory factory = XMLInputFactory.newInstance();
+		final Record outputRecord = new Record();
+		final HoldingCollector collector = new HoldingCollector();
+
+		final String[] documents = {
+			"<r><y>a</y><z/><y>b</y></r>",
+			// the open element is left on the stacks of the extractor
+			"<r><y>c</y><y>d",
+			"<r><x><y>e</y></x></r>",
+			"<r/>",
+			"<y>f</y>",
+		};
+		final Record[] inputs = new Record[documents.length];
+		for(int i = 0; i < documents.length; i++) {
+			inputs[i] = input(i, documents[i]);
+			NavigationOperator.navigation(inputs[i], 1, extractor, factory, outputRecord, collector);
+		}
+
+		final List<Record> records = collector.records;
+		assertEquals(5, records.size());
+		assertRecord(0, documents[0], "a", records.get(0));
+		assertRecord(0, documents[0], "b", records.get(1));
+		assertRecord(1, documents[1], "c", records.get(2));
+		assertRecord(2, documents[2], "e", records.get(3));
+		assertRecord(4, documents[4], "f", records.get(4));
+
+		// the input records are not changed, and not emitted themselves
+		for(int i = 0; i < documents.length; i++) {
+			assertEquals(2, inputs[i].getNumFields());
+			for(Record collected : collector.collected)
+				assertNotSame(inputs[i], collected);
+		}
+	}
+
+	/**
+	 * A pattern rooted at the document element only matches at depth 1, which is checked
+	 * again after a document that was not read to its end.
+	 */
+	@Test
+	public void testDocumentElementAfterError() {
+		final NavigationTreePattern ntp = NavigationTreePatternUtils.getTreePatternFromString(
+				"/\nE: 1 [Tag=\"y\"] Val\n;\n", "NavigationTreePattern");
+		final SingleDocumentExtractor extractor = new SingleDocumentExtractor(ntp, null);
+		final XMLInputFactory factory = XMLInputFactory.newInstance();
+		final HoldingCollector collector = new HoldingCollector();
+		final String[] documents = {"<y>a<y>b", "<y>c</y>", "<r><y>d</y></r>", "<y>e</y>"};
+		for(int i = 0; i < documents.length; i++)
+			NavigationOperator.navigation(input(i, documents[i]), 1, extractor, factory, new Record(), collector);
+		assertEquals(2, collector.records.size());
+		assertRecord(1, documents[1], "c", collector.records.get(0));
+		assertRecord(3, documents[3], "e", collector.records.get(1));
+	}
+
+}
@@ -15,8 +15,14 @@
  ******************************************************************************/
 package fr.inria.oak.paxquery.translation;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import javax.xml.bind.DatatypeConverter;
 
@@ -24,8 +30,11 @@ import org.apache.commons.lang.SerializationUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.flink.api.common.Plan;
+import org.apache.flink.api.common.io.FileInputFormat;
+import org.apache.flink.api.common.io.statistics.BaseStatistics;
 import org.apache.flink.api.common.operators.Operator;
 import org.apache.flink.api.java.record.operators.CoGroupOperator;
+import org.apache.flink.api.java.record.operators.CollectionDataSource;
 import org.apache.flink.api.java.record.operators.CrossOperator;
 import org.apache.flink.api.java.record.operators.FileDataSink;
 import org.apache.flink.api.java.record.operators.FileDataSource;
@@ -47,6 +56,7 @@ import fr.inria.oak.paxquery.algebra.operators.border.XMLConstruct;
 import fr.inria.oak.paxquery.algebra.operators.border.XMLScan;
 import fr.inria.oak.paxquery.algebra.operators.border.XMLTreeConstruct;
 import fr.inria.oak.paxquery.algebra.operators.unary.Aggregation;
+import fr.inria.oak.paxquery.algebra.operators.unary.BaseUnaryOperator;
 import fr.inria.oak.paxquery.algebra.operators.unary.DuplicateElimination;
 import fr.inria.oak.paxquery.algebra.operators.unary.Flatten;
 import fr.inria.oak.paxquery.algebra.operators.unary.GroupBy;
@@ -54,14 +64,18 @@ import fr.inria.oak.paxquery.algebra.operators.unary.GroupByWithAggregation;
 import fr.inria.oak.paxquery.algebra.operators.unary.Navigation;
 import fr.inria.oak.paxquery.algebra.operators.unary.Projection;
 import fr.inria.oak.paxquery.algebra.operators.unary.Selection;
+import fr.inria.oak.paxquery.common.aggregation.AggregationType;
 import fr.inria.oak.paxquery.common.datamodel.metadata.MetadataTypes;
 import fr.inria.oak.paxquery.common.datamodel.metadata.NestedMetadata;
 import fr.inria.oak.paxquery.common.datamodel.metadata.NestedMetadataUtils;
 import fr.inria.oak.paxquery.common.exception.PAXQueryExecutionException;
 import fr.inria.oak.paxquery.common.predicates.DisjunctivePredicate;
+import fr.inria.oak.paxquery.common.xml.navigation.NavigationTreePattern;
 import fr.inria.oak.paxquery.common.xml.navigation.NavigationTreePatternUtils;
 import fr.inria.oak.paxquery.pact.configuration.PACTOperatorsConfiguration;
 import fr.inria.oak.paxquery.pact.datamodel.metadata.MetadataTypesMapping;
+import fr.inria.oak.paxquery.pact.io.BinaryXmlWriter;
+import fr.inria.oak.paxquery.pact.io.XmlBinTreePatternInputFormat;
 import fr.inria.oak.paxquery.pact.io.XmlConsTreePatternOutputFormat;
 import fr.inria.oak.paxquery.pact.io.XmlNavTreePatternInputFormat;
 import fr.inria.oak.paxquery.pact.io.XmlOutputFormat;
@@ -79,12 +93,18 @@ import fr.inria.oak.paxquery.pact.operators.binary.ThetaJoinOperator;
 import fr.inria.oak.paxquery.pact.operators.binary.ThetaLNOJoinOperator;
 import fr.inria.oak.paxquery.pact.operators.binary.ThetaLNOJoinWithAggregationOperator;
 import fr.inria.oak.paxquery.pact.operators.binary.ThetaLOJoinOperator;
+import fr.inria.oak.paxquery.pact.operators.unary.AggregationBucketOperator;
+import fr.inria.oak.paxquery.pact.operators.unary.CombinableGroupByWithAggregationOperator;
+import fr.inria.oak.paxquery.pact.operators.unary.CombinablePostAggregationOperator;
 import fr.inria.oak.paxquery.pact.operators.unary.DuplicateEliminationOperator;
 import fr.inria.oak.paxquery.pact.operators.unary.FlattenOperator;
 import fr.inria.oak.paxquery.pact.operators.unary.GroupByOperator;
 import fr.inria.oak.paxquery.pact.operators.unary.GroupByWithAggregationOperator;
+import fr.inria.oak.paxquery.pact.operators.unary.HashGroupBucketOperator;
+import fr.inria.oak.paxquery.pact.operators.unary.HashGroupByOperator;
 import fr.inria.oak.paxquery.pact.operators.unary.NavigationOperator;
 import fr.inria.oak.paxquery.pact.operators.unary.NestedAggregationOperator;
+import fr.inria.oak.paxquery.pact.operators.unary.PatternSplitOperator;
 import fr.inria.oak.paxquery.pact.operators.unary.PostAggregationOperator;
 import fr.inria.oak.paxquery.pact.operators.unary.PostLNOJoinOperator;
 import fr.inria.oak.paxquery.pact.operators.unary.PostLNOJoinWithAggregationOperator;
@@ -101,27 +121,72 @@ public class Logical2Pact {
 	
 	private static final Log logger = LogFactory.getLog(Logical2Pact.class);
 	
+	/**
+	 * Number of reducers of the intermediate level of the aggregations over the complete data set.
+	 * The level is only added when the plan runs more tasks than that.
+	 */
+	private static final int AGGREGATION_BUCKETS = 16;
+	
+	/**
+	 * Number of buckets that the groups built in hash tables are partitioned on.
+	 */
+	private static final int HASH_BUCKETS = 256;
+	
+	/**
+	 * Largest expected number of groups for which the records are grouped in hash tables rather than sorted.
+	 */
+	private static final long HASH_GROUPS = 1 << 16;
+	
+	/**
+	 * Hints of the optimizer of Flink, see org.apache.flink.compiler.PactCompiler.
+	 */
+	private static final String HINT_LOCAL_STRATEGY = "LOCAL_STRATEGY";
+	private static final String HINT_LOCAL_STRATEGY_HASH_BUILD_SECOND = "LOCAL_STRATEGY_HASH_BUILD_SECOND";
+	private static final String HINT_SHIP_STRATEGY_FIRST_INPUT = "INPUT_LEFT_SHIP_STRATEGY";
+	private static final String HINT_SHIP_STRATEGY_SECOND_INPUT = "INPUT_RIGHT_SHIP_STRATEGY";
+	private static final String HINT_SHIP_STRATEGY_REPARTITION_HASH = "SHIP_REPARTITION_HASH";
+	
+	/**
+	 * The broadcast variable of the buckets of the records grouped in hash tables.
+	 */
+	private static final String BUCKETS_VARIABLE = "buckets";
+	
 	
 	public static final Plan planTranslate(LogicalPlan logPlan) {
+		return planTranslate(logPlan, -1);
+	}
+	
+	/**
+	 * @param logPlan
+	 * @param parallelism the default degree of parallelism of the plan, which the translation
+	 * uses to choose between strategies, or -1 if it is not known
+	 * @return the PACT plan
+	 */
+	public static final Plan planTranslate(LogicalPlan logPlan, int parallelism) {
 		BaseLogicalOperator log = logPlan.getRoot();
 
 		logger.debug("After pushing: " + log.getName());
+		
+		final TranslationContext context = new TranslationContext(parallelism);
+		shareScans(log, context);
 				
 		FileDataSink result;
 		if (log instanceof XMLConstruct)
-			result = planTranslate((XMLConstruct) log);
+			result = planTranslate((XMLConstruct) log, context);
 		else if (log instanceof XMLTreeConstruct)
-			result = planTranslate((XMLTreeConstruct) log);
+			result = planTranslate((XMLTreeConstruct) log, context);
 		else
 			throw new PAXQueryExecutionException("The top operator must translate into a data sink!");
 		
 		Plan resultPactPlan = new Plan(result);
+		if(parallelism > 0)
+			resultPactPlan.setDefaultParallelism(parallelism);
 		return resultPactPlan;
 	}
 	
-	private static final FileDataSink planTranslate(XMLConstruct as) {
+	private static final FileDataSink planTranslate(XMLConstruct as, TranslationContext context) {
 		//Generate plan
-		Operator<Record>[] childPlan = translate(as.getChild());
+		Operator<Record>[] childPlan = translate(as.getChild(), context);
 		
 		//Store translation in a list
 		List<Operator<Record>> children = new ArrayList<Operator<Record>>();
@@ -138,9 +203,9 @@ public class Logical2Pact {
 		return result;
 	}
 	
-	private static final FileDataSink planTranslate(XMLTreeConstruct as) {
+	private static final FileDataSink planTranslate(XMLTreeConstruct as, TranslationContext context) {
 		//Generate plan
-		Operator<Record>[] childPlan = translate(as.getChild());
+		Operator<Record>[] childPlan = translate(as.getChild(), context);
 		
 		//Store translation in a list
 		List<Operator<Record>> children = new ArrayList<Operator<Record>>();
@@ -157,41 +222,120 @@ public class Logical2Pact {
 		return result;
 	}
 
-	private static final Operator<Record>[] translate(BaseLogicalOperator log) {
+	private static final Operator<Record>[] translate(BaseLogicalOperator log, TranslationContext context) {
 		Operator<Record>[] translation = null;
 
 		if (log instanceof XMLScan)
-			translation = translate((XMLScan) log);
+			translation = translate((XMLScan) log, context);
 		else if (log instanceof Selection)
-			translation = translate((Selection) log);
+			translation = translate((Selection) log, context);
 		else if (log instanceof Projection)
-			translation = translate((Projection) log);
+			translation = translate((Projection) log, context);
 		else if (log instanceof Navigation)
-			translation = translate((Navigation) log);
+			translation = translate((Navigation) log, context);
 		else if (log instanceof GroupBy)
-			translation = translate((GroupBy) log);
+			translation = translate((GroupBy) log, context);
 		else if (log instanceof Flatten)
-			translation = translate((Flatten) log);
+			translation = translate((Flatten) log, context);
 		else if (log instanceof Aggregation)
-			translation = translate((Aggregation) log);
+			translation = translate((Aggregation) log, context);
 		else if (log instanceof DuplicateElimination)
-			translation = translate((DuplicateElimination) log);
+			translation = translate((DuplicateElimination) log, context);
 		else if (log instanceof CartesianProduct)
-			translation = translate((CartesianProduct) log);
+			translation = translate((CartesianProduct) log, context);
 		else if (log instanceof Join)
-			translation = translate((Join) log);
+			translation = translate((Join) log, context);
 		else if (log instanceof LeftOuterJoin)
-			translation = translate((LeftOuterJoin) log);
+			translation = translate((LeftOuterJoin) log, context);
 		else if (log instanceof LeftOuterNestedJoin)
-			translation = translate((LeftOuterNestedJoin) log);
+			translation = translate((LeftOuterNestedJoin) log, context);
 		else
 			throw new PAXQueryExecutionException("Translation not implemented for operator " + log.getName());
 		
 		return translation;
 	}
 
-	private static final Operator<Record>[] translate(XMLScan xp) {
-		FileDataSource navigationExtraction = new FileDataSource(XmlNavTreePatternInputFormat.class, xp.getPathDocuments(), "Parse XML");
+	/**
+	 * Finds the scans of the plan that read the same documents, and creates for each group of
+	 * them a single data source that evaluates all their patterns in one pass.
+	 */
+	private static final void shareScans(BaseLogicalOperator root, TranslationContext context) {
+		Map<String, List<XMLScan>> scansByDocuments = new LinkedHashMap<String, List<XMLScan>>();
+		collectScans(root, scansByDocuments);
+		for(List<XMLScan> scans : scansByDocuments.values()) {
+			if(scans.size() < 2)
+				continue;
+			
+			final XMLScan first = scans.get(0);
+			NavigationTreePattern[] ntps = new NavigationTreePattern[scans.size()];
+			for(int i = 0; i < ntps.length; i++)
+				ntps[i] = scans.get(i).getNavigationTreePattern();
+			FileDataSource navigationExtraction = new FileDataSource(getInputFormat(first.getPathDocuments()), first.getPathDocuments(), "Parse XML");
+			XmlNavTreePatternInputFormat.configureXmlNavInputFormat(navigationExtraction)
+					.setNavigationTreePatterns(ntps)
+					.setAttachDocumentID(first.isAttachDocumentID());
+			if(first.getRecordElement() != null)
+				XmlNavTreePatternInputFormat.configureXmlNavInputFormat(navigationExtraction)
+						.setRecordElement(first.getRecordElement());
+			
+			for(int i = 0; i < ntps.length; i++) {
+				context.sources.put(scans.get(i), navigationExtraction);
+				context.positions.put(scans.get(i), i);
+			}
+		}
+	}
+	
+	private static final void collectScans(BaseLogicalOperator log, Map<String, List<XMLScan>> scansByDocuments) {
+		if(log instanceof XMLScan) {
+			XMLScan xp = (XMLScan) log;
+			if(xp.getNavigationTreePattern() != null) {
+				final String key = xp.getPathDocuments() + "|" + xp.isAttachDocumentID() + "|" + xp.getRecordElement();
+				List<XMLScan> scans = scansByDocuments.get(key);
+				if(scans == null) {
+					scans = new ArrayList<XMLScan>();
+					scansByDocuments.put(key, scans);
+				}
+				scans.add(xp);
+			}
+		}
+		if(log.getChildren() != null) {
+			for(BaseLogicalOperator child : log.getChildren())
+				collectScans(child, scansByDocuments);
+		}
+	}
+	
+	/**
+	 * Returns the input format for the documents at the given path; documents converted to the
+	 * binary format are recognized by the extension of the path.
+	 */
+	private static final Class<? extends XmlNavTreePatternInputFormat> getInputFormat(String pathDocuments) {
+		String path = pathDocuments;
+		while(path.endsWith("/"))
+			path = path.substring(0, path.length() - 1);
+		if(path.endsWith(BinaryXmlWriter.EXTENSION))
+			return XmlBinTreePatternInputFormat.class;
+		return XmlNavTreePatternInputFormat.class;
+	}
+	
+	private static final Operator<Record>[] translate(XMLScan xp, TranslationContext context) {
+		if(context.sources.containsKey(xp)) {
+			// keep the records of this scan from the shared data source
+			MapOperator split = MapOperator.builder(PatternSplitOperator.class)
+				.input(context.sources.get(xp))
+				.name("Split patterns")
+				.build();
+			
+			final String encodedNRSMD = DatatypeConverter.printBase64Binary(SerializationUtils.serialize(xp.getNRSMD()));
+			split.setParameter(PACTOperatorsConfiguration.NRSMD1_BINARY.toString(), encodedNRSMD);
+			split.setParameter(PACTOperatorsConfiguration.PATTERN_INDEX_INT.toString(), context.positions.get(xp));
+			return new Operator[]{split};
+		}
+		
+		return new Operator[]{createSource(xp)};
+	}
+	
+	private static final FileDataSource createSource(XMLScan xp) {
+		FileDataSource navigationExtraction = new FileDataSource(getInputFormat(xp.getPathDocuments()), xp.getPathDocuments(), "Parse XML");
 		if(xp.getNavigationTreePattern() != null)
 			XmlNavTreePatternInputFormat.configureXmlNavInputFormat(navigationExtraction)
 					.setNavigationTreePattern(xp.getNavigationTreePattern())
@@ -199,11 +343,14 @@ public class Logical2Pact {
 		else
 			XmlNavTreePatternInputFormat.configureXmlNavInputFormat(navigationExtraction)
 					.setAttachDocumentID(xp.isAttachDocumentID());
-		return new Operator[]{navigationExtraction};
+		if(xp.getRecordElement() != null)
+			XmlNavTreePatternInputFormat.configureXmlNavInputFormat(navigationExtraction)
+					.setRecordElement(xp.getRecordElement());
+		return navigationExtraction;
 	}
 	
-	private static final Operator<Record>[] translate(Selection sel) {
-		Operator<Record>[] childPlan = translate(sel.getChild());
+	private static final Operator<Record>[] translate(Selection sel, TranslationContext context) {
+		Operator<Record>[] childPlan = translate(sel.getChild(), context);
 
 		// create MapOperator for selecting some records
 		MapOperator selection = MapOperator.builder(SelectionOperator.class)
@@ -220,8 +367,8 @@ public class Logical2Pact {
 		return new Operator[]{selection};
 	}
 	
-	private static final Operator<Record>[] translate(Projection proj) {
-		Operator<Record>[] childPlan = translate(proj.getChild());
+	private static final Operator<Record>[] translate(Projection proj, TranslationContext context) {
+		Operator<Record>[] childPlan = translate(proj.getChild(), context);
 
 		// create MapOperator for projecting a column
 		MapOperator projection = MapOperator.builder(ProjectionOperator.class)
@@ -238,8 +385,8 @@ public class Logical2Pact {
 		return new Operator[]{projection};
 	}
 	
-	private static final Operator<Record>[] translate(Navigation nav) {
-		Operator<Record>[] childPlan = translate(nav.getChild());
+	private static final Operator<Record>[] translate(Navigation nav, TranslationContext context) {
+		Operator<Record>[] childPlan = translate(nav.getChild(), context);
 
 		// create MapOperator for navigating in a column
 		MapOperator navigation = MapOperator.builder(NavigationOperator.class)
@@ -257,8 +404,8 @@ public class Logical2Pact {
 		return new Operator[]{navigation};
 	}
 	
-	private static final Operator<Record>[] translate(Flatten flat) {
-		Operator<Record>[] childPlan = translate(flat.getChild());
+	private static final Operator<Record>[] translate(Flatten flat, TranslationContext context) {
+		Operator<Record>[] childPlan = translate(flat.getChild(), context);
 
 		// create MapOperator to flatten tuples
 		MapOperator flatten = MapOperator.builder(FlattenOperator.class)
@@ -275,55 +422,321 @@ public class Logical2Pact {
 		return new Operator[]{flatten};
 	}
 	
-	private static final Operator<Record>[] translate(GroupBy gb) {
+	private static final Operator<Record>[] translate(GroupBy gb, TranslationContext context) {
 		final boolean withAggregation = gb instanceof GroupByWithAggregation;
+		// without the nested records, the aggregation is combined before shipping
+		final boolean combinable = withAggregation && ((GroupByWithAggregation) gb).isExcludeNestedField();
+		final NestedMetadata childNRSMD = gb.getChild().getNRSMD();
+		final boolean hash = isHashGrouped(childNRSMD, gb.getReduceByColumns(),
+				getExpectedGroups(gb.getExpectedGroups(), gb.getChild(), gb.getReduceByColumns(), context));
 		
-		Operator<Record>[] childPlan = translate(gb.getChild());
-
-		// create ReduceOperator for grouping
-		ReduceOperator.Builder groupByBuilder;
-		if(withAggregation)
-			groupByBuilder = ReduceOperator.builder(GroupByWithAggregationOperator.class)
-			.input(childPlan)
-			.name("GroupByAgg");
+		Operator<Record>[] childPlan = translate(gb.getChild(), context);
+		
+		// create the operator for grouping
+		Operator<Record> groupBy;
+		if(hash) {
+			final JoinOperator hashGroupBy = hashGroupBy(childPlan, childNRSMD, gb.getReduceByColumns(),
+					withAggregation ? "HashGroupByAgg" : "HashGroupBy");
+			if(combinable) {
+				// the records are pre-grouped by the operator that attaches their bucket, into partial records whose
+				// state follows the bucket
+				final MapOperator bucket = (MapOperator) hashGroupBy.getFirstInput();
+				setGroupingParameters(bucket, gb, childNRSMD);
+				bucket.setParameter(PACTOperatorsConfiguration.COMBINATION_COLUMN_INT.toString(), childNRSMD.getColNo() + 1);
+				// it emits the last groups when it closes, after its output is closed if it is chained to its input,
+				// and operators with broadcast inputs are not chained
+				bucket.setBroadcastVariable(BUCKETS_VARIABLE, hashGroupBy.getSecondInput());
+			}
+			groupBy = hashGroupBy;
+		}
 		else
-			groupByBuilder = ReduceOperator.builder(GroupByOperator.class)
-				.input(childPlan)
-				.name("GroupBy");
-		for(int column: gb.getReduceByColumns())
-			KeyFactoryOperations.addKey(groupByBuilder, MetadataTypesMapping.getKeyClass(gb.getChild().getNRSMD().getType(column)), column);
-		ReduceOperator groupBy = groupByBuilder.build();
+			groupBy = sortGroupBy(childPlan, childNRSMD, gb.getReduceByColumns(), withAggregation, combinable);
 
 		// groupBy configuration
 		final String encodedNRSMD = DatatypeConverter.printBase64Binary(SerializationUtils.serialize(gb.getNRSMD()));
 		groupBy.setParameter(PACTOperatorsConfiguration.NRSMD1_BINARY.toString(), encodedNRSMD);
+		setGroupingParameters(groupBy, gb, childNRSMD);
+		if(combinable && !hash)
+			groupBy.setParameter(PACTOperatorsConfiguration.COMBINATION_COLUMN_INT.toString(), childNRSMD.getColNo());
+			
+		return new Operator[]{groupBy};
+	}
+	
+	/**
+	 * Sets the columns of the groups and their aggregations, if any.
+	 */
+	private static void setGroupingParameters(Operator<Record> operator, GroupBy gb, NestedMetadata childNRSMD) {
 		final String encodedGroupByColumns = DatatypeConverter.printBase64Binary(SerializationUtils.serialize((gb.getGroupByColumns())));
-		groupBy.setParameter(PACTOperatorsConfiguration.GROUP_BY_COLUMNS_BINARY.toString(), encodedGroupByColumns);
+		operator.setParameter(PACTOperatorsConfiguration.GROUP_BY_COLUMNS_BINARY.toString(), encodedGroupByColumns);
 		final String encodedNestColumns = DatatypeConverter.printBase64Binary(SerializationUtils.serialize((gb.getNestColumns())));
-		groupBy.setParameter(PACTOperatorsConfiguration.NEST_COLUMNS_BINARY.toString(), encodedNestColumns);
-		if(withAggregation) {
+		operator.setParameter(PACTOperatorsConfiguration.NEST_COLUMNS_BINARY.toString(), encodedNestColumns);
+		if(gb instanceof GroupByWithAggregation) {
 			GroupByWithAggregation gba = (GroupByWithAggregation) gb;
 			
-			groupBy.setParameter(PACTOperatorsConfiguration.AGGREGATION_COLUMN_INT.toString(), gba.getAggregationColumn());
-
-			final String encodedAggregationType = DatatypeConverter.printBase64Binary(SerializationUtils.serialize(gba.getAggregationType()));
-			groupBy.setParameter(PACTOperatorsConfiguration.AGGREGATION_TYPE_BINARY.toString(), encodedAggregationType);
+			setAggregationParameters(operator, gba.getAggregationColumns(), childNRSMD.getTypes(gba.getAggregationColumns()),
+					gba.getAggregationTypes());
 			
-			groupBy.setParameter(PACTOperatorsConfiguration.EXCLUDE_NESTED_FIELD_BOOLEAN.toString(), gba.isExcludeNestedField());
+			operator.setParameter(PACTOperatorsConfiguration.EXCLUDE_NESTED_FIELD_BOOLEAN.toString(), gba.isExcludeNestedField());
 		}
-			
-		return new Operator[]{groupBy};
 	}
 	
-	private static final Operator<Record>[] translate(DuplicateElimination dupElim) {
-		Operator<Record>[] childPlan = translate(dupElim.getChild());
+	private static ReduceOperator sortGroupBy(Operator<Record>[] childPlan, NestedMetadata childNRSMD, int[] keyColumns,
+			boolean withAggregation, boolean combinable) {
+		ReduceOperator.Builder groupByBuilder;
+		if(combinable)
+			groupByBuilder = ReduceOperator.builder(CombinableGroupByWithAggregationOperator.class)
+			.input(childPlan)
+			.name("GroupByAgg");
+		else if(withAggregation)
+			groupByBuilder = ReduceOperator.builder(GroupByWithAggregationOperator.class)
+			.input(childPlan)
+			.name("GroupByAgg");
+		else
+			groupByBuilder = ReduceOperator.builder(GroupByOperator.class)
+				.input(childPlan)
+				.name("GroupBy");
+		for(int column: keyColumns)
+			KeyFactoryOperations.addKey(groupByBuilder, MetadataTypesMapping.getKeyClass(childNRSMD.getType(column)), column);
+		return groupByBuilder.build();
+	}
+	
+	/**
+	 * Decides whether records grouped on the given columns are grouped in hash tables rather than by sorting them.
+	 * Sorting is the default; hash tables only pay off when the groups are few, as the hint of the operator or the
+	 * statistics of its input predict. Nested columns cannot be sorted on, so they are always grouped in hash tables.
+	 * 
+	 * The groups built in hash tables are not output in the order of their keys.
+	 * 
+	 * @param nrsmd the metadata of the grouped records
+	 * @param columns the grouping columns
+	 * @param expectedGroups the expected number of groups, or -1 if it is not known
+	 * @return true if the records are grouped in hash tables
+	 */
+	private static boolean isHashGrouped(NestedMetadata nrsmd, int[] columns, long expectedGroups) {
+		for(int column: columns) {
+			if(nrsmd.getType(column) == MetadataTypes.TUPLE_TYPE)
+				return true;
+		}
+		return columns.length != 0 && expectedGroups >= 0 && expectedGroups <= HASH_GROUPS;
+	}
+	
+	/**
+	 * @param hint the number of groups hinted by the grouping operator, or -1
+	 * @param child the input of the grouping operator
+	 * @param columns the grouping columns
+	 * @param context
+	 * @return the hinted number of groups, or else the smallest of the estimated numbers of distinct values of the
+	 * grouping columns and of records of the input; -1 if none is known
+	 */
+	private static long getExpectedGroups(long hint, BaseLogicalOperator child, int[] columns, TranslationContext context) {
+		if(hint >= 0)
+			return hint;
+		final long records = estimateRecords(child, context);
+		final long values = estimateDistinctValues(child, columns, context);
+		if(values < 0)
+			return records;
+		return records < 0 ? values : Math.min(values, records);
+	}
+	
+	/**
+	 * Estimates the number of distinct values of columns of the records produced by an operator, from the sample of
+	 * the documents that it reads. The columns are followed down to a scan through the operators that keep their
+	 * values: selections, which may only drop some of them, and projections.
+	 * 
+	 * @param log
+	 * @param columns
+	 * @param context
+	 * @return the estimated number of distinct values, or -1 if it is not known
+	 */
+	private static long estimateDistinctValues(BaseLogicalOperator log, int[] columns, TranslationContext context) {
+		if(log instanceof XMLScan)
+			return estimateDistinctValues((XMLScan) log, columns, context);
+		if(log instanceof Selection)
+			return estimateDistinctValues(((Selection) log).getChild(), columns, context);
+		if(log instanceof Projection) {
+			final Projection proj = (Projection) log;
+			final int[] childColumns = new int[columns.length];
+			for(int i=0; i<columns.length; i++)
+				childColumns[i] = proj.columns[columns[i]];
+			return estimateDistinctValues(proj.getChild(), childColumns, context);
+		}
+		return BaseStatistics.NUM_RECORDS_UNKNOWN;
+	}
+	
+	/**
+	 * Gets the number of distinct values of columns of a scan from its input format, once per scan and columns.
+	 */
+	private static long estimateDistinctValues(XMLScan xp, int[] columns, TranslationContext context) {
+		final String key = Arrays.toString(columns);
+		Map<String, Long> scanValues = context.values.get(xp);
+		if(scanValues == null) {
+			scanValues = new HashMap<String, Long>();
+			context.values.put(xp, scanValues);
+		}
+		Long values = scanValues.get(key);
+		if(values == null) {
+			values = BaseStatistics.NUM_RECORDS_UNKNOWN;
+			final MetadataTypes[] types = xp.getNRSMD().getTypes(columns);
+			if(!Arrays.asList(types).contains(MetadataTypes.TUPLE_TYPE)) {
+				final FileDataSource source = createSource(xp);
+				final FileInputFormat<Record> format = source.getFormatWrapper().getUserCodeObject();
+				if(format instanceof XmlNavTreePatternInputFormat) {
+					format.configure(source.getParameters());
+					try {
+						values = ((XmlNavTreePatternInputFormat) format).estimateDistinctValues(columns, types);
+					} catch (IOException ioe) {
+						logger.debug("No distinct values for " + xp.getPathDocuments(), ioe);
+					}
+				}
+			}
+			scanValues.put(key, values);
+		}
+		return values;
+	}
+	
+	/**
+	 * Estimates the number of records produced by an operator, from the statistics of the documents that it reads.
+	 * Only the operators that produce at most as many records as their input are followed down to the scans.
+	 * 
+	 * @param log
+	 * @param context
+	 * @return the estimated number of records, or -1 if it is not known
+	 */
+	private static long estimateRecords(BaseLogicalOperator log, TranslationContext context) {
+		if(log instanceof XMLScan)
+			return estimateRecords((XMLScan) log, context);
+		if(log instanceof GroupBy)
+			return getExpectedGroups(((GroupBy) log).getExpectedGroups(), ((GroupBy) log).getChild(),
+					((GroupBy) log).getReduceByColumns(), context);
+		if(log instanceof DuplicateElimination)
+			return getExpectedGroups(((DuplicateElimination) log).getExpectedGroups(), ((DuplicateElimination) log).getChild(),
+					((DuplicateElimination) log).getColumns(), context);
+		if(log instanceof Selection || log instanceof Projection || log instanceof Aggregation)
+			return estimateRecords(((BaseUnaryOperator) log).getChild(), context);
+		return BaseStatistics.NUM_RECORDS_UNKNOWN;
+	}
+	
+	/**
+	 * Gets the number of records of a scan from the statistics of its input format, as the optimizer of Flink
+	 * does; they are computed once per scan.
+	 */
+	private static long estimateRecords(XMLScan xp, TranslationContext context) {
+		Long records = context.records.get(xp);
+		if(records == null) {
+			records = BaseStatistics.NUM_RECORDS_UNKNOWN;
+			final FileDataSource source = createSource(xp);
+			final FileInputFormat<Record> format = source.getFormatWrapper().getUserCodeObject();
+			format.configure(source.getParameters());
+			try {
+				final BaseStatistics statistics = format.getStatistics(null);
+				if(statistics != null)
+					records = statistics.getNumberOfRecords();
+			} catch (IOException ioe) {
+				logger.debug("No statistics for " + xp.getPathDocuments(), ioe);
+			}
+			context.records.put(xp, records);
+		}
+		return records;
+	}
+	
+	/**
+	 * Creates the operators that group records in hash tables. Flink has no reduce whose records are not sorted, so
+	 * the records are tagged with the bucket of their key, and joined with the list of the buckets in a hash join
+	 * whose inputs are partitioned on the bucket: the records are partitioned without being sorted, and the join
+	 * builds the groups of each task in a hash table, see {@link HashGroupByOperator}. The combiners of Flink sort
+	 * their records, so groups whose aggregations can be merged are rather pre-grouped before shipping by the operator
+	 * that attaches the buckets, once it gets the parameters of the grouping, see {@link HashGroupBucketOperator}.
+	 * 
+	 * @param childPlan
+	 * @param childNRSMD the metadata of the grouped records
+	 * @param keyColumns the grouping columns
+	 * @param name
+	 * @return the join, which still needs the parameters of the grouping
+	 */
+	private static JoinOperator hashGroupBy(Operator<Record>[] childPlan, NestedMetadata childNRSMD, int[] keyColumns,
+			String name) {
+		MapOperator bucket = MapOperator.builder(HashGroupBucketOperator.class)
+				.input(childPlan)
+				.name("GroupBucket")
+				.build();
+		final String encodedNRSMDBucket = DatatypeConverter.printBase64Binary(SerializationUtils.serialize(childNRSMD));
+		bucket.setParameter(PACTOperatorsConfiguration.NRSMD1_BINARY.toString(), encodedNRSMDBucket);
+		setHashKeyParameters(bucket, childNRSMD, keyColumns);
+		bucket.setParameter(PACTOperatorsConfiguration.HASH_BUCKETS_INT.toString(), HASH_BUCKETS);
+		
+		final List<Integer> bucketNumbers = new ArrayList<Integer>(HASH_BUCKETS);
+		for(int i=0; i<HASH_BUCKETS; i++)
+			bucketNumbers.add(i);
+		CollectionDataSource buckets = new CollectionDataSource(bucketNumbers, "Buckets");
+		
+		JoinOperator groupBy = JoinOperator.builder(HashGroupByOperator.class, IntValue.class, childNRSMD.getColNo(), 0)
+				.input1(bucket)
+				.input2(buckets)
+				.name(name)
+				.build();
+		groupBy.setParameter(HINT_SHIP_STRATEGY_FIRST_INPUT, HINT_SHIP_STRATEGY_REPARTITION_HASH);
+		groupBy.setParameter(HINT_SHIP_STRATEGY_SECOND_INPUT, HINT_SHIP_STRATEGY_REPARTITION_HASH);
+		// the records are streamed, the buckets are kept in the hash table of the join
+		groupBy.setParameter(HINT_LOCAL_STRATEGY, HINT_LOCAL_STRATEGY_HASH_BUILD_SECOND);
+		setHashKeyParameters(groupBy, childNRSMD, keyColumns);
+		// the state of the spilled partial records follows the bucket
+		groupBy.setParameter(PACTOperatorsConfiguration.COMBINATION_COLUMN_INT.toString(), childNRSMD.getColNo() + 1);
+		return groupBy;
+	}
+	
+	private static void setHashKeyParameters(Operator<Record> operator, NestedMetadata nrsmd, int[] keyColumns) {
+		final String encodedKeyColumns = DatatypeConverter.printBase64Binary(SerializationUtils.serialize(keyColumns));
+		operator.setParameter(PACTOperatorsConfiguration.HASH_KEY_COLUMNS_BINARY.toString(), encodedKeyColumns);
+		final String encodedKeyTypes = DatatypeConverter.printBase64Binary(SerializationUtils.serialize(nrsmd.getTypes(keyColumns)));
+		operator.setParameter(PACTOperatorsConfiguration.HASH_KEY_TYPES_BINARY.toString(), encodedKeyTypes);
+	}
+	
+	/**
+	 * Sets the aggregations computed by an operator, all of them in the same pass over its input.
+	 * 
+	 * @param operator
+	 * @param aggregationColumns
+	 * @param aggregationColumnTypes the types of the aggregated columns, null if the operator takes them from its input
+	 * metadata
+	 * @param aggregationTypes
+	 */
+	private static void setAggregationParameters(Operator<Record> operator, int[] aggregationColumns,
+			MetadataTypes[] aggregationColumnTypes, AggregationType[] aggregationTypes) {
+		final String encodedAggregationColumns = DatatypeConverter.printBase64Binary(SerializationUtils.serialize(aggregationColumns));
+		operator.setParameter(PACTOperatorsConfiguration.AGGREGATION_COLUMNS_BINARY.toString(), encodedAggregationColumns);
+		if(aggregationColumnTypes != null) {
+			final String encodedAggregationColumnTypes = DatatypeConverter.printBase64Binary(SerializationUtils.serialize(aggregationColumnTypes));
+			operator.setParameter(PACTOperatorsConfiguration.AGGREGATION_COLUMN_TYPES_BINARY.toString(), encodedAggregationColumnTypes);
+		}
+		final String encodedAggregationTypes = DatatypeConverter.printBase64Binary(SerializationUtils.serialize(aggregationTypes));
+		operator.setParameter(PACTOperatorsConfiguration.AGGREGATION_TYPES_BINARY.toString(), encodedAggregationTypes);
+	}
+	
+	/**
+	 * @param lonja
+	 * @return the aggregated columns of the join, in the records of its right input
+	 */
+	private static int[] getRightAggregationColumns(LeftOuterNestedJoinWithAggregation lonja) {
+		final int[] aggregationColumns = new int[lonja.getAggregationColumns().length];
+		for(int i=0; i<aggregationColumns.length; i++)
+			aggregationColumns[i] = lonja.getAggregationColumns()[i] - lonja.getLeft().getNRSMD().getColNo();
+		return aggregationColumns;
+	}
+	
+	private static final Operator<Record>[] translate(DuplicateElimination dupElim, TranslationContext context) {
+		final NestedMetadata childNRSMD = dupElim.getChild().getNRSMD();
+		if(isHashGrouped(childNRSMD, dupElim.getColumns(),
+				getExpectedGroups(dupElim.getExpectedGroups(), dupElim.getChild(), dupElim.getColumns(), context)))
+			return translateHashDuplicateElimination(dupElim, context);
+		
+		Operator<Record>[] childPlan = translate(dupElim.getChild(), context);
 
 		// create ReduceOperator for removing records
 		ReduceOperator.Builder duplicateEliminationBuilder = ReduceOperator.builder(DuplicateEliminationOperator.class)
 			.input(childPlan)
 			.name("DupElim");
 		for(int column: dupElim.getColumns())
-			KeyFactoryOperations.addKey(duplicateEliminationBuilder, MetadataTypesMapping.getKeyClass(dupElim.getChild().getNRSMD().getType(column)), column);
+			KeyFactoryOperations.addKey(duplicateEliminationBuilder, MetadataTypesMapping.getKeyClass(childNRSMD.getType(column)), column);
 		ReduceOperator duplicateElimination = duplicateEliminationBuilder.build();
 		
 		// projection configuration
@@ -335,8 +748,34 @@ public class Logical2Pact {
 		return new Operator[]{duplicateElimination};
 	}
 	
-	private static final Operator<Record>[] translate(Aggregation aggr) {
-		Operator<Record>[] childPlan = translate(aggr.getChild());
+	/**
+	 * Translates a duplicate elimination into a grouping in hash tables that keeps a whole record per group, without
+	 * nested records.
+	 */
+	private static final Operator<Record>[] translateHashDuplicateElimination(DuplicateElimination dupElim, TranslationContext context) {
+		final NestedMetadata childNRSMD = dupElim.getChild().getNRSMD();
+		Operator<Record>[] childPlan = translate(dupElim.getChild(), context);
+		
+		// create the operator for removing records
+		JoinOperator duplicateElimination = hashGroupBy(childPlan, childNRSMD, dupElim.getColumns(), "HashDupElim");
+		
+		// duplicate elimination configuration
+		final String encodedNRSMD = DatatypeConverter.printBase64Binary(SerializationUtils.serialize(dupElim.getNRSMD()));
+		duplicateElimination.setParameter(PACTOperatorsConfiguration.NRSMD1_BINARY.toString(), encodedNRSMD);
+		final int[] columns = new int[childNRSMD.getColNo()];
+		for(int i=0; i<columns.length; i++)
+			columns[i] = i;
+		final String encodedGroupByColumns = DatatypeConverter.printBase64Binary(SerializationUtils.serialize(columns));
+		duplicateElimination.setParameter(PACTOperatorsConfiguration.GROUP_BY_COLUMNS_BINARY.toString(), encodedGroupByColumns);
+		final String encodedNestColumns = DatatypeConverter.printBase64Binary(SerializationUtils.serialize(new int[0]));
+		duplicateElimination.setParameter(PACTOperatorsConfiguration.NEST_COLUMNS_BINARY.toString(), encodedNestColumns);
+		duplicateElimination.setParameter(PACTOperatorsConfiguration.EXCLUDE_NESTED_FIELD_BOOLEAN.toString(), true);
+		
+		return new Operator[]{duplicateElimination};
+	}
+	
+	private static final Operator<Record>[] translate(Aggregation aggr, TranslationContext context) {
+		Operator<Record>[] childPlan = translate(aggr.getChild(), context);
 
 		Operator<Record> aggregation;
 		if(aggr.getAggregationPath().length > 1) {
@@ -362,12 +801,42 @@ public class Logical2Pact {
 			final NestedMetadata auxColumnNRSMD = new NestedMetadata(1,attScanMeta);
 			groupByNRSMD = NestedMetadataUtils.appendNRSMD(groupByNRSMD, auxColumnNRSMD);
 			
-			//Then, we create ReduceOperator for grouping using the document ID column
-			ReduceOperator.Builder groupByBuilder = ReduceOperator.builder(GroupByWithAggregationOperator.class)
-					.input(childPlan)
-					.name("GroupByAgg");
-			KeyFactoryOperations.addKey(groupByBuilder, StringValue.class, aggr.getDocumentIDColumn());
-			ReduceOperator groupBy = groupByBuilder.build();
+			final NestedMetadata childNRSMD = aggr.getChild().getNRSMD();
+			ReduceOperator groupBy;
+			if(aggr.isExcludeNestedField() && context.parallelism > AGGREGATION_BUCKETS) {
+				//Without the nested records, and with more tasks than buckets, the aggregation is computed as a
+				//tree: the records of each task are combined into a partial result, the partial results are merged
+				//in a few buckets, and the post aggregation merges the results of the buckets
+				MapOperator bucket = MapOperator.builder(AggregationBucketOperator.class)
+						.input(childPlan)
+						.name("AggrBucket")
+						.build();
+				final String encodedNRSMDBucket = DatatypeConverter.printBase64Binary(SerializationUtils.serialize(childNRSMD));
+				bucket.setParameter(PACTOperatorsConfiguration.NRSMD1_BINARY.toString(), encodedNRSMDBucket);
+				bucket.setParameter(PACTOperatorsConfiguration.AGGREGATION_BUCKETS_INT.toString(), AGGREGATION_BUCKETS);
+				
+				ReduceOperator.Builder groupByBuilder = ReduceOperator.builder(CombinableGroupByWithAggregationOperator.class)
+						.input(bucket)
+						.name("PartialAggr");
+				KeyFactoryOperations.addKey(groupByBuilder, IntValue.class, childNRSMD.getColNo());
+				groupBy = groupByBuilder.build();
+				
+				groupBy.setParameter(PACTOperatorsConfiguration.COMBINATION_COLUMN_INT.toString(), childNRSMD.getColNo() + 1);
+			}
+			else {
+				//Then, we create ReduceOperator for grouping using the document ID column; without the nested
+				//records, the aggregation is combined before shipping, and the post aggregation combines the
+				//partial results of each task
+				ReduceOperator.Builder groupByBuilder = ReduceOperator.builder(aggr.isExcludeNestedField() ?
+							CombinableGroupByWithAggregationOperator.class : GroupByWithAggregationOperator.class)
+						.input(childPlan)
+						.name("GroupByAgg");
+				KeyFactoryOperations.addKey(groupByBuilder, StringValue.class, aggr.getDocumentIDColumn());
+				groupBy = groupByBuilder.build();
+				
+				if(aggr.isExcludeNestedField())
+					groupBy.setParameter(PACTOperatorsConfiguration.COMBINATION_COLUMN_INT.toString(), childNRSMD.getColNo());
+			}
 			
 			// groupBy configuration
 			final String encodedNRSMDGroupBy = DatatypeConverter.printBase64Binary(SerializationUtils.serialize(groupByNRSMD));
@@ -376,17 +845,15 @@ public class Logical2Pact {
 			final String encodedGroupByColumns = DatatypeConverter.printBase64Binary(SerializationUtils.serialize(new int[]{}));
 			groupBy.setParameter(PACTOperatorsConfiguration.GROUP_BY_COLUMNS_BINARY.toString(), encodedGroupByColumns);
 
-			final NestedMetadata childNRSMD = aggr.getChild().getNRSMD();
 			int[] nestColumns = new int[childNRSMD.getColNo()];
 			for(int i=0; i<childNRSMD.getColNo(); i++)
 				nestColumns[i] = i;
 			final String encodedNestColumns = DatatypeConverter.printBase64Binary(SerializationUtils.serialize(nestColumns));
 			groupBy.setParameter(PACTOperatorsConfiguration.NEST_COLUMNS_BINARY.toString(), encodedNestColumns);
 			
-			groupBy.setParameter(PACTOperatorsConfiguration.AGGREGATION_COLUMN_INT.toString(), aggr.getAggregationPath()[0]);
-
-			final String encodedAggregationType = DatatypeConverter.printBase64Binary(SerializationUtils.serialize(aggr.getAggregationType()));
-			groupBy.setParameter(PACTOperatorsConfiguration.AGGREGATION_TYPE_BINARY.toString(), encodedAggregationType);
+			setAggregationParameters(groupBy, new int[]{aggr.getAggregationPath()[0]},
+					new MetadataTypes[]{childNRSMD.getType(aggr.getAggregationPath()[0])},
+					new AggregationType[]{aggr.getAggregationType()});
 			
 			groupBy.setParameter(PACTOperatorsConfiguration.EXCLUDE_NESTED_FIELD_BOOLEAN.toString(), aggr.isExcludeNestedField());
 			
@@ -394,7 +861,8 @@ public class Logical2Pact {
 			
 			
 			// create ReduceOperator for aggregating
-			ReduceOperator.Builder aggregationBuilder = ReduceOperator.builder(PostAggregationOperator.class)
+			ReduceOperator.Builder aggregationBuilder = ReduceOperator.builder(aggr.isExcludeNestedField() ?
+						CombinablePostAggregationOperator.class : PostAggregationOperator.class)
 				.input(groupBy)
 				.name("PostAggr");
 			KeyFactoryOperations.addKey(aggregationBuilder, IntValue.class, groupByNRSMD.colNo-1);
@@ -410,6 +878,7 @@ public class Logical2Pact {
 				aggregation.setParameter(PACTOperatorsConfiguration.POST_AGGREGATION_COLUMN_INT.toString(), 1);
 			}
 			
+			final String encodedAggregationType = DatatypeConverter.printBase64Binary(SerializationUtils.serialize(aggr.getAggregationType()));
 			aggregation.setParameter(PACTOperatorsConfiguration.AGGREGATION_TYPE_BINARY.toString(), encodedAggregationType);
 			
 			aggregation.setParameter(PACTOperatorsConfiguration.EXCLUDE_NESTED_FIELD_BOOLEAN.toString(), aggr.isExcludeNestedField());
@@ -418,9 +887,9 @@ public class Logical2Pact {
 		return new Operator[]{aggregation};
 	}
 	
-	private static final Operator<Record>[] translate(CartesianProduct cp) {
-		Operator<Record>[] childPlan1 = translate(cp.getLeft());
-		Operator<Record>[] childPlan2 = translate(cp.getRight());
+	private static final Operator<Record>[] translate(CartesianProduct cp, TranslationContext context) {
+		Operator<Record>[] childPlan1 = translate(cp.getLeft(), context);
+		Operator<Record>[] childPlan2 = translate(cp.getRight(), context);
 
 		// create CrossOperator for cartesian product
 		CrossOperator cartesianProduct = CrossOperator.builder(CartesianProductOperator.class)
@@ -438,9 +907,9 @@ public class Logical2Pact {
 		return new Operator[]{cartesianProduct};
 	}
 	
-	private static final Operator<Record>[] translate(Join j) {
-		Operator<Record>[] childPlan1 = translate(j.getLeft());
-		Operator<Record>[] childPlan2 = translate(j.getRight());
+	private static final Operator<Record>[] translate(Join j, TranslationContext context) {
+		Operator<Record>[] childPlan1 = translate(j.getLeft(), context);
+		Operator<Record>[] childPlan2 = translate(j.getRight(), context);
 
 		Operator<Record>[] join;
 		
@@ -534,9 +1003,9 @@ public class Logical2Pact {
 		return join;
 	}
 	
-	private static final Operator<Record>[] translate(LeftOuterJoin loj) {
-		Operator<Record>[] childPlan1 = translate(loj.getLeft());
-		Operator<Record>[] childPlan2 = translate(loj.getRight());
+	private static final Operator<Record>[] translate(LeftOuterJoin loj, TranslationContext context) {
+		Operator<Record>[] childPlan1 = translate(loj.getLeft(), context);
+		Operator<Record>[] childPlan2 = translate(loj.getRight(), context);
 
 		Operator<Record>[] conjLeftOuterJoin;
 		
@@ -681,11 +1150,11 @@ public class Logical2Pact {
 		return conjLeftOuterJoin;
 	}
 	
-	private static final Operator<Record>[] translate(LeftOuterNestedJoin lonj) {
+	private static final Operator<Record>[] translate(LeftOuterNestedJoin lonj, TranslationContext context) {
 		final boolean withAggregation = lonj instanceof LeftOuterNestedJoinWithAggregation;
 
-		Operator<Record>[] childPlan1 = translate(lonj.getLeft());
-		Operator<Record>[] childPlan2 = translate(lonj.getRight());
+		Operator<Record>[] childPlan1 = translate(lonj.getLeft(), context);
+		Operator<Record>[] childPlan2 = translate(lonj.getRight(), context);
 		
 		Operator<Record>[] conjLeftOuterNestedJoin;
 
@@ -715,10 +1184,7 @@ public class Logical2Pact {
 			if(withAggregation) {
 				LeftOuterNestedJoinWithAggregation lonja = (LeftOuterNestedJoinWithAggregation) lonj;
 				
-				thetaJoin.setParameter(PACTOperatorsConfiguration.AGGREGATION_COLUMN_INT.toString(), lonja.getAggregationColumn()-lonja.getLeft().getNRSMD().getColNo());
-
-				final String encodedAggregationType = DatatypeConverter.printBase64Binary(SerializationUtils.serialize(lonja.getAggregationType()));
-				thetaJoin.setParameter(PACTOperatorsConfiguration.AGGREGATION_TYPE_BINARY.toString(), encodedAggregationType);
+				setAggregationParameters(thetaJoin, getRightAggregationColumns(lonja), null, lonja.getAggregationTypes());
 			
 				thetaJoin.setParameter(PACTOperatorsConfiguration.EXCLUDE_NESTED_FIELD_BOOLEAN.toString(), lonja.isExcludeNestedField());
 			}
@@ -761,8 +1227,8 @@ public class Logical2Pact {
 					postJoin.setParameter(PACTOperatorsConfiguration.COMBINATION_COLUMN_INT.toString(), lonj.getLeft().getNRSMD().getColNo()+2);
 				}
 
-				final String encodedAggregationType = DatatypeConverter.printBase64Binary(SerializationUtils.serialize(lonja.getAggregationType()));
-				postJoin.setParameter(PACTOperatorsConfiguration.AGGREGATION_TYPE_BINARY.toString(), encodedAggregationType);
+				final String encodedAggregationTypes = DatatypeConverter.printBase64Binary(SerializationUtils.serialize(lonja.getAggregationTypes()));
+				postJoin.setParameter(PACTOperatorsConfiguration.AGGREGATION_TYPES_BINARY.toString(), encodedAggregationTypes);
 				
 				postJoin.setParameter(PACTOperatorsConfiguration.EXCLUDE_NESTED_FIELD_BOOLEAN.toString(), lonja.isExcludeNestedField());
 			}
@@ -825,10 +1291,7 @@ public class Logical2Pact {
 				if(withAggregation) {
 					LeftOuterNestedJoinWithAggregation lonja = (LeftOuterNestedJoinWithAggregation) lonj;
 					
-					disjJoin[i].setParameter(PACTOperatorsConfiguration.AGGREGATION_COLUMN_INT.toString(), lonja.getAggregationColumn()-lonja.getLeft().getNRSMD().getColNo());
-
-					final String encodedAggregationType = DatatypeConverter.printBase64Binary(SerializationUtils.serialize(lonja.getAggregationType()));
-					disjJoin[i].setParameter(PACTOperatorsConfiguration.AGGREGATION_TYPE_BINARY.toString(), encodedAggregationType);
+					setAggregationParameters(disjJoin[i], getRightAggregationColumns(lonja), null, lonja.getAggregationTypes());
 					
 					disjJoin[i].setParameter(PACTOperatorsConfiguration.EXCLUDE_NESTED_FIELD_BOOLEAN.toString(), lonja.isExcludeNestedField());
 				}
@@ -873,8 +1336,8 @@ public class Logical2Pact {
 					postJoin.setParameter(PACTOperatorsConfiguration.COMBINATION_COLUMN_INT.toString(), lonj.getLeft().getNRSMD().getColNo()+2);
 				}
 
-				final String encodedAggregationType = DatatypeConverter.printBase64Binary(SerializationUtils.serialize(lonja.getAggregationType()));
-				postJoin.setParameter(PACTOperatorsConfiguration.AGGREGATION_TYPE_BINARY.toString(), encodedAggregationType);
+				final String encodedAggregationTypes = DatatypeConverter.printBase64Binary(SerializationUtils.serialize(lonja.getAggregationTypes()));
+				postJoin.setParameter(PACTOperatorsConfiguration.AGGREGATION_TYPES_BINARY.toString(), encodedAggregationTypes);
 				
 				postJoin.setParameter(PACTOperatorsConfiguration.EXCLUDE_NESTED_FIELD_BOOLEAN.toString(), lonja.isExcludeNestedField());
 			}
@@ -914,10 +1377,7 @@ public class Logical2Pact {
 			if(withAggregation) {
 				LeftOuterNestedJoinWithAggregation lonja = (LeftOuterNestedJoinWithAggregation) lonj;
 				
-				conjLeftOuterNestedJoin[0].setParameter(PACTOperatorsConfiguration.AGGREGATION_COLUMN_INT.toString(), lonja.getAggregationColumn()-lonja.getLeft().getNRSMD().getColNo());
-
-				final String encodedAggregationType = DatatypeConverter.printBase64Binary(SerializationUtils.serialize(lonja.getAggregationType()));
-				conjLeftOuterNestedJoin[0].setParameter(PACTOperatorsConfiguration.AGGREGATION_TYPE_BINARY.toString(), encodedAggregationType);
+				setAggregationParameters(conjLeftOuterNestedJoin[0], getRightAggregationColumns(lonja), null, lonja.getAggregationTypes());
 				
 				conjLeftOuterNestedJoin[0].setParameter(PACTOperatorsConfiguration.EXCLUDE_NESTED_FIELD_BOOLEAN.toString(), lonja.isExcludeNestedField());
 			}
@@ -925,5 +1385,38 @@ public class Logical2Pact {
 			
 		return conjLeftOuterNestedJoin;
 	}
+	
+	/**
+	 * State of the translation of a plan: the scans that read the same documents as other scans
+	 * of the plan, with the data source they share and their position in it (found by shareScans),
+	 * the statistics of the scans and of their columns, and the degree of parallelism of the plan.
+	 */
+	private static final class TranslationContext {
+		
+		private final Map<XMLScan, FileDataSource> sources = new IdentityHashMap<XMLScan, FileDataSource>();
+		
+		private final Map<XMLScan, Integer> positions = new IdentityHashMap<XMLScan, Integer>();
+		
+		/**
+		 * The estimated number of records of the scans, -1 if it is not known.
+		 */
+		private final Map<XMLScan, Long> records = new IdentityHashMap<XMLScan, Long>();
+		
+		/**
+		 * The estimated number of distinct values of columns of the scans, by columns; -1 if it is not known.
+		 */
+		private final Map<XMLScan, Map<String, Long>> values = new IdentityHashMap<XMLScan, Map<String, Long>>();
+		
+		/**
+		 * The default degree of parallelism, or -1 if it is not known.
+		 */
+		private final int parallelism;
+		
+		
+		TranslationContext(int parallelism) {
+			this.parallelism = parallelism;
+		}
+		
+	}
 
 }
@@ -1,7 +1,7 @@
 lexer grammar XLexer;
 
 /* Terminals */
-AGGR_FUNCT : 'count' | 'avg' | 'max' | 'min' | 'sum' ;
+AGGR_FUNCT : 'count' | 'avg' | 'max' | 'min' | 'sum' | 'approx-count-distinct' | 'approx-median' ;
 TEXTFUNCTION : 'text()' ;
 SLASH : '/' ;
 SLASHSLASH : '//' ;
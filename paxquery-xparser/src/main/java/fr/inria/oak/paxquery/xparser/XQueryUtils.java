@@ -107,7 +107,7 @@ public class XQueryUtils {
 	}
 	
 	/**
-	 * Parses a string into its corresponding AggregationType. The following strings are accepted as input: "count", "max", "min", "sum". Any other string will be parsed as "count".
+	 * Parses a string into its corresponding AggregationType. The following strings are accepted as input: "count", "max", "min", "sum", "approx-count-distinct", "approx-median". Any other string will be parsed as "count".
 	 * @param string the string to parse
 	 * @return the corresponding AggregationType
 	 */
@@ -121,6 +121,10 @@ public class XQueryUtils {
 			return AggregationType.MIN;
 		case "sum":
 			return AggregationType.SUM;
+		case "approx-count-distinct":
+			return AggregationType.APPROX_COUNT_DISTINCT;
+		case "approx-median":
+			return AggregationType.APPROX_MEDIAN;
 		default:
 			return AggregationType.COUNT;	//return COUNT if any other function			
 		}
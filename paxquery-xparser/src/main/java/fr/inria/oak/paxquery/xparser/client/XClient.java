@@ -90,8 +90,7 @@ public class XClient implements Program, ProgramDescription {
     // create the PACT plan
     try {
       System.out.println("Translating algebraic plan to PACT plan.");
-      plan = Logical2Pact.planTranslate(logPlan);
-      plan.setDefaultParallelism(noSubtasks);
+      plan = Logical2Pact.planTranslate(logPlan, noSubtasks);
       // System.out.println("Plans finished.");
 
       if (drawTrees) {
@@ -0,0 +1,71 @@
+/*******************************************************************************
+ * Copyright (C) 2013, 2014, 2015 by Inria and Paris-Sud University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package fr.inria.oak.paxquery.xparser.client;
+
+import org.apache.flink.api.common.Plan;
+import org.apache.flink.api.common.Program;
+import org.apache.flink.api.common.ProgramDescription;
+import org.apache.flink.api.java.record.io.CsvOutputFormat;
+import org.apache.flink.api.java.record.operators.FileDataSink;
+import org.apache.flink.api.java.record.operators.FileDataSource;
+import org.apache.flink.types.IntValue;
+import org.apache.flink.types.StringValue;
+
+import fr.inria.oak.paxquery.pact.io.BinaryXmlWriter;
+import fr.inria.oak.paxquery.pact.io.XmlBinConversionInputFormat;
+
+/**
+ * Job that converts a collection of XML documents into the binary format, once, so that the
+ * queries over the collection do not parse it again. The converted files are written in the
+ * output directory; queries read them when the path of the collection ends with
+ * {@link BinaryXmlWriter#EXTENSION}, thus the directory should be named accordingly. A report
+ * with one line per document is written in the directory, under a name that input formats ignore.
+ */
+public class XConvert implements Program, ProgramDescription {
+
+  private static final long serialVersionUID = -2944637412961342617L;
+
+  private static final String REPORT_NAME = "_conversion";
+
+  @Override
+  public String getDescription() {
+    return "Parameters: file://[documents] file://[outputdirectory" + BinaryXmlWriter.EXTENSION
+            + "] <numbersubtasks>";
+  }
+
+  @Override
+  public Plan getPlan(String... args) {
+    // parse program parameters
+    final String documents = (args.length > 0 ? args[0] : "");
+    final String outputDirectory = (args.length > 1 ? args[1] : "");
+    final int noSubtasks = (args.length > 2 ? Integer.parseInt(args[2]) : -1);
+
+    FileDataSource conversion = new FileDataSource(XmlBinConversionInputFormat.class, documents,
+            "Convert XML");
+    XmlBinConversionInputFormat.configureXmlBinConversionInputFormat(conversion).setOutputDirectory(
+            outputDirectory);
+
+    FileDataSink report = new FileDataSink(CsvOutputFormat.class, outputDirectory + "/"
+            + REPORT_NAME, conversion, "Conversion report");
+    CsvOutputFormat.configureRecordFormat(report).recordDelimiter('\n').fieldDelimiter('|')
+            .field(StringValue.class, 0).field(StringValue.class, 1).field(IntValue.class, 2);
+
+    Plan plan = new Plan(report, "XML conversion");
+    plan.setDefaultParallelism(noSubtasks);
+    return plan;
+  }
+
+}
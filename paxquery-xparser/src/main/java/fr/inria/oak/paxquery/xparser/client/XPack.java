@@ -0,0 +1,76 @@
+/*******************************************************************************
+ * Copyright (C) 2013, 2014, 2015 by Inria and Paris-Sud University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package fr.inria.oak.paxquery.xparser.client;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import org.apache.flink.core.fs.FileStatus;
+import org.apache.flink.core.fs.FileSystem;
+import org.apache.flink.core.fs.Path;
+
+import fr.inria.oak.paxquery.pact.io.XmlDocumentPacker;
+
+/**
+ * Tool that packs a collection of small XML documents into a container, which queries read
+ * document by document when its path ends with {@link XmlDocumentPacker#EXTENSION}. Hidden
+ * files, whose name starts with '.' or '_', are not packed.
+ */
+public class XPack {
+
+  public static void main(String[] args) throws IOException {
+    if (args.length < 2) {
+      System.err.println("Parameters: file://[documents] file://[container"
+              + XmlDocumentPacker.EXTENSION + "]");
+      System.exit(1);
+    }
+    final Path documents = new Path(args[0]);
+    final Path container = new Path(args[1]);
+
+    final FileSystem fs = documents.getFileSystem();
+    final List<Path> paths = new ArrayList<Path>();
+    final FileStatus status = fs.getFileStatus(documents);
+    if (status.isDir()) {
+      for (FileStatus file : fs.listStatus(documents)) {
+        final String name = file.getPath().getName();
+        if (!file.isDir() && !name.startsWith(".") && !name.startsWith("_"))
+          paths.add(file.getPath());
+      }
+      Collections.sort(paths, new Comparator<Path>() {
+        @Override
+        public int compare(Path p1, Path p2) {
+          return p1.toString().compareTo(p2.toString());
+        }
+      });
+    } else {
+      paths.add(documents);
+    }
+
+    final OutputStream out = container.getFileSystem().create(container, true);
+    try {
+      final long bytes = XmlDocumentPacker.pack(paths, out);
+      System.out.println("Packed " + paths.size() + " documents into " + container + " (" + bytes
+              + " bytes)");
+    } finally {
+      out.close();
+    }
+  }
+
+}
@@ -0,0 +1,116 @@
+/*******************************************************************************
+ * Copyright (C) 2013, 2014, 2015 by Inria and Paris-Sud University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package fr.inria.oak.paxquery.xparser.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.flink.api.common.Plan;
+import org.apache.flink.api.common.operators.Operator;
+import org.apache.flink.util.Visitor;
+import org.junit.Test;
+
+import fr.inria.oak.paxquery.algebra.logicalplan.LogicalPlan;
+import fr.inria.oak.paxquery.algebra.operators.border.XMLConstruct;
+import fr.inria.oak.paxquery.algebra.operators.border.XMLScan;
+import fr.inria.oak.paxquery.algebra.operators.unary.Aggregation;
+import fr.inria.oak.paxquery.common.aggregation.AggregationType;
+import fr.inria.oak.paxquery.common.xml.construction.ApplyConstruct;
+import fr.inria.oak.paxquery.common.xml.navigation.NavigationTreePatternUtils;
+import fr.inria.oak.paxquery.translation.Logical2Pact;
+
+/**
+ * Checks the operators that a top-level aggregation is translated into, depending on the
+ * degree of parallelism of the plan.
+ */
+public class TestAggregationPlan {
+
+	/**
+	 * @return the plan of count(//item), over the values of the items of each document
+	 */
+	private static LogicalPlan countPlan(boolean excludeNestedField) {
+		final XMLScan scan = new XMLScan(true, NavigationTreePatternUtils.getTreePatternFromString(
+				" \nE: 1 [Tag=\"item\"] Val\n;\n", "items"), "file:///tmp/paxquery-items");
+		final Aggregation aggregation = new Aggregation(scan, new int[]{1}, AggregationType.COUNT, 0, excludeNestedField);
+		final int countColumn = aggregation.getNRSMD().getColNo() - 1;
+		final XMLConstruct construct = new XMLConstruct(aggregation,
+				new ApplyConstruct("<count>", new String[]{"", ""}, "</count>", new int[]{countColumn}, new ApplyConstruct[]{null}),
+				"file:///tmp/paxquery-count");
+		final LogicalPlan plan = new LogicalPlan();
+		plan.setRoot(construct);
+		return plan;
+	}
+
+	private static List<String> operatorNames(Plan plan) {
+		final List<String> names = new ArrayList<String>();
+		plan.accept(new Visitor<Operator<?>>() {
+			@Override
+			public boolean preVisit(Operator<?> visitable) {
+				names.add(visitable.getName());
+				return true;
+			}
+
+			@Override
+			public void postVisit(Operator<?> visitable) {
+			}
+		});
+		return names;
+	}
+
+	private static List<String> operatorNames(boolean excludeNestedField, int parallelism) {
+		final Plan plan = Logical2Pact.planTranslate(countPlan(excludeNestedField), parallelism);
+		if(parallelism > 0)
+			assertEquals(parallelism, plan.getDefaultParallelism());
+		return operatorNames(plan);
+	}
+
+	@Test
+	public void testFewTasks() {
+		for(int parallelism : new int[]{-1, 1, 4, 16}) {
+			final List<String> names = operatorNames(true, parallelism);
+			assertTrue(names.toString(), names.contains("GroupByAgg"));
+			assertTrue(names.toString(), names.contains("PostAggr"));
+			assertFalse(names.toString(), names.contains("AggrBucket"));
+			assertFalse(names.toString(), names.contains("PartialAggr"));
+		}
+	}
+
+	@Test
+	public void testManyTasks() {
+		for(int parallelism : new int[]{17, 64}) {
+			final List<String> names = operatorNames(true, parallelism);
+			assertTrue(names.toString(), names.contains("AggrBucket"));
+			assertTrue(names.toString(), names.contains("PartialAggr"));
+			assertTrue(names.toString(), names.contains("PostAggr"));
+			assertFalse(names.toString(), names.contains("GroupByAgg"));
+		}
+	}
+
+	/**
+	 * The nested records are all needed by the final record, so they are always grouped by document.
+	 */
+	@Test
+	public void testNestedFieldKept() {
+		final List<String> names = operatorNames(false, 64);
+		assertTrue(names.toString(), names.contains("GroupByAgg"));
+		assertFalse(names.toString(), names.contains("AggrBucket"));
+	}
+
+}
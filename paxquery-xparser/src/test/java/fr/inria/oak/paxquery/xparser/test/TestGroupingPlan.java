@@ -0,0 +1,282 @@
+/*******************************************************************************
+ * Copyright (C) 2013, 2014, 2015 by Inria and Paris-Sud University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package fr.inria.oak.paxquery.xparser.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.flink.api.common.Plan;
+import org.apache.flink.api.common.operators.Operator;
+import org.apache.flink.client.LocalExecutor;
+import org.apache.flink.util.Visitor;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import fr.inria.oak.paxquery.algebra.logicalplan.LogicalPlan;
+import fr.inria.oak.paxquery.algebra.operators.BaseLogicalOperator;
+import fr.inria.oak.paxquery.algebra.operators.border.XMLConstruct;
+import fr.inria.oak.paxquery.algebra.operators.border.XMLScan;
+import fr.inria.oak.paxquery.algebra.operators.unary.GroupBy;
+import fr.inria.oak.paxquery.algebra.operators.unary.GroupByWithAggregation;
+import fr.inria.oak.paxquery.common.aggregation.AggregationType;
+import fr.inria.oak.paxquery.common.xml.construction.ApplyConstruct;
+import fr.inria.oak.paxquery.common.xml.navigation.NavigationTreePatternUtils;
+import fr.inria.oak.paxquery.translation.Logical2Pact;
+
+/**
+ * Checks when a grouping is translated into a grouping in hash tables rather than a sort, and
+ * that both give the same groups.
+ */
+public class TestGroupingPlan {
+
+	private static final int PARALLELISM = 2;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	/**
+	 * @return a document with items of a few categories
+	 */
+	private String writeDocument(int items) throws Exception {
+		final StringBuilder document = new StringBuilder("<site>");
+		for(int i = 0; i < items; i++)
+			document.append("<item><category>c").append(i % 7).append("</category><name>n").append(i).append("</name></item>");
+		document.append("</site>");
+		final File directory = this.folder.newFolder("documents");
+		Files.write(new File(directory, "items.xml").toPath(), document.toString().getBytes(Charset.forName("UTF-8")));
+		return directory.toURI().toString();
+	}
+
+	/**
+	 * @return a scan of the [document ID, category, name] of the items
+	 */
+	private static XMLScan scan(String path) {
+		return new XMLScan(true, NavigationTreePatternUtils.getTreePatternFromString(
+				" \nE: 1 [Tag=\"item\"]\nE: 2 [Tag=\"category\"] Val\nE: 3 [Tag=\"name\"] Val\n;\n1,2 / j\n1,3 / j\n", "items"), path);
+	}
+
+	/**
+	 * @return the items grouped on their category, with their names nested and counted
+	 */
+	private static GroupByWithAggregation groupBy(String path, boolean excludeNestedField) {
+		return new GroupByWithAggregation(scan(path), new int[]{1}, new int[]{1}, new int[]{2},
+				new int[]{2}, new AggregationType[]{AggregationType.COUNT}, excludeNestedField);
+	}
+
+	private static LogicalPlan plan(BaseLogicalOperator root, ApplyConstruct construct, String output) {
+		final LogicalPlan plan = new LogicalPlan();
+		plan.setRoot(new XMLConstruct(root, construct, output));
+		return plan;
+	}
+
+	/**
+	 * @return the plan that outputs a category, its names and their count per group, or the category and the count
+	 * without the nested names
+	 */
+	private static LogicalPlan plan(GroupByWithAggregation groupBy, String output) {
+		if(groupBy.isExcludeNestedField())
+			return plan(groupBy, new ApplyConstruct("", new String[]{"<group>", "", "</group>"}, "", new int[]{0, 1},
+					new ApplyConstruct[0]), output);
+		final ApplyConstruct names = new ApplyConstruct("", new String[]{"<name>", "</name>"}, "", new int[]{0},
+				new ApplyConstruct[0]);
+		return plan(groupBy, new ApplyConstruct("", new String[]{"<group>", "", "", "</group>"}, "", new int[]{0, 1, 2},
+				new ApplyConstruct[]{names}), output);
+	}
+
+	private static List<String> operatorNames(LogicalPlan logicalPlan) {
+		final List<String> names = new ArrayList<String>();
+		Logical2Pact.planTranslate(logicalPlan, PARALLELISM).accept(new Visitor<Operator<?>>() {
+			@Override
+			public boolean preVisit(Operator<?> visitable) {
+				names.add(visitable.getName());
+				return true;
+			}
+
+			@Override
+			public void postVisit(Operator<?> visitable) {
+			}
+		});
+		return names;
+	}
+
+	private static void assertSorted(List<String> names) {
+		assertTrue(names.toString(), names.contains("GroupByAgg"));
+		assertFalse(names.toString(), names.contains("HashGroupByAgg"));
+		assertFalse(names.toString(), names.contains("GroupBucket"));
+	}
+
+	private static void assertHashed(List<String> names, String name) {
+		assertTrue(names.toString(), names.contains(name));
+		assertTrue(names.toString(), names.contains("GroupBucket"));
+		assertTrue(names.toString(), names.contains("Buckets"));
+	}
+
+	/**
+	 * Without statistics nor hint, the records are sorted.
+	 */
+	@Test
+	public void testSortByDefault() {
+		assertSorted(operatorNames(plan(groupBy("file:///tmp/paxquery-missing", false), "file:///tmp/paxquery-groups")));
+	}
+
+	@Test
+	public void testHint() {
+		final GroupByWithAggregation few = groupBy("file:///tmp/paxquery-missing", false);
+		few.setExpectedGroups(10);
+		assertHashed(operatorNames(plan(few, "file:///tmp/paxquery-groups")), "HashGroupByAgg");
+
+		final GroupByWithAggregation many = groupBy("file:///tmp/paxquery-missing", false);
+		many.setExpectedGroups(10000000);
+		assertSorted(operatorNames(plan(many, "file:///tmp/paxquery-groups")));
+	}
+
+	/**
+	 * Groups without their nested records are also grouped in hash tables, being pre-grouped before shipping.
+	 */
+	@Test
+	public void testCombinable() {
+		final GroupByWithAggregation few = groupBy("file:///tmp/paxquery-missing", true);
+		few.setExpectedGroups(10);
+		assertHashed(operatorNames(plan(few, "file:///tmp/paxquery-groups")), "HashGroupByAgg");
+
+		final GroupByWithAggregation many = groupBy("file:///tmp/paxquery-missing", true);
+		many.setExpectedGroups(10000000);
+		assertSorted(operatorNames(plan(many, "file:///tmp/paxquery-groups")));
+	}
+
+	/**
+	 * Without hint, the number of groups is estimated from the distinct values of the grouping
+	 * columns in a sample of the documents, whose records are too many to bound it.
+	 */
+	@Test
+	public void testDistinctValues() throws Exception {
+		final String path = this.writeDocument(70000);
+		assertHashed(operatorNames(plan(groupBy(path, false), "file:///tmp/paxquery-groups")), "HashGroupByAgg");
+		assertHashed(operatorNames(plan(groupBy(path, true), "file:///tmp/paxquery-groups")), "HashGroupByAgg");
+
+		// grouped on the names, which are all different
+		final GroupByWithAggregation names = new GroupByWithAggregation(scan(path), new int[]{2}, new int[]{2}, new int[]{1},
+				new int[]{1}, new AggregationType[]{AggregationType.COUNT}, false);
+		assertSorted(operatorNames(plan(names, "file:///tmp/paxquery-groups")));
+	}
+
+	/**
+	 * The statistics of a small document bound the number of groups.
+	 */
+	@Test
+	public void testStatistics() throws Exception {
+		final String path = this.writeDocument(100);
+		assertHashed(operatorNames(plan(groupBy(path, false), "file:///tmp/paxquery-groups")), "HashGroupByAgg");
+	}
+
+	/**
+	 * Nested columns cannot be sorted on, whatever the number of groups.
+	 */
+	@Test
+	public void testNestedKey() {
+		final GroupBy names = new GroupBy(scan("file:///tmp/paxquery-missing"), new int[]{1}, new int[]{1}, new int[]{2});
+		final GroupBy categories = new GroupBy(names, new int[]{1}, new int[]{1}, new int[]{0});
+		final List<String> operators = operatorNames(plan(categories,
+				new ApplyConstruct("", new String[]{"<group>", "</group>"}, "", new int[]{0}, new ApplyConstruct[]{
+					new ApplyConstruct("", new String[]{"<name>", "</name>"}, "", new int[]{0}, new ApplyConstruct[0])}),
+				"file:///tmp/paxquery-groups"));
+		assertHashed(operators, "HashGroupBy");
+		assertTrue(operators.toString(), operators.contains("GroupBy"));
+	}
+
+	private List<String> execute(LogicalPlan logicalPlan, String name) throws Exception {
+		final File output = new File(this.folder.getRoot(), name);
+		final Plan plan = Logical2Pact.planTranslate(logicalPlan, PARALLELISM);
+		final LocalExecutor executor = new LocalExecutor();
+		executor.setTaskManagerNumSlots(PARALLELISM);
+		executor.start();
+		try {
+			executor.executePlan(plan);
+		} finally {
+			executor.stop();
+		}
+
+		final List<String> groups = new ArrayList<String>();
+		final File[] files = output.isDirectory() ? output.listFiles() : new File[]{output};
+		for(File file : files) {
+			final String content = new String(Files.readAllBytes(file.toPath()), Charset.forName("UTF-8"));
+			for(String group : content.split("</group>")) {
+				if(group.trim().isEmpty())
+					continue;
+				// the names of a group come in no particular order
+				final String[] parts = group.trim().split("<name>|</name>");
+				final List<String> names = new ArrayList<String>();
+				for(int i = 1; i < parts.length; i += 2)
+					names.add(parts[i]);
+				Collections.sort(names);
+				groups.add(parts[0] + names + parts[parts.length - 1]);
+			}
+		}
+		Collections.sort(groups);
+		return groups;
+	}
+
+	/**
+	 * Runs the grouping with and without the hint, and compares the groups.
+	 */
+	@Test
+	public void testSameGroups() throws Exception {
+		final String path = this.writeDocument(500);
+		final GroupByWithAggregation hashed = groupBy(path, false);
+		hashed.setExpectedGroups(7);
+		final LogicalPlan hashedPlan = plan(hashed, new File(this.folder.getRoot(), "hashed").toURI().toString());
+		assertHashed(operatorNames(hashedPlan), "HashGroupByAgg");
+		final GroupByWithAggregation sorted = groupBy(path, false);
+		sorted.setExpectedGroups(10000000);
+		final LogicalPlan sortedPlan = plan(sorted, new File(this.folder.getRoot(), "sorted").toURI().toString());
+		assertSorted(operatorNames(sortedPlan));
+
+		final List<String> expected = this.execute(sortedPlan, "sorted");
+		assertEquals(7, expected.size());
+		assertEquals(expected, this.execute(hashedPlan, "hashed"));
+	}
+
+	/**
+	 * Runs the grouping without nested records, pre-grouped in hash tables or combined after
+	 * sorting, and compares the groups.
+	 */
+	@Test
+	public void testSameCombinedGroups() throws Exception {
+		final String path = this.writeDocument(500);
+		final GroupByWithAggregation hashed = groupBy(path, true);
+		hashed.setExpectedGroups(7);
+		final LogicalPlan hashedPlan = plan(hashed, new File(this.folder.getRoot(), "hashed").toURI().toString());
+		assertHashed(operatorNames(hashedPlan), "HashGroupByAgg");
+		final GroupByWithAggregation sorted = groupBy(path, true);
+		sorted.setExpectedGroups(10000000);
+		final LogicalPlan sortedPlan = plan(sorted, new File(this.folder.getRoot(), "sorted").toURI().toString());
+		assertSorted(operatorNames(sortedPlan));
+
+		final List<String> expected = this.execute(sortedPlan, "sorted");
+		assertEquals(7, expected.size());
+		assertEquals(expected, this.execute(hashedPlan, "hashed"));
+	}
+
+}